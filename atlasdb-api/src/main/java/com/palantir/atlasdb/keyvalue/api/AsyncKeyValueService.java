@@ -18,9 +18,11 @@ package com.palantir.atlasdb.keyvalue.api;
 
 import java.util.Map;
 
+import com.google.common.collect.Multimap;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.palantir.atlasdb.metrics.Timed;
 import com.palantir.common.annotation.Idempotent;
+import com.palantir.util.paging.TokenBackedBasicResultsPage;
 
 public interface AsyncKeyValueService extends AutoCloseable {
     /**
@@ -37,6 +39,83 @@ public interface AsyncKeyValueService extends AutoCloseable {
     @Timed
     ListenableFuture<Map<Cell, Value>> getAsync(TableReference tableRef, Map<Cell, Long> timestampByCell);
 
+    /**
+     * Asynchronous version of {@link KeyValueService#getRows(TableReference, Iterable, ColumnSelection, long)}.
+     *
+     * @param tableRef the name of the table to retrieve values from.
+     * @param rows set containing the rows to retrieve values for.
+     * @param columnSelection specifies the set of columns to fetch.
+     * @param timestamp specifies the maximum timestamp (exclusive) at which to retrieve each rows's value.
+     * @return listenable future containing map of retrieved values.
+     */
+    @Idempotent
+    @Timed
+    ListenableFuture<Map<Cell, Value>> getRowsAsync(
+            TableReference tableRef,
+            Iterable<byte[]> rows,
+            ColumnSelection columnSelection,
+            long timestamp);
+
+    /**
+     * Asynchronous version of
+     * {@link KeyValueService#getRowsColumnRange(TableReference, Iterable, BatchColumnRangeSelection, long)}. The future
+     * completes once the first batch of each row has been loaded; the returned iterators may load further batches
+     * synchronously as they are consumed.
+     *
+     * @param tableRef the name of the table to retrieve values from.
+     * @param rows set containing the rows to retrieve values for.
+     * @param batchColumnRangeSelection specifies the column range and the per-row batchSize to fetch.
+     * @param timestamp specifies the maximum timestamp (exclusive) at which to retrieve each rows's value.
+     * @return listenable future containing a map of row to an iterator of the row's columns in the requested range.
+     */
+    @Idempotent
+    @Timed
+    ListenableFuture<Map<byte[], RowColumnRangeIterator>> getRowsColumnRangeAsync(
+            TableReference tableRef,
+            Iterable<byte[]> rows,
+            BatchColumnRangeSelection batchColumnRangeSelection,
+            long timestamp);
+
+    /**
+     * Asynchronous version of {@link KeyValueService#getFirstBatchForRanges(TableReference, Iterable, long)}.
+     *
+     * @param tableRef the name of the table to read from.
+     * @param rangeRequests the range requests.
+     * @param timestamp specifies the maximum timestamp (exclusive) at which to retrieve each rows's value.
+     * @return listenable future containing the first page of results for each range.
+     */
+    @Idempotent
+    @Timed
+    ListenableFuture<Map<RangeRequest, TokenBackedBasicResultsPage<RowResult<Value>, byte[]>>>
+            getFirstBatchForRangesAsync(
+                    TableReference tableRef,
+                    Iterable<RangeRequest> rangeRequests,
+                    long timestamp);
+
+    /**
+     * Asynchronous version of {@link KeyValueService#multiPut(Map, long)}. If the put fails with a
+     * {@link KeyAlreadyExistsException}, the returned future fails with it.
+     *
+     * @param valuesByTable map containing the key-value entries to put by table.
+     * @param timestamp must be non-negative and not equal to {@link Long#MAX_VALUE}
+     * @return listenable future completing once all values are written.
+     */
+    @Timed
+    ListenableFuture<Void> multiPutAsync(
+            Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable,
+            long timestamp);
+
+    /**
+     * Asynchronous version of {@link KeyValueService#delete(TableReference, Multimap)}.
+     *
+     * @param tableRef the name of the table to delete values from.
+     * @param keys map containing the keys to delete values for.
+     * @return listenable future completing once all values are deleted.
+     */
+    @Idempotent
+    @Timed
+    ListenableFuture<Void> deleteAsync(TableReference tableRef, Multimap<Cell, Long> keys);
+
     @Override
     void close();
 }
@@ -20,7 +20,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.palantir.atlasdb.metrics.Timed;
 import com.palantir.atlasdb.transaction.api.TransactionManager;
 import com.palantir.common.annotation.Idempotent;
@@ -203,6 +206,35 @@ public interface KeyValueService extends AutoCloseable, AsyncKeyValueService {
     void multiPut(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable,
                   long timestamp) throws KeyAlreadyExistsException;
 
+    /**
+     * Whether this key value service supports {@link #multiPutAtomically(Map, long)}.
+     *
+     * @return true iff all cells of a multiPutAtomically, across all tables, are written together or not at all
+     */
+    @DoDelegate
+    default boolean supportsAtomicMultiPut() {
+        return false;
+    }
+
+    /**
+     * Puts values into the key-value store as {@link #multiPut(Map, long)} does, except that either all of the given
+     * cells become visible, across all tables, or none of them do. Callers may therefore rely on the cells written to
+     * one table never being present without the cells written to another table in the same call.
+     * <p>
+     * Only supported if {@link #supportsAtomicMultiPut()} returns true.
+     *
+     * @param valuesByTable map containing the key-value entries to put by table.
+     * @param timestamp must be non-negative and not equal to {@link Long#MAX_VALUE}
+     * @throws UnsupportedOperationException if atomic multiPuts are not supported
+     */
+    @Idempotent
+    @Timed
+    @DoDelegate
+    default void multiPutAtomically(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable,
+                                    long timestamp) throws KeyAlreadyExistsException {
+        throw new UnsupportedOperationException("This key value service does not support atomic multiPuts.");
+    }
+
     /**
      * Puts values into the key-value store with individually specified timestamps.
      * This call <i>does not</i> guarantee atomicity across cells. On failure, it is possible
@@ -421,6 +453,23 @@ public interface KeyValueService extends AutoCloseable, AsyncKeyValueService {
                                                 RangeRequest rangeRequest,
                                                 long timestamp);
 
+    /**
+     * Splits the given range into disjoint ranges which together cover it, in key order, and which can be scanned
+     * independently of each other, for example in parallel. Stores that partition their data by row should split the
+     * range along their partitions, so that each of the returned ranges can be served by the nodes owning it.
+     *
+     * The default implementation does not split the range.
+     *
+     * @param tableRef the table the range is to be read from.
+     * @param rangeRequest the range to split.
+     * @return the ranges the given range was split into, in key order
+     */
+    @DoDelegate
+    @Idempotent
+    default List<RangeRequest> splitRange(TableReference tableRef, RangeRequest rangeRequest) {
+        return ImmutableList.of(rangeRequest);
+    }
+
     /**
      * Gets timestamp values from the key-value store. For each row, this returns all associated
      * timestamps &lt; given_ts.
@@ -632,6 +681,60 @@ public interface KeyValueService extends AutoCloseable, AsyncKeyValueService {
     @Timed
     ClusterAvailabilityStatus getClusterAvailabilityStatus();
 
+    ////////////////////////////////////////////////////////////
+    // ASYNCHRONOUS OPERATIONS
+    ////////////////////////////////////////////////////////////
+
+    /**
+     * By default, performs {@link #getRows(TableReference, Iterable, ColumnSelection, long)} synchronously and wraps
+     * the result in an immediate future. Key value services with an asynchronous client should override this.
+     */
+    @Override
+    @DoDelegate
+    default ListenableFuture<Map<Cell, Value>> getRowsAsync(
+            TableReference tableRef,
+            Iterable<byte[]> rows,
+            ColumnSelection columnSelection,
+            long timestamp) {
+        return Futures.immediateFuture(getRows(tableRef, rows, columnSelection, timestamp));
+    }
+
+    @Override
+    @DoDelegate
+    default ListenableFuture<Map<byte[], RowColumnRangeIterator>> getRowsColumnRangeAsync(
+            TableReference tableRef,
+            Iterable<byte[]> rows,
+            BatchColumnRangeSelection batchColumnRangeSelection,
+            long timestamp) {
+        return Futures.immediateFuture(getRowsColumnRange(tableRef, rows, batchColumnRangeSelection, timestamp));
+    }
+
+    @Override
+    @DoDelegate
+    default ListenableFuture<Map<RangeRequest, TokenBackedBasicResultsPage<RowResult<Value>, byte[]>>>
+            getFirstBatchForRangesAsync(
+                    TableReference tableRef,
+                    Iterable<RangeRequest> rangeRequests,
+                    long timestamp) {
+        return Futures.immediateFuture(getFirstBatchForRanges(tableRef, rangeRequests, timestamp));
+    }
+
+    @Override
+    @DoDelegate
+    default ListenableFuture<Void> multiPutAsync(
+            Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable,
+            long timestamp) {
+        multiPut(valuesByTable, timestamp);
+        return Futures.immediateFuture(null);
+    }
+
+    @Override
+    @DoDelegate
+    default ListenableFuture<Void> deleteAsync(TableReference tableRef, Multimap<Cell, Long> keys) {
+        delete(tableRef, keys);
+        return Futures.immediateFuture(null);
+    }
+
     ////////////////////////////////////////////////////////////
     // SPECIAL CASING SOME KVSs
     ////////////////////////////////////////////////////////////
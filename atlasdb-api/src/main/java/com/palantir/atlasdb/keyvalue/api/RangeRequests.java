@@ -15,9 +15,16 @@
  */
 package com.palantir.atlasdb.keyvalue.api;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.UnsignedBytes;
 import com.palantir.atlasdb.encoding.PtBytes;
 import com.palantir.logsafe.Preconditions;
@@ -226,4 +233,39 @@ public final class RangeRequests {
                 .endRowExclusive(RangeRequests.nextLexicographicName(row))
                 .build();
     }
+
+    /**
+     * Splits a forward range at each of the given row names that falls strictly within it. The resulting ranges are
+     * disjoint, cover exactly the given range and are returned in key order. Reverse and empty ranges are not split.
+     */
+    public static List<RangeRequest> splitAt(RangeRequest rangeRequest, Collection<byte[]> splitPoints) {
+        if (rangeRequest.isReverse() || rangeRequest.isEmptyRange()) {
+            return ImmutableList.of(rangeRequest);
+        }
+        byte[] start = rangeRequest.getStartInclusive();
+        byte[] end = rangeRequest.getEndExclusive();
+        SortedSet<byte[]> innerPoints = new TreeSet<>(UnsignedBytes.lexicographicalComparator());
+        for (byte[] point : splitPoints) {
+            if (isAfterStart(point, start) && isBeforeEnd(point, end)) {
+                innerPoints.add(point);
+            }
+        }
+
+        List<RangeRequest> splits = new ArrayList<>(innerPoints.size() + 1);
+        byte[] splitStart = start;
+        for (byte[] point : innerPoints) {
+            splits.add(rangeRequest.getBuilder().startRowInclusive(splitStart).endRowExclusive(point).build());
+            splitStart = point;
+        }
+        splits.add(rangeRequest.getBuilder().startRowInclusive(splitStart).endRowExclusive(end).build());
+        return splits;
+    }
+
+    private static boolean isAfterStart(byte[] point, byte[] startInclusive) {
+        return point.length > 0 && UnsignedBytes.lexicographicalComparator().compare(point, startInclusive) > 0;
+    }
+
+    private static boolean isBeforeEnd(byte[] point, byte[] endExclusive) {
+        return endExclusive.length == 0 || UnsignedBytes.lexicographicalComparator().compare(point, endExclusive) < 0;
+    }
 }
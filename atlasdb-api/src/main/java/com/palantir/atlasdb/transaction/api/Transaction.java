@@ -147,6 +147,27 @@ public interface Transaction {
     Stream<BatchingVisitable<RowResult<byte[]>>> getRangesLazy(
             final TableReference tableRef, Iterable<RangeRequest> rangeRequests);
 
+    /**
+     * Returns a stream over the rows in the provided range. Unlike {@link #getRange(TableReference, RangeRequest)},
+     * which only reads the next page of the range from the database once the previous page has been visited, this
+     * reads up to {@code pagesInFlight} pages ahead of the consumer in the background, so that reading from the
+     * database overlaps with processing the rows. Pages are read one at a time; no further pages are read while
+     * {@code pagesInFlight} pages are waiting to be consumed.
+     * <p>
+     * The batch hint of the range request is used as the size of the first page. The returned stream must be closed
+     * once it is no longer needed.
+     *
+     * @param tableRef the table to scan
+     * @param rangeRequest the range of rows and columns to scan; reverse ranges are not supported
+     * @param pagesInFlight the maximum number of pages read ahead of the consumer
+     * @return a stream over the rows in the range
+     */
+    @Idempotent
+    Stream<RowResult<byte[]>> getRangeWithPrefetch(
+            TableReference tableRef,
+            RangeRequest rangeRequest,
+            int pagesInFlight);
+
     /**
      * Puts values into the key-value store. If you put a null or the empty byte array, then
      * this is treated like a delete to the store.
@@ -16,17 +16,23 @@
 
 package com.palantir.atlasdb.autobatch;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.errorprone.annotations.CompileTimeConstant;
 import com.lmax.disruptor.EventHandler;
+import com.palantir.common.concurrent.NamedThreadFactory;
 import com.palantir.logsafe.Preconditions;
 import com.palantir.tracing.Observability;
 
@@ -91,6 +97,9 @@ public final class Autobatchers {
 
         private Observability observability = Observability.UNDECIDED;
         @Nullable private String purpose;
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+        private int maxConcurrentBatches = 1;
+        private Optional<Duration> targetBatchLatency = Optional.empty();
 
         private AutobatcherBuilder(Function<Integer, EventHandler<BatchElement<I, O>>> handlerFactory) {
             this.handlerFactory = handlerFactory;
@@ -111,17 +120,72 @@ public final class Autobatchers {
             return this;
         }
 
+        /**
+         * Sets the size of the ring buffer requests are published to, which is also the maximum size of a batch.
+         * Must be a power of two.
+         */
+        public AutobatcherBuilder<I, O> bufferSize(int bufferSizeParam) {
+            Preconditions.checkArgument(Integer.bitCount(bufferSizeParam) == 1, "bufferSize must be a power of two");
+            this.bufferSize = bufferSizeParam;
+            return this;
+        }
+
+        /**
+         * Allows up to the given number of batches to be processed concurrently. Each in-flight batch is processed by
+         * its own instance of the underlying event handler, so the batch function must be safe to call concurrently.
+         * When all batches are in flight, new requests accumulate into the next batch.
+         */
+        public AutobatcherBuilder<I, O> maxConcurrentBatches(int maxConcurrentBatchesParam) {
+            Preconditions.checkArgument(maxConcurrentBatchesParam > 0, "maxConcurrentBatches must be positive");
+            this.maxConcurrentBatches = maxConcurrentBatchesParam;
+            return this;
+        }
+
+        /**
+         * Limits the size of batches so that they complete within the given latency: batches slower than the target
+         * shrink the limit, and batches that were cut short by the limit but met the target grow it. This is most
+         * useful together with {@link #maxConcurrentBatches(int)}, where smaller batches can be processed in parallel.
+         */
+        public AutobatcherBuilder<I, O> targetBatchLatency(Duration targetBatchLatencyParam) {
+            this.targetBatchLatency = Optional.of(targetBatchLatencyParam);
+            return this;
+        }
+
         public DisruptorAutobatcher<I, O> build() {
             Preconditions.checkArgument(purpose != null, "purpose must be provided");
-            EventHandler<BatchElement<I, O>> handler = this.handlerFactory.apply(DEFAULT_BUFFER_SIZE);
+            if (maxConcurrentBatches > 1 || targetBatchLatency.isPresent()) {
+                return buildConcurrent();
+            }
+            EventHandler<BatchElement<I, O>> handler = this.handlerFactory.apply(bufferSize);
 
             EventHandler<BatchElement<I, O>> tracingHandler =
-                    new TracingEventHandler<>(handler, DEFAULT_BUFFER_SIZE);
+                    new TracingEventHandler<>(handler, bufferSize);
 
             EventHandler<BatchElement<I, O>> profiledHandler =
                     new ProfilingEventHandler<>(tracingHandler, purpose, safeTags.build());
 
-            return DisruptorAutobatcher.create(profiledHandler, DEFAULT_BUFFER_SIZE, purpose);
+            return DisruptorAutobatcher.create(profiledHandler, bufferSize, purpose);
+        }
+
+        private DisruptorAutobatcher<I, O> buildConcurrent() {
+            ImmutableList.Builder<EventHandler<BatchElement<I, O>>> delegates = ImmutableList.builder();
+            for (int i = 0; i < maxConcurrentBatches; i++) {
+                EventHandler<BatchElement<I, O>> handler = handlerFactory.apply(bufferSize);
+                EventHandler<BatchElement<I, O>> tracingHandler = new TracingEventHandler<>(handler, bufferSize);
+                delegates.add(new ProfilingEventHandler<>(tracingHandler, purpose, safeTags.build()));
+            }
+            ExecutorService executor = Executors.newFixedThreadPool(
+                    maxConcurrentBatches, new NamedThreadFactory("autobatcher." + purpose + ".batch", true));
+            BatchSizeLimit batchSizeLimit = targetBatchLatency
+                    .map(latency -> BatchSizeLimit.targetingLatency(latency, bufferSize))
+                    .orElseGet(() -> BatchSizeLimit.fixed(bufferSize));
+
+            EventHandler<BatchElement<I, O>> concurrentHandler = new ConcurrentBatchingEventHandler<>(
+                    delegates.build(),
+                    executor,
+                    batchSizeLimit);
+
+            return DisruptorAutobatcher.create(concurrentHandler, bufferSize, purpose);
         }
 
     }
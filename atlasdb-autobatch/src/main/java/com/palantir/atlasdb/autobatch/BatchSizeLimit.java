@@ -0,0 +1,72 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.autobatch;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Upper bound on the number of elements dispatched in a single batch.
+ */
+interface BatchSizeLimit {
+    int current();
+
+    void update(int batchSize, long latencyNanos);
+
+    static BatchSizeLimit fixed(int limit) {
+        return new BatchSizeLimit() {
+            @Override
+            public int current() {
+                return limit;
+            }
+
+            @Override
+            public void update(int batchSize, long latencyNanos) {
+                // fixed
+            }
+        };
+    }
+
+    /**
+     * Adjusts the limit multiplicatively in both directions, so that batches complete within the target latency. A
+     * batch slower than the target halves the limit, while a batch that was cut short by the limit and still met the
+     * target grows it by a quarter.
+     */
+    static BatchSizeLimit targetingLatency(Duration targetLatency, int maximum) {
+        long targetNanos = targetLatency.toNanos();
+        AtomicInteger limit = new AtomicInteger(maximum);
+        return new BatchSizeLimit() {
+            @Override
+            public int current() {
+                return limit.get();
+            }
+
+            @Override
+            public void update(int batchSize, long latencyNanos) {
+                limit.updateAndGet(current -> {
+                    if (latencyNanos > targetNanos) {
+                        return Math.max(1, Math.min(current, batchSize / 2));
+                    }
+                    if (batchSize >= current) {
+                        return Math.min(maximum, current + Math.max(1, current / 4));
+                    }
+                    return current;
+                });
+            }
+        };
+    }
+}
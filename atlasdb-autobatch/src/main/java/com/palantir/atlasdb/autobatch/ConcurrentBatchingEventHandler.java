@@ -0,0 +1,120 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.autobatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.LifecycleAware;
+
+/**
+ * Dispatches batches to a pool of delegate handlers, so that up to one batch per delegate is in flight at a time.
+ * Each delegate only ever runs one batch at a time, but different delegates run concurrently, so the batch function
+ * underlying the delegates must be safe to call concurrently.
+ *
+ * A batch is dispatched when the disruptor has no more events available, or when it reaches the current
+ * {@link BatchSizeLimit}. If all delegates are busy, the disruptor thread blocks until one becomes idle, and the events
+ * published in the meantime accumulate into the next batch.
+ *
+ * The disruptor reuses its ring buffer slots once this handler returns from {@link #onEvent}, while dispatched batches
+ * are still being processed, so the argument and future of each event are copied out of its slot before dispatch.
+ */
+final class ConcurrentBatchingEventHandler<T, R> implements EventHandler<BatchElement<T, R>>, LifecycleAware {
+    private final BlockingQueue<EventHandler<BatchElement<T, R>>> idleHandlers;
+    private final ExecutorService executor;
+    private final BatchSizeLimit batchSizeLimit;
+
+    private List<BatchElement<T, R>> pending = new ArrayList<>();
+
+    ConcurrentBatchingEventHandler(
+            List<EventHandler<BatchElement<T, R>>> delegates,
+            ExecutorService executor,
+            BatchSizeLimit batchSizeLimit) {
+        this.idleHandlers = new ArrayBlockingQueue<>(delegates.size(), false, delegates);
+        this.executor = executor;
+        this.batchSizeLimit = batchSizeLimit;
+    }
+
+    @Override
+    public void onEvent(BatchElement<T, R> event, long sequence, boolean endOfBatch) throws InterruptedException {
+        pending.add(new DispatchedElement<>(event.argument(), event.result()));
+        if (endOfBatch || pending.size() >= batchSizeLimit.current()) {
+            dispatch();
+        }
+    }
+
+    private void dispatch() throws InterruptedException {
+        EventHandler<BatchElement<T, R>> handler = idleHandlers.take();
+        List<BatchElement<T, R>> batch = pending;
+        pending = new ArrayList<>();
+        try {
+            executor.execute(() -> run(handler, batch));
+        } catch (RejectedExecutionException e) {
+            batch.forEach(element -> element.result().setException(e));
+            idleHandlers.add(handler);
+        }
+    }
+
+    private void run(EventHandler<BatchElement<T, R>> handler, List<BatchElement<T, R>> batch) {
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                handler.onEvent(batch.get(i), i, i == batch.size() - 1);
+            }
+        } catch (Throwable t) {
+            batch.forEach(element -> element.result().setException(t));
+        } finally {
+            batchSizeLimit.update(batch.size(), System.nanoTime() - start);
+            idleHandlers.add(handler);
+        }
+    }
+
+    private static final class DispatchedElement<T, R> implements BatchElement<T, R> {
+        private final T argument;
+        private final DisruptorAutobatcher.DisruptorFuture<R> result;
+
+        private DispatchedElement(T argument, DisruptorAutobatcher.DisruptorFuture<R> result) {
+            this.argument = argument;
+            this.result = result;
+        }
+
+        @Override
+        public T argument() {
+            return argument;
+        }
+
+        @Override
+        public DisruptorAutobatcher.DisruptorFuture<R> result() {
+            return result;
+        }
+    }
+
+    @Override
+    public void onStart() {
+        // nothing to do
+    }
+
+    @Override
+    public void onShutdown() {
+        executor.shutdown();
+    }
+}
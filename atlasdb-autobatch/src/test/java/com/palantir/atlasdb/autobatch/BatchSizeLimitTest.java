@@ -0,0 +1,81 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.autobatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.Test;
+
+public class BatchSizeLimitTest {
+    private static final long TARGET_NANOS = Duration.ofMillis(10).toNanos();
+    private static final int MAXIMUM = 100;
+
+    private final BatchSizeLimit limit = BatchSizeLimit.targetingLatency(Duration.ofNanos(TARGET_NANOS), MAXIMUM);
+
+    @Test
+    public void startsAtMaximum() {
+        assertThat(limit.current()).isEqualTo(MAXIMUM);
+    }
+
+    @Test
+    public void slowBatchesHalveTheLimit() {
+        limit.update(MAXIMUM, TARGET_NANOS + 1);
+        assertThat(limit.current()).isEqualTo(MAXIMUM / 2);
+
+        limit.update(10, TARGET_NANOS + 1);
+        assertThat(limit.current()).isEqualTo(5);
+    }
+
+    @Test
+    public void limitNeverDropsBelowOne() {
+        limit.update(1, TARGET_NANOS + 1);
+        assertThat(limit.current()).isEqualTo(1);
+    }
+
+    @Test
+    public void fastBatchesCutShortByTheLimitGrowIt() {
+        limit.update(MAXIMUM, TARGET_NANOS + 1);
+        limit.update(MAXIMUM / 2, TARGET_NANOS);
+
+        assertThat(limit.current()).isEqualTo(62);
+    }
+
+    @Test
+    public void fastBatchesBelowTheLimitDoNotGrowIt() {
+        limit.update(MAXIMUM, TARGET_NANOS + 1);
+        limit.update(10, 0);
+
+        assertThat(limit.current()).isEqualTo(MAXIMUM / 2);
+    }
+
+    @Test
+    public void limitDoesNotExceedMaximum() {
+        limit.update(MAXIMUM, 0);
+
+        assertThat(limit.current()).isEqualTo(MAXIMUM);
+    }
+
+    @Test
+    public void fixedLimitIgnoresLatency() {
+        BatchSizeLimit fixed = BatchSizeLimit.fixed(7);
+        fixed.update(7, Long.MAX_VALUE);
+
+        assertThat(fixed.current()).isEqualTo(7);
+    }
+}
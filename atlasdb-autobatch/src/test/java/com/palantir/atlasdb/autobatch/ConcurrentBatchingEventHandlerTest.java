@@ -0,0 +1,159 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.autobatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+public class ConcurrentBatchingEventHandlerTest {
+    private static final int BLOCKING_ARGUMENT = 1;
+
+    private final CountDownLatch blockingBatchStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseBlockingBatch = new CountDownLatch(1);
+    private DisruptorAutobatcher<Integer, Integer> autobatcher;
+
+    @After
+    public void after() {
+        releaseBlockingBatch.countDown();
+        autobatcher.close();
+    }
+
+    @Test
+    public void processesBatchesConcurrently() throws Exception {
+        autobatcher = Autobatchers.independent(blockingEcho())
+                .safeLoggablePurpose("concurrent-test")
+                .maxConcurrentBatches(2)
+                .build();
+
+        ListenableFuture<Integer> blocked = autobatcher.apply(BLOCKING_ARGUMENT);
+        assertThat(blockingBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(autobatcher.apply(2).get(5, TimeUnit.SECONDS)).isEqualTo(2);
+        assertThat(blocked).isNotDone();
+
+        releaseBlockingBatch.countDown();
+        assertThat(blocked.get(5, TimeUnit.SECONDS)).isEqualTo(BLOCKING_ARGUMENT);
+    }
+
+    @Test
+    public void queuesRequestsWhenAllBatchesAreInFlight() throws Exception {
+        autobatcher = Autobatchers.independent(blockingEcho())
+                .safeLoggablePurpose("concurrent-test")
+                .maxConcurrentBatches(1)
+                .targetBatchLatency(Duration.ofSeconds(1))
+                .build();
+
+        ListenableFuture<Integer> blocked = autobatcher.apply(BLOCKING_ARGUMENT);
+        assertThat(blockingBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        ListenableFuture<Integer> queued = autobatcher.apply(2);
+        assertThat(isDoneWithin(queued, Duration.ofMillis(100))).isFalse();
+
+        releaseBlockingBatch.countDown();
+        assertThat(blocked.get(5, TimeUnit.SECONDS)).isEqualTo(BLOCKING_ARGUMENT);
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+    }
+
+    @Test
+    public void failuresAreIsolatedToTheirBatch() throws Exception {
+        autobatcher = Autobatchers.<Integer, Integer>independent(batch -> {
+            throw new IllegalStateException("boom");
+        })
+                .safeLoggablePurpose("concurrent-test")
+                .maxConcurrentBatches(2)
+                .build();
+
+        ListenableFuture<Integer> failed = autobatcher.apply(3);
+
+        assertThat(isDoneWithin(failed, Duration.ofSeconds(5))).isTrue();
+        assertThat(isDoneWithin(autobatcher.apply(4), Duration.ofSeconds(5))).isTrue();
+    }
+
+    @Test
+    public void completesEachFutureWithItsOwnResultWhenTheRingBufferWraps() throws Exception {
+        autobatcher = Autobatchers.<Integer, Integer>independent(batch -> {
+            Uninterruptibles.sleepUninterruptibly(1, TimeUnit.MILLISECONDS);
+            batch.forEach(element -> element.result().set(element.argument()));
+        })
+                .safeLoggablePurpose("concurrent-test")
+                .bufferSize(16)
+                .maxConcurrentBatches(4)
+                .build();
+
+        int producers = 8;
+        int requestsPerProducer = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            List<Future<List<ListenableFuture<Integer>>>> published = new ArrayList<>();
+            for (int producer = 0; producer < producers; producer++) {
+                int offset = producer * requestsPerProducer;
+                published.add(executor.submit(() -> IntStream.range(offset, offset + requestsPerProducer)
+                        .mapToObj(autobatcher::apply)
+                        .collect(Collectors.toList())));
+            }
+
+            for (int producer = 0; producer < producers; producer++) {
+                List<ListenableFuture<Integer>> results = published.get(producer).get(30, TimeUnit.SECONDS);
+                for (int i = 0; i < requestsPerProducer; i++) {
+                    assertThat(results.get(i).get(30, TimeUnit.SECONDS)).isEqualTo(producer * requestsPerProducer + i);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Consumer<List<BatchElement<Integer, Integer>>> blockingEcho() {
+        return batch -> {
+            if (batch.stream().anyMatch(element -> element.argument() == BLOCKING_ARGUMENT)) {
+                blockingBatchStarted.countDown();
+                Uninterruptibles.awaitUninterruptibly(releaseBlockingBatch);
+            }
+            batch.forEach(element -> element.result().set(element.argument()));
+        };
+    }
+
+    private static boolean isDoneWithin(ListenableFuture<Integer> future, Duration duration)
+            throws InterruptedException {
+        try {
+            future.get(duration.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (ExecutionException e) {
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+}
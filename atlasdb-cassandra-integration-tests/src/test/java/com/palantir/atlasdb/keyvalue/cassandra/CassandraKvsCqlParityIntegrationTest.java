@@ -0,0 +1,265 @@
+/*
+ * (c) Copyright 2019 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Multimap;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.cassandra.CassandraMutationTimestampProviders;
+import com.palantir.atlasdb.cassandra.ImmutableCassandraKeyValueServiceRuntimeConfig;
+import com.palantir.atlasdb.containers.CassandraResource;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.futures.AtlasFutures;
+import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowColumnRangeIterator;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.util.MetricsManagers;
+import com.palantir.util.paging.TokenBackedBasicResultsPage;
+
+/**
+ * Checks that the CQL implementations of the asynchronous row, range and mutation methods behave exactly like the
+ * Thrift ones they replace when {@code useCqlForRowsRangesAndMutations} is enabled.
+ */
+public class CassandraKvsCqlParityIntegrationTest {
+    private static final TableReference THRIFT_TABLE = TableReference.createFromFullyQualifiedName("test.thrift");
+    private static final TableReference CQL_TABLE = TableReference.createFromFullyQualifiedName("test.cql");
+    private static final Set<TableReference> TABLES = ImmutableSet.of(THRIFT_TABLE, CQL_TABLE);
+
+    private static final int NUM_ROWS = 10;
+    private static final int NUM_COLUMNS = 5;
+    private static final long FIRST_TS = 10L;
+    private static final long SECOND_TS = 20L;
+
+    @ClassRule
+    public static final CassandraResource CASSANDRA = new CassandraResource();
+
+    private KeyValueService thriftKvs;
+    private KeyValueService cqlKvs;
+
+    @Before
+    public void setUp() {
+        thriftKvs = createKvs(false);
+        cqlKvs = createKvs(true);
+        TABLES.forEach(table -> thriftKvs.createTable(table, AtlasDbConstants.GENERIC_TABLE_METADATA));
+    }
+
+    @After
+    public void tearDown() {
+        thriftKvs.truncateTables(TABLES);
+    }
+
+    @Test
+    public void putsWriteTheSameValuesAndTimestamps() {
+        putBothWays(valuesAt(FIRST_TS), FIRST_TS);
+        putBothWays(valuesAt(SECOND_TS), SECOND_TS);
+
+        assertTablesMatchAt(FIRST_TS);
+        assertTablesMatchAt(FIRST_TS + 1);
+        assertTablesMatchAt(SECOND_TS);
+        assertTablesMatchAt(SECOND_TS + 1);
+        assertThat(thriftKvs.get(CQL_TABLE, ImmutableMap.of(cell(0, 0), FIRST_TS))).isEmpty();
+        assertThat(thriftKvs.get(CQL_TABLE, ImmutableMap.of(cell(0, 0), FIRST_TS + 1)).get(cell(0, 0)))
+                .isEqualTo(Value.create(value(0, 0, FIRST_TS), FIRST_TS));
+    }
+
+    @Test
+    public void deletesWriteTheSameTombstones() {
+        putBothWays(valuesAt(FIRST_TS), FIRST_TS);
+        putBothWays(valuesAt(SECOND_TS), SECOND_TS);
+
+        Multimap<Cell, Long> toDelete = ImmutableSetMultimap.<Cell, Long>builder()
+                .put(cell(0, 0), SECOND_TS)
+                .put(cell(1, 1), FIRST_TS)
+                .putAll(cell(2, 2), FIRST_TS, SECOND_TS)
+                .build();
+        AtlasFutures.getUnchecked(thriftKvs.deleteAsync(THRIFT_TABLE, toDelete));
+        AtlasFutures.getUnchecked(cqlKvs.deleteAsync(CQL_TABLE, toDelete));
+
+        assertTablesMatchAt(FIRST_TS + 1);
+        assertTablesMatchAt(SECOND_TS + 1);
+        assertThat(thriftKvs.get(CQL_TABLE, ImmutableMap.of(cell(0, 0), SECOND_TS + 1)).get(cell(0, 0)))
+                .isEqualTo(Value.create(value(0, 0, FIRST_TS), FIRST_TS));
+        assertThat(thriftKvs.get(CQL_TABLE, ImmutableMap.of(cell(2, 2), Long.MAX_VALUE))).isEmpty();
+    }
+
+    @Test
+    public void deletedCellsAreInvisibleToBothReadPaths() {
+        putBothWays(valuesAt(FIRST_TS), FIRST_TS);
+        AtlasFutures.getUnchecked(thriftKvs.deleteAsync(THRIFT_TABLE, ImmutableMultimap.of(cell(3, 3), FIRST_TS)));
+
+        List<byte[]> rows = ImmutableList.of(row(3));
+        Map<Cell, Value> viaThrift = AtlasFutures.getUnchecked(
+                thriftKvs.getRowsAsync(THRIFT_TABLE, rows, ColumnSelection.all(), Long.MAX_VALUE));
+        Map<Cell, Value> viaCql = AtlasFutures.getUnchecked(
+                cqlKvs.getRowsAsync(THRIFT_TABLE, rows, ColumnSelection.all(), Long.MAX_VALUE));
+
+        assertThat(viaCql).isEqualTo(viaThrift).doesNotContainKey(cell(3, 3)).hasSize(NUM_COLUMNS - 1);
+    }
+
+    @Test
+    public void getRowsMatchesForAllAndSelectedColumns() {
+        putBothWays(valuesAt(FIRST_TS), FIRST_TS);
+        putBothWays(valuesAt(SECOND_TS), SECOND_TS);
+
+        List<byte[]> rows = ImmutableList.of(row(1), row(4), row(7), PtBytes.toBytes("absent"));
+        ColumnSelection selected = ColumnSelection.create(ImmutableList.of(column(0), column(3)));
+
+        for (long readTs : ImmutableList.of(FIRST_TS, FIRST_TS + 1, SECOND_TS + 1)) {
+            for (ColumnSelection selection : ImmutableList.of(ColumnSelection.all(), selected)) {
+                assertThat(AtlasFutures.getUnchecked(cqlKvs.getRowsAsync(THRIFT_TABLE, rows, selection, readTs)))
+                        .isEqualTo(AtlasFutures.getUnchecked(
+                                thriftKvs.getRowsAsync(THRIFT_TABLE, rows, selection, readTs)));
+            }
+        }
+    }
+
+    @Test
+    public void getRowsColumnRangeMatches() {
+        putBothWays(valuesAt(FIRST_TS), FIRST_TS);
+        putBothWays(valuesAt(SECOND_TS), SECOND_TS);
+
+        List<byte[]> rows = ImmutableList.of(row(2), row(5));
+        BatchColumnRangeSelection selection = BatchColumnRangeSelection.create(column(1), column(4), 2);
+
+        for (long readTs : ImmutableList.of(FIRST_TS + 1, SECOND_TS + 1)) {
+            assertThat(drain(AtlasFutures.getUnchecked(
+                    cqlKvs.getRowsColumnRangeAsync(THRIFT_TABLE, rows, selection, readTs))))
+                    .isEqualTo(drain(AtlasFutures.getUnchecked(
+                            thriftKvs.getRowsColumnRangeAsync(THRIFT_TABLE, rows, selection, readTs))));
+        }
+    }
+
+    @Test
+    public void firstBatchForRangesRespectsEndBoundAndBatchHint() {
+        putBothWays(valuesAt(FIRST_TS), FIRST_TS);
+        putBothWays(valuesAt(SECOND_TS), SECOND_TS);
+
+        RangeRequest bounded = RangeRequest.builder()
+                .startRowInclusive(row(2))
+                .endRowExclusive(row(6))
+                .build();
+        RangeRequest limited = RangeRequest.builder()
+                .startRowInclusive(row(1))
+                .batchHint(3)
+                .build();
+        RangeRequest selectedColumns = RangeRequest.builder()
+                .retainColumns(ColumnSelection.create(ImmutableList.of(column(2))))
+                .build();
+
+        for (RangeRequest request : ImmutableList.of(bounded, limited, selectedColumns)) {
+            for (long readTs : ImmutableList.of(FIRST_TS + 1, SECOND_TS + 1)) {
+                assertThat(firstBatch(cqlKvs, request, readTs)).isEqualTo(firstBatch(thriftKvs, request, readTs));
+            }
+        }
+        assertThat(firstBatch(cqlKvs, bounded, SECOND_TS + 1).keySet().stream()
+                .map(cell -> PtBytes.toString(cell.getRowName()))
+                .collect(Collectors.toSet()))
+                .containsExactlyInAnyOrder("row2", "row3", "row4", "row5");
+    }
+
+    private void putBothWays(Map<Cell, byte[]> values, long timestamp) {
+        AtlasFutures.getUnchecked(thriftKvs.multiPutAsync(ImmutableMap.of(THRIFT_TABLE, values), timestamp));
+        AtlasFutures.getUnchecked(cqlKvs.multiPutAsync(ImmutableMap.of(CQL_TABLE, values), timestamp));
+    }
+
+    private void assertTablesMatchAt(long readTs) {
+        Set<Cell> cells = valuesAt(FIRST_TS).keySet();
+        Map<Cell, Long> timestampByCell = cells.stream().collect(Collectors.toMap(cell -> cell, unused -> readTs));
+
+        assertThat(thriftKvs.get(CQL_TABLE, timestampByCell)).isEqualTo(thriftKvs.get(THRIFT_TABLE, timestampByCell));
+        assertThat(thriftKvs.getAllTimestamps(CQL_TABLE, cells, readTs))
+                .isEqualTo(thriftKvs.getAllTimestamps(THRIFT_TABLE, cells, readTs));
+    }
+
+    private static Map<Cell, Value> firstBatch(KeyValueService kvs, RangeRequest request, long readTs) {
+        TokenBackedBasicResultsPage<RowResult<Value>, byte[]> page = Iterables.getOnlyElement(AtlasFutures
+                .getUnchecked(kvs.getFirstBatchForRangesAsync(THRIFT_TABLE, ImmutableList.of(request), readTs))
+                .values());
+        Map<Cell, Value> result = new HashMap<>();
+        page.getResults().forEach(rowResult -> rowResult.getCells().forEach(
+                entry -> result.put(entry.getKey(), entry.getValue())));
+        return result;
+    }
+
+    private static Map<Cell, Value> drain(Map<byte[], RowColumnRangeIterator> iterators) {
+        Map<Cell, Value> result = new HashMap<>();
+        iterators.values().forEach(iterator -> iterator.forEachRemaining(
+                entry -> result.put(entry.getKey(), entry.getValue())));
+        return result;
+    }
+
+    private static Map<Cell, byte[]> valuesAt(long timestamp) {
+        return IntStream.range(0, NUM_ROWS).boxed()
+                .flatMap(rowIndex -> IntStream.range(0, NUM_COLUMNS).mapToObj(colIndex -> cell(rowIndex, colIndex)))
+                .collect(Collectors.toMap(cell -> cell, cell -> PtBytes.toBytes(
+                        PtBytes.toString(cell.getRowName()) + PtBytes.toString(cell.getColumnName()) + timestamp)));
+    }
+
+    private static byte[] value(int rowIndex, int colIndex, long timestamp) {
+        return valuesAt(timestamp).get(cell(rowIndex, colIndex));
+    }
+
+    private static Cell cell(int rowIndex, int colIndex) {
+        return Cell.create(row(rowIndex), column(colIndex));
+    }
+
+    private static byte[] row(int index) {
+        return PtBytes.toBytes("row" + index);
+    }
+
+    private static byte[] column(int index) {
+        return PtBytes.toBytes("col" + index);
+    }
+
+    private static KeyValueService createKvs(boolean useCql) {
+        KeyValueService kvs = CassandraKeyValueServiceImpl.create(
+                MetricsManagers.createForTests(),
+                CASSANDRA.getConfig(),
+                () -> ImmutableCassandraKeyValueServiceRuntimeConfig.builder()
+                        .useCqlForRowsRangesAndMutations(useCql)
+                        .build(),
+                CassandraMutationTimestampProviders.legacyModeForTestsOnly(),
+                AtlasDbConstants.DEFAULT_INITIALIZE_ASYNC);
+        CASSANDRA.registerKvs(kvs);
+        return kvs;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.cassandra;
+
+import java.util.Set;
+
+import org.immutables.value.Value;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.base.Preconditions;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+
+/**
+ * Configures hedged reads: if a read of an enabled table has not completed after a delay derived from the recent
+ * latencies of reads of that table, a duplicate read is sent to another node and the first response is used.
+ *
+ * Hedging trades extra load on the cluster for lower tail latency, so it is disabled for all tables by default.
+ */
+@JsonSerialize(as = ImmutableCassandraHedgedReadsConfig.class)
+@JsonDeserialize(as = ImmutableCassandraHedgedReadsConfig.class)
+@Value.Immutable
+public abstract class CassandraHedgedReadsConfig {
+    /**
+     * Fully qualified names of the tables whose reads are hedged, e.g. {@code namespace.table}.
+     */
+    public abstract Set<String> tables();
+
+    /**
+     * Reads are hedged once they have taken longer than this percentile of the recent read latencies of the table.
+     */
+    @Value.Default
+    public double delayPercentile() {
+        return 95.0;
+    }
+
+    /**
+     * Lower bound on the hedging delay, so that a table with very fast reads is not hedged on every hiccup.
+     */
+    @Value.Default
+    public long minimumDelayMillis() {
+        return 5;
+    }
+
+    /**
+     * Hedging delay used until enough reads of the table have been observed to estimate the percentile.
+     */
+    @Value.Default
+    public long initialDelayMillis() {
+        return 100;
+    }
+
+    public boolean isEnabledFor(TableReference tableRef) {
+        return !tables().isEmpty() && tables().contains(tableRef.getQualifiedName());
+    }
+
+    @Value.Check
+    public void check() {
+        Preconditions.checkState(delayPercentile() > 0.0 && delayPercentile() <= 100.0,
+                "delayPercentile should be in (0, 100], but found %s",
+                delayPercentile());
+        Preconditions.checkState(minimumDelayMillis() >= 0,
+                "minimumDelayMillis should not be negative, but found %s",
+                minimumDelayMillis());
+        Preconditions.checkState(initialDelayMillis() >= minimumDelayMillis(),
+                "initialDelayMillis %s shouldn't be less than minimumDelayMillis %s",
+                initialDelayMillis(),
+                minimumDelayMillis());
+    }
+
+    static CassandraHedgedReadsConfig defaultConfig() {
+        return ImmutableCassandraHedgedReadsConfig.builder().build();
+    }
+}
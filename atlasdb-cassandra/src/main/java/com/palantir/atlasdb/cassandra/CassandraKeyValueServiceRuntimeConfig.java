@@ -83,6 +83,14 @@ public abstract class CassandraKeyValueServiceRuntimeConfig implements KeyValueS
         return CassandraCellLoadingConfig.defaultConfig();
     }
 
+    /**
+     * Tables whose reads are hedged, and how long to wait before hedging them.
+     */
+    @Value.Default
+    public CassandraHedgedReadsConfig hedgedReads() {
+        return CassandraHedgedReadsConfig.defaultConfig();
+    }
+
     /**
      * The number of threads Sweep uses to read values from Cassandra.
      * Each thread fetches values from a distinct row.
@@ -113,6 +121,16 @@ public abstract class CassandraKeyValueServiceRuntimeConfig implements KeyValueS
         return CassandraConstants.DEFAULT_READ_LIMIT_PER_ROW;
     }
 
+    /**
+     * If true, and the key value service was configured with CQL hosts, asynchronous row reads, column range reads,
+     * first pages of range scans, puts and deletes are served over the CQL client rather than Thrift. Asynchronous
+     * point reads over CQL are not affected by this setting.
+     */
+    @Value.Default
+    public boolean useCqlForRowsRangesAndMutations() {
+        return false;
+    }
+
     /**
      * Setting this value to true will cause us to take a more conservative approach to retrying requests on exceptions.
      */
@@ -271,8 +271,8 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
         return cassandra.getPools();
     }
 
-    @VisibleForTesting
-    RangeMap<LightweightOppToken, List<InetSocketAddress>> getTokenMap() {
+    @Override
+    public RangeMap<LightweightOppToken, List<InetSocketAddress>> getTokenMap() {
         return cassandra.getTokenMap();
     }
 
@@ -455,13 +455,22 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
             FunctionCheckedException<CassandraClient, V, K> fn) throws K {
 
         metrics.recordRequestOnHost(hostPool);
+        long startNanos = System.nanoTime();
         try {
-            return hostPool.runWithPooledResource(fn);
+            V response = hostPool.runWithPooledResource(fn);
+            metrics.recordLatencyOnHost(hostPool, System.nanoTime() - startNanos);
+            return response;
         } catch (Exception e) {
             metrics.recordExceptionOnHost(hostPool);
             if (CassandraRequestExceptionHandler.isConnectionException(e)) {
                 metrics.recordConnectionExceptionOnHost(hostPool);
             }
+            if (CassandraRequestExceptionHandler.isRetryable(e)
+                    && !CassandraRequestExceptionHandler.isExceptionNotImplicatingThisParticularNode(e)) {
+                metrics.recordHostFailureOnHost(hostPool, System.nanoTime() - startNanos);
+            } else {
+                metrics.recordLatencyOnHost(hostPool, System.nanoTime() - startNanos);
+            }
             throw e;
         }
     }
@@ -67,6 +67,7 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
+import com.google.common.primitives.Bytes;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.UncheckedExecutionException;
@@ -223,6 +224,7 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
     private final Optional<AsyncKeyValueService> asyncKeyValueService;
     private final RangeLoader rangeLoader;
     private final TaskRunner taskRunner;
+    private final HedgedReadRunner hedgedReadRunner;
     private final CellValuePutter cellValuePutter;
     private final CassandraTableMetadata tableMetadata;
     private final CassandraTableCreator cassandraTableCreator;
@@ -371,7 +373,8 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
             boolean initializeAsync) {
         try {
             Optional<AsyncKeyValueService> asyncKeyValueService = config.asyncKeyValueServiceFactory()
-                    .constructAsyncKeyValueService(metricsManager, config, initializeAsync);
+                    .constructAsyncKeyValueService(
+                            metricsManager, config, mutationTimestampProvider, initializeAsync);
 
             return createAndInitialize(
                     metricsManager,
@@ -428,7 +431,10 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
         this.wrappingQueryRunner = new WrappingQueryRunner(queryRunner);
         this.cassandraTables = new CassandraTables(clientPool, config);
         this.taskRunner = new TaskRunner(executor);
-        this.cellLoader = CellLoader.create(clientPool, wrappingQueryRunner, taskRunner, runtimeConfigSupplier);
+        this.hedgedReadRunner = HedgedReadRunner.create(
+                clientPool, metricsManager, () -> runtimeConfigSupplier.get().hedgedReads());
+        this.cellLoader = CellLoader.create(
+                clientPool, wrappingQueryRunner, taskRunner, hedgedReadRunner, runtimeConfigSupplier);
         this.rangeLoader = new RangeLoader(clientPool, queryRunner, metricsManager, readConsistency);
         this.cellValuePutter = new CellValuePutter(
                 config,
@@ -681,8 +687,10 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
             final TableReference tableRef,
             List<KeyPredicate> query,
             final long startTs) throws Exception {
-        return clientPool.runWithRetryOnHost(
+        return hedgedReadRunner.runWithRetryOnHost(
+                tableRef,
                 host,
+                query.get(0).getKey(),
                 new FunctionCheckedException<CassandraClient, Map<ByteBuffer, List<ColumnOrSuperColumn>>, Exception>() {
                     @Override
                     public Map<ByteBuffer, List<ColumnOrSuperColumn>> apply(CassandraClient client) throws Exception {
@@ -919,7 +927,7 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
                                                              BatchColumnRangeSelection batchColumnRangeSelection,
                                                              long startTs) {
         try {
-            return clientPool.runWithRetryOnHost(host,
+            return hedgedReadRunner.runWithRetryOnHost(tableRef, host, rows.get(0),
                     new FunctionCheckedException<CassandraClient, RowColumnRangeExtractor.RowColumnRangeResult,
                             Exception>() {
                         @Override
@@ -974,7 +982,7 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
             }
 
             TokenBackedBasicResultsPage<Entry<Cell, Value>, byte[]> page(final byte[] startCol) throws Exception {
-                return clientPool.runWithRetryOnHost(host, new FunctionCheckedException<
+                return hedgedReadRunner.runWithRetryOnHost(tableRef, host, row, new FunctionCheckedException<
                         CassandraClient,
                         TokenBackedBasicResultsPage<Entry<Cell, Value>, byte[]>,
                         Exception>() {
@@ -1295,6 +1303,20 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
         return rangeLoader.getRange(tableRef, rangeRequest, timestamp);
     }
 
+    /**
+     * Splits the range along the token ranges of the cluster, so that each split is owned by a single set of
+     * replicas and can be read from one of them. Token range (a, b] starts at the smallest row after a, which
+     * under the ordered partitioner is a followed by a zero byte.
+     */
+    @Override
+    public List<RangeRequest> splitRange(TableReference tableRef, RangeRequest rangeRequest) {
+        List<byte[]> tokenRangeStarts = clientPool.getTokenMap().asMapOfRanges().keySet().stream()
+                .filter(range -> range.hasLowerBound())
+                .map(range -> Bytes.concat(range.lowerEndpoint().bytes, new byte[] {0}))
+                .collect(Collectors.toList());
+        return RangeRequests.splitAt(rangeRequest, tokenRangeStarts);
+    }
+
     /**
      * Gets timestamp values from the key-value store. For each row, this returns all associated
      * timestamps &lt; given_ts.
@@ -1749,6 +1771,7 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
      */
     @Override
     public void close() {
+        hedgedReadRunner.close();
         clientPool.shutdown();
         asyncKeyValueService.ifPresent(AsyncKeyValueService::close);
         super.close();
@@ -2028,6 +2051,70 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
                 .orElseGet(() -> Futures.immediateFuture(this.get(tableRef, timestampByCell)));
     }
 
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getRowsAsync(
+            TableReference tableRef,
+            Iterable<byte[]> rows,
+            ColumnSelection selection,
+            long timestamp) {
+        return cqlForRowsRangesAndMutations()
+                .map(asyncKvs -> asyncKvs.getRowsAsync(tableRef, rows, selection, timestamp))
+                .orElseGet(() -> Futures.immediateFuture(getRows(tableRef, rows, selection, timestamp)));
+    }
+
+    @Override
+    public ListenableFuture<Map<byte[], RowColumnRangeIterator>> getRowsColumnRangeAsync(
+            TableReference tableRef,
+            Iterable<byte[]> rows,
+            BatchColumnRangeSelection batchColumnRangeSelection,
+            long timestamp) {
+        return cqlForRowsRangesAndMutations()
+                .map(asyncKvs -> asyncKvs.getRowsColumnRangeAsync(tableRef, rows, batchColumnRangeSelection, timestamp))
+                .orElseGet(() -> Futures.immediateFuture(
+                        getRowsColumnRange(tableRef, rows, batchColumnRangeSelection, timestamp)));
+    }
+
+    /**
+     * Reverse ranges are not supported over CQL, so requests containing any are served synchronously over Thrift.
+     */
+    @Override
+    public ListenableFuture<Map<RangeRequest, TokenBackedBasicResultsPage<RowResult<Value>, byte[]>>>
+            getFirstBatchForRangesAsync(
+                    TableReference tableRef,
+                    Iterable<RangeRequest> rangeRequests,
+                    long timestamp) {
+        boolean anyReverse = Iterables.any(rangeRequests, RangeRequest::isReverse);
+        return cqlForRowsRangesAndMutations()
+                .filter(unused -> !anyReverse)
+                .map(asyncKvs -> asyncKvs.getFirstBatchForRangesAsync(tableRef, rangeRequests, timestamp))
+                .orElseGet(() -> Futures.immediateFuture(
+                        getFirstBatchForRanges(tableRef, rangeRequests, timestamp)));
+    }
+
+    @Override
+    public ListenableFuture<Void> multiPutAsync(
+            Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable,
+            long timestamp) {
+        return cqlForRowsRangesAndMutations().map(asyncKvs -> asyncKvs.multiPutAsync(valuesByTable, timestamp))
+                .orElseGet(() -> {
+                    multiPut(valuesByTable, timestamp);
+                    return Futures.immediateFuture(null);
+                });
+    }
+
+    @Override
+    public ListenableFuture<Void> deleteAsync(TableReference tableRef, Multimap<Cell, Long> keys) {
+        return cqlForRowsRangesAndMutations().map(asyncKvs -> asyncKvs.deleteAsync(tableRef, keys))
+                .orElseGet(() -> {
+                    delete(tableRef, keys);
+                    return Futures.immediateFuture(null);
+                });
+    }
+
+    private Optional<AsyncKeyValueService> cqlForRowsRangesAndMutations() {
+        return asyncKeyValueService.filter(unused -> runtimeConfigSupplier.get().useCqlForRowsRangesAndMutations());
+    }
+
     private static class TableCellAndValue {
         private static final Function<TableCellAndValue, byte[]> EXTRACT_ROW_NAME_FUNCTION =
                 input -> input.cell.getRowName();
@@ -54,16 +54,19 @@ final class CellLoader {
     private final CassandraClientPool clientPool;
     private final WrappingQueryRunner queryRunner;
     private final TaskRunner taskRunner;
+    private final HedgedReadRunner hedgedReadRunner;
     private final CellLoadingBatcher batcher;
 
     private CellLoader(
             CassandraClientPool clientPool,
             WrappingQueryRunner queryRunner,
             TaskRunner taskRunner,
+            HedgedReadRunner hedgedReadRunner,
             CellLoadingBatcher batcher) {
         this.clientPool = clientPool;
         this.queryRunner = queryRunner;
         this.taskRunner = taskRunner;
+        this.hedgedReadRunner = hedgedReadRunner;
         this.batcher = batcher;
     }
 
@@ -71,11 +74,12 @@ final class CellLoader {
             CassandraClientPool clientPool,
             WrappingQueryRunner queryRunner,
             TaskRunner taskRunner,
+            HedgedReadRunner hedgedReadRunner,
             Supplier<CassandraKeyValueServiceRuntimeConfig> configSupplier) {
         CellLoadingBatcher batcher = new CellLoadingBatcher(
                 () -> configSupplier.get().cellLoadingConfig(),
                 CellLoader::logRebatchingWarnMessage);
-        return new CellLoader(clientPool, queryRunner, taskRunner, batcher);
+        return new CellLoader(clientPool, queryRunner, taskRunner, hedgedReadRunner, batcher);
     }
 
     Multimap<Cell, Long> getAllTimestamps(TableReference tableRef, Set<Cell> cells, long ts,
@@ -144,38 +148,45 @@ final class CellLoader {
         final ColumnParent colFam = new ColumnParent(CassandraKeyValueServiceImpl.internalTableName(tableRef));
         List<Callable<Void>> tasks = Lists.newArrayList();
         for (final List<Cell> partition : batcher.partitionIntoBatches(cells, host, tableRef)) {
-            Callable<Void> multiGetCallable = () -> clientPool.runWithRetryOnHost(
-                    host,
-                    new FunctionCheckedException<CassandraClient, Void, Exception>() {
-                        @Override
-                        public Void apply(CassandraClient client) throws Exception {
-                            List<KeyPredicate> query
-                                    = translatePartitionToKeyPredicates(partition, startTs, loadAllTs);
-
-                            if (log.isTraceEnabled()) {
-                                log.trace("Requesting {} cells from {} {}starting at timestamp {} on {}",
-                                        SafeArg.of("cells", partition.size()),
-                                        LoggingArgs.tableRef(tableRef),
-                                        SafeArg.of("timestampClause", loadAllTs ? "for all timestamps " : ""),
-                                        SafeArg.of("startTs", startTs),
-                                        SafeArg.of("host", CassandraLogHelper.host(host)));
+            // the read may be hedged, so results are only visited once the winning attempt has completed
+            Callable<Void> multiGetCallable = () -> {
+                visitor.visit(hedgedReadRunner.runWithRetryOnHost(
+                        tableRef,
+                        host,
+                        partition.get(0).getRowName(),
+                        new FunctionCheckedException<CassandraClient, Map<ByteBuffer, List<ColumnOrSuperColumn>>,
+                                Exception>() {
+                            @Override
+                            public Map<ByteBuffer, List<ColumnOrSuperColumn>> apply(CassandraClient client)
+                                    throws Exception {
+                                List<KeyPredicate> query
+                                        = translatePartitionToKeyPredicates(partition, startTs, loadAllTs);
+
+                                if (log.isTraceEnabled()) {
+                                    log.trace("Requesting {} cells from {} {}starting at timestamp {} on {}",
+                                            SafeArg.of("cells", partition.size()),
+                                            LoggingArgs.tableRef(tableRef),
+                                            SafeArg.of("timestampClause", loadAllTs ? "for all timestamps " : ""),
+                                            SafeArg.of("startTs", startTs),
+                                            SafeArg.of("host", CassandraLogHelper.host(host)));
+                                }
+
+                                Map<ByteBuffer, List<List<ColumnOrSuperColumn>>> results =
+                                        queryRunner.multiget_multislice(
+                                                kvsMethodName, client, tableRef, query, consistency);
+                                return Maps.transformValues(results,
+                                        lists -> Lists.newArrayList(Iterables.concat(lists)));
                             }
 
-                            Map<ByteBuffer, List<List<ColumnOrSuperColumn>>> results = queryRunner.multiget_multislice(
-                                    kvsMethodName, client, tableRef, query, consistency);
-                            Map<ByteBuffer, List<ColumnOrSuperColumn>> aggregatedResults = Maps.transformValues(results,
-                                    lists -> Lists.newArrayList(Iterables.concat(lists)));
-                            visitor.visit(aggregatedResults);
-                            return null;
-                        }
-
-                        @Override
-                        public String toString() {
-                            return "multiget_multislice(" + host + ", " + colFam + ", "
-                                    + partition.size() + " cells" + ")";
-                        }
+                            @Override
+                            public String toString() {
+                                return "multiget_multislice(" + host + ", " + colFam + ", "
+                                        + partition.size() + " cells" + ")";
+                            }
 
-                    });
+                        }));
+                return null;
+            };
             tasks.add(AnnotatedCallable.wrapWithThreadName(AnnotationType.PREPEND,
                     "Atlas loadWithTs " + partition.size() + " cells from " + tableRef + " on " + host,
                     multiGetCallable));
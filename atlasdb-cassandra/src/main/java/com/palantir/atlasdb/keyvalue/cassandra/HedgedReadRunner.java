@@ -0,0 +1,291 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.SlidingTimeWindowArrayReservoir;
+import com.codahale.metrics.Snapshot;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.palantir.atlasdb.cassandra.CassandraHedgedReadsConfig;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.common.base.FunctionCheckedException;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
+import com.palantir.tracing.Tracers;
+
+/**
+ * Runs idempotent reads against Cassandra, hedging the reads of tables enabled in the
+ * {@link CassandraHedgedReadsConfig}: if the read has not completed once it has taken longer than the configured
+ * percentile of the recent read latencies of the table, the same read is sent to a different node, and the first
+ * successful response is used. The read only fails if both attempts fail.
+ *
+ * Reads of tables that are not enabled run directly on the calling thread. Hedged reads run on a bounded pool of
+ * threads; when it is saturated, reads are not hedged but run directly on the calling thread, so that a slow cluster
+ * cannot make the number of threads grow without bound.
+ */
+final class HedgedReadRunner implements AutoCloseable {
+    private static final int MAX_HEDGE_HOST_SELECTION_ATTEMPTS = 3;
+    private static final int MIN_SAMPLES_FOR_PERCENTILE = 100;
+    private static final long DELAY_REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int MAX_THREADS = 64;
+    private static final long THREAD_KEEP_ALIVE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final CassandraClientPool clientPool;
+    private final MetricsManager metricsManager;
+    private final Supplier<CassandraHedgedReadsConfig> config;
+    private final ListeningExecutorService executor;
+    private final Map<TableReference, TableHedgingState> tableStates = new ConcurrentHashMap<>();
+
+    @VisibleForTesting
+    HedgedReadRunner(
+            CassandraClientPool clientPool,
+            MetricsManager metricsManager,
+            Supplier<CassandraHedgedReadsConfig> config,
+            ExecutorService executor) {
+        this.clientPool = clientPool;
+        this.metricsManager = metricsManager;
+        this.config = config;
+        this.executor = MoreExecutors.listeningDecorator(executor);
+    }
+
+    static HedgedReadRunner create(
+            CassandraClientPool clientPool,
+            MetricsManager metricsManager,
+            Supplier<CassandraHedgedReadsConfig> config) {
+        return new HedgedReadRunner(clientPool, metricsManager, config,
+                Tracers.wrap(PTExecutors.newThreadPoolExecutor(
+                        0,
+                        MAX_THREADS,
+                        THREAD_KEEP_ALIVE_MILLIS,
+                        TimeUnit.MILLISECONDS,
+                        new SynchronousQueue<>(),
+                        new NamedThreadFactory("Atlas Cassandra KVS hedged reads", true))));
+    }
+
+    /**
+     * Runs the given read on the given host, as {@link CassandraClientPool#runWithRetryOnHost} does, hedging it on a
+     * different replica of the given row if the table is enabled for hedging.
+     */
+    <V> V runWithRetryOnHost(
+            TableReference tableRef,
+            InetSocketAddress host,
+            byte[] row,
+            FunctionCheckedException<CassandraClient, V, Exception> fn) throws Exception {
+        CassandraHedgedReadsConfig hedgingConfig = config.get();
+        if (!hedgingConfig.isEnabledFor(tableRef)) {
+            return clientPool.runWithRetryOnHost(host, fn);
+        }
+
+        TableHedgingState state = tableStates.computeIfAbsent(tableRef, TableHedgingState::new);
+        long start = System.nanoTime();
+        ListenableFuture<V> primary;
+        try {
+            primary = executor.submit(() -> clientPool.runWithRetryOnHost(host, fn));
+        } catch (RejectedExecutionException e) {
+            state.hedgesSkipped.mark();
+            return clientPool.runWithRetryOnHost(host, fn);
+        }
+        Futures.addCallback(primary, new FutureCallback<V>() {
+            @Override
+            public void onSuccess(V result) {
+                state.latencies.update(System.nanoTime() - start);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                // only successful reads contribute to the latency distribution
+            }
+        }, MoreExecutors.directExecutor());
+
+        try {
+            return primary.get(state.delayNanos(hedgingConfig), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // fall through and hedge
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            primary.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+
+        Optional<InetSocketAddress> hedgeHost = selectHedgeHost(host, row);
+        if (!hedgeHost.isPresent()) {
+            return await(primary, primary);
+        }
+
+        ListenableFuture<V> hedge;
+        try {
+            hedge = executor.submit(() -> clientPool.runWithRetryOnHost(hedgeHost.get(), fn));
+        } catch (RejectedExecutionException e) {
+            state.hedgesSkipped.mark();
+            return await(primary, primary);
+        }
+        state.hedgesIssued.mark();
+        SettableFuture<V> firstSuccess = SettableFuture.create();
+        AtomicInteger remainingAttempts = new AtomicInteger(2);
+        Futures.addCallback(primary, new FirstSuccessCallback<>(
+                firstSuccess, remainingAttempts, primary, () -> { }), MoreExecutors.directExecutor());
+        Futures.addCallback(hedge, new FirstSuccessCallback<>(
+                firstSuccess, remainingAttempts, primary, state.hedgesWon::mark), MoreExecutors.directExecutor());
+
+        try {
+            return await(firstSuccess, primary, hedge);
+        } finally {
+            primary.cancel(false);
+            hedge.cancel(false);
+        }
+    }
+
+    private Optional<InetSocketAddress> selectHedgeHost(InetSocketAddress primaryHost, byte[] row) {
+        for (int attempt = 0; attempt < MAX_HEDGE_HOST_SELECTION_ATTEMPTS; attempt++) {
+            InetSocketAddress candidate = clientPool.getRandomHostForKey(row);
+            if (!candidate.equals(primaryHost)) {
+                return Optional.of(candidate);
+            }
+        }
+        // every node can coordinate the read, even if it is not a replica of the row
+        return clientPool.getCurrentPools().keySet().stream()
+                .filter(candidate -> !candidate.equals(primaryHost))
+                .findAny();
+    }
+
+    @SafeVarargs
+    private static <V> V await(ListenableFuture<V> result, ListenableFuture<V>... attempts) throws Exception {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            for (ListenableFuture<V> attempt : attempts) {
+                attempt.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    private static Exception unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return cause instanceof Exception ? (Exception) cause : e;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Completes the shared result with the first successful attempt, or with the failure of the primary attempt once
+     * both attempts have failed.
+     */
+    private static final class FirstSuccessCallback<V> implements FutureCallback<V> {
+        private final SettableFuture<V> result;
+        private final AtomicInteger remainingAttempts;
+        private final ListenableFuture<V> primary;
+        private final Runnable onWin;
+
+        private FirstSuccessCallback(
+                SettableFuture<V> result,
+                AtomicInteger remainingAttempts,
+                ListenableFuture<V> primary,
+                Runnable onWin) {
+            this.result = result;
+            this.remainingAttempts = remainingAttempts;
+            this.primary = primary;
+            this.onWin = onWin;
+        }
+
+        @Override
+        public void onSuccess(V value) {
+            if (result.set(value)) {
+                onWin.run();
+            }
+        }
+
+        @Override
+        public void onFailure(Throwable throwable) {
+            if (remainingAttempts.decrementAndGet() == 0) {
+                result.setFuture(primary);
+            }
+        }
+    }
+
+    private final class TableHedgingState {
+        private final Histogram latencies;
+        private final Meter hedgesIssued;
+        private final Meter hedgesWon;
+        private final Meter hedgesSkipped;
+
+        private volatile long delayNanos;
+        private volatile long delayComputedAt;
+        private volatile boolean delayComputed = false;
+
+        private TableHedgingState(TableReference tableRef) {
+            Map<String, String> tags = metricsManager.getTableNameTagFor(tableRef);
+            this.latencies = metricsManager.registerOrGetTaggedHistogram(HedgedReadRunner.class, "readLatency", tags,
+                    () -> new Histogram(new SlidingTimeWindowArrayReservoir(1, TimeUnit.MINUTES)));
+            this.hedgesIssued = metricsManager.registerOrGetTaggedMeter(HedgedReadRunner.class, "hedgesIssued", tags);
+            this.hedgesWon = metricsManager.registerOrGetTaggedMeter(HedgedReadRunner.class, "hedgesWon", tags);
+            this.hedgesSkipped = metricsManager.registerOrGetTaggedMeter(
+                    HedgedReadRunner.class, "hedgesSkipped", tags);
+        }
+
+        private long delayNanos(CassandraHedgedReadsConfig hedgingConfig) {
+            long now = System.nanoTime();
+            if (!delayComputed || now - delayComputedAt > DELAY_REFRESH_INTERVAL_NANOS) {
+                delayNanos = computeDelayNanos(hedgingConfig);
+                delayComputedAt = now;
+                delayComputed = true;
+            }
+            return delayNanos;
+        }
+
+        private long computeDelayNanos(CassandraHedgedReadsConfig hedgingConfig) {
+            Snapshot snapshot = latencies.getSnapshot();
+            if (snapshot.size() < MIN_SAMPLES_FOR_PERCENTILE) {
+                return TimeUnit.MILLISECONDS.toNanos(hedgingConfig.initialDelayMillis());
+            }
+            long percentile = (long) snapshot.getValue(hedgingConfig.delayPercentile() / 100.0);
+            return Math.max(TimeUnit.MILLISECONDS.toNanos(hedgingConfig.minimumDelayMillis()), percentile);
+        }
+    }
+}
@@ -16,42 +16,100 @@
 
 package com.palantir.atlasdb.keyvalue.cassandra.async;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.LongUnaryOperator;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Function;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+import com.google.common.primitives.UnsignedBytes;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.palantir.atlasdb.cassandra.CassandraMutationTimestampProvider;
+import com.palantir.atlasdb.futures.AtlasFutures;
 import com.palantir.atlasdb.futures.FuturesCombiner;
 import com.palantir.atlasdb.keyvalue.api.AsyncKeyValueService;
+import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
 import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RangeRequests;
+import com.palantir.atlasdb.keyvalue.api.RowColumnRangeIterator;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.cassandra.CassandraConstants;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ColumnRangeQuerySpec;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.CqlQueryContext;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.DeleteQuerySpec;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.DeleteQuerySpec.DeleteQueryParameters;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.GetQuerySpec;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.GetQuerySpec.GetQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableColumnRangeQueryParameters;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableCqlQueryContext;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableDeleteQueryParameters;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableGetQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutablePutQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableRangeQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableRowColumnsQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.PutQuerySpec;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.PutQuerySpec.PutQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.RangeQuerySpec;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.RowColumnsQuerySpec;
+import com.palantir.atlasdb.keyvalue.impl.Cells;
+import com.palantir.atlasdb.keyvalue.impl.IterablePartitioner;
 import com.palantir.atlasdb.logging.LoggingArgs;
 import com.palantir.common.streams.KeyedStream;
+import com.palantir.logsafe.Preconditions;
 import com.palantir.logsafe.SafeArg;
+import com.palantir.util.paging.SimpleTokenBackedResultsPage;
+import com.palantir.util.paging.TokenBackedBasicResultsPage;
 
 public final class CassandraAsyncKeyValueService implements AsyncKeyValueService {
     private static final Logger log = LoggerFactory.getLogger(CassandraAsyncKeyValueService.class);
 
+    private static final int DEFAULT_RANGE_BATCH_SIZE = 100;
+    // Bounds the number of values in the IN restriction of a single query for selected columns of a row.
+    private static final int MAX_COLUMNS_PER_ROW_QUERY = 100;
+
     private final String keyspace;
     private final CqlClient cqlClient;
     private final FuturesCombiner futuresCombiner;
+    private final CassandraMutationTimestampProvider mutationTimestampProvider;
 
-    public static AsyncKeyValueService create(String keyspace, CqlClient cqlClient, FuturesCombiner futuresCombiner) {
-        return new CassandraAsyncKeyValueService(keyspace, cqlClient, futuresCombiner);
+    public static AsyncKeyValueService create(
+            String keyspace,
+            CqlClient cqlClient,
+            FuturesCombiner futuresCombiner,
+            CassandraMutationTimestampProvider mutationTimestampProvider) {
+        return new CassandraAsyncKeyValueService(keyspace, cqlClient, futuresCombiner, mutationTimestampProvider);
     }
 
-    private CassandraAsyncKeyValueService(String keyspace, CqlClient cqlClient, FuturesCombiner futuresCombiner) {
+    private CassandraAsyncKeyValueService(
+            String keyspace,
+            CqlClient cqlClient,
+            FuturesCombiner futuresCombiner,
+            CassandraMutationTimestampProvider mutationTimestampProvider) {
         this.keyspace = keyspace;
         this.cqlClient = cqlClient;
         this.futuresCombiner = futuresCombiner;
+        this.mutationTimestampProvider = mutationTimestampProvider;
     }
 
     public ListenableFuture<Map<Cell, Value>> getAsync(TableReference tableReference, Map<Cell, Long> timestampByCell) {
@@ -70,10 +128,7 @@ public final class CassandraAsyncKeyValueService implements AsyncKeyValueService
     }
 
     private ListenableFuture<Optional<Value>> getCellAsync(TableReference tableReference, Cell cell, long timestamp) {
-        CqlQueryContext queryContext = ImmutableCqlQueryContext.builder()
-                .tableReference(tableReference)
-                .keyspace(keyspace)
-                .build();
+        CqlQueryContext queryContext = queryContext(tableReference);
         GetQueryParameters getQueryParameters = ImmutableGetQueryParameters.builder()
                 .cell(cell)
                 .humanReadableTimestamp(timestamp)
@@ -82,6 +137,294 @@ public final class CassandraAsyncKeyValueService implements AsyncKeyValueService
         return cqlClient.executeQuery(new GetQuerySpec(queryContext, getQueryParameters));
     }
 
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getRowsAsync(
+            TableReference tableReference,
+            Iterable<byte[]> rows,
+            ColumnSelection columnSelection,
+            long timestamp) {
+        List<ListenableFuture<List<Map.Entry<Cell, Value>>>> rowFutures = new ArrayList<>();
+        if (columnSelection.allColumnsSelected()) {
+            for (byte[] row : rows) {
+                rowFutures.add(getColumnRangeAsync(
+                        tableReference, row, new byte[0], new byte[0], Integer.MAX_VALUE, timestamp));
+            }
+        } else {
+            List<List<byte[]>> columnBatches = Lists.partition(
+                    ImmutableList.copyOf(columnSelection.getSelectedColumns()), MAX_COLUMNS_PER_ROW_QUERY);
+            for (byte[] row : rows) {
+                for (List<byte[]> columns : columnBatches) {
+                    rowFutures.add(getRowColumnsAsync(tableReference, row, columns, timestamp));
+                }
+            }
+        }
+        return Futures.transform(
+                Futures.allAsList(rowFutures),
+                rowResults -> {
+                    Map<Cell, Value> result = new LinkedHashMap<>();
+                    rowResults.forEach(cells -> cells.forEach(entry -> result.put(entry.getKey(), entry.getValue())));
+                    return result;
+                },
+                MoreExecutors.directExecutor());
+    }
+
+    @Override
+    public ListenableFuture<Map<byte[], RowColumnRangeIterator>> getRowsColumnRangeAsync(
+            TableReference tableReference,
+            Iterable<byte[]> rows,
+            BatchColumnRangeSelection batchColumnRangeSelection,
+            long timestamp) {
+        Map<byte[], ListenableFuture<RowColumnRangeIterator>> iterators = new LinkedHashMap<>();
+        for (byte[] row : rows) {
+            iterators.put(row, Futures.transform(
+                    getColumnRangeAsync(
+                            tableReference,
+                            row,
+                            batchColumnRangeSelection.getStartCol(),
+                            batchColumnRangeSelection.getEndCol(),
+                            batchColumnRangeSelection.getBatchHint(),
+                            timestamp),
+                    firstBatch -> new CqlRowColumnRangeIterator(
+                            tableReference, row, batchColumnRangeSelection, timestamp, firstBatch),
+                    MoreExecutors.directExecutor()));
+        }
+        return allAsMap(iterators);
+    }
+
+    private ListenableFuture<List<Map.Entry<Cell, Value>>> getRowColumnsAsync(
+            TableReference tableReference,
+            byte[] row,
+            List<byte[]> columns,
+            long timestamp) {
+        return cqlClient.executeQuery(new RowColumnsQuerySpec(
+                queryContext(tableReference),
+                ImmutableRowColumnsQueryParameters.builder()
+                        .row(row)
+                        .columns(columns)
+                        .humanReadableTimestamp(timestamp)
+                        .build()));
+    }
+
+    private ListenableFuture<List<Map.Entry<Cell, Value>>> getColumnRangeAsync(
+            TableReference tableReference,
+            byte[] row,
+            byte[] startColumnInclusive,
+            byte[] endColumnExclusive,
+            int limit,
+            long timestamp) {
+        return cqlClient.executeQuery(new ColumnRangeQuerySpec(
+                queryContext(tableReference),
+                ImmutableColumnRangeQueryParameters.builder()
+                        .row(row)
+                        .startColumnInclusive(startColumnInclusive)
+                        .endColumnExclusive(endColumnExclusive)
+                        .limit(limit)
+                        .humanReadableTimestamp(timestamp)
+                        .build()));
+    }
+
+    @Override
+    public ListenableFuture<Map<RangeRequest, TokenBackedBasicResultsPage<RowResult<Value>, byte[]>>>
+            getFirstBatchForRangesAsync(
+                    TableReference tableReference,
+                    Iterable<RangeRequest> rangeRequests,
+                    long timestamp) {
+        Map<RangeRequest, ListenableFuture<TokenBackedBasicResultsPage<RowResult<Value>, byte[]>>> pages =
+                new LinkedHashMap<>();
+        for (RangeRequest rangeRequest : rangeRequests) {
+            Preconditions.checkArgument(!rangeRequest.isReverse(), "Reverse ranges are not supported over CQL");
+            pages.computeIfAbsent(rangeRequest,
+                    request -> getFirstBatchForRangeAsync(tableReference, request, timestamp));
+        }
+        return allAsMap(pages);
+    }
+
+    private ListenableFuture<TokenBackedBasicResultsPage<RowResult<Value>, byte[]>> getFirstBatchForRangeAsync(
+            TableReference tableReference,
+            RangeRequest rangeRequest,
+            long timestamp) {
+        int batchSize = rangeRequest.getBatchHint() == null ? DEFAULT_RANGE_BATCH_SIZE : rangeRequest.getBatchHint();
+        RangeQuerySpec querySpec = new RangeQuerySpec(
+                queryContext(tableReference),
+                ImmutableRangeQueryParameters.builder()
+                        .startRowInclusive(rangeRequest.getStartInclusive())
+                        .endRowExclusive(rangeRequest.getEndExclusive())
+                        .columnSelection(RangeRequests.extractColumnSelection(rangeRequest))
+                        .limit(batchSize)
+                        .humanReadableTimestamp(timestamp)
+                        .build());
+        return Futures.transform(
+                cqlClient.executeQuery(querySpec),
+                rows -> toPage(rangeRequest, batchSize, rows),
+                MoreExecutors.directExecutor());
+    }
+
+    private static TokenBackedBasicResultsPage<RowResult<Value>, byte[]> toPage(
+            RangeRequest rangeRequest,
+            int batchSize,
+            List<RowResult<Value>> rows) {
+        if (rows.size() < batchSize) {
+            return SimpleTokenBackedResultsPage.create(rangeRequest.getEndExclusive(), rows, false);
+        }
+        byte[] lastRowName = rows.get(rows.size() - 1).getRowName();
+        if (RangeRequests.isLastRowName(lastRowName)) {
+            return SimpleTokenBackedResultsPage.create(lastRowName, rows, false);
+        }
+        byte[] nextStartRow = RangeRequests.nextLexicographicName(lastRowName);
+        boolean moreResultsAvailable = !Arrays.equals(rangeRequest.getEndExclusive(), nextStartRow);
+        return SimpleTokenBackedResultsPage.create(nextStartRow, rows, moreResultsAvailable);
+    }
+
+    @Override
+    public ListenableFuture<Void> multiPutAsync(
+            Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable,
+            long timestamp) {
+        List<ListenableFuture<Void>> futures = new ArrayList<>();
+        valuesByTable.forEach((tableReference, values) -> {
+            CqlQueryContext queryContext = queryContext(tableReference);
+            for (List<Map.Entry<Cell, byte[]>> batch : batchesByRow(tableReference, values.entrySet(),
+                    entry -> entry.getKey().getRowName(),
+                    entry -> Cells.getApproxSizeOfCell(entry.getKey()) + entry.getValue().length)) {
+                List<PutQueryParameters> puts = new ArrayList<>(batch.size());
+                for (Map.Entry<Cell, byte[]> entry : batch) {
+                    puts.add(ImmutablePutQueryParameters.builder()
+                            .cell(entry.getKey())
+                            .value(ByteBuffer.wrap(entry.getValue()).asReadOnlyBuffer())
+                            .humanReadableTimestamp(timestamp)
+                            .build());
+                }
+                futures.add(cqlClient.executeQuery(new PutQuerySpec(queryContext, puts)));
+            }
+        });
+        return allComplete(futures);
+    }
+
+    @Override
+    public ListenableFuture<Void> deleteAsync(TableReference tableReference, Multimap<Cell, Long> keys) {
+        LongUnaryOperator deletionTimestamps = mutationTimestampProvider.getDeletionTimestampOperatorForBatchDelete();
+        CqlQueryContext queryContext = queryContext(tableReference);
+        List<ListenableFuture<Void>> futures = new ArrayList<>();
+        for (List<Map.Entry<Cell, Long>> batch : batchesByRow(tableReference, keys.entries(),
+                entry -> entry.getKey().getRowName(),
+                entry -> Cells.getApproxSizeOfCell(entry.getKey()) + Long.BYTES)) {
+            List<DeleteQueryParameters> deletes = new ArrayList<>(batch.size());
+            for (Map.Entry<Cell, Long> entry : batch) {
+                deletes.add(ImmutableDeleteQueryParameters.builder()
+                        .cell(entry.getKey())
+                        .humanReadableTimestamp(entry.getValue())
+                        .cassandraTimestamp(deletionTimestamps.applyAsLong(entry.getValue()))
+                        .build());
+            }
+            futures.add(cqlClient.executeQuery(new DeleteQuerySpec(queryContext, deletes)));
+        }
+        return allComplete(futures);
+    }
+
+    /**
+     * Groups entries by row, and splits the entries of each row into batches bounded in count and size in the same
+     * way as the Thrift client does by default.
+     */
+    private static <T> List<List<T>> batchesByRow(
+            TableReference tableReference,
+            Collection<T> entries,
+            Function<T, byte[]> rowExtractor,
+            Function<T, Long> sizingFunction) {
+        SortedMap<byte[], List<T>> entriesByRow = new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+        for (T entry : entries) {
+            entriesByRow.computeIfAbsent(rowExtractor.apply(entry), unused -> new ArrayList<>()).add(entry);
+        }
+        List<List<T>> batches = new ArrayList<>();
+        for (List<T> rowEntries : entriesByRow.values()) {
+            IterablePartitioner.partitionByCountAndBytes(
+                    rowEntries,
+                    CassandraConstants.DEFAULT_MUTATION_BATCH_COUNT,
+                    CassandraConstants.DEFAULT_MUTATION_BATCH_SIZE_BYTES,
+                    tableReference,
+                    sizingFunction).forEach(batches::add);
+        }
+        return batches;
+    }
+
+    private CqlQueryContext queryContext(TableReference tableReference) {
+        return ImmutableCqlQueryContext.builder()
+                .tableReference(tableReference)
+                .keyspace(keyspace)
+                .build();
+    }
+
+    private static <K, V> ListenableFuture<Map<K, V>> allAsMap(Map<K, ListenableFuture<V>> futures) {
+        List<K> keys = ImmutableList.copyOf(futures.keySet());
+        return Futures.transform(
+                Futures.allAsList(futures.values()),
+                values -> {
+                    Map<K, V> result = new LinkedHashMap<>();
+                    for (int i = 0; i < keys.size(); i++) {
+                        result.put(keys.get(i), values.get(i));
+                    }
+                    return result;
+                },
+                MoreExecutors.directExecutor());
+    }
+
+    private static ListenableFuture<Void> allComplete(List<ListenableFuture<Void>> futures) {
+        return Futures.whenAllSucceed(futures).call(() -> null, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Iterates over the columns of a row in a column range, starting from an already loaded first batch. Further
+     * batches are loaded when the current one is exhausted, blocking the consumer.
+     */
+    private final class CqlRowColumnRangeIterator extends AbstractIterator<Map.Entry<Cell, Value>>
+            implements RowColumnRangeIterator {
+        private final TableReference tableReference;
+        private final byte[] row;
+        private final BatchColumnRangeSelection batchColumnRangeSelection;
+        private final long timestamp;
+
+        private Iterator<Map.Entry<Cell, Value>> currentBatch;
+        private byte[] nextStartColumn;
+
+        CqlRowColumnRangeIterator(
+                TableReference tableReference,
+                byte[] row,
+                BatchColumnRangeSelection batchColumnRangeSelection,
+                long timestamp,
+                List<Map.Entry<Cell, Value>> firstBatch) {
+            this.tableReference = tableReference;
+            this.row = row;
+            this.batchColumnRangeSelection = batchColumnRangeSelection;
+            this.timestamp = timestamp;
+            setBatch(firstBatch);
+        }
+
+        @Override
+        protected Map.Entry<Cell, Value> computeNext() {
+            while (!currentBatch.hasNext()) {
+                if (nextStartColumn == null) {
+                    return endOfData();
+                }
+                setBatch(AtlasFutures.getUnchecked(getColumnRangeAsync(
+                        tableReference,
+                        row,
+                        nextStartColumn,
+                        batchColumnRangeSelection.getEndCol(),
+                        batchColumnRangeSelection.getBatchHint(),
+                        timestamp)));
+            }
+            return currentBatch.next();
+        }
+
+        private void setBatch(List<Map.Entry<Cell, Value>> batch) {
+            currentBatch = batch.iterator();
+            if (batch.size() < batchColumnRangeSelection.getBatchHint()) {
+                nextStartColumn = null;
+            } else {
+                byte[] lastColumn = batch.get(batch.size() - 1).getKey().getColumnName();
+                nextStartColumn = RangeRequests.getNextStartRowUnlessTerminal(false, lastColumn);
+            }
+        }
+    }
+
     @Override
     public void close() {
         cqlClient.close();
@@ -19,6 +19,7 @@ package com.palantir.atlasdb.keyvalue.cassandra.async;
 import java.util.Optional;
 
 import com.palantir.atlasdb.cassandra.CassandraKeyValueServiceConfig;
+import com.palantir.atlasdb.cassandra.CassandraMutationTimestampProvider;
 import com.palantir.atlasdb.keyvalue.api.AsyncKeyValueService;
 import com.palantir.atlasdb.util.MetricsManager;
 
@@ -26,5 +27,6 @@ public interface CassandraAsyncKeyValueServiceFactory {
     Optional<AsyncKeyValueService> constructAsyncKeyValueService(
             MetricsManager metricsManager,
             CassandraKeyValueServiceConfig config,
+            CassandraMutationTimestampProvider mutationTimestampProvider,
             boolean initializeAsync);
 }
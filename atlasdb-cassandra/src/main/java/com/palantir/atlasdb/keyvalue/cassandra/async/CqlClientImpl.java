@@ -150,7 +150,7 @@ public final class CqlClientImpl implements CqlClient {
                     .limit(resultSet.getAvailableWithoutFetching()));
 
             boolean wasLastPage = resultSet.getExecutionInfo().getPagingState() == null;
-            if (wasLastPage) {
+            if (wasLastPage || rowStreamAccumulator.isDone()) {
                 return Futures.immediateFuture(rowStreamAccumulator.result());
             } else {
                 ListenableFuture<ResultSet> future = resultSet.fetchMoreResults();
@@ -25,6 +25,7 @@ import com.codahale.metrics.InstrumentedExecutorService;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.palantir.atlasdb.cassandra.CassandraKeyValueServiceConfig;
+import com.palantir.atlasdb.cassandra.CassandraMutationTimestampProvider;
 import com.palantir.atlasdb.cassandra.CassandraServersConfigs.CqlCapableConfig;
 import com.palantir.atlasdb.cassandra.CassandraServersConfigs.DefaultConfig;
 import com.palantir.atlasdb.cassandra.CassandraServersConfigs.Visitor;
@@ -51,6 +52,7 @@ public final class DefaultCassandraAsyncKeyValueServiceFactory implements Cassan
     public Optional<AsyncKeyValueService> constructAsyncKeyValueService(
             MetricsManager metricsManager,
             CassandraKeyValueServiceConfig config,
+            CassandraMutationTimestampProvider mutationTimestampProvider,
             boolean initializeAsync) {
         Optional<CqlClient> cqlClient = cqlClientFactory.constructClient(
                 metricsManager.getTaggedRegistry(),
@@ -78,7 +80,8 @@ public final class DefaultCassandraAsyncKeyValueServiceFactory implements Cassan
         return cqlClient.map(client -> CassandraAsyncKeyValueService.create(
                 config.getKeyspaceOrThrow(),
                 client,
-                AtlasFutures.futuresCombiner(executorService)));
+                AtlasFutures.futuresCombiner(executorService),
+                mutationTimestampProvider));
     }
 
     /**
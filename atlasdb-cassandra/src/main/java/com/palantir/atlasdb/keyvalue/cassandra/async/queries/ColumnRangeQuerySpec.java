@@ -0,0 +1,188 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.async.queries;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.utils.Bytes;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.UnsignedBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.impl.AbstractKeyValueService;
+
+/**
+ * Loads the latest version visible at the given timestamp of the columns of a single row within a column range, in
+ * column order and up to a limit. As the versions of all columns of a row can only be restricted by a range on the
+ * column name, all versions of the columns in the range are read and the visible one is picked out here; rows are
+ * streamed page by page and no further pages are requested once the limit or the end of the range is reached.
+ */
+public final class ColumnRangeQuerySpec implements CqlQuerySpec<List<Map.Entry<Cell, Value>>> {
+    private static final String QUERY_FORMAT = "SELECT column1, column2, value FROM \"%s\".\"%s\" "
+            + "WHERE key = :row AND column1 >= :startColumn;";
+
+    private final CqlQueryContext cqlQueryContext;
+    private final ColumnRangeQueryParameters columnRangeQueryParameters;
+    private final ColumnRangeAccumulator columnRangeAccumulator;
+
+    public ColumnRangeQuerySpec(
+            CqlQueryContext cqlQueryContext,
+            ColumnRangeQueryParameters columnRangeQueryParameters) {
+        this.cqlQueryContext = cqlQueryContext;
+        this.columnRangeQueryParameters = columnRangeQueryParameters;
+        this.columnRangeAccumulator = new ColumnRangeAccumulator(columnRangeQueryParameters);
+    }
+
+    @Override
+    public CqlQueryContext cqlQueryContext() {
+        return cqlQueryContext;
+    }
+
+    @Override
+    public String formatQueryString() {
+        return String.format(
+                QUERY_FORMAT,
+                cqlQueryContext().keyspace(),
+                AbstractKeyValueService.internalTableName(cqlQueryContext().tableReference()));
+    }
+
+    @Override
+    public QueryType queryType() {
+        return QueryType.GET_ROW_COLUMN_RANGE;
+    }
+
+    @Override
+    public Statement makeExecutableStatement(PreparedStatement preparedStatement) {
+        return preparedStatement.bind()
+                .setBytes("row", ByteBuffer.wrap(columnRangeQueryParameters.row()).asReadOnlyBuffer())
+                .setBytes("startColumn",
+                        ByteBuffer.wrap(columnRangeQueryParameters.startColumnInclusive()).asReadOnlyBuffer());
+    }
+
+    @Override
+    public ConsistencyLevel queryConsistency() {
+        return ConsistencyLevel.LOCAL_QUORUM;
+    }
+
+    @Override
+    public RowStreamAccumulator<List<Map.Entry<Cell, Value>>> rowStreamAccumulator() {
+        return columnRangeAccumulator;
+    }
+
+    @org.immutables.value.Value.Immutable
+    public interface ColumnRangeQueryParameters {
+        byte[] row();
+
+        byte[] startColumnInclusive();
+
+        /**
+         * End of the column range; an empty array means the range is unbounded.
+         */
+        byte[] endColumnExclusive();
+
+        /**
+         * Maximum number of cells to load.
+         */
+        int limit();
+
+        long humanReadableTimestamp();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        ColumnRangeQuerySpec that = (ColumnRangeQuerySpec) other;
+        return cqlQueryContext.equals(that.cqlQueryContext)
+                && columnRangeQueryParameters.equals(that.columnRangeQueryParameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cqlQueryContext, columnRangeQueryParameters);
+    }
+
+    private static class ColumnRangeAccumulator implements RowStreamAccumulator<List<Map.Entry<Cell, Value>>> {
+        private final ColumnRangeQueryParameters parameters;
+        private final List<Map.Entry<Cell, Value>> cells = new ArrayList<>();
+
+        private volatile byte[] lastVisibleColumn = null;
+        private volatile boolean done = false;
+
+        ColumnRangeAccumulator(ColumnRangeQueryParameters parameters) {
+            this.parameters = parameters;
+        }
+
+        @Override
+        public void accumulateRowStream(Stream<Row> rowStream) {
+            Iterator<Row> rows = rowStream.iterator();
+            while (!done && rows.hasNext()) {
+                accumulateRow(rows.next());
+            }
+        }
+
+        private void accumulateRow(Row row) {
+            byte[] column = Bytes.getArray(row.getBytes(0));
+            if (isAfterEndOfRange(column)) {
+                done = true;
+                return;
+            }
+            long timestamp = ~row.getLong(1);
+            if (Arrays.equals(column, lastVisibleColumn) || timestamp >= parameters.humanReadableTimestamp()) {
+                return;
+            }
+            if (cells.size() >= parameters.limit()) {
+                done = true;
+                return;
+            }
+            lastVisibleColumn = column;
+            cells.add(Maps.immutableEntry(
+                    Cell.create(parameters.row(), column),
+                    Value.create(Bytes.getArray(row.getBytes(2)), timestamp)));
+        }
+
+        private boolean isAfterEndOfRange(byte[] column) {
+            byte[] end = parameters.endColumnExclusive();
+            return end.length != 0 && UnsignedBytes.lexicographicalComparator().compare(column, end) >= 0;
+        }
+
+        @Override
+        public List<Map.Entry<Cell, Value>> result() {
+            return cells;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.async.queries;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Objects;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Statement;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.impl.AbstractKeyValueService;
+import com.palantir.logsafe.Preconditions;
+
+/**
+ * Deletes versions of cells of a single row in a single unlogged batch. Each version is deleted at the Cassandra
+ * timestamp given for it, and, as for the Thrift client, with consistency {@code ALL} so that all copies are removed.
+ */
+public final class DeleteQuerySpec implements CqlQuerySpec<Void> {
+    private static final String QUERY_FORMAT = "DELETE FROM \"%s\".\"%s\" "
+            + "USING TIMESTAMP :cassandraTimestamp "
+            + "WHERE key = :row AND column1 = :column AND column2 = :timestamp;";
+
+    private final CqlQueryContext cqlQueryContext;
+    private final List<DeleteQueryParameters> deleteQueryParameters;
+
+    public DeleteQuerySpec(CqlQueryContext cqlQueryContext, List<DeleteQueryParameters> deleteQueryParameters) {
+        Preconditions.checkArgument(!deleteQueryParameters.isEmpty(), "Must delete at least one cell");
+        this.cqlQueryContext = cqlQueryContext;
+        this.deleteQueryParameters = ImmutableList.copyOf(deleteQueryParameters);
+    }
+
+    @Override
+    public CqlQueryContext cqlQueryContext() {
+        return cqlQueryContext;
+    }
+
+    @Override
+    public String formatQueryString() {
+        return String.format(
+                QUERY_FORMAT,
+                cqlQueryContext().keyspace(),
+                AbstractKeyValueService.internalTableName(cqlQueryContext().tableReference()));
+    }
+
+    @Override
+    public QueryType queryType() {
+        return QueryType.DELETE;
+    }
+
+    @Override
+    public Statement makeExecutableStatement(PreparedStatement preparedStatement) {
+        if (deleteQueryParameters.size() == 1) {
+            return bind(preparedStatement, Iterables.getOnlyElement(deleteQueryParameters));
+        }
+        BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+        deleteQueryParameters.forEach(parameters -> batch.add(bind(preparedStatement, parameters)));
+        return batch;
+    }
+
+    private static BoundStatement bind(PreparedStatement preparedStatement, DeleteQueryParameters parameters) {
+        return preparedStatement.bind()
+                .setLong("cassandraTimestamp", parameters.cassandraTimestamp())
+                .setBytes("row", ByteBuffer.wrap(parameters.cell().getRowName()).asReadOnlyBuffer())
+                .setBytes("column", ByteBuffer.wrap(parameters.cell().getColumnName()).asReadOnlyBuffer())
+                .setLong("timestamp", parameters.queryTimestamp());
+    }
+
+    @Override
+    public ConsistencyLevel queryConsistency() {
+        return ConsistencyLevel.ALL;
+    }
+
+    @Override
+    public RowStreamAccumulator<Void> rowStreamAccumulator() {
+        return NoResultAccumulator.INSTANCE;
+    }
+
+    @org.immutables.value.Value.Immutable
+    public interface DeleteQueryParameters {
+        Cell cell();
+
+        long humanReadableTimestamp();
+
+        long cassandraTimestamp();
+
+        default long queryTimestamp() {
+            return ~humanReadableTimestamp();
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        DeleteQuerySpec that = (DeleteQuerySpec) other;
+        return cqlQueryContext.equals(that.cqlQueryContext)
+                && deleteQueryParameters.equals(that.deleteQueryParameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cqlQueryContext, deleteQueryParameters);
+    }
+}
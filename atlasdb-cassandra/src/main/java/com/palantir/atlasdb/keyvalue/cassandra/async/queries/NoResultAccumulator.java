@@ -0,0 +1,42 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.async.queries;
+
+import java.util.stream.Stream;
+
+import com.datastax.driver.core.Row;
+
+/**
+ * Accumulator for statements which do not return rows, such as writes.
+ */
+final class NoResultAccumulator implements RowStreamAccumulator<Void> {
+    static final NoResultAccumulator INSTANCE = new NoResultAccumulator();
+
+    private NoResultAccumulator() {
+        // singleton
+    }
+
+    @Override
+    public void accumulateRowStream(Stream<Row> rowStream) {
+        // writes return no rows
+    }
+
+    @Override
+    public Void result() {
+        return null;
+    }
+}
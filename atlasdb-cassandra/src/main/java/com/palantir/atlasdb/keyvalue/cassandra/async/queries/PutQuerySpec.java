@@ -0,0 +1,130 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.async.queries;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Objects;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Statement;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.impl.AbstractKeyValueService;
+import com.palantir.logsafe.Preconditions;
+
+/**
+ * Writes values of cells of a single row. As all cells belong to the same partition, multiple cells are written in a
+ * single unlogged batch, which Cassandra applies as one mutation. Values are written with their Atlas timestamp as the
+ * Cassandra timestamp, as the Thrift client does.
+ */
+public final class PutQuerySpec implements CqlQuerySpec<Void> {
+    private static final String QUERY_FORMAT = "INSERT INTO \"%s\".\"%s\" (key, column1, column2, value) "
+            + "VALUES (:row, :column, :timestamp, :value) "
+            + "USING TIMESTAMP :cassandraTimestamp;";
+
+    private final CqlQueryContext cqlQueryContext;
+    private final List<PutQueryParameters> putQueryParameters;
+
+    public PutQuerySpec(CqlQueryContext cqlQueryContext, List<PutQueryParameters> putQueryParameters) {
+        Preconditions.checkArgument(!putQueryParameters.isEmpty(), "Must put at least one cell");
+        this.cqlQueryContext = cqlQueryContext;
+        this.putQueryParameters = ImmutableList.copyOf(putQueryParameters);
+    }
+
+    @Override
+    public CqlQueryContext cqlQueryContext() {
+        return cqlQueryContext;
+    }
+
+    @Override
+    public String formatQueryString() {
+        return String.format(
+                QUERY_FORMAT,
+                cqlQueryContext().keyspace(),
+                AbstractKeyValueService.internalTableName(cqlQueryContext().tableReference()));
+    }
+
+    @Override
+    public QueryType queryType() {
+        return QueryType.PUT;
+    }
+
+    @Override
+    public Statement makeExecutableStatement(PreparedStatement preparedStatement) {
+        if (putQueryParameters.size() == 1) {
+            return bind(preparedStatement, Iterables.getOnlyElement(putQueryParameters));
+        }
+        BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+        putQueryParameters.forEach(parameters -> batch.add(bind(preparedStatement, parameters)));
+        return batch;
+    }
+
+    private static BoundStatement bind(PreparedStatement preparedStatement, PutQueryParameters parameters) {
+        return preparedStatement.bind()
+                .setBytes("row", ByteBuffer.wrap(parameters.cell().getRowName()).asReadOnlyBuffer())
+                .setBytes("column", ByteBuffer.wrap(parameters.cell().getColumnName()).asReadOnlyBuffer())
+                .setLong("timestamp", parameters.queryTimestamp())
+                .setBytes("value", parameters.value())
+                .setLong("cassandraTimestamp", parameters.humanReadableTimestamp());
+    }
+
+    @Override
+    public ConsistencyLevel queryConsistency() {
+        return ConsistencyLevel.EACH_QUORUM;
+    }
+
+    @Override
+    public RowStreamAccumulator<Void> rowStreamAccumulator() {
+        return NoResultAccumulator.INSTANCE;
+    }
+
+    @org.immutables.value.Value.Immutable
+    public interface PutQueryParameters {
+        Cell cell();
+
+        ByteBuffer value();
+
+        long humanReadableTimestamp();
+
+        default long queryTimestamp() {
+            return ~humanReadableTimestamp();
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        PutQuerySpec that = (PutQuerySpec) other;
+        return cqlQueryContext.equals(that.cqlQueryContext)
+                && putQueryParameters.equals(that.putQueryParameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cqlQueryContext, putQueryParameters);
+    }
+}
@@ -17,5 +17,13 @@
 package com.palantir.atlasdb.keyvalue.cassandra.async.queries;
 
 public enum QueryType {
-    GET
+    GET,
+    GET_ROW_COLUMN_RANGE,
+    GET_ROW_COLUMNS,
+    GET_RANGE,
+    GET_RANGE_FROM_ROW,
+    GET_RANGE_TO_ROW,
+    GET_RANGE_BETWEEN_ROWS,
+    PUT,
+    DELETE
 }
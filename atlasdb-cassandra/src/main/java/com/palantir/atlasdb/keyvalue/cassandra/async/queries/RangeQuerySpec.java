@@ -0,0 +1,240 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.async.queries;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.utils.Bytes;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.primitives.UnsignedBytes;
+import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.impl.AbstractKeyValueService;
+
+/**
+ * Loads the rows of a range with the latest version of each of their columns visible at the given timestamp, up to a
+ * number of rows. This relies on the keyspace using an ordered partitioner, so that token order matches the order of
+ * row names. Both ends of the range are restricted in the query, and pages are sized by the row limit (up to a
+ * maximum): every row has at least one version, so a page never contains more rows than were asked for. Rows without
+ * visible columns are skipped, and no further pages are requested once enough rows were loaded.
+ */
+public final class RangeQuerySpec implements CqlQuerySpec<List<RowResult<Value>>> {
+    private static final String QUERY_FORMAT = "SELECT key, column1, column2, value FROM \"%s\".\"%s\"%s;";
+    private static final String START_ROW_RESTRICTION = "token(key) >= token(:startRow)";
+    private static final String END_ROW_RESTRICTION = "token(key) < token(:endRow)";
+    private static final int MAX_FETCH_SIZE = 5_000;
+
+    private final CqlQueryContext cqlQueryContext;
+    private final RangeQueryParameters rangeQueryParameters;
+    private final RangeAccumulator rangeAccumulator;
+
+    public RangeQuerySpec(CqlQueryContext cqlQueryContext, RangeQueryParameters rangeQueryParameters) {
+        this.cqlQueryContext = cqlQueryContext;
+        this.rangeQueryParameters = rangeQueryParameters;
+        this.rangeAccumulator = new RangeAccumulator(rangeQueryParameters);
+    }
+
+    @Override
+    public CqlQueryContext cqlQueryContext() {
+        return cqlQueryContext;
+    }
+
+    @Override
+    public String formatQueryString() {
+        List<String> restrictions = new ArrayList<>(2);
+        if (isBoundedBelow()) {
+            restrictions.add(START_ROW_RESTRICTION);
+        }
+        if (isBoundedAbove()) {
+            restrictions.add(END_ROW_RESTRICTION);
+        }
+        return String.format(
+                QUERY_FORMAT,
+                cqlQueryContext().keyspace(),
+                AbstractKeyValueService.internalTableName(cqlQueryContext().tableReference()),
+                restrictions.isEmpty() ? "" : " WHERE " + String.join(" AND ", restrictions));
+    }
+
+    @Override
+    public QueryType queryType() {
+        if (isBoundedBelow()) {
+            return isBoundedAbove() ? QueryType.GET_RANGE_BETWEEN_ROWS : QueryType.GET_RANGE_FROM_ROW;
+        }
+        return isBoundedAbove() ? QueryType.GET_RANGE_TO_ROW : QueryType.GET_RANGE;
+    }
+
+    @Override
+    public Statement makeExecutableStatement(PreparedStatement preparedStatement) {
+        BoundStatement statement = preparedStatement.bind();
+        if (isBoundedBelow()) {
+            statement.setBytes("startRow",
+                    ByteBuffer.wrap(rangeQueryParameters.startRowInclusive()).asReadOnlyBuffer());
+        }
+        if (isBoundedAbove()) {
+            statement.setBytes("endRow", ByteBuffer.wrap(rangeQueryParameters.endRowExclusive()).asReadOnlyBuffer());
+        }
+        return statement.setFetchSize(Math.min(rangeQueryParameters.limit(), MAX_FETCH_SIZE));
+    }
+
+    private boolean isBoundedBelow() {
+        return rangeQueryParameters.startRowInclusive().length != 0;
+    }
+
+    private boolean isBoundedAbove() {
+        return rangeQueryParameters.endRowExclusive().length != 0;
+    }
+
+    @Override
+    public ConsistencyLevel queryConsistency() {
+        return ConsistencyLevel.LOCAL_QUORUM;
+    }
+
+    @Override
+    public RowStreamAccumulator<List<RowResult<Value>>> rowStreamAccumulator() {
+        return rangeAccumulator;
+    }
+
+    @org.immutables.value.Value.Immutable
+    public interface RangeQueryParameters {
+        /**
+         * Start of the range; an empty array means the range is unbounded.
+         */
+        byte[] startRowInclusive();
+
+        /**
+         * End of the range; an empty array means the range is unbounded.
+         */
+        byte[] endRowExclusive();
+
+        ColumnSelection columnSelection();
+
+        /**
+         * Maximum number of rows to load.
+         */
+        int limit();
+
+        long humanReadableTimestamp();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        RangeQuerySpec that = (RangeQuerySpec) other;
+        return cqlQueryContext.equals(that.cqlQueryContext)
+                && rangeQueryParameters.equals(that.rangeQueryParameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cqlQueryContext, rangeQueryParameters);
+    }
+
+    private static class RangeAccumulator implements RowStreamAccumulator<List<RowResult<Value>>> {
+        private final RangeQueryParameters parameters;
+        private final List<RowResult<Value>> rows = new ArrayList<>();
+
+        private volatile byte[] currentRow = null;
+        private volatile ImmutableSortedMap.Builder<byte[], Value> currentColumns = null;
+        private volatile byte[] lastVisibleColumn = null;
+        private volatile boolean done = false;
+
+        RangeAccumulator(RangeQueryParameters parameters) {
+            this.parameters = parameters;
+        }
+
+        @Override
+        public void accumulateRowStream(Stream<Row> rowStream) {
+            Iterator<Row> cqlRows = rowStream.iterator();
+            while (!done && cqlRows.hasNext()) {
+                accumulateRow(cqlRows.next());
+            }
+        }
+
+        private void accumulateRow(Row cqlRow) {
+            byte[] row = Bytes.getArray(cqlRow.getBytes(0));
+            if (!Arrays.equals(row, currentRow)) {
+                finishCurrentRow();
+                if (rows.size() >= parameters.limit() || isAfterEndOfRange(row)) {
+                    done = true;
+                    return;
+                }
+                currentRow = row;
+                currentColumns = ImmutableSortedMap.orderedBy(UnsignedBytes.lexicographicalComparator());
+                lastVisibleColumn = null;
+            }
+
+            byte[] column = Bytes.getArray(cqlRow.getBytes(1));
+            long timestamp = ~cqlRow.getLong(2);
+            if (Arrays.equals(column, lastVisibleColumn)
+                    || timestamp >= parameters.humanReadableTimestamp()
+                    || !isSelected(column)) {
+                return;
+            }
+            lastVisibleColumn = column;
+            currentColumns.put(column, Value.create(Bytes.getArray(cqlRow.getBytes(3)), timestamp));
+        }
+
+        private void finishCurrentRow() {
+            if (currentRow == null) {
+                return;
+            }
+            ImmutableSortedMap<byte[], Value> columns = currentColumns.build();
+            if (!columns.isEmpty()) {
+                rows.add(RowResult.create(currentRow, columns));
+            }
+            currentRow = null;
+            currentColumns = null;
+        }
+
+        private boolean isAfterEndOfRange(byte[] row) {
+            byte[] end = parameters.endRowExclusive();
+            return end.length != 0 && UnsignedBytes.lexicographicalComparator().compare(row, end) >= 0;
+        }
+
+        private boolean isSelected(byte[] column) {
+            return parameters.columnSelection().contains(column);
+        }
+
+        @Override
+        public List<RowResult<Value>> result() {
+            finishCurrentRow();
+            return rows;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done;
+        }
+    }
+}
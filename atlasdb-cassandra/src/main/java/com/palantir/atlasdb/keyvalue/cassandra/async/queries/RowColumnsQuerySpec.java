@@ -0,0 +1,160 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.cassandra.async.queries;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.utils.Bytes;
+import com.google.common.collect.Maps;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.impl.AbstractKeyValueService;
+
+/**
+ * Loads the latest version visible at the given timestamp of each of a set of columns of a single row. All versions of
+ * the requested columns are read in a single query, and the visible one is picked out here.
+ */
+public final class RowColumnsQuerySpec implements CqlQuerySpec<List<Map.Entry<Cell, Value>>> {
+    private static final String QUERY_FORMAT = "SELECT column1, column2, value FROM \"%s\".\"%s\" "
+            + "WHERE key = :row AND column1 IN :columns;";
+
+    private final CqlQueryContext cqlQueryContext;
+    private final RowColumnsQueryParameters rowColumnsQueryParameters;
+    private final RowColumnsAccumulator rowColumnsAccumulator;
+
+    public RowColumnsQuerySpec(CqlQueryContext cqlQueryContext, RowColumnsQueryParameters rowColumnsQueryParameters) {
+        this.cqlQueryContext = cqlQueryContext;
+        this.rowColumnsQueryParameters = rowColumnsQueryParameters;
+        this.rowColumnsAccumulator = new RowColumnsAccumulator(rowColumnsQueryParameters);
+    }
+
+    @Override
+    public CqlQueryContext cqlQueryContext() {
+        return cqlQueryContext;
+    }
+
+    @Override
+    public String formatQueryString() {
+        return String.format(
+                QUERY_FORMAT,
+                cqlQueryContext().keyspace(),
+                AbstractKeyValueService.internalTableName(cqlQueryContext().tableReference()));
+    }
+
+    @Override
+    public QueryType queryType() {
+        return QueryType.GET_ROW_COLUMNS;
+    }
+
+    @Override
+    public Statement makeExecutableStatement(PreparedStatement preparedStatement) {
+        return preparedStatement.bind()
+                .setBytes("row", ByteBuffer.wrap(rowColumnsQueryParameters.row()).asReadOnlyBuffer())
+                .setList("columns", rowColumnsQueryParameters.columns().stream()
+                        .map(column -> ByteBuffer.wrap(column).asReadOnlyBuffer())
+                        .collect(Collectors.toList()));
+    }
+
+    @Override
+    public ConsistencyLevel queryConsistency() {
+        return ConsistencyLevel.LOCAL_QUORUM;
+    }
+
+    @Override
+    public RowStreamAccumulator<List<Map.Entry<Cell, Value>>> rowStreamAccumulator() {
+        return rowColumnsAccumulator;
+    }
+
+    @org.immutables.value.Value.Immutable
+    public interface RowColumnsQueryParameters {
+        byte[] row();
+
+        List<byte[]> columns();
+
+        long humanReadableTimestamp();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        RowColumnsQuerySpec that = (RowColumnsQuerySpec) other;
+        return cqlQueryContext.equals(that.cqlQueryContext)
+                && rowColumnsQueryParameters.equals(that.rowColumnsQueryParameters);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cqlQueryContext, rowColumnsQueryParameters);
+    }
+
+    private static class RowColumnsAccumulator implements RowStreamAccumulator<List<Map.Entry<Cell, Value>>> {
+        private final RowColumnsQueryParameters parameters;
+        private final List<Map.Entry<Cell, Value>> cells = new ArrayList<>();
+
+        private volatile byte[] lastVisibleColumn = null;
+
+        RowColumnsAccumulator(RowColumnsQueryParameters parameters) {
+            this.parameters = parameters;
+        }
+
+        @Override
+        public void accumulateRowStream(Stream<Row> rowStream) {
+            Iterator<Row> rows = rowStream.iterator();
+            while (rows.hasNext()) {
+                accumulateRow(rows.next());
+            }
+        }
+
+        private void accumulateRow(Row row) {
+            byte[] column = Bytes.getArray(row.getBytes(0));
+            long timestamp = ~row.getLong(1);
+            if (Arrays.equals(column, lastVisibleColumn) || timestamp >= parameters.humanReadableTimestamp()) {
+                return;
+            }
+            lastVisibleColumn = column;
+            cells.add(Maps.immutableEntry(
+                    Cell.create(parameters.row(), column),
+                    Value.create(Bytes.getArray(row.getBytes(2)), timestamp)));
+        }
+
+        @Override
+        public List<Map.Entry<Cell, Value>> result() {
+            return cells;
+        }
+
+        @Override
+        public boolean isDone() {
+            return false;
+        }
+    }
+}
@@ -45,4 +45,14 @@ public interface RowStreamAccumulator<R> {
      * @return accumulated result
      */
     R result();
+
+    /**
+     * Whether the accumulator has seen all the rows it needs, in which case remaining pages of the query are not
+     * fetched. If invoked concurrently with {@code accumulateRowStream} the behaviour is not defined.
+     *
+     * @return true if no more rows need to be processed
+     */
+    default boolean isDone() {
+        return false;
+    }
 }
@@ -18,7 +18,9 @@ package com.palantir.atlasdb.keyvalue.cassandra.pool;
 import java.net.InetSocketAddress;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 import com.codahale.metrics.Counter;
@@ -36,8 +38,17 @@ public class CassandraClientPoolMetrics {
     // Not bundled in with request metrics, as we seek to not produce host-level metrics for economic reasons.
     private final Counter poolExhaustionCounter;
 
+    // Used for host selection rather than reported, so kept for every host.
+    private final Map<InetSocketAddress, HostLatencyScore> scoresByHost = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+
     public CassandraClientPoolMetrics(MetricsManager metricsManager) {
+        this(metricsManager, System::nanoTime);
+    }
+
+    CassandraClientPoolMetrics(MetricsManager metricsManager, LongSupplier clock) {
         this.metricsManager = metricsManager;
+        this.clock = clock;
         this.aggregateRequestMetrics = new RequestMetrics(metricsManager, null);
         this.poolExhaustionCounter
                 = metricsManager.registerOrGetCounter(CassandraClientPoolMetrics.class, "pool-exhaustion");
@@ -68,6 +79,30 @@ public class CassandraClientPoolMetrics {
         updateMetricOnAggregateAndHost(hostPool, RequestMetrics::markRequestConnectionException);
     }
 
+    public void recordLatencyOnHost(CassandraClientPoolingContainer hostPool, long latencyNanos) {
+        getHostScore(hostPool.getHost()).recordSuccess(latencyNanos);
+    }
+
+    /**
+     * Records a request that failed in a way implicating the host, such as a timeout or a connection failure, as
+     * opposed to failures caused by the request itself.
+     */
+    public void recordHostFailureOnHost(CassandraClientPoolingContainer hostPool, long latencyNanos) {
+        getHostScore(hostPool.getHost()).recordFailure(latencyNanos);
+    }
+
+    public void removeHost(InetSocketAddress host) {
+        scoresByHost.remove(host);
+    }
+
+    HostLatencyScore getHostScore(InetSocketAddress host) {
+        HostLatencyScore score = scoresByHost.get(host);
+        if (score != null) {
+            return score;
+        }
+        return scoresByHost.computeIfAbsent(host, unused -> new HostLatencyScore(clock));
+    }
+
     public void recordPoolExhaustion() {
         poolExhaustionCounter.inc();
     }
@@ -73,6 +73,7 @@ public class CassandraService implements AutoCloseable {
     private final CassandraKeyValueServiceConfig config;
     private final Blacklist blacklist;
     private final CassandraClientPoolMetrics poolMetrics;
+    private final LatencyAwareHostSelector hostSelector;
 
     private volatile RangeMap<LightweightOppToken, List<InetSocketAddress>> tokenMap = ImmutableRangeMap.of();
     private final Map<InetSocketAddress, CassandraClientPoolingContainer> currentPools = Maps.newConcurrentMap();
@@ -101,6 +102,7 @@ public class CassandraService implements AutoCloseable {
         this.myLocationSupplier = new HostLocationSupplier(this::getSnitch, config.overrideHostLocation());
         this.blacklist = blacklist;
         this.poolMetrics = poolMetrics;
+        this.hostSelector = new LatencyAwareHostSelector(poolMetrics);
     }
 
     @Override
@@ -271,7 +273,7 @@ public class CassandraService implements AutoCloseable {
             livingHosts = filteredHosts;
         }
 
-        Optional<InetSocketAddress> randomLivingHost = getRandomHostByActiveConnections(livingHosts);
+        Optional<InetSocketAddress> randomLivingHost = getHostByLatencyAndLoad(livingHosts);
         return randomLivingHost.flatMap(host -> Optional.ofNullable(pools.get(host)));
     }
 
@@ -306,17 +308,8 @@ public class CassandraService implements AutoCloseable {
         return hosts;
     }
 
-    private Optional<InetSocketAddress> getRandomHostByActiveConnections(Set<InetSocketAddress> desiredHosts) {
-
-        Set<InetSocketAddress> localFilteredHosts = maybeFilterLocalHosts(desiredHosts);
-
-        Map<InetSocketAddress, CassandraClientPoolingContainer> matchingPools = Maps.filterKeys(currentPools,
-                localFilteredHosts::contains);
-        if (matchingPools.isEmpty()) {
-            return Optional.empty();
-        }
-
-        return Optional.of(WeightedHosts.create(matchingPools).getRandomHost());
+    private Optional<InetSocketAddress> getHostByLatencyAndLoad(Set<InetSocketAddress> desiredHosts) {
+        return hostSelector.selectHost(maybeFilterLocalHosts(desiredHosts), currentPools);
     }
 
     public void debugLogStateOfPool() {
@@ -353,7 +346,7 @@ public class CassandraService implements AutoCloseable {
         Set<InetSocketAddress> liveOwnerHosts = blacklist.filterBlacklistedHostsFrom(hostsForKey);
 
         if (!liveOwnerHosts.isEmpty()) {
-            Optional<InetSocketAddress> activeHost = getRandomHostByActiveConnections(liveOwnerHosts);
+            Optional<InetSocketAddress> activeHost = getHostByLatencyAndLoad(liveOwnerHosts);
             if (activeHost.isPresent()) {
                 return activeHost.get();
             }
@@ -386,6 +379,7 @@ public class CassandraService implements AutoCloseable {
                     e);
         }
         currentPools.remove(removedServerAddress);
+        poolMetrics.removeHost(removedServerAddress);
     }
 
     public void cacheInitialCassandraHosts() {
@@ -0,0 +1,81 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.pool;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A decaying estimate of how expensive it is to send a request to a host, combining the latency of recent requests
+ * with the proportion of recent requests that failed because of the host.
+ *
+ * Latency is tracked as a peak-sensitive moving average: a slower request replaces the estimate immediately, while
+ * faster requests only bring it down gradually. Both the latency and the failure rate decay towards zero while a host
+ * is not used, so that a host that was penalised is tried again once it has had time to recover.
+ */
+final class HostLatencyScore {
+    private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final double FAILURE_SMOOTHING = 0.1;
+    private static final double FAILURE_PENALTY = 10.0;
+    private static final double MINIMUM_LATENCY_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final LongSupplier clock;
+
+    private volatile double latencyNanos;
+    private volatile double failureRate;
+    private volatile long lastUpdateNanos;
+
+    HostLatencyScore(LongSupplier clock) {
+        this.clock = clock;
+        this.lastUpdateNanos = clock.getAsLong();
+    }
+
+    void recordSuccess(long requestLatencyNanos) {
+        record(requestLatencyNanos, 0.0);
+    }
+
+    void recordFailure(long requestLatencyNanos) {
+        record(requestLatencyNanos, 1.0);
+    }
+
+    private synchronized void record(long requestLatencyNanos, double failure) {
+        long now = clock.getAsLong();
+        double decay = decaySince(lastUpdateNanos, now);
+        double decayedLatency = latencyNanos * decay;
+        latencyNanos = requestLatencyNanos > decayedLatency
+                ? requestLatencyNanos
+                : decayedLatency + (requestLatencyNanos - decayedLatency) * (1 - decay);
+        double decayedFailureRate = failureRate * decay;
+        failureRate = decayedFailureRate + (failure - decayedFailureRate) * FAILURE_SMOOTHING;
+        lastUpdateNanos = now;
+    }
+
+    /**
+     * The expected cost of sending a request to this host, given the number of requests already in flight to it.
+     * Lower is better.
+     */
+    double cost(int openRequests) {
+        double decay = decaySince(lastUpdateNanos, clock.getAsLong());
+        return (MINIMUM_LATENCY_NANOS + latencyNanos * decay)
+                * (Math.max(openRequests, 0) + 1)
+                * (1 + FAILURE_PENALTY * failureRate * decay);
+    }
+
+    private static double decaySince(long lastUpdateNanos, long now) {
+        return Math.exp(-Math.max(now - lastUpdateNanos, 0) / DECAY_NANOS);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.pool;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.palantir.atlasdb.keyvalue.cassandra.CassandraClientPoolingContainer;
+
+/**
+ * Chooses between hosts by the power of two choices: two of the candidate hosts are sampled at random, and the one
+ * with the lower {@link HostLatencyScore#cost(int)} is picked. Compared to always picking the cheapest host, this
+ * avoids herding every client onto the same host between score updates, while still steering traffic away from hosts
+ * that are slow, failing or busy.
+ */
+final class LatencyAwareHostSelector {
+    private final CassandraClientPoolMetrics poolMetrics;
+
+    LatencyAwareHostSelector(CassandraClientPoolMetrics poolMetrics) {
+        this.poolMetrics = poolMetrics;
+    }
+
+    /**
+     * Selects one of the candidates that has a pool, or returns empty if none do. The candidates are traversed once,
+     * sampling two of them by reservoir sampling so that no intermediate collection is built.
+     */
+    Optional<InetSocketAddress> selectHost(
+            Iterable<InetSocketAddress> candidates,
+            Map<InetSocketAddress, CassandraClientPoolingContainer> pools) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        InetSocketAddress first = null;
+        InetSocketAddress second = null;
+        int seen = 0;
+        for (InetSocketAddress candidate : candidates) {
+            if (!pools.containsKey(candidate)) {
+                continue;
+            }
+            seen++;
+            if (seen == 1) {
+                first = candidate;
+            } else if (seen == 2) {
+                second = candidate;
+            } else if (random.nextInt(seen) < 2) {
+                if (random.nextBoolean()) {
+                    first = candidate;
+                } else {
+                    second = candidate;
+                }
+            }
+        }
+
+        if (first == null) {
+            return Optional.empty();
+        }
+        if (second == null) {
+            return Optional.of(first);
+        }
+        double firstCost = cost(first, pools);
+        double secondCost = cost(second, pools);
+        if (firstCost == secondCost) {
+            return Optional.of(random.nextBoolean() ? first : second);
+        }
+        return Optional.of(firstCost < secondCost ? first : second);
+    }
+
+    private double cost(InetSocketAddress host, Map<InetSocketAddress, CassandraClientPoolingContainer> pools) {
+        CassandraClientPoolingContainer pool = pools.get(host);
+        int openRequests = pool == null ? 0 : pool.getOpenRequests();
+        return poolMetrics.getHostScore(host).cost(openRequests);
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.palantir.atlasdb.cassandra.CassandraHedgedReadsConfig;
+import com.palantir.atlasdb.cassandra.ImmutableCassandraHedgedReadsConfig;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.atlasdb.util.MetricsManagers;
+import com.palantir.common.base.FunctionCheckedException;
+import com.palantir.common.concurrent.PTExecutors;
+
+public class HedgedReadRunnerTest {
+    private static final TableReference HEDGED_TABLE = TableReference.createFromFullyQualifiedName("a.hedged");
+    private static final TableReference OTHER_TABLE = TableReference.createFromFullyQualifiedName("a.other");
+    private static final InetSocketAddress PRIMARY = new InetSocketAddress("primary", 9160);
+    private static final InetSocketAddress SECONDARY = new InetSocketAddress("secondary", 9160);
+    private static final byte[] ROW = {1};
+    private static final CassandraHedgedReadsConfig CONFIG = ImmutableCassandraHedgedReadsConfig.builder()
+            .addTables(HEDGED_TABLE.getQualifiedName())
+            .minimumDelayMillis(0)
+            .initialDelayMillis(20)
+            .build();
+
+    private final CassandraClientPool clientPool = mock(CassandraClientPool.class);
+    private final MetricsManager metricsManager = MetricsManagers.createForTests();
+    private final CountDownLatch slowHostLatch = new CountDownLatch(1);
+    @SuppressWarnings("unchecked") // generic mock
+    private final FunctionCheckedException<CassandraClient, String, Exception> read =
+            mock(FunctionCheckedException.class);
+
+    private HedgedReadRunner runner;
+
+    @Before
+    public void setUp() {
+        when(clientPool.getRandomHostForKey(ROW)).thenReturn(SECONDARY);
+        when(clientPool.getCurrentPools()).thenReturn(ImmutableMap.of());
+        runner = new HedgedReadRunner(clientPool, metricsManager, () -> CONFIG, Executors.newCachedThreadPool());
+    }
+
+    @After
+    public void tearDown() {
+        slowHostLatch.countDown();
+        runner.close();
+    }
+
+    @Test
+    public void doesNotHedgeTablesThatAreNotEnabled() throws Exception {
+        respond(PRIMARY, false, "primary");
+
+        assertThat(runner.runWithRetryOnHost(OTHER_TABLE, PRIMARY, ROW, read)).isEqualTo("primary");
+        verify(clientPool, never()).getRandomHostForKey(any());
+        assertThat(hedgesIssued(OTHER_TABLE)).isZero();
+    }
+
+    @Test
+    public void doesNotHedgeFastReads() throws Exception {
+        respond(PRIMARY, false, "primary");
+
+        assertThat(runner.runWithRetryOnHost(HEDGED_TABLE, PRIMARY, ROW, read)).isEqualTo("primary");
+        verify(clientPool, never()).runWithRetryOnHost(eq(SECONDARY), any());
+        assertThat(hedgesIssued(HEDGED_TABLE)).isZero();
+    }
+
+    @Test
+    public void hedgesSlowReadsOnAnotherHost() throws Exception {
+        respond(PRIMARY, true, "primary");
+        respond(SECONDARY, false, "secondary");
+
+        assertThat(runner.runWithRetryOnHost(HEDGED_TABLE, PRIMARY, ROW, read)).isEqualTo("secondary");
+        assertThat(hedgesIssued(HEDGED_TABLE)).isEqualTo(1);
+        assertThat(hedgesWon(HEDGED_TABLE)).isEqualTo(1);
+    }
+
+    @Test
+    public void usesPrimaryIfItCompletesBeforeTheHedge() throws Exception {
+        respond(PRIMARY, true, "primary");
+        when(clientPool.runWithRetryOnHost(eq(SECONDARY), any())).thenAnswer(invocation -> {
+            slowHostLatch.countDown();
+            Thread.sleep(60_000);
+            return "secondary";
+        });
+
+        assertThat(runner.runWithRetryOnHost(HEDGED_TABLE, PRIMARY, ROW, read)).isEqualTo("primary");
+        assertThat(hedgesIssued(HEDGED_TABLE)).isEqualTo(1);
+        assertThat(hedgesWon(HEDGED_TABLE)).isZero();
+    }
+
+    @Test
+    public void usesPrimaryIfHedgeFails() throws Exception {
+        respond(PRIMARY, true, "primary");
+        when(clientPool.runWithRetryOnHost(eq(SECONDARY), any())).thenAnswer(invocation -> {
+            slowHostLatch.countDown();
+            throw new IllegalStateException("secondary");
+        });
+
+        assertThat(runner.runWithRetryOnHost(HEDGED_TABLE, PRIMARY, ROW, read)).isEqualTo("primary");
+        assertThat(hedgesWon(HEDGED_TABLE)).isZero();
+    }
+
+    @Test
+    public void throwsPrimaryFailureIfBothAttemptsFail() throws Exception {
+        when(clientPool.runWithRetryOnHost(eq(PRIMARY), any())).thenAnswer(invocation -> {
+            slowHostLatch.await();
+            throw new IllegalStateException("primary");
+        });
+        when(clientPool.runWithRetryOnHost(eq(SECONDARY), any())).thenAnswer(invocation -> {
+            slowHostLatch.countDown();
+            throw new IllegalStateException("secondary");
+        });
+
+        assertThatThrownBy(() -> runner.runWithRetryOnHost(HEDGED_TABLE, PRIMARY, ROW, read))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("primary");
+    }
+
+    @Test
+    public void waitsForPrimaryIfThereIsNoOtherHost() throws Exception {
+        when(clientPool.getRandomHostForKey(ROW)).thenReturn(PRIMARY);
+        when(clientPool.runWithRetryOnHost(eq(PRIMARY), any())).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return "primary";
+        });
+
+        assertThat(runner.runWithRetryOnHost(HEDGED_TABLE, PRIMARY, ROW, read)).isEqualTo("primary");
+        verify(clientPool, times(3)).getRandomHostForKey(ROW);
+        assertThat(hedgesIssued(HEDGED_TABLE)).isZero();
+    }
+
+    @Test
+    public void readsOnTheCallingThreadIfTheExecutorIsSaturated() throws Exception {
+        ExecutorService singleThreadExecutor = createSingleThreadExecutorWithoutQueue();
+        singleThreadExecutor.execute(() -> Uninterruptibles.awaitUninterruptibly(slowHostLatch));
+        AtomicReference<Thread> readingThread = new AtomicReference<>();
+        when(clientPool.runWithRetryOnHost(eq(PRIMARY), any())).thenAnswer(invocation -> {
+            readingThread.set(Thread.currentThread());
+            return "primary";
+        });
+
+        try (HedgedReadRunner saturatedRunner =
+                new HedgedReadRunner(clientPool, metricsManager, () -> CONFIG, singleThreadExecutor)) {
+            assertThat(saturatedRunner.runWithRetryOnHost(HEDGED_TABLE, PRIMARY, ROW, read)).isEqualTo("primary");
+        }
+        assertThat(readingThread.get()).isEqualTo(Thread.currentThread());
+        assertThat(hedgesIssued(HEDGED_TABLE)).isZero();
+        assertThat(hedgesSkipped(HEDGED_TABLE)).isEqualTo(1);
+    }
+
+    @Test
+    public void waitsForPrimaryIfTheExecutorHasNoThreadLeftForTheHedge() throws Exception {
+        when(clientPool.runWithRetryOnHost(eq(PRIMARY), any())).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return "primary";
+        });
+        respond(SECONDARY, false, "secondary");
+
+        try (HedgedReadRunner saturatedRunner = new HedgedReadRunner(
+                clientPool, metricsManager, () -> CONFIG, createSingleThreadExecutorWithoutQueue())) {
+            assertThat(saturatedRunner.runWithRetryOnHost(HEDGED_TABLE, PRIMARY, ROW, read)).isEqualTo("primary");
+        }
+        verify(clientPool, never()).runWithRetryOnHost(eq(SECONDARY), any());
+        assertThat(hedgesIssued(HEDGED_TABLE)).isZero();
+        assertThat(hedgesSkipped(HEDGED_TABLE)).isEqualTo(1);
+    }
+
+    private static ExecutorService createSingleThreadExecutorWithoutQueue() {
+        return PTExecutors.newThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>());
+    }
+
+    private void respond(InetSocketAddress host, boolean slow, String result) throws Exception {
+        when(clientPool.runWithRetryOnHost(eq(host), any())).thenAnswer(invocation -> {
+            if (slow) {
+                slowHostLatch.await();
+            }
+            return result;
+        });
+    }
+
+    private long hedgesIssued(TableReference tableRef) {
+        return meterCount(tableRef, "hedgesIssued");
+    }
+
+    private long hedgesWon(TableReference tableRef) {
+        return meterCount(tableRef, "hedgesWon");
+    }
+
+    private long hedgesSkipped(TableReference tableRef) {
+        return meterCount(tableRef, "hedgesSkipped");
+    }
+
+    private long meterCount(TableReference tableRef, String name) {
+        return metricsManager.registerOrGetTaggedMeter(
+                HedgedReadRunner.class, name, metricsManager.getTableNameTagFor(tableRef)).getCount();
+    }
+}
@@ -17,8 +17,12 @@
 package com.palantir.atlasdb.keyvalue.cassandra.async;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
@@ -30,20 +34,38 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.palantir.atlasdb.cassandra.CassandraMutationTimestampProviders;
 import com.palantir.atlasdb.encoding.PtBytes;
 import com.palantir.atlasdb.futures.AtlasFutures;
 import com.palantir.atlasdb.keyvalue.api.AsyncKeyValueService;
+import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
 import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
 import com.palantir.atlasdb.keyvalue.api.Namespace;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RangeRequests;
+import com.palantir.atlasdb.keyvalue.api.RowColumnRangeIterator;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ColumnRangeQuerySpec;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.CqlQueryContext;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.DeleteQuerySpec;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.GetQuerySpec;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableColumnRangeQueryParameters;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableCqlQueryContext;
 import com.palantir.atlasdb.keyvalue.cassandra.async.queries.ImmutableGetQueryParameters;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.PutQuerySpec;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.RangeQuerySpec;
+import com.palantir.atlasdb.keyvalue.cassandra.async.queries.RowColumnsQuerySpec;
+import com.palantir.util.paging.TokenBackedBasicResultsPage;
 import com.palantir.common.random.RandomBytes;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -55,6 +77,8 @@ public class CassandraAsyncKeyValueServiceTests {
     private static final Cell NON_VISIBLE_CELL = Cell.create(PtBytes.toBytes(100), PtBytes.toBytes(100));
     private static final Cell VISIBLE_CELL_1 = Cell.create(PtBytes.toBytes(100), PtBytes.toBytes(200));
     private static final Cell VISIBLE_CELL_2 = Cell.create(PtBytes.toBytes(100), PtBytes.toBytes(300));
+    private static final Cell OTHER_ROW_CELL = Cell.create(PtBytes.toBytes(200), PtBytes.toBytes(100));
+    private static final Value VALUE = Value.create(PtBytes.toBytes("value"), 10L);
     private static final CqlQueryContext CQL_QUERY_CONTEXT = ImmutableCqlQueryContext.builder()
             .keyspace(KEYSPACE)
             .tableReference(TABLE)
@@ -69,7 +93,8 @@ public class CassandraAsyncKeyValueServiceTests {
         asyncKeyValueService = CassandraAsyncKeyValueService.create(
                 KEYSPACE,
                 cqlClient,
-                AtlasFutures.futuresCombiner(MoreExecutors.newDirectExecutorService()));
+                AtlasFutures.futuresCombiner(MoreExecutors.newDirectExecutorService()),
+                CassandraMutationTimestampProviders.legacyModeForTestsOnly());
     }
 
     @After
@@ -112,6 +137,115 @@ public class CassandraAsyncKeyValueServiceTests {
         assertThat(result).containsOnlyKeys(VISIBLE_CELL_1, VISIBLE_CELL_2);
     }
 
+    @Test
+    public void getRowsWithSelectedColumnsReadsEachRowOnce() throws Exception {
+        when(cqlClient.executeQuery(any(RowColumnsQuerySpec.class)))
+                .thenReturn(Futures.immediateFuture(ImmutableList.of(Maps.immutableEntry(VISIBLE_CELL_1, VALUE))))
+                .thenReturn(Futures.immediateFuture(ImmutableList.of(Maps.immutableEntry(OTHER_ROW_CELL, VALUE))));
+
+        Map<Cell, Value> result = asyncKeyValueService.getRowsAsync(
+                TABLE,
+                ImmutableList.of(VISIBLE_CELL_1.getRowName(), OTHER_ROW_CELL.getRowName()),
+                ColumnSelection.create(ImmutableList.of(
+                        VISIBLE_CELL_1.getColumnName(),
+                        NON_VISIBLE_CELL.getColumnName(),
+                        OTHER_ROW_CELL.getColumnName())),
+                TIMESTAMP).get();
+
+        assertThat(result).containsOnlyKeys(VISIBLE_CELL_1, OTHER_ROW_CELL);
+        verify(cqlClient, times(2)).executeQuery(any(RowColumnsQuerySpec.class));
+    }
+
+    @Test
+    public void getRowsWithAllColumnsReadsWholeRows() throws Exception {
+        setUpColumnRange(VISIBLE_CELL_1.getRowName(), new byte[0], Integer.MAX_VALUE, VISIBLE_CELL_1, VISIBLE_CELL_2);
+        setUpColumnRange(OTHER_ROW_CELL.getRowName(), new byte[0], Integer.MAX_VALUE, OTHER_ROW_CELL);
+
+        Map<Cell, Value> result = asyncKeyValueService.getRowsAsync(
+                TABLE,
+                ImmutableList.of(VISIBLE_CELL_1.getRowName(), OTHER_ROW_CELL.getRowName()),
+                ColumnSelection.all(),
+                TIMESTAMP).get();
+
+        assertThat(result).containsOnlyKeys(VISIBLE_CELL_1, VISIBLE_CELL_2, OTHER_ROW_CELL);
+    }
+
+    @Test
+    public void getRowsColumnRangeLoadsFurtherBatchesLazily() throws Exception {
+        byte[] row = VISIBLE_CELL_1.getRowName();
+        setUpColumnRange(row, new byte[0], 1, VISIBLE_CELL_1);
+        setUpColumnRange(row, RangeRequests.nextLexicographicName(VISIBLE_CELL_1.getColumnName()), 1, VISIBLE_CELL_2);
+        setUpColumnRange(row, RangeRequests.nextLexicographicName(VISIBLE_CELL_2.getColumnName()), 1);
+
+        Map<byte[], RowColumnRangeIterator> result = asyncKeyValueService.getRowsColumnRangeAsync(
+                TABLE,
+                ImmutableList.of(row),
+                BatchColumnRangeSelection.create(new byte[0], new byte[0], 1),
+                TIMESTAMP).get();
+
+        List<Map.Entry<Cell, Value>> columns = Lists.newArrayList(result.get(row));
+        assertThat(columns).extracting(Map.Entry::getKey).containsExactly(VISIBLE_CELL_1, VISIBLE_CELL_2);
+    }
+
+    @Test
+    public void firstBatchForRangeHasMoreResultsIfFull() throws Exception {
+        RowResult<Value> rowResult = RowResult.of(VISIBLE_CELL_1, VALUE);
+        when(cqlClient.executeQuery(any(RangeQuerySpec.class)))
+                .thenReturn(Futures.immediateFuture(ImmutableList.of(rowResult)));
+        RangeRequest fullRange = RangeRequest.builder().batchHint(1).build();
+
+        TokenBackedBasicResultsPage<RowResult<Value>, byte[]> page = asyncKeyValueService
+                .getFirstBatchForRangesAsync(TABLE, ImmutableList.of(fullRange), TIMESTAMP).get()
+                .get(fullRange);
+
+        assertThat(page.getResults()).containsExactly(rowResult);
+        assertThat(page.moreResultsAvailable()).isTrue();
+        assertThat(page.getTokenForNextPage())
+                .isEqualTo(RangeRequests.nextLexicographicName(VISIBLE_CELL_1.getRowName()));
+    }
+
+    @Test
+    public void multiPutWritesEachRowSeparately() throws Exception {
+        when(cqlClient.executeQuery(any(PutQuerySpec.class))).thenReturn(Futures.immediateFuture(null));
+
+        asyncKeyValueService.multiPutAsync(
+                ImmutableMap.of(TABLE, ImmutableMap.of(
+                        VISIBLE_CELL_1, PtBytes.toBytes("a"),
+                        VISIBLE_CELL_2, PtBytes.toBytes("b"),
+                        OTHER_ROW_CELL, PtBytes.toBytes("c"))),
+                TIMESTAMP).get();
+
+        verify(cqlClient, times(2)).executeQuery(any(PutQuerySpec.class));
+    }
+
+    @Test
+    public void deleteWritesEachRowSeparately() throws Exception {
+        when(cqlClient.executeQuery(any(DeleteQuerySpec.class))).thenReturn(Futures.immediateFuture(null));
+
+        asyncKeyValueService.deleteAsync(
+                TABLE,
+                ImmutableMultimap.of(VISIBLE_CELL_1, TIMESTAMP, OTHER_ROW_CELL, TIMESTAMP)).get();
+
+        verify(cqlClient, times(2)).executeQuery(any(DeleteQuerySpec.class));
+    }
+
+    private void setUpColumnRange(byte[] row, byte[] startColumn, int limit, Cell... cells) {
+        List<Map.Entry<Cell, Value>> entries = Lists.newArrayList();
+        for (Cell cell : cells) {
+            entries.add(Maps.immutableEntry(cell, VALUE));
+        }
+        when(cqlClient.executeQuery(new ColumnRangeQuerySpec(
+                CQL_QUERY_CONTEXT,
+                ImmutableColumnRangeQueryParameters.builder()
+                        .row(row)
+                        .startColumnInclusive(startColumn)
+                        .endColumnExclusive(new byte[0])
+                        .limit(limit)
+                        .humanReadableTimestamp(TIMESTAMP)
+                        .build())))
+                .thenReturn(Futures.immediateFuture(entries));
+    }
+
     private void setUpVisibleCells(Cell... cells) {
         for (Cell cell : cells) {
             when(cqlClient.executeQuery(buildGetQuerySpec(buildGetQueryParameter(cell))))
@@ -0,0 +1,71 @@
+/*
+ * (c) Copyright 2019 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.cassandra.async.queries;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
+import com.palantir.atlasdb.keyvalue.api.Namespace;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+
+public class RangeQuerySpecTest {
+    private static final CqlQueryContext CQL_QUERY_CONTEXT = ImmutableCqlQueryContext.builder()
+            .keyspace("test")
+            .tableReference(TableReference.create(Namespace.DEFAULT_NAMESPACE, "foo"))
+            .build();
+    private static final byte[] START_ROW = PtBytes.toBytes("a");
+    private static final byte[] END_ROW = PtBytes.toBytes("b");
+
+    @Test
+    public void unboundedRangeHasNoRestrictions() {
+        RangeQuerySpec querySpec = rangeQuerySpec(new byte[0], new byte[0]);
+
+        assertThat(querySpec.formatQueryString()).doesNotContain("WHERE");
+        assertThat(querySpec.queryType()).isEqualTo(QueryType.GET_RANGE);
+    }
+
+    @Test
+    public void restrictsEndOfRangeInQuery() {
+        RangeQuerySpec querySpec = rangeQuerySpec(new byte[0], END_ROW);
+
+        assertThat(querySpec.formatQueryString())
+                .endsWith("WHERE token(key) < token(:endRow);")
+                .doesNotContain(":startRow");
+        assertThat(querySpec.queryType()).isEqualTo(QueryType.GET_RANGE_TO_ROW);
+    }
+
+    @Test
+    public void restrictsBothEndsOfRangeInQuery() {
+        RangeQuerySpec querySpec = rangeQuerySpec(START_ROW, END_ROW);
+
+        assertThat(querySpec.formatQueryString())
+                .endsWith("WHERE token(key) >= token(:startRow) AND token(key) < token(:endRow);");
+        assertThat(querySpec.queryType()).isEqualTo(QueryType.GET_RANGE_BETWEEN_ROWS);
+    }
+
+    private static RangeQuerySpec rangeQuerySpec(byte[] startRow, byte[] endRow) {
+        return new RangeQuerySpec(CQL_QUERY_CONTEXT, ImmutableRangeQueryParameters.builder()
+                .startRowInclusive(startRow)
+                .endRowExclusive(endRow)
+                .columnSelection(ColumnSelection.all())
+                .limit(10)
+                .humanReadableTimestamp(100L)
+                .build());
+    }
+}
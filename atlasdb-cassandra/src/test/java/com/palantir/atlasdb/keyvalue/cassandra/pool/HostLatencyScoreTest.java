@@ -0,0 +1,79 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.pool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class HostLatencyScoreTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final HostLatencyScore score = new HostLatencyScore(clock::get);
+    private final HostLatencyScore otherScore = new HostLatencyScore(clock::get);
+
+    @Test
+    public void slowerHostCostsMore() {
+        score.recordSuccess(SLOW);
+        otherScore.recordSuccess(FAST);
+
+        assertThat(score.cost(0)).isGreaterThan(otherScore.cost(0));
+    }
+
+    @Test
+    public void slowRequestRaisesCostImmediately() {
+        for (int i = 0; i < 100; i++) {
+            score.recordSuccess(FAST);
+            otherScore.recordSuccess(FAST);
+        }
+        score.recordSuccess(SLOW);
+
+        assertThat(score.cost(0)).isGreaterThan(10 * otherScore.cost(0));
+    }
+
+    @Test
+    public void failingHostCostsMore() {
+        score.recordFailure(FAST);
+        otherScore.recordSuccess(FAST);
+
+        assertThat(score.cost(0)).isGreaterThan(otherScore.cost(0));
+    }
+
+    @Test
+    public void busierHostCostsMore() {
+        score.recordSuccess(FAST);
+
+        assertThat(score.cost(5)).isGreaterThan(score.cost(0));
+    }
+
+    @Test
+    public void costDecaysWhileHostIsIdle() {
+        score.recordFailure(SLOW);
+        double initialCost = score.cost(0);
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(5));
+
+        assertThat(score.cost(0)).isLessThan(initialCost / 100);
+        assertThat(score.cost(0)).isEqualTo(otherScore.cost(0), within(1.0));
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.cassandra.pool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.keyvalue.cassandra.CassandraClientPoolingContainer;
+import com.palantir.atlasdb.util.MetricsManagers;
+
+public class LatencyAwareHostSelectorTest {
+    private static final InetSocketAddress HOST_1 = new InetSocketAddress(1);
+    private static final InetSocketAddress HOST_2 = new InetSocketAddress(2);
+    private static final InetSocketAddress HOST_3 = new InetSocketAddress(3);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final int TRIALS = 200;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final CassandraClientPoolMetrics poolMetrics =
+            new CassandraClientPoolMetrics(MetricsManagers.createForTests(), clock::get);
+    private final LatencyAwareHostSelector selector = new LatencyAwareHostSelector(poolMetrics);
+
+    @Test
+    public void selectsNothingIfNoCandidateHasAPool() {
+        Map<InetSocketAddress, CassandraClientPoolingContainer> pools = ImmutableMap.of(HOST_1, pool(0));
+
+        assertThat(selector.selectHost(ImmutableList.of(HOST_2, HOST_3), pools)).isEmpty();
+    }
+
+    @Test
+    public void selectsOnlyCandidateWithAPool() {
+        Map<InetSocketAddress, CassandraClientPoolingContainer> pools = ImmutableMap.of(HOST_2, pool(0));
+
+        assertThat(selector.selectHost(ImmutableList.of(HOST_1, HOST_2), pools)).contains(HOST_2);
+    }
+
+    @Test
+    public void spreadsRequestsBetweenEquivalentHosts() {
+        Map<InetSocketAddress, CassandraClientPoolingContainer> pools = ImmutableMap.of(
+                HOST_1, pool(0),
+                HOST_2, pool(0),
+                HOST_3, pool(0));
+
+        assertThat(selectRepeatedly(pools)).containsExactlyInAnyOrder(HOST_1, HOST_2, HOST_3);
+    }
+
+    @Test
+    public void avoidsSlowHost() {
+        Map<InetSocketAddress, CassandraClientPoolingContainer> pools = ImmutableMap.of(
+                HOST_1, pool(0),
+                HOST_2, pool(0),
+                HOST_3, pool(0));
+        poolMetrics.getHostScore(HOST_1).recordSuccess(FAST);
+        poolMetrics.getHostScore(HOST_2).recordSuccess(FAST);
+        poolMetrics.getHostScore(HOST_3).recordSuccess(SLOW);
+
+        assertThat(selectRepeatedly(pools)).containsExactlyInAnyOrder(HOST_1, HOST_2);
+    }
+
+    @Test
+    public void avoidsFailingHost() {
+        Map<InetSocketAddress, CassandraClientPoolingContainer> pools = ImmutableMap.of(
+                HOST_1, pool(0),
+                HOST_2, pool(0));
+        poolMetrics.getHostScore(HOST_1).recordFailure(FAST);
+        poolMetrics.getHostScore(HOST_2).recordSuccess(FAST);
+
+        assertThat(selectRepeatedly(pools)).containsExactly(HOST_2);
+    }
+
+    @Test
+    public void avoidsBusyHost() {
+        Map<InetSocketAddress, CassandraClientPoolingContainer> pools = ImmutableMap.of(
+                HOST_1, pool(20),
+                HOST_2, pool(0));
+
+        assertThat(selectRepeatedly(pools)).containsExactly(HOST_2);
+    }
+
+    @Test
+    public void retriesSlowHostOnceItsScoreHasDecayed() {
+        Map<InetSocketAddress, CassandraClientPoolingContainer> pools = ImmutableMap.of(
+                HOST_1, pool(0),
+                HOST_2, pool(1));
+        poolMetrics.getHostScore(HOST_1).recordSuccess(SLOW);
+        poolMetrics.getHostScore(HOST_2).recordSuccess(FAST);
+        assertThat(selectRepeatedly(pools)).containsExactly(HOST_2);
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(5));
+
+        assertThat(selectRepeatedly(pools)).containsExactly(HOST_1);
+    }
+
+    private Set<InetSocketAddress> selectRepeatedly(Map<InetSocketAddress, CassandraClientPoolingContainer> pools) {
+        Set<InetSocketAddress> selected = new HashSet<>();
+        for (int i = 0; i < TRIALS; i++) {
+            Optional<InetSocketAddress> host = selector.selectHost(pools.keySet(), pools);
+            host.ifPresent(selected::add);
+        }
+        return selected;
+    }
+
+    private static CassandraClientPoolingContainer pool(int openRequests) {
+        CassandraClientPoolingContainer pool = mock(CassandraClientPoolingContainer.class);
+        when(pool.getOpenRequests()).thenReturn(openRequests);
+        return pool;
+    }
+}
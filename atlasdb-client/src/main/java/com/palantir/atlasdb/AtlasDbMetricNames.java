@@ -49,6 +49,7 @@ public final class AtlasDbMetricNames {
     public static final String TIMELOCK_FAILED_REQUEST = "timelockFailedRequest";
 
     public static final String TAG_STRATEGY = "strategy";
+    public static final String TAG_SHARD = "shard";
     public static final String TAG_CONSERVATIVE = "conservative";
     public static final String TAG_THOROUGH = "thorough";
     public static final String ENQUEUED_WRITES = "enqueuedWrites";
@@ -59,6 +60,8 @@ public final class AtlasDbMetricNames {
     public static final String LAST_SWEPT_TS = "lastSweptTimestamp";
     public static final String LAG_MILLIS = "millisSinceLastSweptTs";
     public static final String BATCH_SIZE_MEAN = "batchSizeMean";
+    public static final String MILLIS_PROGRESS_HELD_BY_DELETES = "millisProgressHeldByDeletesMean";
+    public static final String SHARD_BACKLOG = "shardBacklogTimestamps";
 
     public static final String SWEEP_OUTCOME = "outcome";
     public static final String TAG_OUTCOME = "status";
@@ -0,0 +1,363 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.hash.Hashing;
+import com.palantir.atlasdb.transaction.service.TransactionService;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.UnsafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+import com.palantir.tritium.metrics.registry.MetricName;
+import com.palantir.tritium.metrics.registry.TaggedMetricRegistry;
+
+/**
+ * A {@link TimestampCache} backed by a memory-mapped file, so that the cache survives restarts of the service. Since
+ * the commit timestamp of a transaction never changes once written, entries cached by a previous run remain valid, and
+ * pages of the file are only loaded by the operating system once they are accessed.
+ *
+ * The file is a 4-way set associative table of (start timestamp, commit timestamp, checksum) entries. Entries with a
+ * mismatching checksum, for example ones torn by a machine crash, are treated as absent. The header of the file records
+ * the layout and a hash of the identity of the AtlasDB instance the file was written for (typically the namespace);
+ * if either differs from what is expected, the file is wiped.
+ *
+ * The header also records the cached transaction with the latest commit timestamp. When the file is opened, the
+ * commit timestamp of that transaction is looked up in the transactions table, and the file is wiped if it no longer
+ * matches: that is the case if the instance was restored from a backup taken before the transaction committed, and
+ * entries for transactions lost by the restore would otherwise remain cached.
+ *
+ * The file is locked while the cache is open, so that it cannot be used by two processes at once.
+ */
+public final class MappedFileTimestampCache implements TimestampCache, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(MappedFileTimestampCache.class);
+
+    private static final long MAGIC = 0x41746c6173547343L;
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int FORMAT_VERSION_OFFSET = 8;
+    private static final int NUM_BUCKETS_OFFSET = 16;
+    private static final int IDENTITY_OFFSET = 24;
+    private static final int WITNESS_START_OFFSET = 32;
+    private static final int WITNESS_COMMIT_OFFSET = 40;
+    private static final int WITNESS_CHECKSUM_OFFSET = 48;
+
+    private static final int ENTRY_SIZE = 24;
+    private static final int WAYS = 4;
+    private static final int BUCKET_SIZE = ENTRY_SIZE * WAYS;
+    private static final int NUM_LOCKS = 256;
+    private static final long MAX_BUCKETS = (Integer.MAX_VALUE - HEADER_SIZE) / BUCKET_SIZE;
+
+    /**
+     * Files of the caches open in this process. Closing any channel to a file can release the locks the process holds
+     * on it, so a file already open in this process must not even be opened again to check its lock.
+     */
+    private static final Set<Path> OPEN_FILES = ConcurrentHashMap.newKeySet();
+
+    private static final MetricName CACHE_HIT = constructCacheMetricName("cacheHit");
+    private static final MetricName CACHE_MISS = constructCacheMetricName("cacheMiss");
+
+    private final Path file;
+    private final FileChannel channel;
+    private final FileLock fileLock;
+    private final MappedByteBuffer buffer;
+    private final int numBuckets;
+    private final Object[] locks = new Object[NUM_LOCKS];
+    private final Object witnessLock = new Object();
+    private final Meter cacheHit;
+    private final Meter cacheMiss;
+
+    private volatile long witnessCommitTimestamp;
+    private boolean closed = false;
+
+    private MappedFileTimestampCache(
+            Path file,
+            FileChannel channel,
+            FileLock fileLock,
+            MappedByteBuffer buffer,
+            int numBuckets,
+            TaggedMetricRegistry metricRegistry) {
+        this.file = file;
+        this.channel = channel;
+        this.fileLock = fileLock;
+        this.buffer = buffer;
+        this.numBuckets = numBuckets;
+        for (int i = 0; i < NUM_LOCKS; i++) {
+            locks[i] = new Object();
+        }
+        this.cacheHit = metricRegistry.meter(CACHE_HIT);
+        this.cacheMiss = metricRegistry.meter(CACHE_MISS);
+    }
+
+    /**
+     * Opens the cache stored in the given file, creating it if it does not exist.
+     *
+     * @param file file backing the cache
+     * @param identity identity of the AtlasDB instance the cache is used for; the cache is wiped if the file was
+     * written for a different instance
+     * @param maxEntries maximum number of entries held in the cache; the cache is wiped if this changes
+     * @param transactionService transaction service of the instance, against which the cached entries are checked
+     * to detect that the instance was restored from a backup
+     * @param metricRegistry registry to report hits and misses to
+     * @return the cache
+     * @throws SafeIllegalStateException if the file is already open, in this or another process
+     */
+    public static MappedFileTimestampCache create(
+            Path file,
+            String identity,
+            long maxEntries,
+            TransactionService transactionService,
+            TaggedMetricRegistry metricRegistry) {
+        Preconditions.checkArgument(maxEntries > 0, "Cache must be able to hold at least one entry",
+                SafeArg.of("maxEntries", maxEntries));
+        int numBuckets = (int) Math.min(MAX_BUCKETS, (maxEntries + WAYS - 1) / WAYS);
+        long identityHash = Hashing.murmur3_128().hashString(identity, StandardCharsets.UTF_8).asLong();
+        long fileSize = HEADER_SIZE + (long) numBuckets * BUCKET_SIZE;
+
+        Path absoluteFile = file.toAbsolutePath().normalize();
+        if (!OPEN_FILES.add(absoluteFile)) {
+            throw new SafeIllegalStateException("Timestamp cache file is already open in this process",
+                    UnsafeArg.of("file", file));
+        }
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(absoluteFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            FileLock fileLock = channel.tryLock();
+            if (fileLock == null) {
+                throw new SafeIllegalStateException("Timestamp cache file is in use by another process",
+                        UnsafeArg.of("file", file));
+            }
+            boolean existing = channel.size() == fileSize;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            MappedFileTimestampCache cache =
+                    new MappedFileTimestampCache(absoluteFile, channel, fileLock, buffer, numBuckets, metricRegistry);
+            if (!existing || !cache.headerMatches(identityHash)) {
+                log.info("Timestamp cache file does not match the expected layout or identity, wiping it",
+                        UnsafeArg.of("file", file),
+                        SafeArg.of("maxEntries", maxEntries));
+                cache.clear();
+                cache.writeHeader(identityHash);
+            } else if (!cache.witnessMatches(transactionService)) {
+                log.info("Timestamp cache file does not match the transactions table, possibly because the instance"
+                                + " was restored from a backup, wiping it",
+                        UnsafeArg.of("file", file));
+                cache.clear();
+            }
+            return cache;
+        } catch (IOException e) {
+            closeQuietly(channel);
+            OPEN_FILES.remove(absoluteFile);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            OPEN_FILES.remove(absoluteFile);
+            throw e;
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (witnessLock) {
+            buffer.putLong(WITNESS_START_OFFSET, 0L);
+            buffer.putLong(WITNESS_COMMIT_OFFSET, 0L);
+            buffer.putLong(WITNESS_CHECKSUM_OFFSET, 0L);
+            witnessCommitTimestamp = 0L;
+        }
+        for (int bucket = 0; bucket < numBuckets; bucket++) {
+            synchronized (lockFor(bucket)) {
+                for (int offset = 0; offset < BUCKET_SIZE; offset += Long.BYTES) {
+                    buffer.putLong(bucketOffset(bucket) + offset, 0L);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void putAlreadyCommittedTransaction(Long startTimestamp, Long commitTimestamp) {
+        if (startTimestamp <= 0) {
+            return;
+        }
+        long hash = PrimitiveTimestampCache.hash(startTimestamp);
+        int bucket = bucketFor(hash);
+        synchronized (lockFor(bucket)) {
+            int victim = bucketOffset(bucket) + (int) ((hash >>> 60) & (WAYS - 1)) * ENTRY_SIZE;
+            for (int way = 0; way < WAYS; way++) {
+                int offset = bucketOffset(bucket) + way * ENTRY_SIZE;
+                long key = buffer.getLong(offset);
+                if (key == startTimestamp) {
+                    victim = offset;
+                    break;
+                }
+                if (key == 0L) {
+                    victim = offset;
+                }
+            }
+            buffer.putLong(victim, startTimestamp);
+            buffer.putLong(victim + 8, commitTimestamp);
+            buffer.putLong(victim + 16, checksum(startTimestamp, commitTimestamp));
+        }
+        if (commitTimestamp > witnessCommitTimestamp) {
+            updateWitness(startTimestamp, commitTimestamp);
+        }
+    }
+
+    @Nullable
+    @Override
+    public Long getCommitTimestampIfPresent(Long startTimestamp) {
+        long hash = PrimitiveTimestampCache.hash(startTimestamp);
+        int bucket = bucketFor(hash);
+        synchronized (lockFor(bucket)) {
+            for (int way = 0; way < WAYS; way++) {
+                int offset = bucketOffset(bucket) + way * ENTRY_SIZE;
+                if (buffer.getLong(offset) == startTimestamp) {
+                    long commitTimestamp = buffer.getLong(offset + 8);
+                    if (buffer.getLong(offset + 16) == checksum(startTimestamp, commitTimestamp)) {
+                        cacheHit.mark();
+                        return commitTimestamp;
+                    }
+                }
+            }
+        }
+        cacheMiss.mark();
+        return null;
+    }
+
+    /**
+     * Flushes the contents of the cache to the backing file, and releases the file.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        buffer.force();
+        try {
+            fileLock.release();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            OPEN_FILES.remove(file);
+        }
+    }
+
+    /**
+     * Records the given transaction in the header if it committed later than the transaction recorded there, so that
+     * a restore losing any cached transaction also loses the one in the header.
+     */
+    private void updateWitness(long startTimestamp, long commitTimestamp) {
+        synchronized (witnessLock) {
+            if (commitTimestamp > witnessCommitTimestamp) {
+                buffer.putLong(WITNESS_START_OFFSET, startTimestamp);
+                buffer.putLong(WITNESS_COMMIT_OFFSET, commitTimestamp);
+                buffer.putLong(WITNESS_CHECKSUM_OFFSET, checksum(startTimestamp, commitTimestamp));
+                witnessCommitTimestamp = commitTimestamp;
+            }
+        }
+    }
+
+    private boolean witnessMatches(TransactionService transactionService) {
+        long startTimestamp = buffer.getLong(WITNESS_START_OFFSET);
+        long commitTimestamp = buffer.getLong(WITNESS_COMMIT_OFFSET);
+        if (startTimestamp == 0L && commitTimestamp == 0L && buffer.getLong(WITNESS_CHECKSUM_OFFSET) == 0L) {
+            // nothing has been cached yet
+            return true;
+        }
+        if (buffer.getLong(WITNESS_CHECKSUM_OFFSET) != checksum(startTimestamp, commitTimestamp)) {
+            return false;
+        }
+        try {
+            Long actualCommitTimestamp = transactionService.get(startTimestamp);
+            if (actualCommitTimestamp == null || actualCommitTimestamp != commitTimestamp) {
+                return false;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not check the timestamp cache file against the transactions table", e);
+            return false;
+        }
+        witnessCommitTimestamp = commitTimestamp;
+        return true;
+    }
+
+    private boolean headerMatches(long identityHash) {
+        return buffer.getLong(MAGIC_OFFSET) == MAGIC
+                && buffer.getInt(FORMAT_VERSION_OFFSET) == FORMAT_VERSION
+                && buffer.getLong(NUM_BUCKETS_OFFSET) == numBuckets
+                && buffer.getLong(IDENTITY_OFFSET) == identityHash;
+    }
+
+    private void writeHeader(long identityHash) {
+        buffer.putLong(MAGIC_OFFSET, MAGIC);
+        buffer.putInt(FORMAT_VERSION_OFFSET, FORMAT_VERSION);
+        buffer.putLong(NUM_BUCKETS_OFFSET, numBuckets);
+        buffer.putLong(IDENTITY_OFFSET, identityHash);
+        buffer.force();
+    }
+
+    private static void closeQuietly(@Nullable FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close the timestamp cache file", e);
+        }
+    }
+
+    private int bucketFor(long hash) {
+        return (int) Long.remainderUnsigned(hash, numBuckets);
+    }
+
+    private Object lockFor(int bucket) {
+        return locks[bucket & (NUM_LOCKS - 1)];
+    }
+
+    private static int bucketOffset(int bucket) {
+        return HEADER_SIZE + bucket * BUCKET_SIZE;
+    }
+
+    private static long checksum(long startTimestamp, long commitTimestamp) {
+        return PrimitiveTimestampCache.hash(startTimestamp ^ Long.rotateLeft(commitTimestamp, 32)) | 1L;
+    }
+
+    private static MetricName constructCacheMetricName(String metricSuffix) {
+        return MetricName.builder()
+                .safeName(MetricRegistry.name(MappedFileTimestampCache.class, metricSuffix))
+                .build();
+    }
+}
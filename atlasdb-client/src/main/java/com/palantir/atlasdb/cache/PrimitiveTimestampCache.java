@@ -0,0 +1,235 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.cache;
+
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.math.LongMath;
+
+/**
+ * A {@link TimestampCache} storing start and commit timestamps unboxed, in striped open-addressing tables of
+ * primitive longs.
+ *
+ * Each stripe is a linear-probing hash table sized to at most half occupancy, and approximates LRU eviction with the
+ * clock algorithm: hits set a reference bit on the entry, and when a stripe is full the clock hand sweeps the table
+ * clearing reference bits until it finds an unreferenced entry to evict. Each slot costs 17 bytes of heap and a
+ * stripe's capacity is the smallest power of two holding twice its entries, so an entry costs between 34 and 68 bytes
+ * of heap, with no per-entry objects.
+ *
+ * The size supplied to the cache is only checked when entries are added, so that reads never contend on a resize.
+ * Changing it drops all cached entries, as the tables have to be reallocated.
+ */
+public final class PrimitiveTimestampCache implements TimestampCache {
+    private static final int MAX_STRIPES = 64;
+    private static final long NO_VALUE = Long.MIN_VALUE;
+
+    private final LongSupplier size;
+    private final Meter hits;
+    private final Meter misses;
+
+    private volatile long currentSize;
+    private volatile Stripe[] stripes;
+
+    public PrimitiveTimestampCache(MetricRegistry metricRegistry, LongSupplier size) {
+        this.size = size;
+        this.hits = metricRegistry.meter(MetricRegistry.name(TimestampCache.class, "primitiveStartToCommit", "hit"));
+        this.misses = metricRegistry.meter(MetricRegistry.name(TimestampCache.class, "primitiveStartToCommit", "miss"));
+        reallocate(size.getAsLong());
+    }
+
+    @Override
+    @Nullable
+    public Long getCommitTimestampIfPresent(Long startTimestamp) {
+        long commitTimestamp = stripeFor(startTimestamp).get(startTimestamp);
+        if (commitTimestamp == NO_VALUE) {
+            misses.mark();
+            return null;
+        }
+        hits.mark();
+        return commitTimestamp;
+    }
+
+    @Override
+    public void putAlreadyCommittedTransaction(Long startTimestamp, Long commitTimestamp) {
+        if (startTimestamp == NO_VALUE || commitTimestamp == NO_VALUE) {
+            return;
+        }
+        resizeIfNecessary();
+        stripeFor(startTimestamp).put(startTimestamp, commitTimestamp);
+    }
+
+    @Override
+    public synchronized void clear() {
+        reallocate(currentSize);
+    }
+
+    public static TimestampCache createForTests() {
+        return new PrimitiveTimestampCache(new MetricRegistry(), () -> 1000L);
+    }
+
+    private void resizeIfNecessary() {
+        long targetSize = size.getAsLong();
+        if (targetSize != currentSize) {
+            synchronized (this) {
+                if (targetSize != currentSize) {
+                    reallocate(targetSize);
+                }
+            }
+        }
+    }
+
+    private Stripe stripeFor(long key) {
+        Stripe[] currentStripes = stripes;
+        return currentStripes[(int) (hash(key) >>> 32) & (currentStripes.length - 1)];
+    }
+
+    private void reallocate(long targetSize) {
+        int numStripes = (int) Math.min(MAX_STRIPES, LongMath.ceilingPowerOfTwo(Math.max(1, targetSize / 1024)));
+        int entriesPerStripe = (int) Math.max(1, LongMath.divide(targetSize, numStripes, RoundingMode.CEILING));
+        Stripe[] newStripes = new Stripe[numStripes];
+        for (int i = 0; i < numStripes; i++) {
+            newStripes[i] = new Stripe(entriesPerStripe);
+        }
+        stripes = newStripes;
+        currentSize = targetSize;
+    }
+
+    static long hash(long key) {
+        // finalizer of MurmurHash3, so that sequential timestamps spread across stripes and slots
+        long hash = key;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static final class Stripe {
+        private final int maxEntries;
+        private final int mask;
+        @GuardedBy("this")
+        private final long[] keys;
+        @GuardedBy("this")
+        private final long[] values;
+        @GuardedBy("this")
+        private final boolean[] referenced;
+        @GuardedBy("this")
+        private int entries = 0;
+        @GuardedBy("this")
+        private int clockHand = 0;
+
+        Stripe(int maxEntries) {
+            int capacity = Math.toIntExact(LongMath.ceilingPowerOfTwo(2L * maxEntries));
+            this.maxEntries = maxEntries;
+            this.mask = capacity - 1;
+            this.keys = new long[capacity];
+            this.values = new long[capacity];
+            this.referenced = new boolean[capacity];
+            Arrays.fill(keys, NO_VALUE);
+        }
+
+        synchronized long get(long key) {
+            for (int slot = homeSlot(key); keys[slot] != NO_VALUE; slot = next(slot)) {
+                if (keys[slot] == key) {
+                    referenced[slot] = true;
+                    return values[slot];
+                }
+            }
+            return NO_VALUE;
+        }
+
+        synchronized void put(long key, long value) {
+            int slot = homeSlot(key);
+            for (; keys[slot] != NO_VALUE; slot = next(slot)) {
+                if (keys[slot] == key) {
+                    values[slot] = value;
+                    return;
+                }
+            }
+            if (entries >= maxEntries) {
+                evict();
+                slot = homeSlot(key);
+                while (keys[slot] != NO_VALUE) {
+                    slot = next(slot);
+                }
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            referenced[slot] = false;
+            entries++;
+        }
+
+        @GuardedBy("this")
+        private void evict() {
+            while (true) {
+                if (keys[clockHand] != NO_VALUE) {
+                    if (!referenced[clockHand]) {
+                        remove(clockHand);
+                        return;
+                    }
+                    referenced[clockHand] = false;
+                }
+                clockHand = next(clockHand);
+            }
+        }
+
+        /**
+         * Removes the entry at the given slot with backward shift deletion, so that no tombstones are needed.
+         */
+        @GuardedBy("this")
+        private void remove(int slot) {
+            int gap = slot;
+            for (int current = next(slot); keys[current] != NO_VALUE; current = next(current)) {
+                if (!isCyclicallyBetween(homeSlot(keys[current]), gap, current)) {
+                    keys[gap] = keys[current];
+                    values[gap] = values[current];
+                    referenced[gap] = referenced[current];
+                    gap = current;
+                }
+            }
+            keys[gap] = NO_VALUE;
+            referenced[gap] = false;
+            entries--;
+        }
+
+        /**
+         * Whether index lies in the cyclic interval (lowerExclusive, upperInclusive].
+         */
+        private static boolean isCyclicallyBetween(int index, int lowerExclusive, int upperInclusive) {
+            if (lowerExclusive <= upperInclusive) {
+                return lowerExclusive < index && index <= upperInclusive;
+            }
+            return lowerExclusive < index || index <= upperInclusive;
+        }
+
+        private int homeSlot(long key) {
+            return (int) hash(key) & mask;
+        }
+
+        private int next(int slot) {
+            return (slot + 1) & mask;
+        }
+    }
+}
@@ -34,6 +34,7 @@ import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
 import com.google.common.primitives.UnsignedBytes;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -234,6 +235,45 @@ public class KeyValueServices {
                 return Futures.immediateFuture(keyValueService.get(tableRef, timestampByCell));
             }
 
+            @Override
+            public ListenableFuture<Map<Cell, Value>> getRowsAsync(
+                    TableReference tableRef,
+                    Iterable<byte[]> rows,
+                    ColumnSelection columnSelection,
+                    long timestamp) {
+                return keyValueService.getRowsAsync(tableRef, rows, columnSelection, timestamp);
+            }
+
+            @Override
+            public ListenableFuture<Map<byte[], RowColumnRangeIterator>> getRowsColumnRangeAsync(
+                    TableReference tableRef,
+                    Iterable<byte[]> rows,
+                    BatchColumnRangeSelection batchColumnRangeSelection,
+                    long timestamp) {
+                return keyValueService.getRowsColumnRangeAsync(tableRef, rows, batchColumnRangeSelection, timestamp);
+            }
+
+            @Override
+            public ListenableFuture<Map<RangeRequest, TokenBackedBasicResultsPage<RowResult<Value>, byte[]>>>
+                    getFirstBatchForRangesAsync(
+                            TableReference tableRef,
+                            Iterable<RangeRequest> rangeRequests,
+                            long timestamp) {
+                return keyValueService.getFirstBatchForRangesAsync(tableRef, rangeRequests, timestamp);
+            }
+
+            @Override
+            public ListenableFuture<Void> multiPutAsync(
+                    Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable,
+                    long timestamp) {
+                return keyValueService.multiPutAsync(valuesByTable, timestamp);
+            }
+
+            @Override
+            public ListenableFuture<Void> deleteAsync(TableReference tableRef, Multimap<Cell, Long> keys) {
+                return keyValueService.deleteAsync(tableRef, keys);
+            }
+
             @Override
             public void close() {
                 // NoOp
@@ -0,0 +1,225 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.AbstractIterator;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.common.base.ClosableIterator;
+import com.palantir.common.base.Throwables;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+
+/**
+ * Scans a range of a table in parallel, by splitting it with {@link KeyValueService#splitRange} and scanning up to a
+ * fixed number of splits at once on the given executor. Each split buffers a bounded number of rows ahead of the
+ * consumer, so a slow consumer eventually stalls the scans rather than accumulating the table in memory.
+ *
+ * Results are either returned in key order, in which case splits are scanned at most a fixed number of splits ahead
+ * of the one being consumed, or as they arrive, in which case the order of rows is unspecified.
+ *
+ * The returned iterators must be closed, which cancels any scans still running.
+ */
+public final class ParallelRangeScanner {
+    private static final Object END_OF_SPLIT = new Object();
+
+    private final KeyValueService kvs;
+    private final ExecutorService executor;
+    private final int concurrency;
+    private final int bufferedRowsPerSplit;
+
+    private ParallelRangeScanner(
+            KeyValueService kvs,
+            ExecutorService executor,
+            int concurrency,
+            int bufferedRowsPerSplit) {
+        this.kvs = kvs;
+        this.executor = executor;
+        this.concurrency = concurrency;
+        this.bufferedRowsPerSplit = bufferedRowsPerSplit;
+    }
+
+    public static ParallelRangeScanner create(
+            KeyValueService kvs,
+            ExecutorService executor,
+            int concurrency,
+            int bufferedRowsPerSplit) {
+        Preconditions.checkArgument(concurrency > 0, "Concurrency must be positive",
+                SafeArg.of("concurrency", concurrency));
+        Preconditions.checkArgument(bufferedRowsPerSplit > 0, "Buffered rows per split must be positive",
+                SafeArg.of("bufferedRowsPerSplit", bufferedRowsPerSplit));
+        return new ParallelRangeScanner(kvs, executor, concurrency, bufferedRowsPerSplit);
+    }
+
+    /**
+     * Returns the rows of the range in the order {@link KeyValueService#getRange} would return them.
+     */
+    public ClosableIterator<RowResult<Value>> getRangeInKeyOrder(
+            TableReference tableRef,
+            RangeRequest rangeRequest,
+            long timestamp) {
+        return new Scan(tableRef, kvs.splitRange(tableRef, rangeRequest), timestamp, true).start();
+    }
+
+    /**
+     * Returns the rows of the range in no particular order, as soon as any split has read them.
+     */
+    public ClosableIterator<RowResult<Value>> getRangeUnordered(
+            TableReference tableRef,
+            RangeRequest rangeRequest,
+            long timestamp) {
+        return new Scan(tableRef, kvs.splitRange(tableRef, rangeRequest), timestamp, false).start();
+    }
+
+    private final class Scan extends AbstractIterator<RowResult<Value>> implements ClosableIterator<RowResult<Value>> {
+        private final TableReference tableRef;
+        private final List<RangeRequest> splits;
+        private final long timestamp;
+        private final boolean inKeyOrder;
+        private final List<BlockingQueue<Object>> buffers;
+        private final Semaphore splitsAhead;
+        private final AtomicInteger nextSplitToScan = new AtomicInteger();
+        private final List<Future<?>> scanners = new ArrayList<>();
+
+        private int currentSplit = 0;
+        private int completedSplits = 0;
+        private volatile boolean closed = false;
+
+        private Scan(TableReference tableRef, List<RangeRequest> splits, long timestamp, boolean inKeyOrder) {
+            this.tableRef = tableRef;
+            this.splits = splits;
+            this.timestamp = timestamp;
+            this.inKeyOrder = inKeyOrder;
+            this.buffers = new ArrayList<>(splits.size());
+            if (inKeyOrder) {
+                for (int i = 0; i < splits.size(); i++) {
+                    buffers.add(new LinkedBlockingQueue<>(bufferedRowsPerSplit));
+                }
+            } else {
+                int scanners = Math.max(1, Math.min(concurrency, splits.size()));
+                buffers.add(new LinkedBlockingQueue<>(bufferedRowsPerSplit * scanners));
+            }
+            this.splitsAhead = new Semaphore(concurrency);
+        }
+
+        private Scan start() {
+            for (int i = 0; i < Math.min(concurrency, splits.size()); i++) {
+                scanners.add(executor.submit(this::scanSplits));
+            }
+            return this;
+        }
+
+        private void scanSplits() {
+            try {
+                while (!closed) {
+                    if (inKeyOrder) {
+                        // only scan splits that are fewer than concurrency splits ahead of the consumer
+                        splitsAhead.acquire();
+                    }
+                    int split = nextSplitToScan.getAndIncrement();
+                    if (split >= splits.size()) {
+                        return;
+                    }
+                    scanSplit(split);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void scanSplit(int split) throws InterruptedException {
+            BlockingQueue<Object> buffer = bufferFor(split);
+            try (ClosableIterator<RowResult<Value>> rows = kvs.getRange(tableRef, splits.get(split), timestamp)) {
+                while (rows.hasNext() && !closed) {
+                    buffer.put(rows.next());
+                }
+            } catch (RuntimeException | Error e) {
+                buffer.put(new ScanFailure(e));
+                return;
+            }
+            buffer.put(END_OF_SPLIT);
+        }
+
+        private BlockingQueue<Object> bufferFor(int split) {
+            return inKeyOrder ? buffers.get(split) : buffers.get(0);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked") // only rows, failures and the end marker are put in the buffers
+        protected RowResult<Value> computeNext() {
+            while (completedSplits < splits.size()) {
+                Object element = take(bufferFor(currentSplit));
+                if (element == END_OF_SPLIT) {
+                    completeSplit();
+                } else if (element instanceof ScanFailure) {
+                    close();
+                    throw Throwables.rewrapAndThrowUncheckedException(((ScanFailure) element).cause);
+                } else {
+                    return (RowResult<Value>) element;
+                }
+            }
+            return endOfData();
+        }
+
+        private Object take(BlockingQueue<Object> buffer) {
+            try {
+                return buffer.take();
+            } catch (InterruptedException e) {
+                close();
+                Thread.currentThread().interrupt();
+                throw Throwables.throwUncheckedException(e);
+            }
+        }
+
+        private void completeSplit() {
+            completedSplits++;
+            if (inKeyOrder) {
+                buffers.set(currentSplit, null);
+                currentSplit++;
+                splitsAhead.release();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                scanners.forEach(scanner -> scanner.cancel(true));
+            }
+        }
+    }
+
+    private static final class ScanFailure {
+        private final Throwable cause;
+
+        private ScanFailure(Throwable cause) {
+            this.cause = cause;
+        }
+    }
+}
@@ -121,6 +121,26 @@ public final class ProfilingKeyValueService implements KeyValueService {
                         LoggingArgs.durationMillis(stopwatch));
     }
 
+    private static BiConsumer<LoggingFunction, Stopwatch> logMultiPut(String method,
+            Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable) {
+        long startTime = System.currentTimeMillis();
+        return (logger, stopwatch) -> {
+            int totalCells = 0;
+            long totalBytes = 0;
+            for (Map<Cell, byte[]> values : valuesByTable.values()) {
+                totalCells += values.size();
+                totalBytes += byteSize(values);
+            }
+            logger.log("Call to KVS.{} at time {}, on {} tables putting {} total cells of {} total bytes took {} ms.",
+                    LoggingArgs.method(method),
+                    LoggingArgs.startTimeMillis(startTime),
+                    LoggingArgs.tableCount(valuesByTable.keySet().size()),
+                    LoggingArgs.cellCount(totalCells),
+                    LoggingArgs.sizeInBytes(totalBytes),
+                    LoggingArgs.durationMillis(stopwatch));
+        };
+    }
+
     private static BiConsumer<LoggingFunction, Stopwatch> logTimeAndTableRange(String method,
             TableReference tableRef,
             RangeRequest range) {
@@ -281,6 +301,11 @@ public final class ProfilingKeyValueService implements KeyValueService {
                 logTimeAndTableRange("getRange", tableRef, rangeRequest));
     }
 
+    @Override
+    public List<RangeRequest> splitRange(TableReference tableRef, RangeRequest rangeRequest) {
+        return delegate.splitRange(tableRef, rangeRequest);
+    }
+
     @Override
     public ClosableIterator<RowResult<Set<Long>>> getRangeOfTimestamps(TableReference tableRef,
             RangeRequest rangeRequest, long timestamp) {
@@ -313,23 +338,18 @@ public final class ProfilingKeyValueService implements KeyValueService {
 
     @Override
     public void multiPut(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable, long timestamp) {
-        long startTime = System.currentTimeMillis();
-        maybeLog(() -> delegate.multiPut(valuesByTable, timestamp),
-                (logger, stopwatch) -> {
-                    int totalCells = 0;
-                    long totalBytes = 0;
-                    for (Map<Cell, byte[]> values : valuesByTable.values()) {
-                        totalCells += values.size();
-                        totalBytes += byteSize(values);
-                    }
-                    logger.log(
-                            "Call to KVS.multiPut at time {}, on {} tables putting {} total cells of {} total bytes took {} ms.",
-                            LoggingArgs.startTimeMillis(startTime),
-                            LoggingArgs.tableCount(valuesByTable.keySet().size()),
-                            LoggingArgs.cellCount(totalCells),
-                            LoggingArgs.sizeInBytes(totalBytes),
-                            LoggingArgs.durationMillis(stopwatch));
-                });
+        maybeLog(() -> delegate.multiPut(valuesByTable, timestamp), logMultiPut("multiPut", valuesByTable));
+    }
+
+    @Override
+    public boolean supportsAtomicMultiPut() {
+        return delegate.supportsAtomicMultiPut();
+    }
+
+    @Override
+    public void multiPutAtomically(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable, long timestamp) {
+        maybeLog(() -> delegate.multiPutAtomically(valuesByTable, timestamp),
+                logMultiPut("multiPutAtomically", valuesByTable));
     }
 
     @Override
@@ -511,4 +531,46 @@ public final class ProfilingKeyValueService implements KeyValueService {
                                 LoggingArgs.durationMillis(stopwatch)),
                 logCellResultSize(4L));
     }
+
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getRowsAsync(TableReference tableRef, Iterable<byte[]> rows,
+            ColumnSelection columnSelection, long timestamp) {
+        return KvsProfilingLogger.maybeLogAsync(
+                () -> delegate.getRowsAsync(tableRef, rows, columnSelection, timestamp),
+                logTimeAndTableRows("getRowsAsync", tableRef, rows),
+                logCellResultSize(0L));
+    }
+
+    @Override
+    public ListenableFuture<Map<byte[], RowColumnRangeIterator>> getRowsColumnRangeAsync(TableReference tableRef,
+            Iterable<byte[]> rows, BatchColumnRangeSelection batchColumnRangeSelection, long timestamp) {
+        return maybeLogAsync(
+                () -> delegate.getRowsColumnRangeAsync(tableRef, rows, batchColumnRangeSelection, timestamp),
+                logTimeAndTableRows("getRowsColumnRangeAsync", tableRef, rows));
+    }
+
+    @Override
+    public ListenableFuture<Map<RangeRequest, TokenBackedBasicResultsPage<RowResult<Value>, byte[]>>>
+            getFirstBatchForRangesAsync(TableReference tableRef, Iterable<RangeRequest> rangeRequests, long timestamp) {
+        return maybeLogAsync(() -> delegate.getFirstBatchForRangesAsync(tableRef, rangeRequests, timestamp),
+                logTimeAndTable("getFirstBatchForRangesAsync", tableRef));
+    }
+
+    @Override
+    public ListenableFuture<Void> multiPutAsync(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable,
+            long timestamp) {
+        return maybeLogAsync(() -> delegate.multiPutAsync(valuesByTable, timestamp),
+                logTimeAndTableCount("multiPutAsync", valuesByTable.keySet().size()));
+    }
+
+    @Override
+    public ListenableFuture<Void> deleteAsync(TableReference tableRef, Multimap<Cell, Long> keys) {
+        return maybeLogAsync(() -> delegate.deleteAsync(tableRef, keys),
+                logCellsAndSize("deleteAsync", tableRef, keys.keySet().size(), byteSize(keys)));
+    }
+
+    private static <T> ListenableFuture<T> maybeLogAsync(Supplier<ListenableFuture<T>> action,
+            BiConsumer<LoggingFunction, Stopwatch> logger) {
+        return KvsProfilingLogger.maybeLogAsync(action::get, logger, (loggingFunction, result) -> {});
+    }
 }
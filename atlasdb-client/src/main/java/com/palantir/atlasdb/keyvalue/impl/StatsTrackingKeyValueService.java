@@ -27,6 +27,8 @@ import javax.annotation.concurrent.ThreadSafe;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.CheckAndSetRequest;
 import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
@@ -154,6 +156,15 @@ public class StatsTrackingKeyValueService extends ForwardingKeyValueService {
         return r;
     }
 
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getRowsAsync(TableReference tableRef,
+                                                           Iterable<byte[]> rows,
+                                                           ColumnSelection columnSelection,
+                                                           long timestamp) {
+        // Stats are measured around synchronous calls.
+        return Futures.immediateFuture(getRows(tableRef, rows, columnSelection, timestamp));
+    }
+
     @Override
     public ClosableIterator<RowResult<Value>> getRange(final TableReference tableRef, RangeRequest range,
                                                        long timestamp) {
@@ -214,11 +225,23 @@ public class StatsTrackingKeyValueService extends ForwardingKeyValueService {
         long start = System.currentTimeMillis();
         super.multiPut(valuesByTable, timestamp);
         long finish = System.currentTimeMillis();
+        updateMultiPutStats(valuesByTable, finish - start);
+    }
+
+    @Override
+    public void multiPutAtomically(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable, long timestamp) {
+        long start = System.currentTimeMillis();
+        super.multiPutAtomically(valuesByTable, timestamp);
+        long finish = System.currentTimeMillis();
+        updateMultiPutStats(valuesByTable, finish - start);
+    }
+
+    private void updateMultiPutStats(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable, long millis) {
         for (Entry<TableReference, ? extends Map<Cell, byte[]>> entry : valuesByTable.entrySet()) {
             TableReference tableRef = entry.getKey();
             Map<Cell, byte[]> values = entry.getValue();
             TableStats s = getTableStats(tableRef);
-            s.totalPutMillis.addAndGet(finish - start);
+            s.totalPutMillis.addAndGet(millis);
             s.totalPutCalls.incrementAndGet();
 
             // Only update stats after put was successful.
@@ -229,6 +252,13 @@ public class StatsTrackingKeyValueService extends ForwardingKeyValueService {
         }
     }
 
+    @Override
+    public ListenableFuture<Void> multiPutAsync(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable,
+                                                long timestamp) {
+        multiPut(valuesByTable, timestamp);
+        return Futures.immediateFuture(null);
+    }
+
     @Override
     public void putWithTimestamps(TableReference tableRef, Multimap<Cell, Value> values) {
         TableStats s = getTableStats(tableRef);
@@ -42,6 +42,9 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.ClusterAvailabilityStatus;
@@ -134,6 +137,29 @@ public class SweepStatsKeyValueService extends ForwardingKeyValueService {
     @Override
     public void multiPut(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable, long timestamp) {
         delegate().multiPut(valuesByTable, timestamp);
+        recordWrites(valuesByTable);
+    }
+
+    @Override
+    public void multiPutAtomically(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable, long timestamp) {
+        delegate().multiPutAtomically(valuesByTable, timestamp);
+        recordWrites(valuesByTable);
+    }
+
+    @Override
+    public ListenableFuture<Void> multiPutAsync(
+            Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable,
+            long timestamp) {
+        return Futures.transform(
+                delegate().multiPutAsync(valuesByTable, timestamp),
+                result -> {
+                    recordWrites(valuesByTable);
+                    return result;
+                },
+                MoreExecutors.directExecutor());
+    }
+
+    private void recordWrites(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable) {
         if (isEnabled.get()) {
             int newWrites = 0;
             long writesSize = 0;
@@ -211,6 +237,11 @@ public class SweepStatsKeyValueService extends ForwardingKeyValueService {
         return clearedTables.contains(tableRef);
     }
 
+    @VisibleForTesting
+    int getUnflushedWriteCount(TableReference tableRef) {
+        return writesByTable.count(tableRef);
+    }
+
     // This way of recording the number of writes to tables is obviously not
     // completely correct. It does no synchronization between processes (so
     // updates could be clobbered), and it makes little effort to ensure that
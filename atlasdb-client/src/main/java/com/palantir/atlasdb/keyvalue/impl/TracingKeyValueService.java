@@ -288,6 +288,11 @@ public final class TracingKeyValueService extends ForwardingObject implements Ke
         return delegate().getRange(tableRef, rangeRequest, timestamp);
     }
 
+    @Override
+    public List<RangeRequest> splitRange(TableReference tableRef, RangeRequest rangeRequest) {
+        return delegate().splitRange(tableRef, rangeRequest);
+    }
+
     @Override
     public ClosableIterator<RowResult<Set<Long>>> getRangeOfTimestamps(TableReference tableRef,
             RangeRequest rangeRequest,
@@ -347,6 +352,21 @@ public final class TracingKeyValueService extends ForwardingObject implements Ke
         }
     }
 
+    @Override
+    public boolean supportsAtomicMultiPut() {
+        return delegate().supportsAtomicMultiPut();
+    }
+
+    @Override
+    public void multiPutAtomically(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable,
+            long timestamp) {
+        //noinspection unused - try-with-resources closes trace
+        try (CloseableTrace trace = startLocalTrace("multiPutAtomically({} values, ts {})",
+                valuesByTable.size(), timestamp)) {
+            delegate().multiPutAtomically(valuesByTable, timestamp);
+        }
+    }
+
     @Override
     public void put(TableReference tableRef, Map<Cell, byte[]> values, long timestamp) {
         //noinspection unused - try-with-resources closes trace
@@ -430,6 +450,65 @@ public final class TracingKeyValueService extends ForwardingObject implements Ke
         return attachDetachedSpanCompletion(detachedSpan, future, tracingExecutorService);
     }
 
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getRowsAsync(TableReference tableRef,
+            Iterable<byte[]> rows,
+            ColumnSelection columnSelection,
+            long timestamp) {
+        DetachedSpan detachedSpan = DetachedSpan.start(String.format("getRowsAsync(%s, %s rows, ts %s)",
+                LoggingArgs.safeTableOrPlaceholder(tableRef), Iterables.size(rows), timestamp));
+
+        ListenableFuture<Map<Cell, Value>> future = delegate().getRowsAsync(
+                tableRef, rows, columnSelection, timestamp);
+        return attachDetachedSpanCompletion(detachedSpan, future, tracingExecutorService);
+    }
+
+    @Override
+    public ListenableFuture<Map<byte[], RowColumnRangeIterator>> getRowsColumnRangeAsync(TableReference tableRef,
+            Iterable<byte[]> rows,
+            BatchColumnRangeSelection batchColumnRangeSelection,
+            long timestamp) {
+        DetachedSpan detachedSpan = DetachedSpan.start(String.format("getRowsColumnRangeAsync(%s, %s rows, ts %s)",
+                LoggingArgs.safeTableOrPlaceholder(tableRef), Iterables.size(rows), timestamp));
+
+        ListenableFuture<Map<byte[], RowColumnRangeIterator>> future = delegate().getRowsColumnRangeAsync(
+                tableRef, rows, batchColumnRangeSelection, timestamp);
+        return attachDetachedSpanCompletion(detachedSpan, future, tracingExecutorService);
+    }
+
+    @Override
+    public ListenableFuture<Map<RangeRequest, TokenBackedBasicResultsPage<RowResult<Value>, byte[]>>>
+            getFirstBatchForRangesAsync(TableReference tableRef,
+                    Iterable<RangeRequest> rangeRequests,
+                    long timestamp) {
+        DetachedSpan detachedSpan = DetachedSpan.start(String.format(
+                "getFirstBatchForRangesAsync(%s, %s ranges, ts %s)",
+                LoggingArgs.safeTableOrPlaceholder(tableRef), Iterables.size(rangeRequests), timestamp));
+
+        ListenableFuture<Map<RangeRequest, TokenBackedBasicResultsPage<RowResult<Value>, byte[]>>> future =
+                delegate().getFirstBatchForRangesAsync(tableRef, rangeRequests, timestamp);
+        return attachDetachedSpanCompletion(detachedSpan, future, tracingExecutorService);
+    }
+
+    @Override
+    public ListenableFuture<Void> multiPutAsync(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable,
+            long timestamp) {
+        DetachedSpan detachedSpan = DetachedSpan.start(String.format("multiPutAsync(%s values, ts %s)",
+                valuesByTable.size(), timestamp));
+
+        ListenableFuture<Void> future = delegate().multiPutAsync(valuesByTable, timestamp);
+        return attachDetachedSpanCompletion(detachedSpan, future, tracingExecutorService);
+    }
+
+    @Override
+    public ListenableFuture<Void> deleteAsync(TableReference tableRef, Multimap<Cell, Long> keys) {
+        DetachedSpan detachedSpan = DetachedSpan.start(String.format("deleteAsync(%s, %s keys)",
+                LoggingArgs.safeTableOrPlaceholder(tableRef), keys.size()));
+
+        ListenableFuture<Void> future = delegate().deleteAsync(tableRef, keys);
+        return attachDetachedSpanCompletion(detachedSpan, future, tracingExecutorService);
+    }
+
     private static CloseableTrace startLocalTrace(CharSequence operationFormat, Object... formatArguments) {
         return CloseableTrace.startLocalTrace(SERVICE_NAME, operationFormat, formatArguments);
     }
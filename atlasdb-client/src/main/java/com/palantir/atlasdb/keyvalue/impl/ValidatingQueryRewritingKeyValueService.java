@@ -32,6 +32,8 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.ClusterAvailabilityStatus;
@@ -196,6 +198,54 @@ public class ValidatingQueryRewritingKeyValueService extends ForwardingKeyValueS
         delegate.multiPut(valuesByTable, timestamp);
     }
 
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getRowsAsync(TableReference tableRef, Iterable<byte[]> rows, ColumnSelection columnSelection, long timestamp) {
+        if (Iterables.isEmpty(rows) || columnSelection.noColumnsSelected()) {
+            return Futures.immediateFuture(ImmutableMap.of());
+        }
+        return delegate.getRowsAsync(tableRef, rows, columnSelection, timestamp);
+    }
+
+    @Override
+    public ListenableFuture<Map<RangeRequest, TokenBackedBasicResultsPage<RowResult<Value>, byte[]>>> getFirstBatchForRangesAsync(TableReference tableRef, Iterable<RangeRequest> rangeRequests, long timestamp) {
+        if (Iterables.isEmpty(rangeRequests)) {
+            return Futures.immediateFuture(ImmutableMap.of());
+        }
+        return delegate.getFirstBatchForRangesAsync(tableRef, rangeRequests, timestamp);
+    }
+
+    @Override
+    public ListenableFuture<Void> multiPutAsync(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable, long timestamp) {
+        Preconditions.checkArgument(timestamp != Long.MAX_VALUE);
+        Preconditions.checkArgument(timestamp >= 0);
+        Preconditions.checkArgument(!valuesByTable.containsKey(TransactionConstants.TRANSACTION_TABLE), TRANSACTION_ERROR);
+        Map<TableReference, ? extends Map<Cell, byte[]>> nonEmptyValuesByTable = Maps.filterValues(valuesByTable, values -> !values.isEmpty());
+        if (nonEmptyValuesByTable.isEmpty()) {
+            return Futures.immediateFuture(null);
+        }
+        return delegate.multiPutAsync(nonEmptyValuesByTable, timestamp);
+    }
+
+    @Override
+    public void multiPutAtomically(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable, long timestamp) throws KeyAlreadyExistsException {
+        Preconditions.checkArgument(timestamp != Long.MAX_VALUE);
+        Preconditions.checkArgument(timestamp >= 0);
+        Preconditions.checkArgument(!valuesByTable.containsKey(TransactionConstants.TRANSACTION_TABLE), TRANSACTION_ERROR);
+        Map<TableReference, ? extends Map<Cell, byte[]>> nonEmptyValuesByTable = Maps.filterValues(valuesByTable, values -> !values.isEmpty());
+        if (nonEmptyValuesByTable.isEmpty()) {
+            return;
+        }
+        delegate.multiPutAtomically(nonEmptyValuesByTable, timestamp);
+    }
+
+    @Override
+    public ListenableFuture<Void> deleteAsync(TableReference tableRef, Multimap<Cell, Long> keys) {
+        if (keys.isEmpty()) {
+            return Futures.immediateFuture(null);
+        }
+        return delegate.deleteAsync(tableRef, keys);
+    }
+
     @Override
     public void put(TableReference tableRef, Map<Cell, byte[]> values, long timestamp) throws KeyAlreadyExistsException {
         Preconditions.checkArgument(timestamp != Long.MAX_VALUE);
@@ -51,6 +51,24 @@ public abstract class AbstractTaskCheckpointer {
                                                    long rangeId,
                                                    Transaction tx);
 
+    /**
+     * Whether this checkpointer supports {@link #checkpointExists(String, long)}.
+     */
+    public boolean supportsCheckpointExists() {
+        return false;
+    }
+
+    /**
+     * Returns whether a checkpoint has been created for this range, whether or not it is done.
+     *
+     * Only supported if {@link #supportsCheckpointExists()} returns true.
+     *
+     * @throws UnsupportedOperationException if this checkpointer cannot tell
+     */
+    public boolean checkpointExists(String extraId, long rangeId) {
+        throw new UnsupportedOperationException("This checkpointer cannot tell whether checkpoints exist.");
+    }
+
     /**
      * Initialize checkpointing. This will only write checkpoints if checkpoints don't already
      * exist.
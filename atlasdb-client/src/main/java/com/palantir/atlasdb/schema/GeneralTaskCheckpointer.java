@@ -73,6 +73,20 @@ public class GeneralTaskCheckpointer extends AbstractTaskCheckpointer {
         return fromDb(value);
     }
 
+    @Override
+    public boolean supportsCheckpointExists() {
+        return true;
+    }
+
+    @Override
+    public boolean checkpointExists(String extraId, long rangeId) {
+        Schemas.createTable(getSchema(), kvs, checkpointTable);
+
+        Cell cell = getCell(extraId, rangeId);
+        return txManager.runTaskReadOnly((TransactionTask<Boolean, RuntimeException>) t ->
+                t.get(checkpointTable, ImmutableSet.of(cell)).containsKey(cell));
+    }
+
     @Override
     public void createCheckpoints(final String extraId,
                                   final Map<Long, byte[]> startById) {
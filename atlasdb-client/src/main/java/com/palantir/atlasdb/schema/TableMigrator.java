@@ -22,10 +22,11 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
 import com.google.common.primitives.UnsignedBytes;
 import com.palantir.atlasdb.encoding.PtBytes;
@@ -35,11 +36,14 @@ import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.table.description.RowNamePartitioner;
 import com.palantir.atlasdb.table.description.UniformRowNamePartitioner;
 import com.palantir.atlasdb.table.description.ValueType;
+import com.palantir.atlasdb.transaction.api.TransactionTask;
 import com.palantir.common.base.Throwables;
 import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.logsafe.Preconditions;
 
 public class TableMigrator {
+    private static final String RANGE_BOUNDARIES_SUFFIX = "#rangeBoundaries";
+
     private final TableReference srcTable;
     private final int partitions;
     private final List<RowNamePartitioner> partitioners;
@@ -49,6 +53,7 @@ public class TableMigrator {
     private final TaskProgress progress;
     private final ColumnSelection columnSelection;
     private final RangeMigrator rangeMigrator;
+    private final List<byte[]> splitPoints;
 
     /**
      * See {@link TableMigratorBuilder}.
@@ -61,7 +66,8 @@ public class TableMigrator {
                   AbstractTaskCheckpointer checkpointer,
                   TaskProgress progress,
                   ColumnSelection columnSelection,
-                  RangeMigrator rangeMigrator) {
+                  RangeMigrator rangeMigrator,
+                  List<RangeRequest> rangeSplits) {
         this.srcTable = srcTable;
         this.partitions = setPartitions(partitions);
         this.partitioners = partitioners;
@@ -71,6 +77,10 @@ public class TableMigrator {
         this.progress = progress;
         this.columnSelection = columnSelection;
         this.rangeMigrator = rangeMigrator;
+        this.splitPoints = rangeSplits.stream()
+                .map(RangeRequest::getStartInclusive)
+                .filter(start -> start.length > 0)
+                .collect(Collectors.toList());
     }
 
     private int setPartitions(int minNumPartitions) {
@@ -85,7 +95,10 @@ public class TableMigrator {
     }
 
     public void migrate() {
-        List<byte[]> rangeBoundaries = getRangeBoundaries();
+        // without knowing whether this is a resumed migration, we cannot tell whether split points are safe to use
+        List<byte[]> rangeBoundaries = splitPoints.isEmpty() || !checkpointer.supportsCheckpointExists()
+                ? getRangeBoundaries(ImmutableList.of())
+                : getRangeBoundariesWithSplitPoints();
 
         int totalTasks = rangeBoundaries.size() - 1;
 
@@ -153,11 +166,12 @@ public class TableMigrator {
      * The range boundaries will be sorted and will include the empty byte array at the start and
      * end to ensure that all entries are covered by the ranges.
      * If a table doesn't support partitioning, we'll make fake partitions and hope it helps.
+     * The ranges are further split at the given split points of the table.
      */
-    private List<byte[]> getRangeBoundaries() {
-        Set<byte[]> rangeBoundaries = Sets.newHashSet();
-        // Must use PtBytes.EMPTY_BYTE_ARRAY to avoid duplicate when adding from UniformRowNamePartitioner
+    private List<byte[]> getRangeBoundaries(List<byte[]> splitPointsToUse) {
+        Set<byte[]> rangeBoundaries = Sets.newTreeSet(UnsignedBytes.lexicographicalComparator());
         rangeBoundaries.add(PtBytes.EMPTY_BYTE_ARRAY);
+        rangeBoundaries.addAll(splitPointsToUse);
 
         if (partitioners.isEmpty()) {
             rangeBoundaries.addAll(new UniformRowNamePartitioner(ValueType.FIXED_LONG).getPartitions(partitions));
@@ -170,12 +184,44 @@ public class TableMigrator {
             }
         }
 
-        List<byte[]> sortedBoundaries = Ordering.from(UnsignedBytes.lexicographicalComparator())
-                .sortedCopy(rangeBoundaries);
+        List<byte[]> sortedBoundaries = Lists.newArrayList(rangeBoundaries);
         sortedBoundaries.add(PtBytes.EMPTY_BYTE_ARRAY);
         return sortedBoundaries;
     }
 
+    /**
+     * A resumed migration must use the range boundaries its checkpoints were written for, or rows between an old and
+     * a new boundary would be skipped. Split points may change between runs, for example when the nodes of the source
+     * store change, so the boundaries of a run that used them are stored alongside the checkpoints and reused by later
+     * runs. A migration that was started without split points keeps being resumed without them.
+     */
+    private List<byte[]> getRangeBoundariesWithSplitPoints() {
+        String extraId = srcTable.getQualifiedName() + RANGE_BOUNDARIES_SUFFIX;
+        if (!checkpointer.checkpointExists(extraId, 0L)
+                && checkpointer.checkpointExists(srcTable.getQualifiedName(), 0L)) {
+            return getRangeBoundaries(ImmutableList.of());
+        }
+        return getPersistedRangeBoundaries(extraId, getRangeBoundaries(splitPoints));
+    }
+
+    private List<byte[]> getPersistedRangeBoundaries(String extraId, List<byte[]> rangeBoundaries) {
+        Map<Long, byte[]> boundaryById = Maps.newHashMap();
+        boundaryById.put(0L, PtBytes.toBytes((long) rangeBoundaries.size()));
+        for (int i = 0; i < rangeBoundaries.size(); i++) {
+            boundaryById.put(i + 1L, rangeBoundaries.get(i));
+        }
+        checkpointer.createCheckpoints(extraId, boundaryById);
+
+        return checkpointer.txManager.runTaskReadOnly((TransactionTask<List<byte[]>, RuntimeException>) tx -> {
+            long numBoundaries = PtBytes.toLong(checkpointer.getCheckpoint(extraId, 0L, tx));
+            List<byte[]> persistedBoundaries = Lists.newArrayList();
+            for (long id = 1; id <= numBoundaries; id++) {
+                persistedBoundaries.add(checkpointer.getCheckpoint(extraId, id, tx));
+            }
+            return persistedBoundaries;
+        });
+    }
+
     private void migrateTableRange(RangeRequest range,
                                    long rangeId) {
         rangeMigrator.migrateRange(range, rangeId);
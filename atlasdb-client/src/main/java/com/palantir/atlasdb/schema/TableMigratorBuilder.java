@@ -20,6 +20,7 @@ import java.util.concurrent.ExecutorService;
 
 import com.google.common.collect.ImmutableList;
 import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.table.description.RowNamePartitioner;
 import com.palantir.logsafe.Preconditions;
@@ -39,6 +40,7 @@ public class TableMigratorBuilder {
     private TaskProgress progress;
     private ColumnSelection columnSelection;
     private RangeMigrator rangeMigrator;
+    private List<RangeRequest> rangeSplits;
 
     public TableMigratorBuilder() {
         srcTable = null;
@@ -50,6 +52,7 @@ public class TableMigratorBuilder {
         progress = new NullTaskProgress();
         columnSelection = ColumnSelection.all();
         rangeMigrator = null;
+        rangeSplits = ImmutableList.of();
     }
 
     public TableMigratorBuilder srcTable(TableReference table) {
@@ -106,6 +109,16 @@ public class TableMigratorBuilder {
         return this;
     }
 
+    /**
+     * Splits of the source table, typically from {@link com.palantir.atlasdb.keyvalue.api.KeyValueService#splitRange},
+     * that no migrated range should span, so that each range is read from the nodes owning it.
+     */
+    public TableMigratorBuilder rangeSplits(List<RangeRequest> splits) {
+        Preconditions.checkNotNull(splits);
+        this.rangeSplits = splits;
+        return this;
+    }
+
     public TableMigrator build() {
         Preconditions.checkNotNull(srcTable);
         Preconditions.checkNotNull(executor);
@@ -121,6 +134,7 @@ public class TableMigratorBuilder {
                 checkpointer,
                 progress,
                 columnSelection,
-                rangeMigrator);
+                rangeMigrator,
+                rangeSplits);
     }
 }
@@ -123,6 +123,14 @@ public abstract class ForwardingTransaction extends ForwardingObject implements
         return delegate().getRangesLazy(tableRef, rangeRequests);
     }
 
+    @Override
+    public Stream<RowResult<byte[]>> getRangeWithPrefetch(
+            TableReference tableRef,
+            RangeRequest rangeRequest,
+            int pagesInFlight) {
+        return delegate().getRangeWithPrefetch(tableRef, rangeRequest, pagesInFlight);
+    }
+
     @Override
     public void put(TableReference tableRef, Map<Cell, byte[]> values) {
         delegate().put(tableRef, values);
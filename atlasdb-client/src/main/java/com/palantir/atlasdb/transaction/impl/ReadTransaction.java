@@ -110,6 +110,15 @@ public class ReadTransaction extends ForwardingTransaction {
         return delegate().getRangesLazy(tableRef, rangeRequests);
     }
 
+    @Override
+    public Stream<RowResult<byte[]>> getRangeWithPrefetch(
+            TableReference tableRef,
+            RangeRequest rangeRequest,
+            int pagesInFlight) {
+        checkTableName(tableRef);
+        return delegate().getRangeWithPrefetch(tableRef, rangeRequest, pagesInFlight);
+    }
+
     @Override
     public Map<byte[], BatchingVisitable<Map.Entry<Cell, byte[]>>> getRowsColumnRange(TableReference tableRef,
             Iterable<byte[]> rows, BatchColumnRangeSelection columnRangeSelection) {
@@ -0,0 +1,172 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.palantir.atlasdb.transaction.service.TransactionService;
+import com.palantir.atlasdb.util.MetricsManagers;
+import com.palantir.logsafe.exceptions.SafeIllegalStateException;
+
+public final class MappedFileTimestampCacheTest {
+    private static final String IDENTITY = "namespace";
+    private static final long MAX_ENTRIES = 1000;
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final Map<Long, Long> transactionsTable = new ConcurrentHashMap<>();
+    private final TransactionService transactionService = mock(TransactionService.class);
+
+    private Path file;
+    private MappedFileTimestampCache cache;
+
+    @Before
+    public void before() throws IOException {
+        when(transactionService.get(anyLong()))
+                .thenAnswer(invocation -> transactionsTable.get(invocation.getArgument(0)));
+        file = temporaryFolder.newFolder().toPath().resolve("timestamp-cache");
+        cache = open(IDENTITY, MAX_ENTRIES);
+    }
+
+    @After
+    public void after() {
+        cache.close();
+    }
+
+    @Test
+    public void cachedEntry() {
+        cache.putAlreadyCommittedTransaction(1L, 3L);
+
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isEqualTo(3L);
+    }
+
+    @Test
+    public void nonCachedEntry() {
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isNull();
+    }
+
+    @Test
+    public void clearCache() {
+        cache.putAlreadyCommittedTransaction(1L, 3L);
+        cache.clear();
+
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isNull();
+    }
+
+    @Test
+    public void entriesSurviveReopening() {
+        commit(1L, 3L);
+        cache.close();
+
+        cache = open(IDENTITY, MAX_ENTRIES);
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isEqualTo(3L);
+    }
+
+    @Test
+    public void reopeningForDifferentIdentityWipesCache() {
+        commit(1L, 3L);
+        cache.close();
+
+        cache = open("other", MAX_ENTRIES);
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isNull();
+    }
+
+    @Test
+    public void reopeningWithDifferentSizeWipesCache() {
+        commit(1L, 3L);
+        cache.close();
+
+        cache = open(IDENTITY, 2 * MAX_ENTRIES);
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isNull();
+    }
+
+    @Test
+    public void reopeningAfterRestoreFromBackupWipesCache() {
+        commit(1L, 3L);
+        commit(5L, 7L);
+        cache.close();
+        // the backup was taken before the second transaction committed
+        transactionsTable.remove(5L);
+
+        cache = open(IDENTITY, MAX_ENTRIES);
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isNull();
+        assertThat(cache.getCommitTimestampIfPresent(5L)).isNull();
+    }
+
+    @Test
+    public void reopeningWipesCacheIfTransactionsTableCannotBeRead() {
+        commit(1L, 3L);
+        cache.close();
+        when(transactionService.get(anyLong())).thenThrow(new IllegalStateException("unavailable"));
+
+        cache = open(IDENTITY, MAX_ENTRIES);
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isNull();
+    }
+
+    @Test
+    public void cannotOpenFileThatIsAlreadyOpen() {
+        assertThatThrownBy(() -> open(IDENTITY, MAX_ENTRIES))
+                .isInstanceOf(SafeIllegalStateException.class);
+    }
+
+    @Test
+    public void canReopenFileOnceClosed() {
+        cache.close();
+
+        cache = open(IDENTITY, MAX_ENTRIES);
+        commit(1L, 3L);
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isEqualTo(3L);
+    }
+
+    @Test
+    public void overwritesEntriesWhenFull() {
+        LongStream.range(1, 10_000).forEach(ts -> cache.putAlreadyCommittedTransaction(ts, ts + 1));
+
+        long cached = LongStream.range(1, 10_000)
+                .filter(ts -> cache.getCommitTimestampIfPresent(ts) != null)
+                .count();
+        assertThat(cached).isLessThanOrEqualTo(MAX_ENTRIES).isGreaterThan(0L);
+        assertThat(cache.getCommitTimestampIfPresent(9_999L)).isEqualTo(10_000L);
+    }
+
+    private void commit(long startTimestamp, long commitTimestamp) {
+        transactionsTable.put(startTimestamp, commitTimestamp);
+        cache.putAlreadyCommittedTransaction(startTimestamp, commitTimestamp);
+    }
+
+    private MappedFileTimestampCache open(String identity, long maxEntries) {
+        return MappedFileTimestampCache.create(file, identity, maxEntries, transactionService,
+                MetricsManagers.createForTests().getTaggedRegistry());
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+
+import com.codahale.metrics.MetricRegistry;
+
+public class PrimitiveTimestampCacheTest {
+    private final AtomicLong size = new AtomicLong(1000L);
+    private final TimestampCache cache = new PrimitiveTimestampCache(new MetricRegistry(), size::get);
+
+    @Test
+    public void cachedEntry() {
+        cache.putAlreadyCommittedTransaction(1L, 3L);
+
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isEqualTo(3L);
+    }
+
+    @Test
+    public void nonCachedEntry() {
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isNull();
+    }
+
+    @Test
+    public void cachesFailedCommits() {
+        cache.putAlreadyCommittedTransaction(1L, -1L);
+
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isEqualTo(-1L);
+    }
+
+    @Test
+    public void clearCache() {
+        cache.putAlreadyCommittedTransaction(1L, 3L);
+        cache.clear();
+
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isNull();
+    }
+
+    @Test
+    public void evictsEntriesWhenFull() {
+        LongStream.range(0, 10_000).forEach(ts -> cache.putAlreadyCommittedTransaction(ts, ts + 1));
+
+        long cached = LongStream.range(0, 10_000)
+                .filter(ts -> cache.getCommitTimestampIfPresent(ts) != null)
+                .count();
+        assertThat(cached).isLessThanOrEqualTo(1000L).isGreaterThan(0L);
+        assertThat(cache.getCommitTimestampIfPresent(9_999L)).isEqualTo(10_000L);
+    }
+
+    @Test
+    public void retainsReferencedEntriesOverUnreferencedOnes() {
+        size.set(2L);
+        cache.putAlreadyCommittedTransaction(1L, 2L);
+        cache.putAlreadyCommittedTransaction(3L, 4L);
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isEqualTo(2L);
+
+        cache.putAlreadyCommittedTransaction(5L, 6L);
+
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isEqualTo(2L);
+        assertThat(cache.getCommitTimestampIfPresent(3L)).isNull();
+        assertThat(cache.getCommitTimestampIfPresent(5L)).isEqualTo(6L);
+    }
+
+    @Test
+    public void resizingHappensOnWritesAndDropsEntries() {
+        cache.putAlreadyCommittedTransaction(1L, 3L);
+        size.set(2000L);
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isEqualTo(3L);
+
+        cache.putAlreadyCommittedTransaction(5L, 7L);
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isNull();
+        assertThat(cache.getCommitTimestampIfPresent(5L)).isEqualTo(7L);
+    }
+}
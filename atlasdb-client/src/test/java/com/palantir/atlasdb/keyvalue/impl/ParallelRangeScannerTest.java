@@ -0,0 +1,148 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Ints;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RangeRequests;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.common.base.ClosableIterator;
+
+public class ParallelRangeScannerTest {
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("test.table");
+    private static final byte[] COLUMN = PtBytes.toBytes("col");
+    private static final int NUM_ROWS = 1000;
+    private static final long READ_TIMESTAMP = 10L;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final KeyValueService kvs = new InMemoryKeyValueService(true) {
+        @Override
+        public List<RangeRequest> splitRange(TableReference tableRef, RangeRequest rangeRequest) {
+            return RangeRequests.splitAt(rangeRequest, IntStream.range(1, 10)
+                    .mapToObj(split -> row(split * NUM_ROWS / 10))
+                    .collect(Collectors.toList()));
+        }
+    };
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < NUM_ROWS; i++) {
+            kvs.put(TABLE, ImmutableMap.of(Cell.create(row(i), COLUMN), PtBytes.toBytes(i)), 1L);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void returnsRowsInKeyOrder() {
+        ParallelRangeScanner scanner = ParallelRangeScanner.create(kvs, executor, 4, 10);
+
+        try (ClosableIterator<RowResult<Value>> rows = scanner.getRangeInKeyOrder(
+                TABLE, RangeRequest.all(), READ_TIMESTAMP)) {
+            assertThat(rowNumbers(rows)).containsExactlyElementsOf(
+                    IntStream.range(0, NUM_ROWS).boxed().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void returnsAllRowsUnordered() {
+        ParallelRangeScanner scanner = ParallelRangeScanner.create(kvs, executor, 4, 10);
+
+        try (ClosableIterator<RowResult<Value>> rows = scanner.getRangeUnordered(
+                TABLE, RangeRequest.all(), READ_TIMESTAMP)) {
+            assertThat(rowNumbers(rows)).containsExactlyInAnyOrderElementsOf(
+                    IntStream.range(0, NUM_ROWS).boxed().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void respectsBoundsOfTheRange() {
+        ParallelRangeScanner scanner = ParallelRangeScanner.create(kvs, executor, 2, 1);
+        RangeRequest range = RangeRequest.builder().startRowInclusive(row(150)).endRowExclusive(row(450)).build();
+
+        try (ClosableIterator<RowResult<Value>> rows = scanner.getRangeInKeyOrder(TABLE, range, READ_TIMESTAMP)) {
+            assertThat(rowNumbers(rows)).containsExactlyElementsOf(
+                    IntStream.range(150, 450).boxed().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void canBeClosedBeforeBeingExhausted() {
+        ParallelRangeScanner scanner = ParallelRangeScanner.create(kvs, executor, 4, 1);
+
+        ClosableIterator<RowResult<Value>> rows = scanner.getRangeUnordered(TABLE, RangeRequest.all(), READ_TIMESTAMP);
+        assertThat(rows.hasNext()).isTrue();
+        rows.close();
+    }
+
+    @Test
+    public void propagatesFailuresOfScans() {
+        KeyValueService failingKvs = new InMemoryKeyValueService(true) {
+            @Override
+            public List<RangeRequest> splitRange(TableReference tableRef, RangeRequest rangeRequest) {
+                return ImmutableList.of(rangeRequest, rangeRequest);
+            }
+
+            @Override
+            public ClosableIterator<RowResult<Value>> getRange(
+                    TableReference tableRef, RangeRequest rangeRequest, long timestamp) {
+                throw new IllegalStateException("boom");
+            }
+        };
+        ParallelRangeScanner scanner = ParallelRangeScanner.create(failingKvs, executor, 2, 1);
+
+        try (ClosableIterator<RowResult<Value>> rows = scanner.getRangeInKeyOrder(
+                TABLE, RangeRequest.all(), READ_TIMESTAMP)) {
+            assertThatThrownBy(rows::hasNext)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("boom");
+        }
+    }
+
+    private static List<Integer> rowNumbers(ClosableIterator<RowResult<Value>> rows) {
+        return rows.stream()
+                .map(row -> Ints.fromByteArray(row.getRowName()))
+                .collect(Collectors.toList());
+    }
+
+    private static byte[] row(int number) {
+        return Ints.toByteArray(number);
+    }
+}
@@ -15,18 +15,23 @@
  */
 package com.palantir.atlasdb.keyvalue.impl;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableMap;
 import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
 import com.palantir.atlasdb.keyvalue.api.RangeRequest;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
@@ -34,7 +39,9 @@ import com.palantir.timestamp.TimestampService;
 
 public class SweepStatsKeyValueServiceTest {
     private static final byte[] ROW = "row".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] COLUMN = "column".getBytes(StandardCharsets.UTF_8);
     private static final TableReference TABLE = TableReference.createWithEmptyNamespace("table");
+    private static final TableReference OTHER_TABLE = TableReference.createWithEmptyNamespace("other");
 
     private KeyValueService delegate = mock(KeyValueService.class);
     private AtomicBoolean isSweepEnabled;
@@ -81,4 +88,17 @@ public class SweepStatsKeyValueServiceTest {
         kvs.deleteRange(TABLE, request);
         assertFalse(kvs.hasBeenCleared(TABLE));
     }
+
+    @Test
+    public void atomicMultiPutsAreRecordedAsWrites() {
+        Map<TableReference, Map<Cell, byte[]>> values = ImmutableMap.of(
+                TABLE, ImmutableMap.of(Cell.create(ROW, COLUMN), ROW),
+                OTHER_TABLE, ImmutableMap.of(Cell.create(ROW, COLUMN), ROW, Cell.create(COLUMN, ROW), ROW));
+
+        kvs.multiPutAtomically(values, 1L);
+
+        verify(delegate).multiPutAtomically(values, 1L);
+        assertEquals(1, kvs.getUnflushedWriteCount(TABLE));
+        assertEquals(2, kvs.getUnflushedWriteCount(OTHER_TABLE));
+    }
 }
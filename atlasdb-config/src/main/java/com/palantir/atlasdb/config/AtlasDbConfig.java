@@ -175,6 +175,16 @@ public abstract class AtlasDbConfig {
         return AtlasDbConstants.DEFAULT_INITIALIZE_ASYNC;
     }
 
+    /**
+     * If true, commit timestamp lookups made through the transaction service are coalesced and batched across all
+     * transactions, with up to a few batches in flight at once. If false, each lookup goes to the transaction service
+     * directly, which is consistent with the behaviour prior to the introduction of this option.
+     */
+    @Value.Default
+    public boolean batchTransactionServiceReads() {
+        return false;
+    }
+
     /**
      * Install time configurations for targeted sweep.
      */
@@ -54,6 +54,15 @@ public abstract class TimeLockClientConfig {
         return ImmutableServerListConfig.builder().build();
     }
 
+    /**
+     * Whether to ask TimeLock to send lock watch events in their compact encoding. TimeLock servers that predate
+     * the compact encoding reject requests asking for it, so only enable this once all TimeLock nodes support it.
+     */
+    @Value.Default
+    public boolean acceptCompactLockWatchEvents() {
+        return false;
+    }
+
     public ServerListConfig toNamespacedServerList() {
         return ServerListConfigs.namespaceUris(serversList(), getClientOrThrow());
     }
@@ -406,12 +406,17 @@ public abstract class TransactionManagers {
         PersistentLockService persistentLockService = createAndRegisterPersistentLockService(
                 keyValueService, registrar(), config().initializeAsync());
 
+        TimestampCache timestampCache = config().timestampCache()
+                .orElseGet(() -> new DefaultTimestampCache(
+                        metricsManager.getRegistry(), () -> runtime.get().getTimestampCacheSize()));
+
         TransactionComponents components = createTransactionComponents(
                 closeables,
                 metricsManager,
                 lockAndTimestampServices,
                 keyValueService,
-                runtime);
+                runtime,
+                timestampCache);
         TransactionService transactionService = components.transactionService();
         ConflictDetectionManager conflictManager = ConflictDetectionManagers.create(keyValueService);
         SweepStrategyManager sweepStrategyManager = SweepStrategyManagers.createDefault(keyValueService);
@@ -446,10 +451,6 @@ public abstract class TransactionManagers {
                 runtime.map(AtlasDbRuntimeConfig::transaction)
                 .map(this::withConsolidatedGrabImmutableTsLockFlag);
 
-        TimestampCache timestampCache = config().timestampCache()
-                .orElseGet(() -> new DefaultTimestampCache(
-                        metricsManager.getRegistry(), () -> runtime.get().getTimestampCacheSize()));
-
         ConflictTracer conflictTracer = lockDiagnosticInfoCollector()
                 .<ConflictTracer>map(Function.identity())
                 .orElse(ConflictTracer.NO_OP);
@@ -562,7 +563,8 @@ public abstract class TransactionManagers {
             MetricsManager metricsManager,
             LockAndTimestampServices lockAndTimestampServices,
             KeyValueService keyValueService,
-            Supplier<AtlasDbRuntimeConfig> runtimeConfigSupplier) {
+            Supplier<AtlasDbRuntimeConfig> runtimeConfigSupplier,
+            TimestampCache timestampCache) {
         CoordinationService<InternalSchemaMetadata> coordinationService = getSchemaMetadataCoordinationService(
                 metricsManager, lockAndTimestampServices, keyValueService);
         TransactionSchemaManager transactionSchemaManager = new TransactionSchemaManager(coordinationService);
@@ -570,7 +572,10 @@ public abstract class TransactionManagers {
         TransactionService transactionService = initializeCloseable(() -> AtlasDbMetrics.instrumentTimed(
                 metricsManager.getRegistry(),
                 TransactionService.class,
-                TransactionServices.createTransactionService(keyValueService, transactionSchemaManager)),
+                config().batchTransactionServiceReads()
+                        ? TransactionServices.createReadBatchingTransactionService(
+                                keyValueService, transactionSchemaManager, timestampCache)
+                        : TransactionServices.createTransactionService(keyValueService, transactionSchemaManager)),
                 closeables);
         Optional<TransactionSchemaInstaller> schemaInstaller = getTransactionSchemaInstallerIfSupported(
                 closeables, keyValueService, runtimeConfigSupplier, transactionSchemaManager);
@@ -974,7 +979,8 @@ public abstract class TransactionManagers {
                         runtimeConfig.map(AtlasDbRuntimeConfig::remotingClient),
                         userAgent,
                         timelockNamespace,
-                        lockDiagnosticCollector);
+                        lockDiagnosticCollector,
+                        config.timelock().map(TimeLockClientConfig::acceptCompactLockWatchEvents).orElse(false));
 
         TimeLockMigrator migrator = TimeLockMigrator.create(
                 lockAndTimestampServices.managedTimestampService(),
@@ -1004,7 +1010,8 @@ public abstract class TransactionManagers {
             Supplier<RemotingClientConfig> remotingConfigSupplier,
             UserAgent userAgent,
             String timelockNamespace,
-            Optional<ClientLockDiagnosticCollector> lockDiagnosticCollector) {
+            Optional<ClientLockDiagnosticCollector> lockDiagnosticCollector,
+            boolean acceptCompactLockWatchEvents) {
         ServiceCreator creator = ServiceCreator.withPayloadLimiter(
                 metricsManager, timelockServerListConfig, userAgent, remotingConfigSupplier);
 
@@ -1037,8 +1044,11 @@ public abstract class TransactionManagers {
                 creator.createService(ConjureLockWatchingService.class), timelockNamespace);
         LockWatchManager lockWatcher = new LockWatchManagerImpl(lockWatchingService, lockWatchEventCache);
 
-        RemoteTimelockServiceAdapter remoteTimelockServiceAdapter = RemoteTimelockServiceAdapter
-                .create(namespacedTimelockRpcClient, namespacedConjureTimelockService, lockWatchEventCache);
+        RemoteTimelockServiceAdapter remoteTimelockServiceAdapter = RemoteTimelockServiceAdapter.create(
+                namespacedTimelockRpcClient,
+                namespacedConjureTimelockService,
+                lockWatchEventCache,
+                acceptCompactLockWatchEvents);
         TimestampManagementService timestampManagementService = new RemoteTimestampManagementAdapter(
                 creator.createServiceWithShortTimeout(TimestampManagementRpcClient.class), timelockNamespace);
 
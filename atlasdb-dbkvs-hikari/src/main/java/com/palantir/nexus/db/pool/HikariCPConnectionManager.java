@@ -130,6 +130,23 @@ public class HikariCPConnectionManager extends BaseConnectionManager {
         }
     }
 
+    /**
+     * Returns the number of connections currently idle in the pool, or zero if the pool is not running.
+     */
+    public int getIdleConnections() {
+        HikariPoolMXBean poolProxy = state.poolProxy;
+        return poolProxy == null ? 0 : poolProxy.getIdleConnections();
+    }
+
+    /**
+     * Returns the number of threads currently blocked waiting for a connection from the pool, or zero if the pool is
+     * not running.
+     */
+    public int getThreadsAwaitingConnection() {
+        HikariPoolMXBean poolProxy = state.poolProxy;
+        return poolProxy == null ? 0 : poolProxy.getThreadsAwaitingConnection();
+    }
+
     private void logPoolStats() {
         if (log.isWarnEnabled()) {
             State stateLocal = state;
@@ -0,0 +1,239 @@
+/*
+ * (c) Copyright 2019 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.dbkvs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.cleaner.NoOpCleaner;
+import com.palantir.atlasdb.debug.ConflictTracer;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.impl.ForwardingKeyValueService;
+import com.palantir.atlasdb.keyvalue.impl.StatsTrackingKeyValueService;
+import com.palantir.atlasdb.keyvalue.impl.SweepStatsKeyValueService;
+import com.palantir.atlasdb.keyvalue.impl.TestResourceManager;
+import com.palantir.atlasdb.keyvalue.impl.ValidatingQueryRewritingKeyValueService;
+import com.palantir.atlasdb.protos.generated.TableMetadataPersistence.SweepStrategy;
+import com.palantir.atlasdb.schema.generated.TargetedSweepTableFactory;
+import com.palantir.atlasdb.sweep.queue.SpecialTimestampsSupplier;
+import com.palantir.atlasdb.sweep.queue.TargetedSweepFollower;
+import com.palantir.atlasdb.sweep.queue.TargetedSweeper;
+import com.palantir.atlasdb.sweep.queue.config.ImmutableTargetedSweepRuntimeConfig;
+import com.palantir.atlasdb.table.description.TableMetadata;
+import com.palantir.atlasdb.transaction.ImmutableTransactionConfig;
+import com.palantir.atlasdb.transaction.api.AtlasDbConstraintCheckingMode;
+import com.palantir.atlasdb.transaction.api.TransactionManager;
+import com.palantir.atlasdb.transaction.impl.AbstractTransactionTest;
+import com.palantir.atlasdb.transaction.impl.ConflictDetectionManagers;
+import com.palantir.atlasdb.transaction.impl.SerializableTransactionManager;
+import com.palantir.atlasdb.transaction.impl.SweepStrategyManagers;
+import com.palantir.atlasdb.transaction.impl.TransactionTestSetup;
+import com.palantir.common.base.ClosableIterator;
+import com.palantir.lock.v2.TimelockService;
+
+/**
+ * Commits transactions with {@code combineSweepQueueAndDataWrites} enabled against Postgres, where the sweep queue
+ * entries and the values of a transaction are written in a single atomic multiPut.
+ */
+public class DbkvsPostgresCombinedSweepQueueWritesTest extends TransactionTestSetup {
+    @ClassRule
+    public static final TestResourceManager TRM = new TestResourceManager(DbkvsPostgresTestSuite::createKvs);
+
+    private static final TableReference DROPPED_TABLE = TableReference.createFromFullyQualifiedName("ns.dropped");
+    private static final Set<TableReference> SWEEP_QUEUE_TABLES = ImmutableSet.of(
+            TargetedSweepTableFactory.of().getSweepableCellsTable(null).getTableRef(),
+            TargetedSweepTableFactory.of().getSweepableTimestampsTable(null).getTableRef());
+    private static final Cell CELL = Cell.create(PtBytes.toBytes("row"), PtBytes.toBytes("col"));
+    private static final byte[] VALUE = PtBytes.toBytes("value");
+
+    private final AtomicInteger atomicMultiPuts = new AtomicInteger();
+
+    private TargetedSweeper sweeper;
+    private TransactionManager combinedWritesTxManager;
+
+    public DbkvsPostgresCombinedSweepQueueWritesTest() {
+        super(TRM, TRM);
+    }
+
+    @Before
+    public void setUpCombinedWrites() {
+        sweeper = TargetedSweeper.createUninitializedForTest(metricsManager,
+                () -> ImmutableTargetedSweepRuntimeConfig.builder().shards(1).build());
+        sweeper.initializeWithoutRunning(mock(SpecialTimestampsSupplier.class), mock(TimelockService.class),
+                keyValueService, transactionService, mock(TargetedSweepFollower.class));
+        keyValueService.truncateTables(SWEEP_QUEUE_TABLES);
+        keyValueService.truncateTable(TEST_TABLE_THOROUGH);
+
+        combinedWritesTxManager = createCombinedWritesTxManager(new CountingKeyValueService());
+    }
+
+    @After
+    public void tearDownCombinedWrites() {
+        combinedWritesTxManager.close();
+    }
+
+    @Test
+    public void writesValuesAndSweepQueueEntriesInOneAtomicMultiPut() {
+        combinedWritesTxManager.runTaskThrowOnConflict(tx -> {
+            tx.put(TEST_TABLE_THOROUGH, ImmutableMap.of(CELL, VALUE));
+            return null;
+        });
+
+        assertThat(atomicMultiPuts.get()).isEqualTo(1);
+        assertThat(getLatestValue(TEST_TABLE_THOROUGH).getContents()).isEqualTo(VALUE);
+        SWEEP_QUEUE_TABLES.forEach(table -> assertThat(isEmpty(table)).isFalse());
+    }
+
+    @Test
+    public void failedCommitWriteLeavesNeitherValuesNorSweepQueueEntriesBehind() {
+        keyValueService.createTable(DROPPED_TABLE, TableMetadata.builder()
+                .sweepStrategy(SweepStrategy.THOROUGH)
+                .build()
+                .persistToBytes());
+
+        assertThatThrownBy(() -> combinedWritesTxManager.runTaskThrowOnConflict(tx -> {
+            tx.put(TEST_TABLE_THOROUGH, ImmutableMap.of(CELL, VALUE));
+            tx.put(DROPPED_TABLE, ImmutableMap.of(CELL, VALUE));
+            keyValueService.dropTable(DROPPED_TABLE);
+            return null;
+        })).isInstanceOf(RuntimeException.class);
+
+        assertThat(atomicMultiPuts.get()).isEqualTo(1);
+        assertThat(getLatestValue(TEST_TABLE_THOROUGH)).isNull();
+        SWEEP_QUEUE_TABLES.forEach(table -> assertThat(isEmpty(table)).isTrue());
+    }
+
+    @Test
+    public void commitFallsBackToIdempotentPutsIfValuesWereAlreadyWritten() {
+        combinedWritesTxManager.runTaskThrowOnConflict(tx -> {
+            tx.put(TEST_TABLE_THOROUGH, ImmutableMap.of(CELL, VALUE));
+            // as if an earlier attempt at writing this transaction's values had succeeded
+            keyValueService.put(TEST_TABLE_THOROUGH, ImmutableMap.of(CELL, VALUE), tx.getTimestamp());
+            return null;
+        });
+
+        assertThat(atomicMultiPuts.get()).isEqualTo(1);
+        assertThat(getLatestValue(TEST_TABLE_THOROUGH).getContents()).isEqualTo(VALUE);
+        SWEEP_QUEUE_TABLES.forEach(table -> assertThat(isEmpty(table)).isFalse());
+        combinedWritesTxManager.runTaskReadOnly(tx -> {
+            assertThat(tx.get(TEST_TABLE_THOROUGH, ImmutableSet.of(CELL)).get(CELL)).isEqualTo(VALUE);
+            return null;
+        });
+    }
+
+    @Test
+    public void commitWritesThroughTheWrappedKeyValueServiceStack() {
+        StatsTrackingKeyValueService statsTrackingKvs = new StatsTrackingKeyValueService(
+                SweepStatsKeyValueService.create(new CountingKeyValueService(), timestampService,
+                        () -> AtlasDbConstants.DEFAULT_SWEEP_WRITE_THRESHOLD,
+                        () -> AtlasDbConstants.DEFAULT_SWEEP_WRITE_SIZE_THRESHOLD,
+                        () -> true));
+        TransactionManager wrappedTxManager = createCombinedWritesTxManager(
+                ValidatingQueryRewritingKeyValueService.create(statsTrackingKvs));
+        try {
+            wrappedTxManager.runTaskThrowOnConflict(tx -> {
+                tx.put(TEST_TABLE_THOROUGH, ImmutableMap.of(CELL, VALUE));
+                return null;
+            });
+        } finally {
+            wrappedTxManager.close();
+        }
+
+        assertThat(atomicMultiPuts.get()).isEqualTo(1);
+        assertThat(getLatestValue(TEST_TABLE_THOROUGH).getContents()).isEqualTo(VALUE);
+        SWEEP_QUEUE_TABLES.forEach(table -> assertThat(isEmpty(table)).isFalse());
+        assertThat(statsTrackingKvs.getTableStats().get(TEST_TABLE_THOROUGH).getTotalPutCells()).isEqualTo(1);
+        SWEEP_QUEUE_TABLES.forEach(table ->
+                assertThat(statsTrackingKvs.getTableStats().get(table).getTotalPutCells()).isPositive());
+    }
+
+    private TransactionManager createCombinedWritesTxManager(KeyValueService kvs) {
+        return new SerializableTransactionManager(
+                metricsManager,
+                kvs,
+                timelockService,
+                lockWatchManager,
+                timestampManagementService,
+                lockService,
+                transactionService,
+                () -> AtlasDbConstraintCheckingMode.NO_CONSTRAINT_CHECKING,
+                ConflictDetectionManagers.createWithNoConflictDetection(),
+                SweepStrategyManagers.createDefault(keyValueService),
+                NoOpCleaner.INSTANCE,
+                timestampCache,
+                false,
+                AbstractTransactionTest.GET_RANGES_THREAD_POOL_SIZE,
+                AbstractTransactionTest.DEFAULT_GET_RANGES_CONCURRENCY,
+                sweeper,
+                MoreExecutors.newDirectExecutorService(),
+                true,
+                () -> ImmutableTransactionConfig.builder().combineSweepQueueAndDataWrites(true).build(),
+                ConflictTracer.NO_OP);
+    }
+
+    private Value getLatestValue(TableReference tableRef) {
+        return keyValueService.get(tableRef, ImmutableMap.of(CELL, Long.MAX_VALUE)).get(CELL);
+    }
+
+    private boolean isEmpty(TableReference tableRef) {
+        try (ClosableIterator<RowResult<Value>> rows =
+                keyValueService.getRange(tableRef, RangeRequest.all(), Long.MAX_VALUE)) {
+            return !rows.hasNext();
+        }
+    }
+
+    /**
+     * Counts atomic multiPuts, and leaves closing the shared key value service to the resource manager.
+     */
+    private final class CountingKeyValueService extends ForwardingKeyValueService {
+        @Override
+        public KeyValueService delegate() {
+            return keyValueService;
+        }
+
+        @Override
+        public void multiPutAtomically(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable,
+                long timestamp) {
+            atomicMultiPuts.incrementAndGet();
+            delegate().multiPutAtomically(valuesByTable, timestamp);
+        }
+
+        @Override
+        public void close() {
+            // closed by the resource manager
+        }
+    }
+}
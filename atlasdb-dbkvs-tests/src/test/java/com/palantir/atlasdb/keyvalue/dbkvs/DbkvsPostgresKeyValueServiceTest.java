@@ -15,14 +15,22 @@
  */
 package com.palantir.atlasdb.keyvalue.dbkvs;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
 import org.apache.commons.lang3.StringUtils;
 import org.junit.After;
 import org.junit.ClassRule;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableMap;
 import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
 import com.palantir.atlasdb.keyvalue.api.Namespace;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres.PostgresDdlTable;
 import com.palantir.atlasdb.keyvalue.impl.TestResourceManager;
 
@@ -35,6 +43,12 @@ public class DbkvsPostgresKeyValueServiceTest extends AbstractDbKvsKeyValueServi
             "ThisShouldAlwaysBeAVeryLongTableNameThatExceedsPostgresLengthLimit";
     private static final int TWO_UNDERSCORES = 2;
 
+    private static final TableReference OTHER_TABLE = TableReference.create(TEST_NAMESPACE, "other");
+    private static final TableReference MISSING_TABLE = TableReference.create(TEST_NAMESPACE, "missing");
+    private static final Cell CELL = Cell.create(PtBytes.toBytes("row"), PtBytes.toBytes("col"));
+    private static final byte[] VALUE = PtBytes.toBytes("value");
+    private static final long TIMESTAMP = 10L;
+
     public DbkvsPostgresKeyValueServiceTest() {
         super(TRM);
     }
@@ -81,6 +95,61 @@ public class DbkvsPostgresKeyValueServiceTest extends AbstractDbKvsKeyValueServi
         createTwoTablesWithSamePrefix(TEST_LONG_TABLE_NAME);
     }
 
+    @Test
+    public void supportsAtomicMultiPut() {
+        assertThat(keyValueService.supportsAtomicMultiPut()).isTrue();
+    }
+
+    @Test
+    public void multiPutAtomicallyWritesAllTables() {
+        keyValueService.createTable(OTHER_TABLE, AtlasDbConstants.GENERIC_TABLE_METADATA);
+
+        keyValueService.multiPutAtomically(
+                ImmutableMap.of(TEST_TABLE, ImmutableMap.of(CELL, VALUE), OTHER_TABLE, ImmutableMap.of(CELL, VALUE)),
+                TIMESTAMP);
+
+        assertThat(getValue(TEST_TABLE)).isEqualTo(Value.create(VALUE, TIMESTAMP));
+        assertThat(getValue(OTHER_TABLE)).isEqualTo(Value.create(VALUE, TIMESTAMP));
+    }
+
+    @Test
+    public void multiPutAtomicallyRollsBackAllTablesIfAnyWriteFails() {
+        assertThatThrownBy(() -> keyValueService.multiPutAtomically(
+                ImmutableMap.of(TEST_TABLE, ImmutableMap.of(CELL, VALUE), MISSING_TABLE, ImmutableMap.of(CELL, VALUE)),
+                TIMESTAMP))
+                .isInstanceOf(RuntimeException.class);
+
+        assertThat(getValue(TEST_TABLE)).isNull();
+    }
+
+    @Test
+    public void multiPutAtomicallyFallsBackToIdempotentPutsIfValuesAlreadyExist() {
+        keyValueService.createTable(OTHER_TABLE, AtlasDbConstants.GENERIC_TABLE_METADATA);
+        keyValueService.put(OTHER_TABLE, ImmutableMap.of(CELL, VALUE), TIMESTAMP);
+
+        keyValueService.multiPutAtomically(
+                ImmutableMap.of(TEST_TABLE, ImmutableMap.of(CELL, VALUE), OTHER_TABLE, ImmutableMap.of(CELL, VALUE)),
+                TIMESTAMP);
+
+        assertThat(getValue(TEST_TABLE)).isEqualTo(Value.create(VALUE, TIMESTAMP));
+        assertThat(getValue(OTHER_TABLE)).isEqualTo(Value.create(VALUE, TIMESTAMP));
+    }
+
+    @Test
+    public void multiPutAtomicallyStillRejectsDifferentExistingValues() {
+        keyValueService.createTable(OTHER_TABLE, AtlasDbConstants.GENERIC_TABLE_METADATA);
+        keyValueService.put(OTHER_TABLE, ImmutableMap.of(CELL, PtBytes.toBytes("other")), TIMESTAMP);
+
+        assertThatThrownBy(() -> keyValueService.multiPutAtomically(
+                ImmutableMap.of(TEST_TABLE, ImmutableMap.of(CELL, VALUE), OTHER_TABLE, ImmutableMap.of(CELL, VALUE)),
+                TIMESTAMP))
+                .isInstanceOf(KeyAlreadyExistsException.class);
+    }
+
+    private Value getValue(TableReference tableRef) {
+        return keyValueService.get(tableRef, ImmutableMap.of(CELL, TIMESTAMP + 1)).get(CELL);
+    }
+
     private void createTwoTablesWithSamePrefix(String tableNamePrefix) {
         TableReference longTableName1 = TableReference.create(TEST_NAMESPACE, tableNamePrefix + "1");
         TableReference longTableName2 = TableReference.create(TEST_NAMESPACE, tableNamePrefix + "2");
@@ -0,0 +1,41 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.dbkvs;
+
+import org.junit.After;
+import org.junit.ClassRule;
+
+import com.palantir.atlasdb.keyvalue.impl.TestResourceManager;
+
+public class DbkvsPostgresLateralQueriesKeyValueServiceTest extends AbstractDbKvsKeyValueServiceTest {
+    @ClassRule
+    public static final TestResourceManager TRM = new TestResourceManager(
+            DbkvsPostgresTestSuite::createKvsWithLateralLatestCellsQueries);
+
+    public DbkvsPostgresLateralQueriesKeyValueServiceTest() {
+        super(TRM);
+    }
+
+    @After
+    @Override
+    public void tearDown() throws Exception {
+        super.tearDown();
+        keyValueService.getAllTableNames().stream()
+                .filter(table -> !table.getQualifiedName().equals("_metadata"))
+                .forEach(keyValueService::dropTable);
+    }
+}
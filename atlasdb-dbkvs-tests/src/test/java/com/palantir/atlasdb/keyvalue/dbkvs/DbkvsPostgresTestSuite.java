@@ -26,6 +26,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
+import com.palantir.atlasdb.keyvalue.dbkvs.PostgresDdlConfig.LatestCellsQueryStrategy;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.ConnectionManagerAwareDbKvs;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres.DbKvsPostgresGetCandidateCellsForSweepingTest;
 import com.palantir.conjure.java.api.config.service.HumanReadableDuration;
@@ -42,12 +43,14 @@ import com.palantir.nexus.db.pool.config.ImmutablePostgresConnectionConfig;
 @SuiteClasses({
         DbkvsPostgresTargetedSweepIntegrationTest.class,
         DbkvsPostgresKeyValueServiceTest.class,
+        DbkvsPostgresLateralQueriesKeyValueServiceTest.class,
         DbkvsPostgresSerializableTransactionTest.class,
         DbkvsPostgresSweepTaskRunnerTest.class,
         DbkvsBackgroundSweeperIntegrationTest.class,
         PostgresDbTimestampBoundStoreTest.class,
         DbKvsPostgresGetCandidateCellsForSweepingTest.class,
-        DbKvsSweepProgressStoreIntegrationTest.class
+        DbKvsSweepProgressStoreIntegrationTest.class,
+        DbkvsPostgresCombinedSweepQueueWritesTest.class
         })
 public final class DbkvsPostgresTestSuite {
     private static final int POSTGRES_PORT_NUMBER = 5432;
@@ -119,4 +122,15 @@ public final class DbkvsPostgresTestSuite {
     public static ConnectionManagerAwareDbKvs createKvs() {
         return ConnectionManagerAwareDbKvs.create(getKvsConfig());
     }
+
+    public static ConnectionManagerAwareDbKvs createKvsWithLateralLatestCellsQueries() {
+        DbKeyValueServiceConfig config = getKvsConfig();
+        return ConnectionManagerAwareDbKvs.create(ImmutableDbKeyValueServiceConfig.builder()
+                .from(config)
+                .ddl(ImmutablePostgresDdlConfig.builder()
+                        .from((PostgresDdlConfig) config.ddl())
+                        .latestCellsQueryStrategy(LatestCellsQueryStrategy.LATERAL)
+                        .build())
+                .build());
+    }
 }
@@ -50,6 +50,7 @@ public class DbAtlasDbFactory implements AtlasDbFactory {
     /**
      * Creates a ConnectionManagerAwareDbKvs.
      *
+     * @param metricsManager used to report metrics of the key value service.
      * @param config Configuration file.
      * @param runtimeConfig unused.
      * @param leaderConfig unused.
@@ -74,7 +75,7 @@ public class DbAtlasDbFactory implements AtlasDbFactory {
         Preconditions.checkArgument(config instanceof DbKeyValueServiceConfig,
                 "DbAtlasDbFactory expects a configuration of type DbKeyValueServiceConfiguration, found %s",
                 config.getClass());
-        return ConnectionManagerAwareDbKvs.create((DbKeyValueServiceConfig) config);
+        return ConnectionManagerAwareDbKvs.create((DbKeyValueServiceConfig) config, metricsManager);
     }
 
     @Override
@@ -42,11 +42,47 @@ public abstract class DdlConfig {
         return 64;
     }
 
+    /**
+     * Number of threads, and so at most connections, used to serve asynchronous reads.
+     */
+    @Value.Default
+    public int asyncReadPoolSize() {
+        return 16;
+    }
+
+    /**
+     * Number of threads used to load the next page of each row of a {@code getRowsColumnRange} while the caller
+     * consumes the current one. Zero, the default, disables prefetching, so that pages are only loaded once they are
+     * needed.
+     */
+    @Value.Default
+    public int columnRangePrefetchPoolSize() {
+        return 0;
+    }
+
     @Value.Default
     public int fetchBatchSize() {
         return 256;
     }
 
+    /**
+     * Whether reads are split into batches whose size adapts, up to {@code fetchBatchSize}, to observed query latency
+     * and connection pool saturation, rather than into batches of exactly {@code fetchBatchSize} that all run at once.
+     * Only Postgres reads are batched.
+     */
+    @Value.Default
+    public boolean adaptiveReadBatching() {
+        return false;
+    }
+
+    /**
+     * Query latency above which adaptive read batching splits reads into smaller batches, if connections are free.
+     */
+    @Value.Default
+    public long adaptiveReadBatchTargetLatencyMillis() {
+        return 50;
+    }
+
     @Value.Default
     public int mutationBatchCount() {
         return 1000;
@@ -62,6 +98,11 @@ public abstract class DdlConfig {
         Preconditions.checkState(
                 metadataTable().getNamespace().isEmptyNamespace(),
                 "'metadataTable' should have empty namespace'");
+        Preconditions.checkState(asyncReadPoolSize() > 0, "'asyncReadPoolSize' should be positive");
+        Preconditions.checkState(columnRangePrefetchPoolSize() >= 0,
+                "'columnRangePrefetchPoolSize' should not be negative");
+        Preconditions.checkState(adaptiveReadBatchTargetLatencyMillis() > 0,
+                "'adaptiveReadBatchTargetLatencyMillis' should be positive");
     }
 
     public interface Visitor<T> {
@@ -65,6 +65,18 @@ public abstract class OracleDdlConfig extends DdlConfig {
         return false;
     }
 
+    /**
+     * Whether a column range read of many rows binds the rows as a single array, instead of issuing one sub-query,
+     * with its own bind parameters, per row.
+     *
+     * The array bound query does not stop reading a row once it has found as many columns as the batch hint, so this
+     * should only be enabled for tables whose rows have few columns compared to the batch hint.
+     */
+    @Value.Default
+    public boolean arrayBoundColumnRangeQueries() {
+        return false;
+    }
+
     @Value.Default
     public long compactionConnectionTimeout() {
         return Duration.ofHours(10).toMillis();
@@ -15,6 +15,8 @@
  */
 package com.palantir.atlasdb.keyvalue.dbkvs;
 
+import java.util.Set;
+
 import org.immutables.value.Value;
 
 import com.fasterxml.jackson.annotation.JsonTypeName;
@@ -51,4 +53,41 @@ public abstract class PostgresDdlConfig extends DdlConfig {
     public HumanReadableDuration compactInterval() {
         return HumanReadableDuration.seconds(0);
     }
+
+    /**
+     * Tables whose puts are always written with multi-row inserts, regardless of
+     * {@link #multiRowInsertMinimumCells()}.
+     */
+    public abstract Set<TableReference> multiRowInsertTables();
+
+    /**
+     * Batches of puts of at least this many cells are written with multi-row {@code INSERT ... VALUES} statements
+     * rather than JDBC batches of single-row inserts, saving statement overhead on bulk imports. As with single-row
+     * inserts, putting a cell that already exists fails the put.
+     */
+    @Value.Default
+    public int multiRowInsertMinimumCells() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * How the latest version of each cell of a {@code get} is looked up.
+     */
+    @Value.Default
+    public LatestCellsQueryStrategy latestCellsQueryStrategy() {
+        return LatestCellsQueryStrategy.GROUP_BY;
+    }
+
+    public enum LatestCellsQueryStrategy {
+        /**
+         * Finds the latest timestamp of each cell with {@code GROUP BY ... max(ts)}, then joins back to the table to
+         * fetch the values.
+         */
+        GROUP_BY,
+        /**
+         * Finds the latest version of each cell, including its value, with a {@code LATERAL} subquery ordered by
+         * descending timestamp and limited to one row, so that each cell is a single probe of the primary key.
+         */
+        LATERAL
+    }
 }
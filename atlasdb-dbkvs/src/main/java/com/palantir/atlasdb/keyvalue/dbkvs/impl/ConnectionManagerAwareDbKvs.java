@@ -21,7 +21,10 @@ import java.util.function.Supplier;
 import com.google.common.collect.ImmutableList;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
 import com.palantir.atlasdb.keyvalue.dbkvs.DbKeyValueServiceConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.batch.ConnectionPoolStatus;
 import com.palantir.atlasdb.keyvalue.impl.ForwardingKeyValueService;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.atlasdb.util.MetricsManagers;
 import com.palantir.nexus.db.monitoring.timer.SqlTimer;
 import com.palantir.nexus.db.monitoring.timer.SqlTimers;
 import com.palantir.nexus.db.pool.ConnectionManager;
@@ -39,10 +42,29 @@ public final class ConnectionManagerAwareDbKvs extends ForwardingKeyValueService
     private final SqlConnectionSupplier sqlConnectionSupplier;
 
     public static ConnectionManagerAwareDbKvs create(DbKeyValueServiceConfig config) {
+        return create(config, MetricsManagers.createForTests());
+    }
+
+    public static ConnectionManagerAwareDbKvs create(DbKeyValueServiceConfig config, MetricsManager metricsManager) {
         HikariCPConnectionManager connManager = new HikariCPConnectionManager(config.connection());
         ReentrantManagedConnectionSupplier connSupplier = new ReentrantManagedConnectionSupplier(connManager);
         SqlConnectionSupplier sqlConnSupplier = getSimpleTimedSqlConnectionSupplier(connSupplier);
-        return new ConnectionManagerAwareDbKvs(DbKvs.create(config, sqlConnSupplier), connManager, sqlConnSupplier);
+        DbKvs kvs = DbKvs.create(config, sqlConnSupplier, getPoolStatus(connManager), metricsManager);
+        return new ConnectionManagerAwareDbKvs(kvs, connManager, sqlConnSupplier);
+    }
+
+    private static ConnectionPoolStatus getPoolStatus(HikariCPConnectionManager connManager) {
+        return new ConnectionPoolStatus() {
+            @Override
+            public int idleConnections() {
+                return connManager.getIdleConnections();
+            }
+
+            @Override
+            public int threadsAwaitingConnection() {
+                return connManager.getThreadsAwaitingConnection();
+            }
+        };
     }
 
     private static SqlConnectionSupplier getSimpleTimedSqlConnectionSupplier(
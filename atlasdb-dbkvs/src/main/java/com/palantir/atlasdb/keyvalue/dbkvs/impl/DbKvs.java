@@ -71,6 +71,8 @@ import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.Atomics;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
 import com.palantir.atlasdb.keyvalue.api.CandidateCellForSweeping;
@@ -97,8 +99,10 @@ import com.palantir.atlasdb.keyvalue.dbkvs.OracleDdlConfig;
 import com.palantir.atlasdb.keyvalue.dbkvs.OracleTableNameGetter;
 import com.palantir.atlasdb.keyvalue.dbkvs.PostgresDdlConfig;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.batch.AccumulatorStrategies;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.batch.AdaptiveTaskRunner;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.batch.BatchingStrategies;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.batch.BatchingTaskRunner;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.batch.ConnectionPoolStatus;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.batch.ImmediateSingleBatchTaskRunner;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.batch.ParallelTaskRunner;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.oracle.OracleCellTsPageLoader;
@@ -117,6 +121,8 @@ import com.palantir.atlasdb.keyvalue.impl.AbstractKeyValueService;
 import com.palantir.atlasdb.keyvalue.impl.Cells;
 import com.palantir.atlasdb.keyvalue.impl.IterablePartitioner;
 import com.palantir.atlasdb.keyvalue.impl.LocalRowColumnRangeIterator;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.atlasdb.util.MetricsManagers;
 import com.palantir.common.annotation.Output;
 import com.palantir.common.base.ClosableIterator;
 import com.palantir.common.base.ClosableIterators;
@@ -129,6 +135,7 @@ import com.palantir.logsafe.Preconditions;
 import com.palantir.nexus.db.sql.AgnosticLightResultRow;
 import com.palantir.nexus.db.sql.AgnosticResultRow;
 import com.palantir.nexus.db.sql.AgnosticResultSet;
+import com.palantir.nexus.db.sql.BasicSQLUtils;
 import com.palantir.nexus.db.sql.SqlConnection;
 import com.palantir.util.crypto.Sha256Hash;
 import com.palantir.util.paging.AbstractPagingIterable;
@@ -143,6 +150,7 @@ public final class DbKvs extends AbstractKeyValueService {
     public static final String TIMESTAMP = "ts";
     public static final String VAL = "val";
     public static final long DEFAULT_GET_RANGE_OF_TS_BATCH = 1_000_000L;
+    private static final int MIN_ADAPTIVE_READ_BATCH_SIZE = 16;
 
     private long maxRangeOfTimestampsBatchSize = DEFAULT_GET_RANGE_OF_TS_BATCH;
 
@@ -153,9 +161,20 @@ public final class DbKvs extends AbstractKeyValueService {
     private final OverflowValueLoader overflowValueLoader;
     private final DbKvsGetRange getRangeStrategy;
     private final DbKvsGetCandidateCellsForSweeping getCandidateCellsForSweepingStrategy;
+    private final ListeningExecutorService asyncReadExecutor;
+    private final int asyncReadBatchSize;
+    private final Optional<ExecutorService> columnRangePrefetchExecutor;
 
     public static DbKvs create(DbKeyValueServiceConfig config, SqlConnectionSupplier sqlConnSupplier) {
-        DbKvs dbKvs = createNoInit(config.ddl(), sqlConnSupplier);
+        return create(config, sqlConnSupplier, ConnectionPoolStatus.unknown(), MetricsManagers.createForTests());
+    }
+
+    public static DbKvs create(
+            DbKeyValueServiceConfig config,
+            SqlConnectionSupplier sqlConnSupplier,
+            ConnectionPoolStatus poolStatus,
+            MetricsManager metricsManager) {
+        DbKvs dbKvs = createNoInit(config.ddl(), sqlConnSupplier, poolStatus, metricsManager);
         dbKvs.init();
         return dbKvs;
     }
@@ -166,17 +185,25 @@ public final class DbKvs extends AbstractKeyValueService {
      * ConnectionManagerAwareDbKvs which will instantiate a properly initialized DbKVS using the above create method
      */
     public static DbKvs createNoInit(DdlConfig config, SqlConnectionSupplier connections) {
+        return createNoInit(config, connections, ConnectionPoolStatus.unknown(), MetricsManagers.createForTests());
+    }
+
+    private static DbKvs createNoInit(
+            DdlConfig config,
+            SqlConnectionSupplier connections,
+            ConnectionPoolStatus poolStatus,
+            MetricsManager metricsManager) {
         ExecutorService executor = AbstractKeyValueService.createFixedThreadPool(
                 "Atlas Relational KVS", config.poolSize());
         return config.accept(new DdlConfig.Visitor<DbKvs>() {
             @Override
             public DbKvs visit(PostgresDdlConfig postgresDdlConfig) {
-                return createPostgres(executor, postgresDdlConfig, connections);
+                return createPostgres(executor, postgresDdlConfig, connections, poolStatus, metricsManager);
             }
             @Override
             public DbKvs visit(H2DdlConfig h2DdlConfig) {
                 PostgresDdlConfig postgresDdlConfig = ImmutablePostgresDdlConfig.builder().from(h2DdlConfig).build();
-                return createPostgres(executor, postgresDdlConfig, connections);
+                return createPostgres(executor, postgresDdlConfig, connections, poolStatus, metricsManager);
             }
             @Override
             public DbKvs visit(OracleDdlConfig oracleDdlConfig) {
@@ -187,7 +214,9 @@ public final class DbKvs extends AbstractKeyValueService {
 
     private static DbKvs createPostgres(ExecutorService executor,
                                         PostgresDdlConfig config,
-                                        SqlConnectionSupplier connections) {
+                                        SqlConnectionSupplier connections,
+                                        ConnectionPoolStatus poolStatus,
+                                        MetricsManager metricsManager) {
         PostgresPrefixedTableNames prefixedTableNames = new PostgresPrefixedTableNames(config);
         DbTableFactory tableFactory = new PostgresDbTableFactory(config, prefixedTableNames);
         TableMetadataCache tableMetadataCache = new TableMetadataCache(tableFactory);
@@ -198,10 +227,29 @@ public final class DbKvs extends AbstractKeyValueService {
                 config,
                 tableFactory,
                 connections,
-                new ParallelTaskRunner(newFixedThreadPool(config.poolSize()), config.fetchBatchSize()),
+                createReadTaskRunner(config, poolStatus, metricsManager),
                 (conns, tbl, ids) -> Collections.emptyMap(), // no overflow on postgres
                 new PostgresGetRange(prefixedTableNames, connections, tableMetadataCache),
-                new DbKvsGetCandidateCellsForSweeping(cellTsPairLoader));
+                new DbKvsGetCandidateCellsForSweeping(cellTsPairLoader),
+                config.fetchBatchSize());
+    }
+
+    private static BatchingTaskRunner createReadTaskRunner(
+            DdlConfig config,
+            ConnectionPoolStatus poolStatus,
+            MetricsManager metricsManager) {
+        ExecutorService readExecutor = newFixedThreadPool(config.poolSize(), "Atlas DbKvs reader");
+        if (!config.adaptiveReadBatching()) {
+            return new ParallelTaskRunner(readExecutor, config.fetchBatchSize());
+        }
+        return new AdaptiveTaskRunner(
+                readExecutor,
+                poolStatus,
+                metricsManager,
+                config.poolSize(),
+                Math.min(MIN_ADAPTIVE_READ_BATCH_SIZE, config.fetchBatchSize()),
+                config.fetchBatchSize(),
+                config.adaptiveReadBatchTargetLatencyMillis());
     }
 
     private static DbKvs createOracle(ExecutorService executor,
@@ -228,7 +276,8 @@ public final class DbKvs extends AbstractKeyValueService {
                 new ImmediateSingleBatchTaskRunner(),
                 overflowValueLoader,
                 getRange,
-                new DbKvsGetCandidateCellsForSweeping(cellTsPageLoader));
+                new DbKvsGetCandidateCellsForSweeping(cellTsPageLoader),
+                Integer.MAX_VALUE); // reads are not batched on oracle
     }
 
     private DbKvs(ExecutorService executor,
@@ -238,7 +287,8 @@ public final class DbKvs extends AbstractKeyValueService {
                   BatchingTaskRunner batchingQueryRunner,
                   OverflowValueLoader overflowValueLoader,
                   DbKvsGetRange getRangeStrategy,
-                  DbKvsGetCandidateCellsForSweeping getCandidateCellsForSweepingStrategy) {
+                  DbKvsGetCandidateCellsForSweeping getCandidateCellsForSweepingStrategy,
+                  int asyncReadBatchSize) {
         super(executor);
         this.config = config;
         this.dbTables = dbTables;
@@ -247,13 +297,20 @@ public final class DbKvs extends AbstractKeyValueService {
         this.overflowValueLoader = overflowValueLoader;
         this.getRangeStrategy = getRangeStrategy;
         this.getCandidateCellsForSweepingStrategy = getCandidateCellsForSweepingStrategy;
+        this.asyncReadExecutor = MoreExecutors.listeningDecorator(
+                newFixedThreadPool(config.asyncReadPoolSize(), "Atlas DbKvs async reader"));
+        this.asyncReadBatchSize = asyncReadBatchSize;
+        this.columnRangePrefetchExecutor = config.columnRangePrefetchPoolSize() == 0
+                ? Optional.empty()
+                : Optional.of(newFixedThreadPool(config.columnRangePrefetchPoolSize(),
+                        "Atlas DbKvs column range prefetcher"));
     }
 
-    private static ThreadPoolExecutor newFixedThreadPool(int maxPoolSize) {
+    private static ThreadPoolExecutor newFixedThreadPool(int maxPoolSize, String threadName) {
         ThreadPoolExecutor pool = PTExecutors.newThreadPoolExecutor(maxPoolSize, maxPoolSize,
                 15L, TimeUnit.SECONDS,
                 new LinkedBlockingQueue<Runnable>(),
-                new NamedThreadFactory("Atlas DbKvs reader", true /* daemon */));
+                new NamedThreadFactory(threadName, true /* daemon */));
 
         pool.allowCoreThreadTimeOut(false);
         return pool;
@@ -288,6 +345,8 @@ public final class DbKvs extends AbstractKeyValueService {
         dbTables.close();
         connections.close();
         batchingQueryRunner.close();
+        asyncReadExecutor.shutdown();
+        columnRangePrefetchExecutor.ifPresent(ExecutorService::shutdown);
     }
 
     @Override
@@ -442,6 +501,66 @@ public final class DbKvs extends AbstractKeyValueService {
         }
     }
 
+    /**
+     * Only Postgres is supported: Oracle DDL may run implicit commits and H2 is not used in production.
+     */
+    @Override
+    public boolean supportsAtomicMultiPut() {
+        return config instanceof PostgresDdlConfig;
+    }
+
+    /**
+     * Writes all tables on a single connection inside one database transaction. Fails fast if the connection is already
+     * in a transaction, since the writes could then neither be committed nor rolled back here. If any of the cells
+     * already exist (for instance because this is a retry of a multiPut that did in fact succeed), the transaction is
+     * rolled back and the values are written idempotently table by table, as {@link #put(TableReference, Map, long)}
+     * does.
+     */
+    @Override
+    public void multiPutAtomically(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable, long timestamp)
+            throws KeyAlreadyExistsException {
+        Preconditions.checkState(supportsAtomicMultiPut(), "Atomic multiPuts are only supported on Postgres");
+        try (ConnectionSupplier conns = new ConnectionSupplier(connections)) {
+            Connection conn = conns.get().getUnderlyingConnection();
+            Preconditions.checkState(conn.getAutoCommit(),
+                    "Atomic multiPuts must own the database transaction, but the connection is already in one");
+            conn.setAutoCommit(false);
+            try {
+                putAllTables(conns, valuesByTable, timestamp);
+                conn.commit();
+                return;
+            } catch (KeyAlreadyExistsException e) {
+                conn.rollback();
+                log.info("Atomic multiPut found existing values, falling back to idempotent puts", e);
+            } catch (RuntimeException | Error e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (PalantirSqlException | SQLException e) {
+            throw Throwables.rewrapAndThrowUncheckedException(e);
+        }
+        valuesByTable.forEach((table, values) -> put(table, values, timestamp));
+    }
+
+    private void putAllTables(ConnectionSupplier conns,
+            Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable,
+            long timestamp) {
+        for (Entry<TableReference, ? extends Map<Cell, byte[]>> e : valuesByTable.entrySet()) {
+            TableReference table = e.getKey();
+            DbWriteTable writeTable = dbTables.createWrite(table, conns);
+            for (List<Entry<Cell, byte[]>> batch : IterablePartitioner.partitionByCountAndBytes(
+                    ImmutableSortedMap.copyOf(e.getValue()).entrySet(),
+                    config.mutationBatchCount(),
+                    config.mutationBatchSizeBytes(),
+                    table,
+                    getByteSizingFunction())) {
+                writeTable.put(batch, timestamp);
+            }
+        }
+    }
+
     @Override
     public void put(TableReference tableRef, Map<Cell, byte[]> values, long timestamp)
             throws KeyAlreadyExistsException {
@@ -848,7 +967,7 @@ public final class DbKvs extends AbstractKeyValueService {
                                       rowHashesToBytes,
                                       batches,
                                       columnCountByRowHash);
-        return new LocalRowColumnRangeIterator(Iterators.concat(results));
+        return new LocalRowColumnRangeIterator(Iterators.concat(prefetching(results)));
     }
 
     private Iterator<Iterator<Map.Entry<Cell, Value>>> loadColumnsForBatches(
@@ -934,39 +1053,41 @@ public final class DbKvs extends AbstractKeyValueService {
             BatchColumnRangeSelection batchColumnRangeSelection,
             long timestamp) {
         List<byte[]> rowList = ImmutableList.of(row);
-        return ClosableIterators.wrap(new AbstractPagingIterable<
-                Entry<Cell, Value>,
-                TokenBackedBasicResultsPage<Entry<Cell, Value>, byte[]>>() {
-            @Override
-            protected TokenBackedBasicResultsPage<Entry<Cell, Value>, byte[]> getFirstPage() throws Exception {
-                return page(batchColumnRangeSelection.getStartCol());
-            }
+        Iterator<List<Map.Entry<Cell, Value>>> pages = new AbstractIterator<List<Map.Entry<Cell, Value>>>() {
+            private byte[] nextStartCol = batchColumnRangeSelection.getStartCol();
 
             @Override
-            protected TokenBackedBasicResultsPage<Map.Entry<Cell, Value>, byte[]> getNextPage(
-                    TokenBackedBasicResultsPage<Map.Entry<Cell, Value>, byte[]> previous) throws Exception {
-                return page(previous.getTokenForNextPage());
-            }
-
-            TokenBackedBasicResultsPage<Map.Entry<Cell, Value>, byte[]> page(byte[] startCol) throws Exception {
+            protected List<Map.Entry<Cell, Value>> computeNext() {
+                if (nextStartCol == null) {
+                    return endOfData();
+                }
                 BatchColumnRangeSelection range = BatchColumnRangeSelection.create(
-                                startCol,
+                                nextStartCol,
                                 batchColumnRangeSelection.getEndCol(),
                                 batchColumnRangeSelection.getBatchHint());
                 List<Map.Entry<Cell, Value>> nextPage = Iterables.getOnlyElement(
                         extractRowColumnRangePage(tableRef, range, timestamp, rowList).values());
                 if (nextPage.isEmpty()) {
-                    return SimpleTokenBackedResultsPage.create(startCol, ImmutableList.of(), false);
+                    return endOfData();
                 }
                 byte[] lastCol = nextPage.get(nextPage.size() - 1).getKey().getColumnName();
-                if (isEndOfColumnRange(lastCol, batchColumnRangeSelection.getEndCol())) {
-                    return SimpleTokenBackedResultsPage.create(lastCol, nextPage, false);
-                }
-                byte[] nextCol = RangeRequests.nextLexicographicName(lastCol);
-                return SimpleTokenBackedResultsPage.create(nextCol, nextPage, true);
+                nextStartCol = isEndOfColumnRange(lastCol, batchColumnRangeSelection.getEndCol())
+                        ? null
+                        : RangeRequests.nextLexicographicName(lastCol);
+                return nextPage;
             }
+        };
+        return Iterators.concat(Iterators.transform(prefetching(pages), List::iterator));
+    }
 
-        }.iterator());
+    /**
+     * Loads each element of the given iterator, typically a page of results, in the background while the caller
+     * consumes the previous one, unless prefetching is disabled.
+     */
+    private <T> Iterator<T> prefetching(Iterator<T> pages) {
+        return columnRangePrefetchExecutor
+                .map(executor -> PrefetchingIterator.create(pages, executor))
+                .orElse(pages);
     }
 
     private boolean isEndOfColumnRange(byte[] lastCol, byte[] endCol) {
@@ -1248,9 +1369,27 @@ public final class DbKvs extends AbstractKeyValueService {
         return true;
     }
 
+    /**
+     * Reads the cells in batches on a dedicated, bounded pool of threads, so that many concurrent asynchronous reads
+     * share at most {@link DdlConfig#asyncReadPoolSize()} connections. The queries are run directly on the pool's
+     * threads rather than handed off again to the SQL statement executors.
+     */
     @Override
     public ListenableFuture<Map<Cell, Value>> getAsync(TableReference tableRef, Map<Cell, Long> timestampByCell) {
-        return Futures.immediateFuture(get(tableRef, timestampByCell));
+        if (timestampByCell.isEmpty()) {
+            return Futures.immediateFuture(ImmutableMap.of());
+        }
+        List<ListenableFuture<Map<Cell, Value>>> batchResults = new ArrayList<>();
+        for (Map<Cell, Long> cellBatch : BatchingStrategies.<Cell, Long>forMap()
+                .partitionIntoBatches(timestampByCell, Math.min(asyncReadBatchSize, timestampByCell.size()))) {
+            batchResults.add(asyncReadExecutor.submit(() -> BasicSQLUtils.runOnCallingThread(() ->
+                    runReadAndExtractResults(tableRef, table -> table.getLatestCells(cellBatch, true)))));
+        }
+        return Futures.transform(Futures.allAsList(batchResults), results -> {
+            Map<Cell, Value> accumulated = new HashMap<>();
+            results.forEach(accumulated::putAll);
+            return accumulated;
+        }, MoreExecutors.directExecutor());
     }
 
     @Override
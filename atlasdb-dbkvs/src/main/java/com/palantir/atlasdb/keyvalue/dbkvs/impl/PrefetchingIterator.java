@@ -0,0 +1,73 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.dbkvs.impl;
+
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.google.common.collect.AbstractIterator;
+import com.palantir.common.base.Throwables;
+
+/**
+ * Wraps an iterator whose elements are expensive to compute, such as pages loaded from the database, so that each
+ * element is computed on the given executor while the caller consumes the previous one. Nothing is loaded until the
+ * first element is requested, which is then computed on the calling thread, so iterators that are never consumed cost
+ * nothing. The delegate is only ever accessed by one thread at a time, and it must not return null elements.
+ */
+final class PrefetchingIterator<T> extends AbstractIterator<T> {
+    private final Iterator<T> delegate;
+    private final ExecutorService executor;
+
+    private Future<Optional<T>> next = null;
+
+    private PrefetchingIterator(Iterator<T> delegate, ExecutorService executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    static <T> Iterator<T> create(Iterator<T> delegate, ExecutorService executor) {
+        return new PrefetchingIterator<>(delegate, executor);
+    }
+
+    @Override
+    protected T computeNext() {
+        Optional<T> current = next == null ? computeNextFromDelegate() : getUnchecked(next);
+        if (!current.isPresent()) {
+            return endOfData();
+        }
+        next = executor.submit(this::computeNextFromDelegate);
+        return current.get();
+    }
+
+    private Optional<T> computeNextFromDelegate() {
+        return delegate.hasNext() ? Optional.of(delegate.next()) : Optional.empty();
+    }
+
+    private static <T> T getUnchecked(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Throwables.throwUncheckedException(e);
+        } catch (ExecutionException e) {
+            throw Throwables.rewrapAndThrowUncheckedException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.dbkvs.impl.batch;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.palantir.atlasdb.util.MetricsManager;
+
+/**
+ * A {@link BatchingTaskRunner} that, unlike {@link ParallelTaskRunner}, does not hand every batch of a task to the
+ * executor at once.
+ * <p>
+ * The batch size adapts between a minimum and a maximum. It shrinks while batches take longer than the target latency
+ * and connections are still available to run more of them in parallel, and grows back when batches are fast or the
+ * connection pool is saturated, so that a saturated pool serves fewer, larger queries. Each task only keeps as many
+ * batches in flight as the pool has idle connections, bounded by the given parallelism, and waits for the oldest batch
+ * before submitting another one.
+ */
+public class AdaptiveTaskRunner implements BatchingTaskRunner {
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveTaskRunner.class);
+
+    private final ExecutorService executor;
+    private final ConnectionPoolStatus poolStatus;
+    private final int parallelism;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final long targetBatchLatencyNanos;
+    private final AtomicInteger batchSize;
+    private final Histogram batchSizes;
+    private final Histogram maxBatchesInFlight;
+    private final Timer queueingDelay;
+
+    public AdaptiveTaskRunner(
+            ExecutorService executor,
+            ConnectionPoolStatus poolStatus,
+            MetricsManager metricsManager,
+            int parallelism,
+            int minBatchSize,
+            int maxBatchSize,
+            long targetBatchLatencyMillis) {
+        Preconditions.checkArgument(parallelism > 0, "parallelism must be positive");
+        Preconditions.checkArgument(0 < minBatchSize && minBatchSize <= maxBatchSize,
+                "batch sizes must satisfy 0 < minBatchSize <= maxBatchSize");
+        this.executor = executor;
+        this.poolStatus = poolStatus;
+        this.parallelism = parallelism;
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.targetBatchLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetBatchLatencyMillis);
+        this.batchSize = new AtomicInteger(maxBatchSize);
+        this.batchSizes = metricsManager.registerOrGetHistogram(AdaptiveTaskRunner.class, "batchSize");
+        this.maxBatchesInFlight = metricsManager.registerOrGetHistogram(AdaptiveTaskRunner.class, "maxBatchesInFlight");
+        this.queueingDelay = metricsManager.registerOrGetTimer(AdaptiveTaskRunner.class, "queueingDelay");
+    }
+
+    @Override
+    public <InT, OutT> OutT runTask(InT input,
+                                    BatchingStrategy<InT> batchingStrategy,
+                                    ResultAccumulatorStrategy<OutT> resultAccumulatingStrategy,
+                                    Function<InT, OutT> task) {
+        int currentBatchSize = batchSize.get();
+        int maxInFlight = maxBatchesInFlight();
+        batchSizes.update(currentBatchSize);
+        maxBatchesInFlight.update(maxInFlight);
+
+        Iterable<? extends InT> batches = batchingStrategy.partitionIntoBatches(input, currentBatchSize);
+        Deque<Future<OutT>> inFlight = new ArrayDeque<>(maxInFlight);
+        OutT result = resultAccumulatingStrategy.createEmptyResult();
+        for (InT batch : batches) {
+            if (inFlight.size() >= maxInFlight) {
+                resultAccumulatingStrategy.accumulateResult(result, getFutureUnchecked(inFlight.removeFirst()));
+            }
+            long submittedAt = System.nanoTime();
+            inFlight.addLast(executor.submit(() -> runBatch(batch, task, submittedAt)));
+        }
+        while (!inFlight.isEmpty()) {
+            resultAccumulatingStrategy.accumulateResult(result, getFutureUnchecked(inFlight.removeFirst()));
+        }
+        return result;
+    }
+
+    private <InT, OutT> OutT runBatch(InT batch, Function<InT, OutT> task, long submittedAt) {
+        long startedAt = System.nanoTime();
+        queueingDelay.update(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+        OutT result = task.apply(batch);
+        adjustBatchSize(System.nanoTime() - startedAt, isPoolSaturated());
+        return result;
+    }
+
+    private int maxBatchesInFlight() {
+        try {
+            return Math.max(1, Math.min(parallelism, poolStatus.idleConnections()));
+        } catch (RuntimeException e) {
+            log.debug("Unable to read connection pool status, running batches with full parallelism.", e);
+            return parallelism;
+        }
+    }
+
+    private boolean isPoolSaturated() {
+        try {
+            return poolStatus.threadsAwaitingConnection() > 0;
+        } catch (RuntimeException e) {
+            log.debug("Unable to read connection pool status, assuming it is not saturated.", e);
+            return false;
+        }
+    }
+
+    @VisibleForTesting
+    void adjustBatchSize(long batchLatencyNanos, boolean poolSaturated) {
+        batchSize.updateAndGet(current -> {
+            if (poolSaturated || batchLatencyNanos < targetBatchLatencyNanos / 2) {
+                return Math.min(maxBatchSize, current + Math.max(1, current / 4));
+            }
+            if (batchLatencyNanos > targetBatchLatencyNanos) {
+                return Math.max(minBatchSize, current / 2);
+            }
+            return current;
+        });
+    }
+
+    @VisibleForTesting
+    int currentBatchSize() {
+        return batchSize.get();
+    }
+
+    private static <T> T getFutureUnchecked(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Throwables.propagate(e);
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.dbkvs.impl.batch;
+
+/**
+ * A live view of how busy the connection pool that backs a {@link BatchingTaskRunner} is.
+ */
+public interface ConnectionPoolStatus {
+    /**
+     * Number of connections that can currently be checked out without waiting.
+     */
+    int idleConnections();
+
+    /**
+     * Number of threads currently blocked waiting for a connection.
+     */
+    int threadsAwaitingConnection();
+
+    /**
+     * Status for pools that cannot be observed, which never appear saturated.
+     */
+    static ConnectionPoolStatus unknown() {
+        return new ConnectionPoolStatus() {
+            @Override
+            public int idleConnections() {
+                return Integer.MAX_VALUE;
+            }
+
+            @Override
+            public int threadsAwaitingConnection() {
+                return 0;
+            }
+        };
+    }
+}
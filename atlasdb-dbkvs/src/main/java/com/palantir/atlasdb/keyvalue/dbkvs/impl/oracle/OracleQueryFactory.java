@@ -19,8 +19,10 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
@@ -353,6 +355,57 @@ public class OracleQueryFactory extends AbstractDbQueryFactory {
         return fullQuery;
     }
 
+    /**
+     * If enabled, rows sharing the same column range are loaded with a single query that binds all of them as one
+     * array, rather than with a union of one sub-query per row. The query text then does not depend on the number of
+     * rows, so that it is parsed once and shared.
+     *
+     * The batch hint then bounds the columns returned per row through ROW_NUMBER(), which only ranks a row once all
+     * of its columns in the range have been grouped: unlike the per-row sub-queries, whose rownum limit stops reading
+     * a row after the batch hint, the array bound query reads wide rows in full within the column range.
+     */
+    @Override
+    public FullQuery getRowsColumnRangeQuery(
+            Map<byte[], BatchColumnRangeSelection> columnRangeSelectionsByRow,
+            long ts) {
+        Set<BatchColumnRangeSelection> columnRangeSelections =
+                ImmutableSet.copyOf(columnRangeSelectionsByRow.values());
+        if (!config.arrayBoundColumnRangeQueries() || columnRangeSelections.size() != 1) {
+            return super.getRowsColumnRangeQuery(columnRangeSelectionsByRow, ts);
+        }
+        return getRowsColumnRangeArrayBoundQuery(
+                columnRangeSelectionsByRow.keySet(),
+                ts,
+                Iterables.getOnlyElement(columnRangeSelections));
+    }
+
+    private FullQuery getRowsColumnRangeArrayBoundQuery(
+            Iterable<byte[]> rows,
+            long ts,
+            BatchColumnRangeSelection columnRangeSelection) {
+        String query = " /* GET_ROWS_COLUMN_RANGE_ARRAY_BOUND (" + tableName + ") */ "
+                + "SELECT s.row_name, s.col_name, s.ts" + getValueSubselect("s", true)
+                + " FROM ( SELECT m.row_name, m.col_name, max(m.ts) as ts"
+                +         getValueSubselectForGroupBy("m")
+                + "        , ROW_NUMBER() OVER (PARTITION BY m.row_name ORDER BY m.col_name ASC) AS rn"
+                + "   FROM " + tableName + " m, TABLE(CAST(? AS " + structArrayPrefix() + "CELL_TS_TABLE)) t "
+                + "  WHERE m.row_name = t.row_name "
+                + "    AND m.ts < ? "
+                + (columnRangeSelection.getStartCol().length > 0 ? " AND m.col_name >= ?" : "")
+                + (columnRangeSelection.getEndCol().length > 0 ? " AND m.col_name < ?" : "")
+                + " GROUP BY m.row_name, m.col_name ) s"
+                + " WHERE s.rn <= ?"
+                + " ORDER BY s.row_name ASC, s.col_name ASC";
+        FullQuery fullQuery = new FullQuery(query).withArgs(rowsToOracleArray(rows), ts);
+        if (columnRangeSelection.getStartCol().length > 0) {
+            fullQuery = fullQuery.withArg(columnRangeSelection.getStartCol());
+        }
+        if (columnRangeSelection.getEndCol().length > 0) {
+            fullQuery = fullQuery.withArg(columnRangeSelection.getEndCol());
+        }
+        return fullQuery.withArg(columnRangeSelection.getBatchHint());
+    }
+
     @Override
     protected FullQuery getRowsColumnRangeSubQuery(
             byte[] row,
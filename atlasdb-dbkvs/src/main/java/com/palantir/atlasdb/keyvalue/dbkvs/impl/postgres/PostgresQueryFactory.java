@@ -28,6 +28,7 @@ import com.palantir.atlasdb.keyvalue.api.ColumnRangeSelection;
 import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
 import com.palantir.atlasdb.keyvalue.api.RangeRequest;
 import com.palantir.atlasdb.keyvalue.dbkvs.PostgresDdlConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.PostgresDdlConfig.LatestCellsQueryStrategy;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.AbstractDbQueryFactory;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.FullQuery;
 
@@ -144,6 +145,17 @@ public class PostgresQueryFactory extends AbstractDbQueryFactory {
 
     @Override
     public FullQuery getLatestCellQuery(Cell cell, long ts, boolean includeValue) {
+        if (useLateralLatestCellsQuery()) {
+            String query = " /* GET_LATEST_CELL (" + tableName + ") */ "
+                    + " SELECT m.row_name, m.col_name, m.ts" + (includeValue ? ", m.val " : " ")
+                    + "   FROM " + prefixedTableName() + " m "
+                    + "  WHERE m.row_name = ? "
+                    + "    AND m.col_name = ? "
+                    + "    AND m.ts < ? "
+                    + " ORDER BY m.ts DESC "
+                    + " LIMIT 1";
+            return new FullQuery(query).withArgs(cell.getRowName(), cell.getColumnName(), ts);
+        }
         String query = " /* GET_LATEST_CELL_INNER (" + tableName + ") */ "
                 + " SELECT m.row_name, m.col_name, max(m.ts) as ts "
                 + "   FROM " + prefixedTableName() + " m "
@@ -158,6 +170,13 @@ public class PostgresQueryFactory extends AbstractDbQueryFactory {
 
     @Override
     public FullQuery getLatestCellsQuery(Iterable<Cell> cells, long ts, boolean includeValue) {
+        if (useLateralLatestCellsQuery()) {
+            String query = " /* GET_LATEST_CELLS (" + tableName + ") */ "
+                    + " SELECT m.row_name, m.col_name, m.ts" + (includeValue ? ", m.val " : " ")
+                    + "   FROM (VALUES " + groupOfNumParams(2, Iterables.size(cells)) + ") t(row_name, col_name), "
+                    + "   LATERAL (" + latestVersionSubQuery("?", includeValue) + ") m ";
+            return addCellArgs(new FullQuery(query), cells).withArg(ts);
+        }
         String query = " /* GET_LATEST_CELLS_INNER (" + tableName + ") */ "
                 + " SELECT m.row_name, m.col_name, max(m.ts) as ts "
                 + "   FROM " + prefixedTableName() + " m,"
@@ -172,6 +191,13 @@ public class PostgresQueryFactory extends AbstractDbQueryFactory {
 
     @Override
     public FullQuery getLatestCellsQuery(Collection<Entry<Cell, Long>> cells, boolean includeValue) {
+        if (useLateralLatestCellsQuery()) {
+            String query = " /* GET_LATEST_CELLS (" + tableName + ") */ "
+                    + " SELECT m.row_name, m.col_name, m.ts" + (includeValue ? ", m.val " : " ")
+                    + "   FROM (VALUES " + groupOfNumParams(3, cells.size()) + ") t(row_name, col_name, ts), "
+                    + "   LATERAL (" + latestVersionSubQuery("t.ts", includeValue) + ") m ";
+            return addCellTsArgs(new FullQuery(query), cells);
+        }
         String query = " /* GET_LATEST_CELLS_INNER (" + tableName + ") */ "
                 + " SELECT m.row_name, m.col_name, max(m.ts) as ts "
                 + "   FROM " + prefixedTableName() + " m,"
@@ -258,6 +284,20 @@ public class PostgresQueryFactory extends AbstractDbQueryFactory {
         return Joiner.on(',').join(Iterables.limit(Iterables.cycle(params), numEntries));
     }
 
+    private boolean useLateralLatestCellsQuery() {
+        return config.latestCellsQueryStrategy() == LatestCellsQueryStrategy.LATERAL;
+    }
+
+    private String latestVersionSubQuery(String maxTimestampExclusive, boolean includeValue) {
+        return " SELECT i.row_name, i.col_name, i.ts" + (includeValue ? ", i.val " : " ")
+                + "   FROM " + prefixedTableName() + " i "
+                + "  WHERE i.row_name = t.row_name "
+                + "    AND i.col_name = t.col_name "
+                + "    AND i.ts < " + maxTimestampExclusive
+                + "  ORDER BY i.ts DESC "
+                + "  LIMIT 1";
+    }
+
     private String wrapQueryWithIncludeValue(String wrappedName, String query, boolean includeValue) {
         if (!includeValue) {
             return query;
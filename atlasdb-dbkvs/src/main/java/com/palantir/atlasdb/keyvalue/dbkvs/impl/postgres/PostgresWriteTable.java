@@ -15,18 +15,59 @@
  */
 package com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
-import com.palantir.atlasdb.keyvalue.dbkvs.DdlConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.PostgresDdlConfig;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.AbstractDbWriteTable;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.ConnectionSupplier;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.PrefixedTableNames;
+import com.palantir.exception.PalantirSqlException;
+import com.palantir.nexus.db.sql.ExceptionCheck;
 
 public class PostgresWriteTable extends AbstractDbWriteTable {
+    // postgres allows at most 32767 bind parameters per statement, and each row binds four
+    private static final int MAX_ROWS_PER_INSERT = Short.MAX_VALUE / 4;
+
+    private final PostgresDdlConfig postgresConfig;
+
     public PostgresWriteTable(
-            DdlConfig config,
+            PostgresDdlConfig config,
             ConnectionSupplier conns,
             TableReference tableRef,
             PrefixedTableNames prefixedTableNames) {
         super(config, conns, tableRef, prefixedTableNames);
+        this.postgresConfig = config;
+    }
+
+    @Override
+    protected void put(List<Object[]> args) {
+        if (args.isEmpty() || !shouldUseMultiRowInsert(args.size())) {
+            super.put(args);
+            return;
+        }
+        try {
+            String prefixedTableName = prefixedTableNames.get(tableRef, conns);
+            for (List<Object[]> rows : Lists.partition(args, MAX_ROWS_PER_INSERT)) {
+                conns.get().insertOneUnregisteredQuery("/* INSERT_MANY (" + prefixedTableName + ") */"
+                        + " INSERT INTO " + prefixedTableName + " (row_name, col_name, ts, val) "
+                        + " VALUES " + String.join(", ", Collections.nCopies(rows.size(), "(?, ?, ?, ?)")),
+                        rows.stream().flatMap(Arrays::stream).toArray());
+            }
+        } catch (PalantirSqlException e) {
+            if (ExceptionCheck.isUniqueConstraintViolation(e)) {
+                throw new KeyAlreadyExistsException("primary key violation", e);
+            }
+            throw e;
+        }
+    }
+
+    private boolean shouldUseMultiRowInsert(int numCells) {
+        return numCells >= postgresConfig.multiRowInsertMinimumCells()
+                || postgresConfig.multiRowInsertTables().contains(tableRef);
     }
 }
@@ -0,0 +1,103 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.dbkvs.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+
+public class PrefetchingIteratorTest {
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void returnsAllElementsInOrder() {
+        Iterator<Integer> iterator = PrefetchingIterator.create(ImmutableList.of(1, 2, 3).iterator(), executor);
+
+        assertThat(iterator).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    public void emptyDelegateYieldsNoElements() {
+        assertThat(PrefetchingIterator.create(ImmutableList.<Integer>of().iterator(), executor)).isEmpty();
+    }
+
+    @Test
+    public void loadsNothingBeforeTheFirstElementIsRequested() {
+        AtomicInteger loaded = new AtomicInteger();
+        PrefetchingIterator.create(countingIterator(loaded, 3), executor);
+
+        assertThat(loaded.get()).isZero();
+    }
+
+    @Test
+    public void loadsNextElementBeforeItIsRequested() throws InterruptedException {
+        AtomicInteger loaded = new AtomicInteger();
+        Iterator<Integer> iterator = PrefetchingIterator.create(countingIterator(loaded, 3), executor);
+
+        assertThat(iterator.next()).isEqualTo(0);
+        awaitLoaded(loaded, 2);
+        assertThat(loaded.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void propagatesFailuresFromDelegate() {
+        Iterator<Integer> failing = new AbstractIterator<Integer>() {
+            @Override
+            protected Integer computeNext() {
+                throw new IllegalStateException("boom");
+            }
+        };
+
+        assertThatThrownBy(() -> PrefetchingIterator.create(failing, executor).next())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("boom");
+    }
+
+    private static Iterator<Integer> countingIterator(AtomicInteger loaded, int size) {
+        return new AbstractIterator<Integer>() {
+            @Override
+            protected Integer computeNext() {
+                if (loaded.get() == size) {
+                    return endOfData();
+                }
+                return loaded.getAndIncrement();
+            }
+        };
+    }
+
+    private static void awaitLoaded(AtomicInteger loaded, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (loaded.get() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
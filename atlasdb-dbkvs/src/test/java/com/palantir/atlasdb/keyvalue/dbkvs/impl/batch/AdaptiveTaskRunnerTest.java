@@ -0,0 +1,192 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.dbkvs.impl.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.atlasdb.util.MetricsManagers;
+
+public class AdaptiveTaskRunnerTest {
+    private static final int PARALLELISM = 4;
+    private static final int MIN_BATCH_SIZE = 2;
+    private static final int MAX_BATCH_SIZE = 16;
+    private static final long TARGET_LATENCY_MILLIS = 100;
+    private static final long TARGET_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(TARGET_LATENCY_MILLIS);
+
+    private static final BatchingTaskRunner.ResultAccumulatorStrategy<List<Integer>> LIST_ACCUMULATOR =
+            new BatchingTaskRunner.ResultAccumulatorStrategy<List<Integer>>() {
+                @Override
+                public List<Integer> createEmptyResult() {
+                    return new ArrayList<>();
+                }
+
+                @Override
+                public void accumulateResult(List<Integer> result, List<Integer> toAdd) {
+                    result.addAll(toAdd);
+                }
+            };
+
+    private final MetricsManager metricsManager = MetricsManagers.createForTests();
+    private final ExecutorService executor = Executors.newFixedThreadPool(PARALLELISM);
+    private final FakePoolStatus poolStatus = new FakePoolStatus();
+    private final AdaptiveTaskRunner runner = new AdaptiveTaskRunner(
+            executor, poolStatus, metricsManager, PARALLELISM, MIN_BATCH_SIZE, MAX_BATCH_SIZE, TARGET_LATENCY_MILLIS);
+
+    @After
+    public void tearDown() {
+        runner.close();
+    }
+
+    @Test
+    public void accumulatesResultsOfAllBatchesInOrder() {
+        List<Integer> input = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+
+        List<Integer> result = runner.runTask(input, BatchingStrategies.forList(), LIST_ACCUMULATOR, ArrayList::new);
+
+        assertThat(result).isEqualTo(input);
+    }
+
+    @Test
+    public void runsAtMostAsManyBatchesAsThereAreIdleConnections() {
+        poolStatus.idleConnections = 2;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        runner.runTask(IntStream.range(0, 10 * MAX_BATCH_SIZE).boxed().collect(Collectors.toList()),
+                BatchingStrategies.forList(),
+                LIST_ACCUMULATOR,
+                batch -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleepUninterruptibly(5);
+                    running.decrementAndGet();
+                    return batch;
+                });
+
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    public void runsOneBatchAtATimeWhenNoConnectionsAreIdle() {
+        poolStatus.idleConnections = 0;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        runner.runTask(IntStream.range(0, 4 * MAX_BATCH_SIZE).boxed().collect(Collectors.toList()),
+                BatchingStrategies.forList(),
+                LIST_ACCUMULATOR,
+                batch -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    running.decrementAndGet();
+                    return batch;
+                });
+
+        assertThat(maxRunning.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shrinksBatchesThatAreSlowerThanTarget() {
+        runner.adjustBatchSize(2 * TARGET_LATENCY_NANOS, false);
+        assertThat(runner.currentBatchSize()).isEqualTo(MAX_BATCH_SIZE / 2);
+
+        for (int i = 0; i < 10; i++) {
+            runner.adjustBatchSize(2 * TARGET_LATENCY_NANOS, false);
+        }
+        assertThat(runner.currentBatchSize()).isEqualTo(MIN_BATCH_SIZE);
+    }
+
+    @Test
+    public void growsBatchesThatAreFasterThanTarget() {
+        shrinkToMinimum();
+
+        runner.adjustBatchSize(0, false);
+        assertThat(runner.currentBatchSize()).isGreaterThan(MIN_BATCH_SIZE);
+
+        for (int i = 0; i < 20; i++) {
+            runner.adjustBatchSize(0, false);
+        }
+        assertThat(runner.currentBatchSize()).isEqualTo(MAX_BATCH_SIZE);
+    }
+
+    @Test
+    public void growsBatchesWhenPoolIsSaturatedEvenIfTheyAreSlow() {
+        shrinkToMinimum();
+
+        runner.adjustBatchSize(2 * TARGET_LATENCY_NANOS, true);
+
+        assertThat(runner.currentBatchSize()).isGreaterThan(MIN_BATCH_SIZE);
+    }
+
+    @Test
+    public void keepsBatchSizeWhenLatencyIsNearTarget() {
+        shrinkToMinimum();
+
+        runner.adjustBatchSize(TARGET_LATENCY_NANOS, false);
+
+        assertThat(runner.currentBatchSize()).isEqualTo(MIN_BATCH_SIZE);
+    }
+
+    @Test
+    public void reportsBatchSizes() {
+        runner.runTask(ImmutableList.of(1, 2, 3), BatchingStrategies.forList(), LIST_ACCUMULATOR, ArrayList::new);
+
+        assertThat(metricsManager.registerOrGetHistogram(AdaptiveTaskRunner.class, "batchSize").getCount())
+                .isEqualTo(1);
+        assertThat(metricsManager.registerOrGetTimer(AdaptiveTaskRunner.class, "queueingDelay").getCount())
+                .isEqualTo(1);
+    }
+
+    private void shrinkToMinimum() {
+        for (int i = 0; i < 10; i++) {
+            runner.adjustBatchSize(2 * TARGET_LATENCY_NANOS, false);
+        }
+    }
+
+    private static void sleepUninterruptibly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class FakePoolStatus implements ConnectionPoolStatus {
+        private volatile int idleConnections = Integer.MAX_VALUE;
+
+        @Override
+        public int idleConnections() {
+            return idleConnections;
+        }
+
+        @Override
+        public int threadsAwaitingConnection() {
+            return 0;
+        }
+    }
+}
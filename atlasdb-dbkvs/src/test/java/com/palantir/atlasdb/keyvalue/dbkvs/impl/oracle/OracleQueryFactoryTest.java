@@ -0,0 +1,156 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.dbkvs.impl.oracle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
+import com.palantir.atlasdb.keyvalue.dbkvs.ImmutableOracleDdlConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.OracleDdlConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.FullQuery;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.OverflowMigrationState;
+import com.palantir.db.oracle.JdbcHandler;
+import com.palantir.db.oracle.JdbcHandler.ArrayHandler;
+
+public class OracleQueryFactoryTest {
+    private static final String TABLE_NAME = "a_test";
+    private static final long TS = 123L;
+    private static final int BATCH_HINT = 10;
+    private static final byte[] ROW_1 = PtBytes.toBytes("row1");
+    private static final byte[] ROW_2 = PtBytes.toBytes("row2");
+    private static final byte[] START_COL = PtBytes.toBytes("start");
+    private static final byte[] END_COL = PtBytes.toBytes("end");
+
+    private final JdbcHandler jdbcHandler = mock(JdbcHandler.class);
+    private final ArrayHandler rowsArray = mock(ArrayHandler.class);
+
+    private OracleQueryFactory queryFactory;
+
+    @Before
+    public void setUp() {
+        when(jdbcHandler.createStructArray(eq("A_CELL_TS"), eq("A_CELL_TS_TABLE"), any())).thenReturn(rowsArray);
+        queryFactory = new OracleQueryFactory(createConfig(true), TABLE_NAME, false);
+    }
+
+    @Test
+    public void arrayBoundQueryWithoutColumnBounds() {
+        FullQuery query = getRowsColumnRangeQuery(PtBytes.EMPTY_BYTE_ARRAY, PtBytes.EMPTY_BYTE_ARRAY);
+
+        assertThat(query.getQuery()).isEqualTo(expectedArrayBoundQuery(""));
+        assertThat(query.getArgs()).containsExactly(rowsArray, TS, BATCH_HINT);
+    }
+
+    @Test
+    public void arrayBoundQueryWithStartColumnOnly() {
+        FullQuery query = getRowsColumnRangeQuery(START_COL, PtBytes.EMPTY_BYTE_ARRAY);
+
+        assertThat(query.getQuery()).isEqualTo(expectedArrayBoundQuery(" AND m.col_name >= ?"));
+        assertThat(query.getArgs()).containsExactly(rowsArray, TS, START_COL, BATCH_HINT);
+    }
+
+    @Test
+    public void arrayBoundQueryWithEndColumnOnly() {
+        FullQuery query = getRowsColumnRangeQuery(PtBytes.EMPTY_BYTE_ARRAY, END_COL);
+
+        assertThat(query.getQuery()).isEqualTo(expectedArrayBoundQuery(" AND m.col_name < ?"));
+        assertThat(query.getArgs()).containsExactly(rowsArray, TS, END_COL, BATCH_HINT);
+    }
+
+    @Test
+    public void arrayBoundQueryWithStartAndEndColumns() {
+        FullQuery query = getRowsColumnRangeQuery(START_COL, END_COL);
+
+        assertThat(query.getQuery()).isEqualTo(expectedArrayBoundQuery(" AND m.col_name >= ? AND m.col_name < ?"));
+        assertThat(query.getArgs()).containsExactly(rowsArray, TS, START_COL, END_COL, BATCH_HINT);
+    }
+
+    @Test
+    public void arrayBoundQueryTextDoesNotDependOnTheNumberOfRows() {
+        BatchColumnRangeSelection selection = BatchColumnRangeSelection.create(START_COL, END_COL, BATCH_HINT);
+
+        FullQuery oneRow = queryFactory.getRowsColumnRangeQuery(ImmutableMap.of(ROW_1, selection), TS);
+        FullQuery twoRows = queryFactory.getRowsColumnRangeQuery(
+                ImmutableMap.of(ROW_1, selection, ROW_2, selection), TS);
+
+        assertThat(twoRows.getQuery()).isEqualTo(oneRow.getQuery());
+        assertThat(twoRows.getArgs()).hasSameSizeAs(oneRow.getArgs());
+    }
+
+    @Test
+    public void usesOneSubQueryPerRowForDifferentColumnRanges() {
+        FullQuery query = queryFactory.getRowsColumnRangeQuery(ImmutableMap.of(
+                ROW_1, BatchColumnRangeSelection.create(START_COL, PtBytes.EMPTY_BYTE_ARRAY, BATCH_HINT),
+                ROW_2, BatchColumnRangeSelection.create(PtBytes.EMPTY_BYTE_ARRAY, END_COL, BATCH_HINT)), TS);
+
+        assertThat(query.getQuery())
+                .doesNotContain("GET_ROWS_COLUMN_RANGE_ARRAY_BOUND")
+                .contains("rownum <= " + BATCH_HINT);
+        assertThat(query.getArgs()).containsExactly(ROW_1, TS, START_COL, ROW_2, TS, END_COL);
+    }
+
+    @Test
+    public void usesOneSubQueryPerRowIfArrayBindingIsDisabled() {
+        OracleQueryFactory disabledQueryFactory = new OracleQueryFactory(createConfig(false), TABLE_NAME, false);
+        BatchColumnRangeSelection selection = BatchColumnRangeSelection.create(START_COL, END_COL, BATCH_HINT);
+
+        FullQuery query = disabledQueryFactory.getRowsColumnRangeQuery(
+                ImmutableMap.of(ROW_1, selection, ROW_2, selection), TS);
+
+        assertThat(query.getQuery()).doesNotContain("GET_ROWS_COLUMN_RANGE_ARRAY_BOUND");
+        assertThat(query.getArgs()).containsExactly(ROW_1, TS, START_COL, END_COL, ROW_2, TS, START_COL, END_COL);
+    }
+
+    private FullQuery getRowsColumnRangeQuery(byte[] startCol, byte[] endCol) {
+        BatchColumnRangeSelection selection = BatchColumnRangeSelection.create(startCol, endCol, BATCH_HINT);
+        Map<byte[], BatchColumnRangeSelection> selectionsByRow = ImmutableMap.of(ROW_1, selection, ROW_2, selection);
+        return queryFactory.getRowsColumnRangeQuery(selectionsByRow, TS);
+    }
+
+    private OracleDdlConfig createConfig(boolean arrayBoundColumnRangeQueries) {
+        return ImmutableOracleDdlConfig.builder()
+                .jdbcHandler(jdbcHandler)
+                .overflowMigrationState(OverflowMigrationState.FINISHED)
+                .arrayBoundColumnRangeQueries(arrayBoundColumnRangeQueries)
+                .build();
+    }
+
+    private static String expectedArrayBoundQuery(String columnBounds) {
+        return " /* GET_ROWS_COLUMN_RANGE_ARRAY_BOUND (" + TABLE_NAME + ") */ "
+                + "SELECT s.row_name, s.col_name, s.ts, s.val"
+                + " FROM ( SELECT m.row_name, m.col_name, max(m.ts) as ts"
+                + ", MAX(m.val) KEEP (DENSE_RANK LAST ORDER BY m.ts ASC) AS val"
+                + "        , ROW_NUMBER() OVER (PARTITION BY m.row_name ORDER BY m.col_name ASC) AS rn"
+                + "   FROM " + TABLE_NAME + " m, TABLE(CAST(? AS A_CELL_TS_TABLE)) t "
+                + "  WHERE m.row_name = t.row_name "
+                + "    AND m.ts < ? "
+                + columnBounds
+                + " GROUP BY m.row_name, m.col_name ) s"
+                + " WHERE s.rn <= ?"
+                + " ORDER BY s.row_name ASC, s.col_name ASC";
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.dbkvs.ImmutablePostgresDdlConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.PostgresDdlConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.ConnectionSupplier;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.PrefixedTableNames;
+import com.palantir.nexus.db.sql.SqlConnection;
+
+public class PostgresWriteTableTest {
+    private static final TableReference TEST_TABLE = TableReference.createFromFullyQualifiedName("ns.test");
+    private static final Map<Cell, byte[]> VALUES = ImmutableMap.of(
+            Cell.create(PtBytes.toBytes("row1"), PtBytes.toBytes("col")), PtBytes.toBytes("value1"),
+            Cell.create(PtBytes.toBytes("row2"), PtBytes.toBytes("col")), PtBytes.toBytes("value2"));
+
+    private final ConnectionSupplier connectionSupplier = mock(ConnectionSupplier.class);
+    private final SqlConnection sqlConnection = mock(SqlConnection.class);
+    private final PrefixedTableNames prefixedTableNames = mock(PrefixedTableNames.class);
+
+    @Before
+    public void setUp() {
+        when(connectionSupplier.get()).thenReturn(sqlConnection);
+        when(prefixedTableNames.get(TEST_TABLE, connectionSupplier)).thenReturn("a_ns__test");
+    }
+
+    @Test
+    public void smallPutsUseBatchedSingleRowInserts() {
+        createWriteTable(ImmutablePostgresDdlConfig.builder().build()).put(VALUES.entrySet(), 1L);
+
+        verify(sqlConnection).insertManyUnregisteredQuery(contains("VALUES (?, ?, ?, ?)"), any());
+        verify(sqlConnection, never()).insertOneUnregisteredQuery(anyString(), any());
+    }
+
+    @Test
+    public void largePutsUseMultiRowInserts() {
+        createWriteTable(ImmutablePostgresDdlConfig.builder().multiRowInsertMinimumCells(2).build())
+                .put(VALUES.entrySet(), 1L);
+
+        verify(sqlConnection).insertOneUnregisteredQuery(contains("VALUES (?, ?, ?, ?), (?, ?, ?, ?)"), any());
+        verify(sqlConnection, never()).insertManyUnregisteredQuery(anyString(), any());
+    }
+
+    @Test
+    public void configuredTablesAlwaysUseMultiRowInserts() {
+        createWriteTable(ImmutablePostgresDdlConfig.builder().addMultiRowInsertTables(TEST_TABLE).build())
+                .put(VALUES.entrySet(), 1L);
+
+        verify(sqlConnection).insertOneUnregisteredQuery(contains("VALUES (?, ?, ?, ?), (?, ?, ?, ?)"), any());
+        verify(sqlConnection, never()).insertManyUnregisteredQuery(anyString(), any());
+    }
+
+    private PostgresWriteTable createWriteTable(PostgresDdlConfig config) {
+        return new PostgresWriteTable(config, connectionSupplier, TEST_TABLE, prefixedTableNames);
+    }
+}
@@ -257,6 +257,11 @@ public final class TableSplittingKeyValueService implements KeyValueService {
         return getDelegate(tableRef).getRange(tableRef, rangeRequest, timestamp);
     }
 
+    @Override
+    public List<RangeRequest> splitRange(TableReference tableRef, RangeRequest rangeRequest) {
+        return getDelegate(tableRef).splitRange(tableRef, rangeRequest);
+    }
+
     @Override
     public ClosableIterator<RowResult<Set<Long>>> getRangeOfTimestamps(TableReference tableRef,
                                                                        RangeRequest rangeRequest,
@@ -28,6 +28,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
 import com.palantir.atlasdb.keyvalue.api.Namespace;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.table.description.RowNamePartitioner;
 import com.palantir.atlasdb.table.description.TableMetadata;
@@ -196,7 +197,8 @@ public class KeyValueServiceMigrator {
                     new TableMigratorBuilder().srcTable(table).partitions(PARTITIONS).partitioners(
                             getPartitioners(fromKvs, table)).readBatchSize(
                             getBatchSize(table)).executor(executor).checkpointer(checkpointer).progress(
-                            taskProgress).rangeMigrator(rangeMigrator);
+                            taskProgress).rangeMigrator(rangeMigrator).rangeSplits(
+                            fromKvs.splitRange(table, RangeRequest.all()));
             TableMigrator migrator = builder.build();
             migrator.migrate();
         }
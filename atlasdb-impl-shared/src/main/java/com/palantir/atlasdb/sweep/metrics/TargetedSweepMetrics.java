@@ -16,6 +16,7 @@
 package com.palantir.atlasdb.sweep.metrics;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -99,6 +100,14 @@ public class TargetedSweepMetrics {
         getMetrics(shardStrategy).updateProgressForShard(shardStrategy.shard(), lastSweptTs);
     }
 
+    /**
+     * Records the backlog of a shard, as the number of timestamps between the earliest unswept write in the sweep
+     * queue for the shard and the sweep timestamp. A shard with nothing left to sweep has a backlog of 0.
+     */
+    public void updateBacklogForShard(ShardAndStrategy shardStrategy, long backlog) {
+        getMetrics(shardStrategy).updateBacklogForShard(shardStrategy.shard(), backlog);
+    }
+
     public void registerOccurrenceOf(ShardAndStrategy shardStrategy, SweepOutcome outcome) {
         registerOccurrenceOf(shardStrategy.strategy(), outcome);
     }
@@ -111,6 +120,14 @@ public class TargetedSweepMetrics {
         getMetrics(shardStrategy).registerEntriesReadInBatch(batchSize);
     }
 
+    /**
+     * Records how long the progress of a shard had to wait for the slowest of its parallel delete batches, after the
+     * other threads had run out of batches to delete.
+     */
+    public void registerMillisProgressHeldByDeletes(ShardAndStrategy shardStrategy, long millis) {
+        getMetrics(shardStrategy).registerMillisProgressHeldByDeletes(millis);
+    }
+
     private MetricsForStrategy getMetrics(ShardAndStrategy shardStrategy) {
         return getMetrics(shardStrategy.strategy());
     }
@@ -130,6 +147,8 @@ public class TargetedSweepMetrics {
         private final AggregatingVersionedMetric<Long> lastSweptTs;
         private final SweepOutcomeMetrics outcomeMetrics;
         private final SlidingWindowMeanGauge batchSizeMean;
+        private final SlidingWindowMeanGauge millisProgressHeldByDeletesMean;
+        private final Map<Integer, CurrentValueMetric<Long>> backlogByShard = new ConcurrentHashMap<>();
 
         private MetricsForStrategy(MetricsManager manager, String strategy, Function<Long, Long> tsToMillis,
                 Clock wallClock, long recomputeMillis) {
@@ -144,6 +163,8 @@ public class TargetedSweepMetrics {
             registerMillisSinceLastSweptMetric(tsToMillis, wallClock, recomputeMillis);
             outcomeMetrics = SweepOutcomeMetrics.registerTargeted(manager, tag);
             batchSizeMean = register(AtlasDbMetricNames.BATCH_SIZE_MEAN, new SlidingWindowMeanGauge());
+            millisProgressHeldByDeletesMean = register(AtlasDbMetricNames.MILLIS_PROGRESS_HELD_BY_DELETES,
+                    new SlidingWindowMeanGauge());
         }
 
         private AccumulatingValueMetric registerAccumulating(String name) {
@@ -155,6 +176,19 @@ public class TargetedSweepMetrics {
             return (T) manager.registerOrGet(TargetedSweepMetrics.class, name, metric, tag);
         }
 
+        private Map<String, String> shardTag(int shard) {
+            return ImmutableMap.<String, String>builder()
+                    .putAll(tag)
+                    .put(AtlasDbMetricNames.TAG_SHARD, Integer.toString(shard))
+                    .build();
+        }
+
+        @SuppressWarnings("unchecked")
+        private CurrentValueMetric<Long> registerBacklogMetric(int shard) {
+            return (CurrentValueMetric<Long>) manager.registerOrGet(TargetedSweepMetrics.class,
+                    AtlasDbMetricNames.SHARD_BACKLOG, new CurrentValueMetric<Long>(), shardTag(shard));
+        }
+
         private AggregatingVersionedMetric<Long> registerLastSweptTsMetric(long millis) {
             AggregatingVersionedSupplier<Long> lastSweptTimestamp = AggregatingVersionedSupplier.min(millis);
             return register(AtlasDbMetricNames.LAST_SWEPT_TS, new AggregatingVersionedMetric<>(lastSweptTimestamp));
@@ -210,6 +244,10 @@ public class TargetedSweepMetrics {
             lastSweptTs.update(shard, sweptTs);
         }
 
+        private void updateBacklogForShard(int shard, long backlog) {
+            backlogByShard.computeIfAbsent(shard, this::registerBacklogMetric).setValue(backlog);
+        }
+
         public void registerOccurrenceOf(SweepOutcome outcome) {
             outcomeMetrics.registerOccurrenceOf(outcome);
         }
@@ -217,5 +255,9 @@ public class TargetedSweepMetrics {
         public void registerEntriesReadInBatch(long batchSize) {
             batchSizeMean.update(batchSize);
         }
+
+        public void registerMillisProgressHeldByDeletes(long millis) {
+            millisProgressHeldByDeletesMean.update(millis);
+        }
     }
 }
@@ -17,6 +17,7 @@ package com.palantir.atlasdb.sweep.queue;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import com.palantir.async.initializer.CallbackInitializable;
@@ -41,6 +42,20 @@ public interface MultiTableSweepQueueWriter extends AutoCloseable, CallbackIniti
      */
     void enqueue(List<WriteInfo> writes);
 
+    /**
+     * Returns the cells that {@link #enqueue(Map, long)} would persist for the given writes, by sweep queue table,
+     * so that the caller can write them in the same atomic multiPut as the writes themselves. The cells must be
+     * written at the given timestamp. Returns empty if this writer cannot hand out its cells, in which case the caller
+     * must enqueue the writes as usual.
+     *
+     * @param writes the writes to persist the information for, by table
+     * @param timestamp the start timestamp of the transaction performing the writes
+     */
+    default Optional<Map<TableReference, Map<Cell, byte[]>>> getCellsToEnqueue(
+            Map<TableReference, ? extends Map<Cell, byte[]>> writes, long timestamp) {
+        return Optional.empty();
+    }
+
     /**
      * This method must be implemented if asynchronous initialization is necessary for the implementation. This is
      * generally the case if the transaction manager allows asynchronous initialization since there is no guarantee
@@ -16,17 +16,22 @@
 package com.palantir.atlasdb.sweep.queue;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 import java.util.function.IntSupplier;
 import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Suppliers;
+import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.schema.TargetedSweepSchema;
-import com.palantir.atlasdb.sweep.Sweeper;
 import com.palantir.atlasdb.sweep.metrics.SweepOutcome;
 import com.palantir.atlasdb.sweep.metrics.TargetedSweepMetrics;
 import com.palantir.atlasdb.sweep.queue.clear.DefaultTableClearer;
@@ -34,6 +39,8 @@ import com.palantir.atlasdb.table.description.Schemas;
 import com.palantir.atlasdb.transaction.impl.TimelockTimestampServiceAdapter;
 import com.palantir.atlasdb.transaction.service.TransactionService;
 import com.palantir.atlasdb.transaction.service.TransactionServices;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.lock.v2.TimelockService;
 import com.palantir.logsafe.SafeArg;
 
@@ -44,16 +51,19 @@ public final class SweepQueue implements MultiTableSweepQueueWriter {
     private final SweepQueueReader reader;
     private final SweepQueueDeleter deleter;
     private final SweepQueueCleaner cleaner;
+    private final SweepableTimestamps timestamps;
     private final Supplier<Integer> numShards;
     private final IntSupplier partitionBatchLimitSupplier;
     private final TargetedSweepMetrics metrics;
 
-    private SweepQueue(SweepQueueFactory factory, TargetedSweepFollower follower) {
+    private SweepQueue(SweepQueueFactory factory, TargetedSweepFollower follower,
+            IntSupplier deleteConcurrencySupplier, BooleanSupplier prefetchReadsSupplier) {
         this.progress = factory.progress;
         this.writer = factory.createWriter();
-        this.reader = factory.createReader();
-        this.deleter = factory.createDeleter(follower);
+        this.reader = factory.createReader(prefetchReadsSupplier);
+        this.deleter = factory.createDeleter(follower, deleteConcurrencySupplier);
         this.cleaner = factory.createCleaner();
+        this.timestamps = factory.timestamps;
         this.numShards = factory.numShards;
         this.metrics = factory.metrics;
         this.partitionBatchLimitSupplier = factory.partitionBatchLimitSupplier;
@@ -66,10 +76,12 @@ public final class SweepQueue implements MultiTableSweepQueueWriter {
             Supplier<Integer> shardsConfig,
             TransactionService transaction,
             TargetedSweepFollower follower,
-            IntSupplier partitionBatchLimitSupplier) {
+            IntSupplier partitionBatchLimitSupplier,
+            IntSupplier deleteConcurrencySupplier,
+            BooleanSupplier prefetchReadsSupplier) {
         SweepQueueFactory factory = SweepQueueFactory.create(metrics, kvs, timelock, shardsConfig, transaction,
                 partitionBatchLimitSupplier);
-        return new SweepQueue(factory, follower);
+        return new SweepQueue(factory, follower, deleteConcurrencySupplier, prefetchReadsSupplier);
     }
 
     /**
@@ -107,6 +119,10 @@ public final class SweepQueue implements MultiTableSweepQueueWriter {
         writer.enqueue(writes);
     }
 
+    Map<TableReference, Map<Cell, byte[]>> getCellsToEnqueue(List<WriteInfo> writes) {
+        return writer.getCellsToEnqueue(writes);
+    }
+
     /**
      * Sweep the next batch for the shard and strategy specified by shardStrategy, with the sweep timestamp sweepTs.
      * After successful deletes, the persisted information about the writes is removed, and progress is updated
@@ -133,7 +149,11 @@ public final class SweepQueue implements MultiTableSweepQueueWriter {
         SweepBatch sweepBatch = batchWithInfo.sweepBatch();
         metrics.registerEntriesReadInBatch(shardStrategy, sweepBatch.entriesRead());
 
-        deleter.sweep(sweepBatch.writes(), Sweeper.of(shardStrategy));
+        if (lastSweptTs != sweepBatch.lastSweptTimestamp() && sweepBatch.hasNext()) {
+            reader.readAhead(shardStrategy, sweepBatch.lastSweptTimestamp(), sweepTs);
+        }
+
+        deleter.sweep(sweepBatch.writes(), shardStrategy);
 
         if (!sweepBatch.isEmpty()) {
             log.debug("Put {} ranged tombstones and swept up to timestamp {} for {}.",
@@ -159,6 +179,42 @@ public final class SweepQueue implements MultiTableSweepQueueWriter {
         return lastSweptTs != sweepBatch.lastSweptTimestamp() && sweepBatch.hasNext();
     }
 
+    /**
+     * Discards the reads of the next batch that {@link #sweepNextBatch} may have started ahead of time for the shard
+     * and strategy specified by shardStrategy. Should be called once no further batch of the shard and strategy is
+     * going to be swept immediately.
+     */
+    public void discardReadAhead(ShardAndStrategy shardStrategy) {
+        reader.discardReadAhead(shardStrategy);
+    }
+
+    @VisibleForTesting
+    boolean hasReadAhead(ShardAndStrategy shardStrategy) {
+        return reader.hasReadAhead(shardStrategy);
+    }
+
+    /**
+     * Returns the backlog of the shard and strategy with respect to the sweep timestamp sweepTs, as the number of
+     * timestamps between the earliest fine partition that still has unswept writes and sweepTs, or 0 if there is
+     * nothing left to sweep. The backlog is also reported to the targeted sweep metrics.
+     *
+     * @param shardStrategy shard and strategy to use
+     * @param sweepTs sweep timestamp, the upper limit to the start timestamp of writes to sweep
+     * @return the backlog, in timestamps
+     */
+    public long getBacklog(ShardAndStrategy shardStrategy, long sweepTs) {
+        long lastSweptTs = progress.getLastSweptTimestamp(shardStrategy);
+        long backlog = 0L;
+        if (lastSweptTs + 1 < sweepTs) {
+            backlog = timestamps.nextSweepableTimestampPartition(shardStrategy, lastSweptTs, sweepTs)
+                    .map(SweepQueueUtils::minTsForFinePartition)
+                    .map(minTs -> sweepTs - Math.max(lastSweptTs + 1, minTs))
+                    .orElse(0L);
+        }
+        metrics.updateBacklogForShard(shardStrategy, backlog);
+        return backlog;
+    }
+
     /**
      * Returns the most recently known number of shards.
      */
@@ -167,6 +223,12 @@ public final class SweepQueue implements MultiTableSweepQueueWriter {
     }
 
     private static final class SweepQueueFactory {
+        // Shared by all sweep queues; idle threads are reclaimed, so these executors are never shut down.
+        private static final Supplier<ExecutorService> DELETE_EXECUTOR = Suppliers.memoize(() ->
+                PTExecutors.newCachedThreadPool(new NamedThreadFactory("Targeted Sweep Deletes", true)));
+        private static final Supplier<ExecutorService> READ_EXECUTOR = Suppliers.memoize(() ->
+                PTExecutors.newCachedThreadPool(new NamedThreadFactory("Targeted Sweep Reads", true)));
+
         private final ShardProgress progress;
         private final Supplier<Integer> numShards;
         private final SweepableCells cells;
@@ -232,12 +294,14 @@ public final class SweepQueue implements MultiTableSweepQueueWriter {
             return new SweepQueueWriter(timestamps, cells);
         }
 
-        private SweepQueueReader createReader() {
-            return new SweepQueueReader(timestamps, cells, partitionBatchLimitSupplier);
+        private SweepQueueReader createReader(BooleanSupplier prefetchReads) {
+            return new SweepQueueReader(
+                    timestamps, cells, partitionBatchLimitSupplier, prefetchReads, READ_EXECUTOR.get());
         }
 
-        private SweepQueueDeleter createDeleter(TargetedSweepFollower follower) {
-            return new SweepQueueDeleter(kvs, follower, new DefaultTableClearer(kvs, timelock::getImmutableTimestamp));
+        private SweepQueueDeleter createDeleter(TargetedSweepFollower follower, IntSupplier concurrency) {
+            return new SweepQueueDeleter(kvs, follower, new DefaultTableClearer(kvs, timelock::getImmutableTimestamp),
+                    metrics, concurrency, DELETE_EXECUTOR.get());
         }
 
         private SweepQueueCleaner createCleaner() {
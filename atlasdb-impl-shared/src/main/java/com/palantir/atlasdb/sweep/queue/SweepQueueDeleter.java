@@ -15,15 +15,26 @@
  */
 package com.palantir.atlasdb.sweep.queue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.function.IntSupplier;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.Iterables;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.keyvalue.api.Cell;
@@ -32,6 +43,9 @@ import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.keyvalue.api.TimestampRangeDelete;
 import com.palantir.atlasdb.logging.LoggingArgs;
 import com.palantir.atlasdb.sweep.Sweeper;
+import com.palantir.atlasdb.sweep.metrics.TargetedSweepMetrics;
+import com.palantir.common.base.Throwables;
+import com.palantir.logsafe.SafeArg;
 
 public class SweepQueueDeleter {
     private static final Logger log = LoggerFactory.getLogger(SweepQueueDeleter.class);
@@ -39,48 +53,108 @@ public class SweepQueueDeleter {
     private final KeyValueService kvs;
     private final TargetedSweepFollower follower;
     private final TargetedSweepFilter filter;
+    private final TargetedSweepMetrics metrics;
+    private final IntSupplier concurrency;
+    private final ExecutorService executor;
 
-    SweepQueueDeleter(KeyValueService kvs, TargetedSweepFollower follower,
-            TargetedSweepFilter filter) {
+    SweepQueueDeleter(KeyValueService kvs, TargetedSweepFollower follower, TargetedSweepFilter filter,
+            TargetedSweepMetrics metrics, IntSupplier concurrency, ExecutorService executor) {
         this.kvs = kvs;
         this.follower = follower;
         this.filter = filter;
+        this.metrics = metrics;
+        this.concurrency = concurrency;
+        this.executor = executor;
     }
 
     /**
      * Executes targeted sweep, by inserting ranged tombstones corresponding to the given writes, using the sweep
      * strategy determined by the sweeper.
+     * <p>
+     * The writes are split into batches of at most {@link SweepQueueUtils#BATCH_SIZE_KVS} cells of a single table, and
+     * up to the configured concurrency of these batches are deleted in parallel. Each cell belongs to exactly one
+     * batch, so the follower, sentinel write and delete for a given cell still happen in that order. This method only
+     * returns once all batches are done, since progress for the shard must not be updated before then.
      *
      * @param unfilteredWrites individual writes to sweep for. Depending on the strategy, we will insert a ranged
      * tombstone for each write at either the write's timestamp - 1, or at its timestamp.
-     * @param sweeper supplies the strategy-specific behaviour: the timestamp for the tombstone and whether we must use
-     * sentinels or not.
+     * @param shardStrategy the shard and strategy being swept. The strategy determines the sweeper, which supplies the
+     * strategy-specific behaviour: the timestamp for the tombstone and whether we must use sentinels or not.
      */
-    public void sweep(Collection<WriteInfo> unfilteredWrites, Sweeper sweeper) {
+    public void sweep(Collection<WriteInfo> unfilteredWrites, ShardAndStrategy shardStrategy) {
+        Sweeper sweeper = Sweeper.of(shardStrategy);
         Collection<WriteInfo> writes = filter.filter(unfilteredWrites);
         Map<TableReference, Map<Cell, TimestampRangeDelete>> maxTimestampByCell = writesPerTable(writes, sweeper);
+        List<DeleteBatch> batches = new ArrayList<>();
         for (Map.Entry<TableReference, Map<Cell, TimestampRangeDelete>> entry : maxTimestampByCell.entrySet()) {
+            Iterables.partition(entry.getValue().keySet(), SweepQueueUtils.BATCH_SIZE_KVS)
+                    .forEach(cells -> batches.add(new DeleteBatch(entry.getKey(), cells.stream()
+                            .collect(Collectors.toMap(Function.identity(), entry.getValue()::get)))));
+        }
+
+        int parallelism = Math.min(concurrency.getAsInt(), batches.size());
+        if (parallelism <= 1) {
+            batches.forEach(batch -> batch.delete(sweeper));
+        } else {
+            deleteInParallel(batches, shardStrategy, parallelism);
+        }
+    }
+
+    /**
+     * Deletes the batches using the calling thread and parallelism - 1 threads of the executor, each taking the next
+     * batch off a shared queue until none are left.
+     */
+    private void deleteInParallel(List<DeleteBatch> batches, ShardAndStrategy shardStrategy, int parallelism) {
+        Sweeper sweeper = Sweeper.of(shardStrategy);
+        Queue<DeleteBatch> remaining = new ConcurrentLinkedQueue<>(batches);
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        AtomicLong firstWorkerDoneMillis = new AtomicLong(-1L);
+        Runnable worker = () -> {
+            for (DeleteBatch batch = remaining.poll(); batch != null; batch = remaining.poll()) {
+                batch.delete(sweeper);
+            }
+            firstWorkerDoneMillis.compareAndSet(-1L, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        };
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 1; i < parallelism; i++) {
+            futures.add(executor.submit(worker));
+        }
+        Throwable failure = null;
+        try {
+            worker.run();
+        } catch (RuntimeException | Error e) {
+            // Stop other workers picking up new batches, but wait for the ones in flight.
+            remaining.clear();
+            failure = e;
+        }
+        for (Future<?> future : futures) {
             try {
-                Iterables.partition(entry.getValue().keySet(), SweepQueueUtils.BATCH_SIZE_KVS)
-                        .forEach(cells -> {
-                            Map<Cell, TimestampRangeDelete> maxTimestampByCellPartition = cells.stream()
-                                    .collect(Collectors.toMap(Function.identity(), entry.getValue()::get));
-                            follower.run(entry.getKey(), maxTimestampByCellPartition.keySet());
-                            if (sweeper.shouldAddSentinels()) {
-                                kvs.addGarbageCollectionSentinelValues(entry.getKey(),
-                                        maxTimestampByCellPartition.keySet());
-                            }
-                            kvs.deleteAllTimestamps(entry.getKey(), maxTimestampByCellPartition);
-                        });
-            } catch (Exception e) {
-                if (tableWasDropped(entry.getKey())) {
-                    log.debug("Dropping sweeper work for table {}, which has been dropped.",
-                            LoggingArgs.tableRef(entry.getKey()), e);
-                } else {
-                    throw e;
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw Throwables.rewrapAndThrowUncheckedException(e);
+            } catch (ExecutionException e) {
+                remaining.clear();
+                if (failure == null) {
+                    failure = e.getCause();
                 }
             }
         }
+        if (failure != null) {
+            throw Throwables.throwUncheckedException(failure);
+        }
+
+        // Once any worker runs out of batches, the remaining time is spent waiting on the slowest batches in flight,
+        // during which progress for the shard cannot advance.
+        long heldBackMillis = stopwatch.elapsed(TimeUnit.MILLISECONDS) - firstWorkerDoneMillis.get();
+        metrics.registerMillisProgressHeldByDeletes(shardStrategy, heldBackMillis);
+        log.debug("Deleted {} batches for {} with parallelism {}; progress was held back by the slowest batches for "
+                        + "{} ms.",
+                SafeArg.of("batches", batches.size()),
+                SafeArg.of("shardStrategy", shardStrategy.toText()),
+                SafeArg.of("parallelism", parallelism),
+                SafeArg.of("heldBackMillis", heldBackMillis));
     }
 
     private boolean tableWasDropped(TableReference tableRef) {
@@ -93,4 +167,31 @@ public class SweepQueueDeleter {
                 WriteInfo::tableRef,
                 Collectors.toMap(WriteInfo::cell, write -> write.toDelete(sweeper))));
     }
+
+    private final class DeleteBatch {
+        private final TableReference tableRef;
+        private final Map<Cell, TimestampRangeDelete> maxTimestampByCell;
+
+        private DeleteBatch(TableReference tableRef, Map<Cell, TimestampRangeDelete> maxTimestampByCell) {
+            this.tableRef = tableRef;
+            this.maxTimestampByCell = maxTimestampByCell;
+        }
+
+        private void delete(Sweeper sweeper) {
+            try {
+                follower.run(tableRef, maxTimestampByCell.keySet());
+                if (sweeper.shouldAddSentinels()) {
+                    kvs.addGarbageCollectionSentinelValues(tableRef, maxTimestampByCell.keySet());
+                }
+                kvs.deleteAllTimestamps(tableRef, maxTimestampByCell);
+            } catch (Exception e) {
+                if (tableWasDropped(tableRef)) {
+                    log.debug("Dropping sweeper work for table {}, which has been dropped.",
+                            LoggingArgs.tableRef(tableRef), e);
+                } else {
+                    throw e;
+                }
+            }
+        }
+    }
 }
@@ -15,28 +15,57 @@
  */
 package com.palantir.atlasdb.sweep.queue;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
 import java.util.function.IntSupplier;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.atlasdb.futures.AtlasFutures;
+import com.palantir.logsafe.SafeArg;
+
 class SweepQueueReader {
+    private static final Logger log = LoggerFactory.getLogger(SweepQueueReader.class);
+
     private final SweepableTimestamps sweepableTimestamps;
     private final SweepableCells sweepableCells;
     private final IntSupplier maximumPartitionsInBatch;
+    private final BooleanSupplier prefetchReads;
+    private final ExecutorService readExecutor;
+    private final ConcurrentMap<ShardAndStrategy, ReadAhead> readAheads = new ConcurrentHashMap<>();
 
     SweepQueueReader(SweepableTimestamps sweepableTimestamps,
             SweepableCells sweepableCells,
-            IntSupplier maximumPartitionsInBatch) {
+            IntSupplier maximumPartitionsInBatch,
+            BooleanSupplier prefetchReads,
+            ExecutorService readExecutor) {
         this.sweepableTimestamps = sweepableTimestamps;
         this.sweepableCells = sweepableCells;
         this.maximumPartitionsInBatch = maximumPartitionsInBatch;
+        this.prefetchReads = prefetchReads;
+        this.readExecutor = readExecutor;
     }
 
     SweepBatchWithPartitionInfo getNextBatchToSweep(ShardAndStrategy shardStrategy, long lastSweptTs, long sweepTs) {
         SweepBatchAccumulator accumulator = new SweepBatchAccumulator(sweepTs, lastSweptTs);
-        long previousProgress = lastSweptTs;
-        for (int currentBatch = 0;
-                currentBatch < maximumPartitionsInBatch.getAsInt() && accumulator.shouldAcceptAdditionalBatch();
-                currentBatch++) {
+        int maxPartitions = maximumPartitionsInBatch.getAsInt();
+        int currentBatch = 0;
+        if (prefetchReads.getAsBoolean()) {
+            currentBatch = accumulatePrefetchedBatches(shardStrategy, lastSweptTs, sweepTs, maxPartitions, accumulator);
+        } else {
+            readAheads.remove(shardStrategy);
+        }
+
+        long previousProgress = accumulator.getProgressTimestamp();
+        for (; currentBatch < maxPartitions && accumulator.shouldAcceptAdditionalBatch(); currentBatch++) {
             Optional<Long> nextFinePartition = sweepableTimestamps.nextSweepableTimestampPartition(
                     shardStrategy, previousProgress, sweepTs);
             if (!nextFinePartition.isPresent()) {
@@ -49,4 +78,126 @@ class SweepQueueReader {
         }
         return accumulator.toSweepBatch();
     }
+
+    /**
+     * Asynchronously discovers and reads the partitions that {@link #getNextBatchToSweep} would read for the given
+     * shard and strategy once its progress is lastSweptTs, so that the reads can overlap with the deletes of the batch
+     * that is currently being processed. Does nothing unless reads are configured to be prefetched.
+     */
+    void readAhead(ShardAndStrategy shardStrategy, long lastSweptTs, long sweepTs) {
+        if (!prefetchReads.getAsBoolean() || lastSweptTs + 1 >= sweepTs) {
+            return;
+        }
+        int maxPartitions = maximumPartitionsInBatch.getAsInt();
+        Future<List<PrefetchedBatch>> batches = readExecutor.submit(
+                () -> prefetch(shardStrategy, lastSweptTs, sweepTs, maxPartitions));
+        ReadAhead previous = readAheads.put(shardStrategy, new ReadAhead(lastSweptTs, sweepTs, batches));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    /**
+     * Cancels the read ahead for the given shard and strategy, if any, once the next batch of the shard is not going
+     * to be swept right away, so that its results are not held until the shard is next swept.
+     */
+    void discardReadAhead(ShardAndStrategy shardStrategy) {
+        ReadAhead readAhead = readAheads.remove(shardStrategy);
+        if (readAhead != null) {
+            readAhead.cancel();
+        }
+    }
+
+    @VisibleForTesting
+    boolean hasReadAhead(ShardAndStrategy shardStrategy) {
+        return readAheads.containsKey(shardStrategy);
+    }
+
+    private int accumulatePrefetchedBatches(ShardAndStrategy shardStrategy, long lastSweptTs, long sweepTs,
+            int maxPartitions, SweepBatchAccumulator accumulator) {
+        List<PrefetchedBatch> batches = takeReadAhead(shardStrategy, lastSweptTs, sweepTs)
+                .orElseGet(() -> prefetch(shardStrategy, lastSweptTs, sweepTs, maxPartitions));
+
+        int accumulated = 0;
+        for (PrefetchedBatch prefetched : batches) {
+            if (accumulated >= maxPartitions || !accumulator.shouldAcceptAdditionalBatch()
+                    || !isNextPartitionToRead(prefetched.previousPartition, accumulator.getProgressTimestamp())) {
+                break;
+            }
+            accumulator.accumulateBatch(AtlasFutures.getUnchecked(prefetched.batch));
+            accumulated++;
+        }
+        batches.subList(accumulated, batches.size()).forEach(prefetched -> prefetched.batch.cancel(false));
+        return accumulated;
+    }
+
+    private Optional<List<PrefetchedBatch>> takeReadAhead(ShardAndStrategy shardStrategy, long lastSweptTs,
+            long sweepTs) {
+        ReadAhead readAhead = readAheads.remove(shardStrategy);
+        if (readAhead == null) {
+            return Optional.empty();
+        }
+        // A read ahead at an earlier sweep timestamp is still a valid, if possibly shorter, prefix of this read.
+        if (readAhead.lastSweptTs != lastSweptTs || readAhead.sweepTs > sweepTs) {
+            log.debug("Discarding read ahead of the sweep queue for {} from timestamp {}, as progress is at {}.",
+                    SafeArg.of("shardStrategy", shardStrategy.toText()),
+                    SafeArg.of("readAheadLastSweptTs", readAhead.lastSweptTs),
+                    SafeArg.of("lastSweptTs", lastSweptTs));
+            readAhead.cancel();
+            return Optional.empty();
+        }
+        return Optional.of(AtlasFutures.getUnchecked(readAhead.batches));
+    }
+
+    /**
+     * Finds the next sweepable fine partitions in a single scan and reads each of them concurrently. Every partition is
+     * read from lastSweptTs, which is equivalent to reading it from the progress after the preceding partitions only if
+     * those were read completely; {@link #isNextPartitionToRead} checks this before a result is accumulated.
+     */
+    private List<PrefetchedBatch> prefetch(ShardAndStrategy shardStrategy, long lastSweptTs, long sweepTs,
+            int maxPartitions) {
+        List<Long> partitions = sweepableTimestamps.nextSweepableTimestampPartitions(
+                shardStrategy, lastSweptTs, sweepTs, maxPartitions);
+        List<PrefetchedBatch> batches = new ArrayList<>(partitions.size());
+        Optional<Long> previousPartition = Optional.empty();
+        for (long partition : partitions) {
+            Future<SweepBatch> batch = readExecutor.submit(
+                    () -> sweepableCells.getBatchForPartition(shardStrategy, partition, lastSweptTs, sweepTs));
+            batches.add(new PrefetchedBatch(previousPartition, batch));
+            previousPartition = Optional.of(partition);
+        }
+        return batches;
+    }
+
+    private static boolean isNextPartitionToRead(Optional<Long> previousPartition, long progressTimestamp) {
+        return previousPartition
+                .map(previous -> SweepQueueUtils.tsPartitionFine(progressTimestamp + 1) > previous)
+                .orElse(true);
+    }
+
+    private static final class PrefetchedBatch {
+        private final Optional<Long> previousPartition;
+        private final Future<SweepBatch> batch;
+
+        private PrefetchedBatch(Optional<Long> previousPartition, Future<SweepBatch> batch) {
+            this.previousPartition = previousPartition;
+            this.batch = batch;
+        }
+    }
+
+    private static final class ReadAhead {
+        private final long lastSweptTs;
+        private final long sweepTs;
+        private final Future<List<PrefetchedBatch>> batches;
+
+        private ReadAhead(long lastSweptTs, long sweepTs, Future<List<PrefetchedBatch>> batches) {
+            this.lastSweptTs = lastSweptTs;
+            this.sweepTs = sweepTs;
+            this.batches = batches;
+        }
+
+        void cancel() {
+            batches.cancel(false);
+        }
+    }
 }
@@ -52,9 +52,7 @@ public abstract class SweepQueueTable {
     public void enqueue(List<WriteInfo> allWrites) {
         Map<Cell, byte[]> referencesToDedicatedCells = new HashMap<>();
         Map<Cell, byte[]> cellsToWrite = new HashMap<>();
-        Map<PartitionInfo, List<WriteInfo>> partitionedWrites = partitioner.filterAndPartition(allWrites);
-
-        SweepQueueUtils.validateNumberOfCellsWritten(partitionedWrites.values());
+        Map<PartitionInfo, List<WriteInfo>> partitionedWrites = partition(allWrites);
 
         partitionedWrites.forEach((partitionInfo, writes) -> {
             referencesToDedicatedCells.putAll(populateReferences(partitionInfo, writes));
@@ -73,6 +71,33 @@ public abstract class SweepQueueTable {
 
     }
 
+    /**
+     * Returns all the cells that {@link #enqueue(List)} would write for the given writes, references to dedicated rows
+     * included, without writing them. The cells must be written to {@link #getTableRef()} at the start timestamp of
+     * the transaction the writes belong to, in one atomic write, since references may not be persisted without the
+     * cells they point to.
+     */
+    Map<Cell, byte[]> getCellsToEnqueue(List<WriteInfo> allWrites) {
+        Map<Cell, byte[]> cells = new HashMap<>();
+        Map<PartitionInfo, List<WriteInfo>> partitionedWrites = partition(allWrites);
+        partitionedWrites.forEach((partitionInfo, writes) -> {
+            cells.putAll(populateReferences(partitionInfo, writes));
+            cells.putAll(populateCells(partitionInfo, writes));
+        });
+        updateWriteMetrics(partitionedWrites);
+        return cells;
+    }
+
+    TableReference getTableRef() {
+        return tableRef;
+    }
+
+    private Map<PartitionInfo, List<WriteInfo>> partition(List<WriteInfo> allWrites) {
+        Map<PartitionInfo, List<WriteInfo>> partitionedWrites = partitioner.filterAndPartition(allWrites);
+        SweepQueueUtils.validateNumberOfCellsWritten(partitionedWrites.values());
+        return partitionedWrites;
+    }
+
     private void updateWriteMetrics(Map<PartitionInfo, List<WriteInfo>> partitionedWrites) {
         maybeMetrics.ifPresent(metrics ->
                 partitionedWrites.forEach((info, writes) ->
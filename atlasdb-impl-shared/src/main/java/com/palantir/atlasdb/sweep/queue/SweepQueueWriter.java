@@ -16,10 +16,15 @@
 package com.palantir.atlasdb.sweep.queue;
 
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.logsafe.SafeArg;
 
 class SweepQueueWriter implements MultiTableSweepQueueWriter {
@@ -40,4 +45,15 @@ class SweepQueueWriter implements MultiTableSweepQueueWriter {
         sweepableCells.enqueue(writes);
         log.debug("Enqueued {} writes into the sweep queue.", SafeArg.of("writes", writes.size()));
     }
+
+    Map<TableReference, Map<Cell, byte[]>> getCellsToEnqueue(List<WriteInfo> writes) {
+        ImmutableMap.Builder<TableReference, Map<Cell, byte[]>> cellsByTable = ImmutableMap.builder();
+        for (SweepQueueTable table : ImmutableList.of(sweepableTimestamps, sweepableCells)) {
+            Map<Cell, byte[]> cells = table.getCellsToEnqueue(writes);
+            if (!cells.isEmpty()) {
+                cellsByTable.put(table.getTableRef(), cells);
+            }
+        }
+        return cellsByTable.build();
+    }
 }
@@ -15,6 +15,7 @@
  */
 package com.palantir.atlasdb.sweep.queue;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -76,39 +77,52 @@ public class SweepableTimestamps extends SweepQueueTable {
      * sweepTs
      */
     Optional<Long> nextSweepableTimestampPartition(ShardAndStrategy shardStrategy, long lastSweptTs, long sweepTs) {
+        return nextSweepableTimestampPartitions(shardStrategy, lastSweptTs, sweepTs, 1).stream().findFirst();
+    }
+
+    /**
+     * Returns up to limit fine partitions that should have unprocessed entries in the Sweepable Cells table, in
+     * ascending order, reading each coarse partition of the Sweepable Timestamps table at most once.
+     *
+     * @param shardStrategy desired shard and strategy
+     * @param lastSweptTs exclusive minimum timestamp to check for
+     * @param sweepTs exclusive maximum timestamp to check for
+     * @param limit maximum number of fine partitions to return
+     * @return list of fine partitions, which is empty if there are no more candidates before sweepTs
+     */
+    List<Long> nextSweepableTimestampPartitions(ShardAndStrategy shardStrategy, long lastSweptTs, long sweepTs,
+            int limit) {
         long minFineInclusive = SweepQueueUtils.tsPartitionFine(lastSweptTs + 1);
         long maxFineInclusive = SweepQueueUtils.tsPartitionFine(sweepTs - 1);
-        return nextSweepablePartition(shardStrategy, minFineInclusive, maxFineInclusive);
+        return nextSweepablePartitions(shardStrategy, minFineInclusive, maxFineInclusive, limit);
     }
 
-    private Optional<Long> nextSweepablePartition(ShardAndStrategy shardAndStrategy, long minFineInclusive,
-            long maxFineInclusive) {
+    private List<Long> nextSweepablePartitions(ShardAndStrategy shardAndStrategy, long minFineInclusive,
+            long maxFineInclusive, int limit) {
         ColumnRangeSelection range = getColRangeSelection(minFineInclusive, maxFineInclusive + 1);
 
         long current = SweepQueueUtils.partitionFineToCoarse(minFineInclusive);
         long maxCoarseInclusive = SweepQueueUtils.partitionFineToCoarse(maxFineInclusive);
 
-        while (current <= maxCoarseInclusive) {
-            Optional<Long> candidateFine = getCandidatesInCoarsePartition(shardAndStrategy, current, range);
-            if (candidateFine.isPresent()) {
-                return candidateFine;
-            }
+        List<Long> candidates = new ArrayList<>();
+        while (current <= maxCoarseInclusive && candidates.size() < limit) {
+            candidates.addAll(getCandidatesInCoarsePartition(
+                    shardAndStrategy, current, range, limit - candidates.size()));
             current++;
         }
-        return Optional.empty();
+        return candidates;
     }
 
-    private Optional<Long> getCandidatesInCoarsePartition(ShardAndStrategy shardStrategy, long partitionCoarse,
-            ColumnRangeSelection colRange) {
+    private List<Long> getCandidatesInCoarsePartition(ShardAndStrategy shardStrategy, long partitionCoarse,
+            ColumnRangeSelection colRange, int limit) {
         byte[] rowBytes = computeRowBytes(shardStrategy, partitionCoarse);
 
-        RowColumnRangeIterator colIterator = getRowsColumnRange(ImmutableList.of(rowBytes), colRange, 1);
-        if (!colIterator.hasNext()) {
-            return Optional.empty();
+        RowColumnRangeIterator colIterator = getRowsColumnRange(ImmutableList.of(rowBytes), colRange, limit);
+        List<Long> candidates = new ArrayList<>();
+        while (colIterator.hasNext() && candidates.size() < limit) {
+            candidates.add(getFinePartitionFromEntry(colIterator.next()));
         }
-        Map.Entry<Cell, Value> firstColumnEntry = colIterator.next();
-
-        return Optional.of(getFinePartitionFromEntry(firstColumnEntry));
+        return candidates;
     }
 
     private ColumnRangeSelection getColRangeSelection(long minFineInclusive, long maxFineExclusive) {
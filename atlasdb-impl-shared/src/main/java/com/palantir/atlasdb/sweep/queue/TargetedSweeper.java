@@ -16,13 +16,20 @@
 package com.palantir.atlasdb.sweep.queue;
 
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,8 +39,10 @@ import com.google.common.base.Stopwatch;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.palantir.atlasdb.cleaner.Follower;
+import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.InsufficientConsistencyException;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.sweep.BackgroundSweeper;
 import com.palantir.atlasdb.sweep.Sweeper;
 import com.palantir.atlasdb.sweep.metrics.SweepOutcome;
@@ -58,6 +67,7 @@ import com.palantir.logsafe.SafeArg;
 public class TargetedSweeper implements MultiTableSweepQueueWriter, BackgroundSweeper {
     private static final Logger log = LoggerFactory.getLogger(TargetedSweeper.class);
     private static final Duration MAX_SHARD_DURATION = Duration.ofMinutes(5L);
+    private static final Duration RESCALE_INTERVAL = Duration.ofSeconds(30L);
 
     private final Supplier<TargetedSweepRuntimeConfig> runtime;
     private final List<Follower> followers;
@@ -79,9 +89,9 @@ public class TargetedSweeper implements MultiTableSweepQueueWriter, BackgroundSw
         this.metricsManager = metricsManager;
         this.runtime = runtime;
         this.conservativeScheduler = new BackgroundSweepScheduler(install.conservativeThreads(),
-                SweeperStrategy.CONSERVATIVE);
+                install.maxConservativeThreads(), SweeperStrategy.CONSERVATIVE);
         this.thoroughScheduler = new BackgroundSweepScheduler(install.thoroughThreads(),
-                SweeperStrategy.THOROUGH);
+                install.maxThoroughThreads(), SweeperStrategy.THOROUGH);
         this.followers = followers;
     }
 
@@ -162,7 +172,9 @@ public class TargetedSweeper implements MultiTableSweepQueueWriter, BackgroundSw
                 Suppliers.compose(TargetedSweepRuntimeConfig::shards, runtime::get),
                 transaction,
                 follower,
-                () -> runtime.get().maximumPartitionsToBatchInSingleRead());
+                () -> runtime.get().maximumPartitionsToBatchInSingleRead(),
+                () -> runtime.get().deleteConcurrency(),
+                () -> runtime.get().prefetchSweepQueueReads());
         timestampsSupplier = timestamps;
         timeLock = timelockService;
         isInitialized = true;
@@ -181,6 +193,13 @@ public class TargetedSweeper implements MultiTableSweepQueueWriter, BackgroundSw
         queue.enqueue(writes);
     }
 
+    @Override
+    public Optional<Map<TableReference, Map<Cell, byte[]>>> getCellsToEnqueue(
+            Map<TableReference, ? extends Map<Cell, byte[]>> writes, long timestamp) {
+        assertInitialized();
+        return Optional.of(queue.getCellsToEnqueue(toWriteInfos(writes, timestamp)));
+    }
+
     /**
      * Sweeps the next batch for the given shard and strategy. If the sweep is successful, we delete the processed
      * writes from the sweep queue and then update the sweep queue progress accordingly.
@@ -198,18 +217,41 @@ public class TargetedSweeper implements MultiTableSweepQueueWriter, BackgroundSw
     @VisibleForTesting
     void processShard(ShardAndStrategy shardAndStrategy) {
         long maxTsExclusive = Sweeper.of(shardAndStrategy).getSweepTimestamp(timestampsSupplier);
-        if (runtime.get().batchShardIterations()) {
-            Stopwatch watch = Stopwatch.createStarted();
-            boolean processNextBatch = true;
-            while (processNextBatch && runtime.get().enabled()
-                    && (watch.elapsed().compareTo(MAX_SHARD_DURATION) < 0)) {
-                processNextBatch = sweepNextBatch(shardAndStrategy, maxTsExclusive);
+        try {
+            if (runtime.get().batchShardIterations()) {
+                Stopwatch watch = Stopwatch.createStarted();
+                boolean processNextBatch = true;
+                while (processNextBatch && runtime.get().enabled()
+                        && (watch.elapsed().compareTo(MAX_SHARD_DURATION) < 0)) {
+                    processNextBatch = sweepNextBatch(shardAndStrategy, maxTsExclusive);
+                }
+            } else {
+                sweepNextBatch(shardAndStrategy, maxTsExclusive);
             }
-        } else {
-            sweepNextBatch(shardAndStrategy, maxTsExclusive);
+        } finally {
+            // the next shard to be swept is not necessarily this one, and this one may not be swept again for a while
+            queue.discardReadAhead(shardAndStrategy);
         }
     }
 
+    @VisibleForTesting
+    boolean hasReadAhead(ShardAndStrategy shardAndStrategy) {
+        return queue.hasReadAhead(shardAndStrategy);
+    }
+
+    /**
+     * Returns the backlog of each shard for the given strategy at the current sweep timestamp, as defined by
+     * {@link SweepQueue#getBacklog(ShardAndStrategy, long)}.
+     */
+    Map<Integer, Long> getBacklogByShard(SweeperStrategy sweepStrategy) {
+        assertInitialized();
+        long sweepTs = Sweeper.of(sweepStrategy).getSweepTimestamp(timestampsSupplier);
+        return IntStream.range(0, queue.getNumShards()).boxed()
+                .collect(Collectors.toMap(
+                        Function.identity(),
+                        shard -> queue.getBacklog(ShardAndStrategy.of(shard, sweepStrategy), sweepTs)));
+    }
+
     @Override
     public void close() {
         conservativeScheduler.close();
@@ -229,27 +271,85 @@ public class TargetedSweeper implements MultiTableSweepQueueWriter, BackgroundSw
 
     private class BackgroundSweepScheduler implements AutoCloseable {
         private final int numThreads;
+        private final int maxThreads;
         private final SweeperStrategy sweepStrategy;
         private final AtomicLong counter = new AtomicLong(0);
+        private final Deque<ScheduledFuture<?>> workers = new ArrayDeque<>();
 
-        private ScheduledExecutorService executorService;
+        private ScheduledThreadPoolExecutor executorService;
+        private volatile List<Integer> prioritisedShards = ImmutableList.of();
 
-        private BackgroundSweepScheduler(int numThreads, SweeperStrategy sweepStrategy) {
+        private BackgroundSweepScheduler(int numThreads, int maxThreads, SweeperStrategy sweepStrategy) {
             this.numThreads = numThreads;
+            this.maxThreads = maxThreads;
             this.sweepStrategy = sweepStrategy;
         }
 
-        private void scheduleBackgroundThreads() {
-            if (numThreads > 0 && executorService == null) {
+        private boolean isAutoscaling() {
+            return maxThreads > numThreads;
+        }
+
+        private synchronized void scheduleBackgroundThreads() {
+            if (maxThreads > 0 && executorService == null) {
                 executorService = PTExecutors
                         .newScheduledThreadPoolExecutor(numThreads, new NamedThreadFactory("Targeted Sweep", true));
                 for (int i = 0; i < numThreads; i++) {
-                    executorService.scheduleWithFixedDelay(this::runOneIteration, 1000,
-                            Math.max(runtime.get().pauseMillis(), 1L), TimeUnit.MILLISECONDS);
+                    addWorker();
+                }
+                if (isAutoscaling()) {
+                    executorService.setCorePoolSize(numThreads + 1);
+                    executorService.scheduleWithFixedDelay(this::rescale, 1000, RESCALE_INTERVAL.toMillis(),
+                            TimeUnit.MILLISECONDS);
                 }
             }
         }
 
+        private void addWorker() {
+            workers.addLast(executorService.scheduleWithFixedDelay(this::runOneIteration, 1000,
+                    Math.max(runtime.get().pauseMillis(), 1L), TimeUnit.MILLISECONDS));
+        }
+
+        /**
+         * Measures the backlog of every shard, so that workers prioritise the shards that are furthest behind, and
+         * scales the number of workers to the number of shards with a backlog, within the configured bounds.
+         */
+        private void rescale() {
+            if (!runtime.get().enabled()) {
+                return;
+            }
+            try {
+                Map<Integer, Long> backlogByShard = getBacklogByShard(sweepStrategy);
+                prioritisedShards = backlogByShard.entrySet().stream()
+                        .filter(entry -> entry.getValue() > 0)
+                        .sorted(Map.Entry.<Integer, Long>comparingByValue().reversed())
+                        .map(Map.Entry::getKey)
+                        .collect(Collectors.toList());
+                resize(Math.max(numThreads, Math.min(maxThreads, prioritisedShards.size())));
+            } catch (Throwable th) {
+                log.warn("Failed to rescale targeted sweep threads for sweep strategy {}; will retry later.",
+                        SafeArg.of("sweepStrategy", sweepStrategy), th);
+            }
+        }
+
+        private synchronized void resize(int targetThreads) {
+            if (executorService == null || executorService.isShutdown() || workers.size() == targetThreads) {
+                return;
+            }
+            log.info("Scaling targeted sweep threads for sweep strategy {} from {} to {}.",
+                    SafeArg.of("sweepStrategy", sweepStrategy),
+                    SafeArg.of("previousThreads", workers.size()),
+                    SafeArg.of("threads", targetThreads));
+            // One thread more than the number of workers, for rescaling.
+            executorService.setCorePoolSize(targetThreads + 1);
+            while (workers.size() < targetThreads) {
+                addWorker();
+            }
+            while (workers.size() > targetThreads) {
+                // Iterations in progress are allowed to complete, so that locks are released.
+                workers.removeLast().cancel(false);
+            }
+        }
+
         private void runOneIteration() {
             if (!runtime.get().enabled()) {
                 return;
@@ -274,10 +374,14 @@ public class TargetedSweeper implements MultiTableSweepQueueWriter, BackgroundSw
             }
         }
 
+        /**
+         * Tries the shards with the largest backlog first, if known, and then all shards in round robin order.
+         */
         private Optional<TargetedSweeperLock> tryToAcquireLockForNextShardAndStrategy() {
-            return IntStream.range(0, queue.getNumShards())
-                    .map(ignore -> getShardAndIncrement())
-                    .mapToObj(shard -> TargetedSweeperLock.tryAcquire(shard, sweepStrategy, timeLock))
+            Stream<Integer> roundRobinShards = IntStream.range(0, queue.getNumShards())
+                    .mapToObj(ignore -> getShardAndIncrement());
+            return Stream.concat(prioritisedShards.stream(), roundRobinShards)
+                    .map(shard -> TargetedSweeperLock.tryAcquire(shard, sweepStrategy, timeLock))
                     .filter(Optional::isPresent)
                     .map(Optional::get)
                     .findFirst();
@@ -308,7 +412,7 @@ public class TargetedSweeper implements MultiTableSweepQueueWriter, BackgroundSw
         }
 
         @Override
-        public void close() {
+        public synchronized void close() {
             if (executorService != null) {
                 executorService.shutdown();
             }
@@ -74,6 +74,50 @@ public class TargetedSweepInstallConfig {
                 thoroughThreads());
     }
 
+    /**
+     * The maximum number of background threads dedicated to running targeted sweep of tables with SweepStrategy
+     * CONSERVATIVE. If this is greater than {@link #conservativeThreads()}, the number of threads is periodically
+     * scaled between the two according to how many shards have a backlog, and threads prioritise the shards that are
+     * furthest behind. By default, the number of threads is fixed.
+     */
+    @Value.Default
+    public int maxConservativeThreads() {
+        return conservativeThreads();
+    }
+
+    @Value.Check
+    void checkMaxConservativeThreads() {
+        Preconditions.checkArgument(
+                maxConservativeThreads() >= conservativeThreads()
+                        && maxConservativeThreads() <= AtlasDbConstants.MAX_SWEEP_QUEUE_SHARDS,
+                "Maximum number of conservative targeted sweep threads must be between %s and %s inclusive, but is %s "
+                        + "instead.",
+                conservativeThreads(),
+                AtlasDbConstants.MAX_SWEEP_QUEUE_SHARDS,
+                maxConservativeThreads());
+    }
+
+    /**
+     * The maximum number of background threads dedicated to running targeted sweep of tables with SweepStrategy
+     * THOROUGH. Behaves as {@link #maxConservativeThreads()}, with respect to {@link #thoroughThreads()}.
+     */
+    @Value.Default
+    public int maxThoroughThreads() {
+        return thoroughThreads();
+    }
+
+    @Value.Check
+    void checkMaxThoroughThreads() {
+        Preconditions.checkArgument(
+                maxThoroughThreads() >= thoroughThreads()
+                        && maxThoroughThreads() <= AtlasDbConstants.MAX_SWEEP_QUEUE_SHARDS,
+                "Maximum number of thorough targeted sweep threads must be between %s and %s inclusive, but is %s "
+                        + "instead.",
+                thoroughThreads(),
+                AtlasDbConstants.MAX_SWEEP_QUEUE_SHARDS,
+                maxThoroughThreads());
+    }
+
     public static TargetedSweepInstallConfig defaultTargetedSweepConfig() {
         return ImmutableTargetedSweepInstallConfig.builder().build();
     }
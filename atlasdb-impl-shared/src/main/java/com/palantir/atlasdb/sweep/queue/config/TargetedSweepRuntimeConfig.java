@@ -75,6 +75,34 @@ public abstract class TargetedSweepRuntimeConfig {
                 maximumPartitionsToBatchInSingleRead());
     }
 
+    /**
+     * The maximum number of batches of deletes that a single iteration of targeted sweep executes in parallel. Each
+     * batch contains cells of a single table and is followed by a ranged tombstone write (and sentinel writes, for
+     * conservative sweep), so a higher value hides the latency of these round trips to the key value service. A shard's
+     * progress is only updated once all of its batches have completed. Legacy behaviour is consistent with a value of 1.
+     */
+    @Value.Default
+    public int deleteConcurrency() {
+        return 1;
+    }
+
+    @Value.Check
+    void checkDeleteConcurrency() {
+        Preconditions.checkArgument(deleteConcurrency() > 0,
+                "Delete concurrency must be positive, but found %s.", deleteConcurrency());
+    }
+
+    /**
+     * If true, targeted sweep finds the next partitions to read (up to {@link #maximumPartitionsToBatchInSingleRead()})
+     * in a single scan and reads them from the sweep queue concurrently, and starts reading the next batch of a shard
+     * while the deletes of the current batch are in progress. Results are still processed in order, so this only
+     * changes the latency of an iteration. Legacy behaviour is consistent with a value of false.
+     */
+    @Value.Default
+    public boolean prefetchSweepQueueReads() {
+        return false;
+    }
+
     @Value.Check
     void checkShardSize() {
         Preconditions.checkArgument(shards() >= 1 && shards() <= 256,
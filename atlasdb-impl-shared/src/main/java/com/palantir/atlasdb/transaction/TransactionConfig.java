@@ -52,6 +52,58 @@ public abstract class TransactionConfig {
         return false;
     }
 
+    /**
+     * The maximum number of batches of a single multi-cell get that are read and post-filtered concurrently. Each batch
+     * is read, has the commit timestamps of its values looked up, and has values not visible to the transaction
+     * re-read at an earlier timestamp, so with more than one batch in flight, these round trips for different batches
+     * overlap. Synchronous gets run additional batches on the get ranges executor.
+     */
+    @Value.Default
+    public int postFilterConcurrency() {
+        return 1;
+    }
+
+    /**
+     * If true, transactions store their local writes in arenas allocated outside the Java heap, indexed by a skip list
+     * of compact references, rather than in a skip list of cells and values on the heap. This reduces garbage
+     * collection pressure for transactions that write large amounts of data, at the cost of copying values in and out
+     * of the arenas.
+     */
+    @Value.Default
+    public boolean offHeapLocalWrites() {
+        return false;
+    }
+
+    /**
+     * When {@link #offHeapLocalWrites()} is enabled, the amount of memory a transaction may allocate outside the heap
+     * for its local writes. Further writes are stored in temporary files mapped into memory.
+     */
+    @Value.Default
+    public long offHeapLocalWritesSpillThresholdBytes() {
+        return 256L * 1024 * 1024;
+    }
+
+    /**
+     * When {@link #offHeapLocalWrites()} is enabled, the amount of memory all transactions of this process together
+     * may allocate outside the heap for their local writes. Once it is in use, further writes of any transaction are
+     * stored in temporary files mapped into memory. Memory released by finished transactions is reused by later ones
+     * rather than freed, so this should leave room within the JVM's maximum direct memory size for other uses.
+     */
+    @Value.Default
+    public long offHeapLocalWritesMaxTotalBytes() {
+        return 512L * 1024 * 1024;
+    }
+
+    /**
+     * If true, and the key value service supports atomic multiPuts, transactions write their targeted sweep queue
+     * entries in the same atomic multiPut as their values at commit, rather than enqueueing them in separate writes
+     * beforehand. This saves round trips to the key value service on every committing transaction.
+     */
+    @Value.Default
+    public boolean combineSweepQueueAndDataWrites() {
+        return false;
+    }
+
     /**
      * TODO(fdesouza): Remove this once PDS-95791 is resolved.
      * @deprecated Remove this once PDS-95791 is resolved.
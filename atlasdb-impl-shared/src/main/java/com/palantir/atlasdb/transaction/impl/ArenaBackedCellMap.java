@@ -0,0 +1,485 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.logsafe.Preconditions;
+
+/**
+ * A concurrent sorted map of cells to values, whose cells and values are stored in a {@link LocalWriteArena} rather
+ * than on the heap. The map is indexed by a skip list of references to writes in the arena, so each entry costs a
+ * single small object on the heap, however large its cell and value are. Cells and values are copied out of the arena
+ * whenever they are read.
+ *
+ * Overwriting a cell appends the new value to the arena, and the space used by the old value is not reclaimed. Values
+ * are compared by content rather than by identity in the conditional {@link java.util.concurrent.ConcurrentMap}
+ * operations, as the values read from the map are always copies.
+ */
+final class ArenaBackedCellMap extends AbstractMap<Cell, byte[]> implements ConcurrentNavigableMap<Cell, byte[]> {
+    private final LocalWriteArena arena;
+    // keys reference the first write of each cell, and values its latest write
+    private final ConcurrentNavigableMap<Ref, Ref> index;
+    private final boolean descending;
+
+    ArenaBackedCellMap(LocalWriteArena arena) {
+        this(arena, new ConcurrentSkipListMap<>(comparator(arena)), false);
+    }
+
+    private ArenaBackedCellMap(LocalWriteArena arena, ConcurrentNavigableMap<Ref, Ref> index, boolean descending) {
+        this.arena = arena;
+        this.index = index;
+        this.descending = descending;
+    }
+
+    @Override
+    public byte[] get(Object key) {
+        if (!(key instanceof Cell)) {
+            return null;
+        }
+        return value(index.get(Ref.probe((Cell) key)));
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Cell && index.containsKey(Ref.probe((Cell) key));
+    }
+
+    @Override
+    public byte[] put(Cell key, byte[] value) {
+        Preconditions.checkNotNull(value, "value cannot be null");
+        Ref write = Ref.stored(arena.append(key, value));
+        return value(index.put(write, write));
+    }
+
+    @Override
+    public byte[] putIfAbsent(Cell key, byte[] value) {
+        Preconditions.checkNotNull(value, "value cannot be null");
+        Ref existing = index.get(Ref.probe(key));
+        if (existing != null) {
+            return value(existing);
+        }
+        Ref write = Ref.stored(arena.append(key, value));
+        return value(index.putIfAbsent(write, write));
+    }
+
+    @Override
+    public byte[] remove(Object key) {
+        if (!(key instanceof Cell)) {
+            return null;
+        }
+        return value(index.remove(Ref.probe((Cell) key)));
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (!(key instanceof Cell) || !(value instanceof byte[])) {
+            return false;
+        }
+        Ref probe = Ref.probe((Cell) key);
+        Ref existing = index.get(probe);
+        return existing != null
+                && Arrays.equals(arena.value(existing.address), (byte[]) value)
+                && index.remove(probe, existing);
+    }
+
+    @Override
+    public boolean replace(Cell key, byte[] oldValue, byte[] newValue) {
+        Preconditions.checkNotNull(oldValue, "oldValue cannot be null");
+        Preconditions.checkNotNull(newValue, "newValue cannot be null");
+        Ref probe = Ref.probe(key);
+        Ref existing = index.get(probe);
+        if (existing == null || !Arrays.equals(arena.value(existing.address), oldValue)) {
+            return false;
+        }
+        return index.replace(probe, existing, Ref.stored(arena.append(key, newValue)));
+    }
+
+    @Override
+    public byte[] replace(Cell key, byte[] value) {
+        Preconditions.checkNotNull(value, "value cannot be null");
+        Ref probe = Ref.probe(key);
+        if (!index.containsKey(probe)) {
+            return null;
+        }
+        return value(index.replace(probe, Ref.stored(arena.append(key, value))));
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return index.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        index.clear();
+    }
+
+    @Override
+    public Set<Entry<Cell, byte[]>> entrySet() {
+        return new AbstractSet<Entry<Cell, byte[]>>() {
+            @Override
+            public Iterator<Entry<Cell, byte[]>> iterator() {
+                return Iterators.transform(index.entrySet().iterator(), ArenaBackedCellMap.this::entry);
+            }
+
+            @Override
+            public int size() {
+                return index.size();
+            }
+
+            @Override
+            public boolean isEmpty() {
+                return index.isEmpty();
+            }
+
+            @Override
+            public void clear() {
+                index.clear();
+            }
+        };
+    }
+
+    @Override
+    public Comparator<? super Cell> comparator() {
+        return descending ? Collections.reverseOrder() : null;
+    }
+
+    @Override
+    public Cell firstKey() {
+        return cell(index.firstKey());
+    }
+
+    @Override
+    public Cell lastKey() {
+        return cell(index.lastKey());
+    }
+
+    @Override
+    public Entry<Cell, byte[]> lowerEntry(Cell key) {
+        return entry(index.lowerEntry(Ref.probe(key)));
+    }
+
+    @Override
+    public Cell lowerKey(Cell key) {
+        return cell(index.lowerKey(Ref.probe(key)));
+    }
+
+    @Override
+    public Entry<Cell, byte[]> floorEntry(Cell key) {
+        return entry(index.floorEntry(Ref.probe(key)));
+    }
+
+    @Override
+    public Cell floorKey(Cell key) {
+        return cell(index.floorKey(Ref.probe(key)));
+    }
+
+    @Override
+    public Entry<Cell, byte[]> ceilingEntry(Cell key) {
+        return entry(index.ceilingEntry(Ref.probe(key)));
+    }
+
+    @Override
+    public Cell ceilingKey(Cell key) {
+        return cell(index.ceilingKey(Ref.probe(key)));
+    }
+
+    @Override
+    public Entry<Cell, byte[]> higherEntry(Cell key) {
+        return entry(index.higherEntry(Ref.probe(key)));
+    }
+
+    @Override
+    public Cell higherKey(Cell key) {
+        return cell(index.higherKey(Ref.probe(key)));
+    }
+
+    @Override
+    public Entry<Cell, byte[]> firstEntry() {
+        return entry(index.firstEntry());
+    }
+
+    @Override
+    public Entry<Cell, byte[]> lastEntry() {
+        return entry(index.lastEntry());
+    }
+
+    @Override
+    public Entry<Cell, byte[]> pollFirstEntry() {
+        return entry(index.pollFirstEntry());
+    }
+
+    @Override
+    public Entry<Cell, byte[]> pollLastEntry() {
+        return entry(index.pollLastEntry());
+    }
+
+    @Override
+    public ConcurrentNavigableMap<Cell, byte[]> subMap(
+            Cell fromKey, boolean fromInclusive, Cell toKey, boolean toInclusive) {
+        return view(index.subMap(Ref.probe(fromKey), fromInclusive, Ref.probe(toKey), toInclusive));
+    }
+
+    @Override
+    public ConcurrentNavigableMap<Cell, byte[]> headMap(Cell toKey, boolean inclusive) {
+        return view(index.headMap(Ref.probe(toKey), inclusive));
+    }
+
+    @Override
+    public ConcurrentNavigableMap<Cell, byte[]> tailMap(Cell fromKey, boolean inclusive) {
+        return view(index.tailMap(Ref.probe(fromKey), inclusive));
+    }
+
+    @Override
+    public ConcurrentNavigableMap<Cell, byte[]> subMap(Cell fromKey, Cell toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    @Override
+    public ConcurrentNavigableMap<Cell, byte[]> headMap(Cell toKey) {
+        return headMap(toKey, false);
+    }
+
+    @Override
+    public ConcurrentNavigableMap<Cell, byte[]> tailMap(Cell fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+    @Override
+    public ConcurrentNavigableMap<Cell, byte[]> descendingMap() {
+        return new ArenaBackedCellMap(arena, index.descendingMap(), !descending);
+    }
+
+    @Override
+    public NavigableSet<Cell> keySet() {
+        return new KeySet(this);
+    }
+
+    @Override
+    public NavigableSet<Cell> navigableKeySet() {
+        return new KeySet(this);
+    }
+
+    @Override
+    public NavigableSet<Cell> descendingKeySet() {
+        return descendingMap().navigableKeySet();
+    }
+
+    private ConcurrentNavigableMap<Cell, byte[]> view(ConcurrentNavigableMap<Ref, Ref> subIndex) {
+        return new ArenaBackedCellMap(arena, subIndex, descending);
+    }
+
+    private Iterator<Cell> keyIterator() {
+        return Iterators.transform(index.keySet().iterator(), this::cell);
+    }
+
+    @Nullable
+    private Cell cell(@Nullable Ref ref) {
+        return ref == null ? null : arena.cell(ref.address);
+    }
+
+    @Nullable
+    private byte[] value(@Nullable Ref ref) {
+        return ref == null ? null : arena.value(ref.address);
+    }
+
+    @Nullable
+    private Entry<Cell, byte[]> entry(@Nullable Entry<Ref, Ref> entry) {
+        return entry == null ? null : Maps.immutableEntry(cell(entry.getKey()), value(entry.getValue()));
+    }
+
+    private static Comparator<Ref> comparator(LocalWriteArena arena) {
+        return (ref, other) -> {
+            if (ref.probe != null && other.probe != null) {
+                return ref.probe.compareTo(other.probe);
+            } else if (ref.probe != null) {
+                return -arena.compare(other.address, ref.probe);
+            } else if (other.probe != null) {
+                return arena.compare(ref.address, other.probe);
+            }
+            return arena.compare(ref.address, other.address);
+        };
+    }
+
+    /**
+     * Either the address of a write in the arena, or a cell to look up in the index.
+     */
+    private static final class Ref {
+        private final long address;
+        @Nullable
+        private final Cell probe;
+
+        private Ref(long address, @Nullable Cell probe) {
+            this.address = address;
+            this.probe = probe;
+        }
+
+        static Ref stored(long address) {
+            return new Ref(address, null);
+        }
+
+        static Ref probe(Cell cell) {
+            return new Ref(-1, Preconditions.checkNotNull(cell, "cell cannot be null"));
+        }
+    }
+
+    private static final class KeySet extends AbstractSet<Cell> implements NavigableSet<Cell> {
+        private final ArenaBackedCellMap map;
+
+        private KeySet(ArenaBackedCellMap map) {
+            this.map = map;
+        }
+
+        @Override
+        public Iterator<Cell> iterator() {
+            return map.keyIterator();
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return map.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Object object) {
+            return map.containsKey(object);
+        }
+
+        @Override
+        public boolean remove(Object object) {
+            return map.remove(object) != null;
+        }
+
+        @Override
+        public void clear() {
+            map.clear();
+        }
+
+        @Override
+        public Comparator<? super Cell> comparator() {
+            return map.comparator();
+        }
+
+        @Override
+        public Cell first() {
+            return map.firstKey();
+        }
+
+        @Override
+        public Cell last() {
+            return map.lastKey();
+        }
+
+        @Override
+        public Cell lower(Cell cell) {
+            return map.lowerKey(cell);
+        }
+
+        @Override
+        public Cell floor(Cell cell) {
+            return map.floorKey(cell);
+        }
+
+        @Override
+        public Cell ceiling(Cell cell) {
+            return map.ceilingKey(cell);
+        }
+
+        @Override
+        public Cell higher(Cell cell) {
+            return map.higherKey(cell);
+        }
+
+        @Override
+        public Cell pollFirst() {
+            Entry<Cell, byte[]> entry = map.pollFirstEntry();
+            return entry == null ? null : entry.getKey();
+        }
+
+        @Override
+        public Cell pollLast() {
+            Entry<Cell, byte[]> entry = map.pollLastEntry();
+            return entry == null ? null : entry.getKey();
+        }
+
+        @Override
+        public NavigableSet<Cell> descendingSet() {
+            return map.descendingKeySet();
+        }
+
+        @Override
+        public Iterator<Cell> descendingIterator() {
+            return descendingSet().iterator();
+        }
+
+        @Override
+        public NavigableSet<Cell> subSet(Cell fromElement, boolean fromInclusive, Cell toElement, boolean toInclusive) {
+            return map.subMap(fromElement, fromInclusive, toElement, toInclusive).navigableKeySet();
+        }
+
+        @Override
+        public NavigableSet<Cell> headSet(Cell toElement, boolean inclusive) {
+            return map.headMap(toElement, inclusive).navigableKeySet();
+        }
+
+        @Override
+        public NavigableSet<Cell> tailSet(Cell fromElement, boolean inclusive) {
+            return map.tailMap(fromElement, inclusive).navigableKeySet();
+        }
+
+        @Override
+        public NavigableSet<Cell> subSet(Cell fromElement, Cell toElement) {
+            return subSet(fromElement, true, toElement, false);
+        }
+
+        @Override
+        public NavigableSet<Cell> headSet(Cell toElement) {
+            return headSet(toElement, false);
+        }
+
+        @Override
+        public NavigableSet<Cell> tailSet(Cell fromElement) {
+            return tailSet(fromElement, true);
+        }
+    }
+}
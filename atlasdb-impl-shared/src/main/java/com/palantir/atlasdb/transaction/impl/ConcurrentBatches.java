@@ -0,0 +1,137 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Processes a list of batches with at most a given number of batches in flight at once. Each worker takes the next
+ * unprocessed batch as soon as its previous batch completes, so the round trips of different batches overlap.
+ *
+ * One worker runs on the calling thread, and the remaining workers are started on the given executor. The returned
+ * future completes once every batch has been processed, regardless of whether the workers on the executor ever got
+ * to run, so a caller blocking on it cannot deadlock against a saturated executor.
+ */
+final class ConcurrentBatches<B, R> {
+    private final List<B> batches;
+    private final Function<B, ListenableFuture<R>> processor;
+    private final AtomicReferenceArray<R> results;
+    private final AtomicInteger nextBatch = new AtomicInteger();
+    private final AtomicInteger remainingBatches;
+    private final SettableFuture<List<R>> result = SettableFuture.create();
+
+    private ConcurrentBatches(List<B> batches, Function<B, ListenableFuture<R>> processor) {
+        this.batches = batches;
+        this.processor = processor;
+        this.results = new AtomicReferenceArray<>(batches.size());
+        this.remainingBatches = new AtomicInteger(batches.size());
+    }
+
+    /**
+     * Returns the results of processing each of the batches, in the order of the batches.
+     */
+    static <B, R> ListenableFuture<List<R>> process(
+            List<B> batches,
+            Function<B, ListenableFuture<R>> processor,
+            int concurrency,
+            Executor executor) {
+        if (batches.isEmpty()) {
+            return Futures.immediateFuture(ImmutableList.of());
+        }
+        ConcurrentBatches<B, R> concurrentBatches = new ConcurrentBatches<>(batches, processor);
+        int numWorkers = Math.min(concurrency, batches.size());
+        for (int i = 1; i < numWorkers; i++) {
+            try {
+                executor.execute(concurrentBatches::processBatches);
+            } catch (RejectedExecutionException e) {
+                // the remaining workers pick up the batches this worker would have processed
+                break;
+            }
+        }
+        concurrentBatches.processBatches();
+        return concurrentBatches.result;
+    }
+
+    /**
+     * Processes batches until none are left, as long as each batch completes immediately. A batch that is still in
+     * flight hands the rest of the work to a listener run by whichever thread completes it, so that a long run of
+     * immediately completed batches is a loop rather than a chain of nested callbacks.
+     */
+    private void processBatches() {
+        while (!result.isDone()) {
+            int index = nextBatch.getAndIncrement();
+            if (index >= batches.size()) {
+                return;
+            }
+
+            ListenableFuture<R> batchResult;
+            try {
+                batchResult = processor.apply(batches.get(index));
+            } catch (Throwable t) {
+                result.setException(t);
+                return;
+            }
+            if (!batchResult.isDone()) {
+                batchResult.addListener(() -> {
+                    if (recordResult(index, batchResult)) {
+                        processBatches();
+                    }
+                }, MoreExecutors.directExecutor());
+                return;
+            }
+            if (!recordResult(index, batchResult)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Records the result of a completed batch, and returns whether there may be further batches to process.
+     */
+    private boolean recordResult(int index, ListenableFuture<R> batchResult) {
+        try {
+            results.set(index, Futures.getDone(batchResult));
+        } catch (ExecutionException e) {
+            result.setException(e.getCause());
+            return false;
+        } catch (Throwable t) {
+            result.setException(t);
+            return false;
+        }
+        if (remainingBatches.decrementAndGet() == 0) {
+            result.set(IntStream.range(0, batches.size())
+                    .mapToObj(results::get)
+                    .collect(Collectors.toList()));
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.primitives.UnsignedBytes;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+
+/**
+ * Append-only storage for the cells and values written by a transaction, outside the Java heap. Each write is copied
+ * into a chunk as (row length, column length, value length, row, column, value), and is identified by its address: the
+ * index of its chunk in the upper 32 bits and its offset within the chunk in the lower 32 bits.
+ *
+ * Chunks are direct buffers taken from an {@link OffHeapLocalWriteMemory}, doubling in size up to a maximum, until
+ * either the arena has taken the given number of bytes or the memory shared by all arenas has run out. Further chunks,
+ * and chunks too large for a single write, are mapped from temporary files, which are deleted as soon as they are
+ * mapped, so that the operating system can page them out. Closing the arena hands its direct buffers back to the
+ * shared memory; mapped chunks are unmapped once garbage collected.
+ *
+ * Appending is thread safe. A write may be read from any thread that has obtained its address through a happens-before
+ * relationship with the append, for example through a concurrent map. Nothing may be appended or read once the arena
+ * is closed.
+ */
+final class LocalWriteArena {
+    private static final Logger log = LoggerFactory.getLogger(LocalWriteArena.class);
+
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+    private static final int MIN_CHUNK_SIZE = 64 * 1024;
+    private static final int MAX_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    private final OffHeapLocalWriteMemory sharedMemory;
+    private final long maxOffHeapBytes;
+    private final long sharedMemoryBudgetBytes;
+    private final List<ByteBuffer> chunks = new CopyOnWriteArrayList<>();
+    private final List<ByteBuffer> offHeapChunks = new ArrayList<>();
+
+    private ByteBuffer currentChunk;
+    private int nextChunkSize = MIN_CHUNK_SIZE;
+    private long offHeapBytes = 0;
+    private volatile boolean closed = false;
+
+    /**
+     * @param maxOffHeapBytes the number of bytes of direct memory this arena may take
+     * @param sharedMemoryBudgetBytes the number of bytes of direct memory all arenas sharing the memory may take
+     */
+    LocalWriteArena(OffHeapLocalWriteMemory sharedMemory, long maxOffHeapBytes, long sharedMemoryBudgetBytes) {
+        this.sharedMemory = sharedMemory;
+        this.maxOffHeapBytes = maxOffHeapBytes;
+        this.sharedMemoryBudgetBytes = sharedMemoryBudgetBytes;
+    }
+
+    long append(Cell cell, byte[] value) {
+        byte[] row = cell.getRowName();
+        byte[] column = cell.getColumnName();
+        long address = allocate(HEADER_SIZE + row.length + column.length + value.length);
+        ByteBuffer buffer = chunk(address).duplicate();
+        buffer.position(offset(address));
+        buffer.putInt(row.length).putInt(column.length).putInt(value.length).put(row).put(column).put(value);
+        return address;
+    }
+
+    Cell cell(long address) {
+        ByteBuffer buffer = chunk(address).duplicate();
+        buffer.position(offset(address));
+        byte[] row = new byte[buffer.getInt()];
+        byte[] column = new byte[buffer.getInt()];
+        buffer.getInt();
+        buffer.get(row).get(column);
+        return Cell.create(row, column);
+    }
+
+    byte[] value(long address) {
+        ByteBuffer buffer = chunk(address).duplicate();
+        int offset = offset(address);
+        int valueLength = buffer.getInt(offset + 2 * Integer.BYTES);
+        if (valueLength == 0) {
+            return PtBytes.EMPTY_BYTE_ARRAY;
+        }
+        buffer.position(offset + HEADER_SIZE + buffer.getInt(offset) + buffer.getInt(offset + Integer.BYTES));
+        byte[] value = new byte[valueLength];
+        buffer.get(value);
+        return value;
+    }
+
+    /**
+     * Compares the cell at the given address to the given cell, in the order of {@link Cell#compareTo(Cell)}.
+     */
+    int compare(long address, Cell cell) {
+        ByteBuffer buffer = chunk(address);
+        int offset = offset(address);
+        int rowLength = buffer.getInt(offset);
+        int columnLength = buffer.getInt(offset + Integer.BYTES);
+        int rowOffset = offset + HEADER_SIZE;
+        int cmp = compare(buffer, rowOffset, rowLength, cell.getRowName());
+        if (cmp != 0) {
+            return cmp;
+        }
+        return compare(buffer, rowOffset + rowLength, columnLength, cell.getColumnName());
+    }
+
+    /**
+     * Compares the cells at the given addresses, in the order of {@link Cell#compareTo(Cell)}.
+     */
+    int compare(long address, long otherAddress) {
+        ByteBuffer buffer = chunk(address);
+        int offset = offset(address);
+        int rowLength = buffer.getInt(offset);
+        int columnLength = buffer.getInt(offset + Integer.BYTES);
+        ByteBuffer otherBuffer = chunk(otherAddress);
+        int otherOffset = offset(otherAddress);
+        int otherRowLength = otherBuffer.getInt(otherOffset);
+        int otherColumnLength = otherBuffer.getInt(otherOffset + Integer.BYTES);
+        int cmp = compare(
+                buffer, offset + HEADER_SIZE, rowLength,
+                otherBuffer, otherOffset + HEADER_SIZE, otherRowLength);
+        if (cmp != 0) {
+            return cmp;
+        }
+        return compare(
+                buffer, offset + HEADER_SIZE + rowLength, columnLength,
+                otherBuffer, otherOffset + HEADER_SIZE + otherRowLength, otherColumnLength);
+    }
+
+    /**
+     * Hands the direct memory of this arena back to the shared memory. Idempotent.
+     */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        currentChunk = null;
+        chunks.clear();
+        offHeapChunks.forEach(sharedMemory::release);
+        offHeapChunks.clear();
+    }
+
+    private synchronized long allocate(int size) {
+        checkNotClosed();
+        if (currentChunk == null || currentChunk.remaining() < size) {
+            currentChunk = newChunk(size).duplicate();
+        }
+        int offset = currentChunk.position();
+        currentChunk.position(offset + size);
+        return ((long) (chunks.size() - 1) << 32) | offset;
+    }
+
+    private ByteBuffer newChunk(int minimumSize) {
+        if (minimumSize > MAX_CHUNK_SIZE) {
+            ByteBuffer chunk = mapTemporaryFile(minimumSize);
+            chunks.add(chunk);
+            return chunk;
+        }
+        // chunks are sized in powers of two, so that released chunks can be reused by other arenas
+        int size = Math.max(nextChunkSize, Integer.highestOneBit(minimumSize - 1) << 1);
+        nextChunkSize = Math.min(MAX_CHUNK_SIZE, nextChunkSize * 2);
+        ByteBuffer chunk = offHeapBytes + size <= maxOffHeapBytes
+                ? sharedMemory.tryAcquire(size, sharedMemoryBudgetBytes)
+                : null;
+        if (chunk != null) {
+            offHeapChunks.add(chunk);
+            offHeapBytes += size;
+        } else {
+            chunk = mapTemporaryFile(size);
+        }
+        chunks.add(chunk);
+        return chunk;
+    }
+
+    private ByteBuffer chunk(long address) {
+        checkNotClosed();
+        return chunks.get((int) (address >>> 32));
+    }
+
+    private void checkNotClosed() {
+        Preconditions.checkState(!closed, "Local writes cannot be used once the transaction has finished");
+    }
+
+    private static int offset(long address) {
+        return (int) address;
+    }
+
+    private static ByteBuffer mapTemporaryFile(int size) {
+        try {
+            Path file = Files.createTempFile("atlasdb-local-writes", ".tmp");
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            } finally {
+                deleteOnceUnmapped(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void deleteOnceUnmapped(Path file) {
+        try {
+            Files.delete(file);
+        } catch (IOException e) {
+            // some platforms do not allow mapped files to be deleted
+            log.debug("Could not delete mapped temporary file, deleting it on exit instead",
+                    SafeArg.of("exceptionClass", e.getClass().getName()));
+            file.toFile().deleteOnExit();
+        }
+    }
+
+    private static int compare(ByteBuffer buffer, int offset, int length, byte[] other) {
+        int minLength = Math.min(length, other.length);
+        for (int i = 0; i < minLength; i++) {
+            int cmp = UnsignedBytes.compare(buffer.get(offset + i), other[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, other.length);
+    }
+
+    private static int compare(
+            ByteBuffer buffer, int offset, int length,
+            ByteBuffer otherBuffer, int otherOffset, int otherLength) {
+        int minLength = Math.min(length, otherLength);
+        for (int i = 0; i < minLength; i++) {
+            int cmp = UnsignedBytes.compare(buffer.get(offset + i), otherBuffer.get(otherOffset + i));
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, otherLength);
+    }
+}
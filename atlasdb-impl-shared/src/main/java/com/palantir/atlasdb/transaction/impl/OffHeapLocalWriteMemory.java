@@ -0,0 +1,79 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nullable;
+
+/**
+ * The direct memory that {@link LocalWriteArena}s share, so that the off-heap local writes of all transactions of a
+ * process together stay within a single budget.
+ *
+ * Direct memory is only freed once its buffers are garbage collected, so chunks released by the arena of a finished
+ * transaction are not dropped but kept here, and handed out again to later arenas asking for chunks of the same size.
+ * The direct memory allocated for local writes therefore never exceeds the budget, however quickly transactions come
+ * and go, and is not returned to the operating system.
+ */
+final class OffHeapLocalWriteMemory {
+    static final OffHeapLocalWriteMemory SHARED = new OffHeapLocalWriteMemory();
+
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private final ConcurrentMap<Integer, Queue<ByteBuffer>> releasedChunksBySize = new ConcurrentHashMap<>();
+
+    /**
+     * Returns a cleared direct buffer of the given size, reusing a released one if possible, or null if none has been
+     * released and allocating one would take the memory allocated for local writes beyond the given budget.
+     */
+    @Nullable
+    ByteBuffer tryAcquire(int size, long budgetBytes) {
+        ByteBuffer released = releasedChunks(size).poll();
+        if (released != null) {
+            return released;
+        }
+        long allocated;
+        do {
+            allocated = allocatedBytes.get();
+            if (allocated + size > budgetBytes) {
+                return null;
+            }
+        } while (!allocatedBytes.compareAndSet(allocated, allocated + size));
+        return ByteBuffer.allocateDirect(size);
+    }
+
+    /**
+     * Makes a buffer returned by {@link #tryAcquire(int, long)} available to later callers. The buffer must not be
+     * used by the caller afterwards.
+     */
+    void release(ByteBuffer chunk) {
+        chunk.clear();
+        releasedChunks(chunk.capacity()).add(chunk);
+    }
+
+    long allocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    private Queue<ByteBuffer> releasedChunks(int size) {
+        return releasedChunksBySize.computeIfAbsent(size, unused -> new ConcurrentLinkedQueue<>());
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.palantir.atlasdb.futures.AtlasFutures;
+import com.palantir.common.base.ClosableIterator;
+import com.palantir.logsafe.Preconditions;
+import com.palantir.logsafe.SafeArg;
+
+/**
+ * Iterates over the pages returned by a page loader, keeping up to a given number of pages loaded ahead of the
+ * consumer. The loader signals that there are no more pages by returning an empty page.
+ *
+ * Pages are loaded in order on the given executor, each load starting only once the previous one has completed, so the
+ * loader does not need to be thread safe. Once the given number of pages are waiting to be consumed, no further pages
+ * are loaded until the consumer takes one. If the executor rejects a load, it runs on the thread that requested it.
+ */
+final class PrefetchingPageIterator<T> extends AbstractIterator<List<T>> implements ClosableIterator<List<T>> {
+    private final Supplier<List<T>> pageLoader;
+    private final Executor executor;
+    private final Runnable onClose;
+    private final Deque<ListenableFuture<List<T>>> pages = new ArrayDeque<>();
+
+    private ListenableFuture<List<T>> lastPage = Futures.immediateFuture(null);
+    private volatile boolean closed = false;
+
+    PrefetchingPageIterator(Supplier<List<T>> pageLoader, int pagesInFlight, Executor executor, Runnable onClose) {
+        Preconditions.checkArgument(pagesInFlight > 0, "At least one page must be in flight",
+                SafeArg.of("pagesInFlight", pagesInFlight));
+        this.pageLoader = pageLoader;
+        this.executor = executor;
+        this.onClose = onClose;
+        for (int i = 0; i < pagesInFlight; i++) {
+            requestPage();
+        }
+    }
+
+    @Override
+    protected List<T> computeNext() {
+        if (closed) {
+            return endOfData();
+        }
+        List<T> page = AtlasFutures.getUnchecked(pages.removeFirst());
+        if (page.isEmpty()) {
+            return endOfData();
+        }
+        requestPage();
+        return page;
+    }
+
+    /**
+     * Stops loading further pages, and runs the close callback once the page currently being loaded, if any, has been
+     * loaded.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            lastPage.addListener(onClose, MoreExecutors.directExecutor());
+        }
+    }
+
+    private void requestPage() {
+        lastPage = Futures.transform(lastPage, this::loadPageAfter, this::executeOrRunInline);
+        pages.addLast(lastPage);
+    }
+
+    private List<T> loadPageAfter(List<T> previousPage) {
+        if (closed || (previousPage != null && previousPage.isEmpty())) {
+            return ImmutableList.of();
+        }
+        return pageLoader.get();
+    }
+
+    private void executeOrRunInline(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+}
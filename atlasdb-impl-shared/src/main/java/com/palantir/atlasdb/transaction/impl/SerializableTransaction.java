@@ -34,6 +34,7 @@ import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import javax.annotation.Nullable;
 
@@ -45,6 +46,7 @@ import com.google.common.base.Functions;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import com.google.common.base.Suppliers;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -56,6 +58,7 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
+import com.google.common.collect.Streams;
 import com.google.common.primitives.UnsignedBytes;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -311,6 +314,29 @@ public class SerializableTransaction extends SnapshotTransaction {
         return Iterables.transform(zip, pair -> wrapRange(tableRef, pair.lhSide, pair.rhSide));
     }
 
+    @Override
+    @Idempotent
+    public Stream<RowResult<byte[]>> getRangeWithPrefetch(
+            TableReference tableRef,
+            RangeRequest rangeRequest,
+            int pagesInFlight) {
+        Stream<RowResult<byte[]>> rows = super.getRangeWithPrefetch(tableRef, rangeRequest, pagesInFlight);
+        Iterator<RowResult<byte[]>> iterator = rows.iterator();
+        Iterator<RowResult<byte[]>> markingIterator = new AbstractIterator<RowResult<byte[]>>() {
+            @Override
+            protected RowResult<byte[]> computeNext() {
+                if (!iterator.hasNext()) {
+                    reachedEndOfRange(tableRef, rangeRequest);
+                    return endOfData();
+                }
+                RowResult<byte[]> row = iterator.next();
+                markRangeRead(tableRef, rangeRequest, ImmutableList.of(row));
+                return row;
+            }
+        };
+        return Streams.stream(markingIterator).onClose(rows::close);
+    }
+
     private BatchingVisitable<RowResult<byte[]>> wrapRange(final TableReference tableRef,
                                                            final RangeRequest rangeRequest,
                                                            final BatchingVisitable<RowResult<byte[]>> ret) {
@@ -32,6 +32,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentNavigableMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -182,6 +183,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
     private static final Logger constraintLogger = LoggerFactory.getLogger("dualschema.constraints");
 
     private static final int BATCH_SIZE_GET_FIRST_PAGE = 1000;
+    private static final int BATCH_SIZE_POST_FILTER = 1000;
 
     private enum State {
         UNCOMMITTED,
@@ -216,6 +218,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
             Maps.newConcurrentMap();
     protected final TransactionConflictDetectionManager conflictDetectionManager;
     private final AtomicLong byteCount = new AtomicLong();
+    private final AtomicReference<LocalWriteArena> localWriteArena = new AtomicReference<>();
 
     private final AtlasDbConstraintCheckingMode constraintCheckingMode;
 
@@ -343,8 +346,8 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         }
         hasReads = true;
         ImmutableSortedMap.Builder<Cell, byte[]> result = ImmutableSortedMap.naturalOrder();
-        Map<Cell, Value> rawResults = Maps.newHashMap(
-                keyValueService.getRows(tableRef, rows, columnSelection, getStartTimestamp()));
+        Map<Cell, Value> rawResults = Maps.newHashMap(AtlasFutures.getUnchecked(
+                keyValueService.getRowsAsync(tableRef, rows, columnSelection, getStartTimestamp())));
         SortedMap<Cell, byte[]> writes = writesByTable.get(tableRef);
         if (writes != null) {
             for (byte[] row : rows) {
@@ -408,8 +411,8 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
             return ImmutableMap.of();
         }
         hasReads = true;
-        Map<byte[], RowColumnRangeIterator> rawResults = keyValueService.getRowsColumnRange(tableRef, rows,
-                columnRangeSelection, getStartTimestamp());
+        Map<byte[], RowColumnRangeIterator> rawResults = AtlasFutures.getUnchecked(
+                keyValueService.getRowsColumnRangeAsync(tableRef, rows, columnRangeSelection, getStartTimestamp()));
         Map<byte[], Iterator<Map.Entry<Cell, byte[]>>> postFilteredResults =
                 Maps.newHashMapWithExpectedSize(rawResults.size());
         for (Map.Entry<byte[], RowColumnRangeIterator> e : rawResults.entrySet()) {
@@ -609,10 +612,11 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         }
         hasReads = true;
 
-        Map<Cell, Value> rawResults = Maps.newHashMap(keyValueService.getRows(tableRef,
+        Map<Cell, Value> rawResults = Maps.newHashMap(AtlasFutures.getUnchecked(keyValueService.getRowsAsync(
+                tableRef,
                 rows,
                 ColumnSelection.all(),
-                getStartTimestamp()));
+                getStartTimestamp())));
 
         validatePreCommitRequirementsOnReadIfNecessary(tableRef, getStartTimestamp());
         return filterRowResults(tableRef, rawResults, ImmutableMap.builderWithExpectedSize(rawResults.size()));
@@ -673,13 +677,20 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                 tableRef,
                 cells,
                 immediateKeyValueService,
-                immediateTransactionService));
+                immediateTransactionService,
+                getRangesExecutor));
     }
 
     @Override
     @Idempotent
     public ListenableFuture<Map<Cell, byte[]>> getAsync(TableReference tableRef, Set<Cell> cells) {
-        return getInternal("getAsync", tableRef, cells, keyValueService, defaultTransactionService);
+        return getInternal(
+                "getAsync",
+                tableRef,
+                cells,
+                keyValueService,
+                defaultTransactionService,
+                MoreExecutors.directExecutor());
     }
 
     private ListenableFuture<Map<Cell, byte[]>> getInternal(
@@ -687,7 +698,8 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
             TableReference tableRef,
             Set<Cell> cells,
             AsyncKeyValueService asyncKeyValueService,
-            AsyncTransactionService asyncTransactionService) {
+            AsyncTransactionService asyncTransactionService,
+            Executor batchExecutor) {
         Timer.Context timer = getTimer(operationName).time();
         checkGetPreconditions(tableRef);
         if (Iterables.isEmpty(cells)) {
@@ -711,7 +723,8 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                         tableRef,
                         Sets.difference(cells, result.keySet()),
                         asyncKeyValueService,
-                        asyncTransactionService),
+                        asyncTransactionService,
+                        batchExecutor),
                 fromKeyValueService -> {
                     result.putAll(fromKeyValueService);
 
@@ -742,7 +755,8 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                 tableRef,
                 cells,
                 immediateKeyValueService,
-                immediateTransactionService);
+                immediateTransactionService,
+                getRangesExecutor);
         validatePreCommitRequirementsOnReadIfNecessary(tableRef, getStartTimestamp());
 
         return Maps.filterValues(Futures.getUnchecked(result), Predicates.not(Value::isTombstone));
@@ -752,8 +766,39 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
      * This will load the given keys from the underlying key value service and apply postFiltering
      * so we have snapshot isolation.  If the value in the key value service is the empty array
      * this will be included here and needs to be filtered out.
+     *
+     * Large requests are split into batches, up to {@link TransactionConfig#postFilterConcurrency()} of which are
+     * read and post-filtered concurrently; batchExecutor runs the additional batches of synchronous requests.
      */
     private ListenableFuture<Map<Cell, byte[]>> getFromKeyValueService(
+            TableReference tableRef,
+            Set<Cell> cells,
+            AsyncKeyValueService asyncKeyValueService,
+            AsyncTransactionService asyncTransactionService,
+            Executor batchExecutor) {
+        int concurrency = transactionConfig.get().postFilterConcurrency();
+        if (concurrency <= 1 || cells.size() <= BATCH_SIZE_POST_FILTER) {
+            return getBatchFromKeyValueService(tableRef, cells, asyncKeyValueService, asyncTransactionService);
+        }
+
+        List<List<Cell>> batches = Lists.partition(ImmutableList.copyOf(cells), BATCH_SIZE_POST_FILTER);
+        ListenableFuture<List<Map<Cell, byte[]>>> batchResults = ConcurrentBatches.process(
+                batches,
+                batch -> getBatchFromKeyValueService(
+                        tableRef, ImmutableSet.copyOf(batch), asyncKeyValueService, asyncTransactionService),
+                concurrency,
+                batchExecutor);
+        return Futures.transform(
+                batchResults,
+                results -> {
+                    ImmutableMap.Builder<Cell, byte[]> merged = ImmutableMap.builder();
+                    results.forEach(merged::putAll);
+                    return merged.build();
+                },
+                MoreExecutors.directExecutor());
+    }
+
+    private ListenableFuture<Map<Cell, byte[]>> getBatchFromKeyValueService(
             TableReference tableRef,
             Set<Cell> cells,
             AsyncKeyValueService asyncKeyValueService,
@@ -800,7 +845,8 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                 .transformAndConcat(input -> {
                     Timer.Context timer = getTimer("processedRangeMillis").time();
                     Map<RangeRequest, TokenBackedBasicResultsPage<RowResult<Value>, byte[]>> firstPages =
-                            keyValueService.getFirstBatchForRanges(tableRef, input, getStartTimestamp());
+                            AtlasFutures.getUnchecked(keyValueService.getFirstBatchForRangesAsync(
+                                    tableRef, input, getStartTimestamp()));
                     validatePreCommitRequirementsOnReadIfNecessary(tableRef, getStartTimestamp());
 
                     SortedMap<Cell, byte[]> postFiltered = postFilterPages(
@@ -1009,6 +1055,29 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         };
     }
 
+    @Override
+    public Stream<RowResult<byte[]>> getRangeWithPrefetch(
+            TableReference tableRef,
+            RangeRequest range,
+            int pagesInFlight) {
+        checkGetPreconditions(tableRef);
+        if (range.isEmptyRange()) {
+            return Stream.empty();
+        }
+        hasReads = true;
+        ensureUncommitted();
+        Preconditions.checkArgument(!range.isReverse(), "we currently do not support reverse ranges");
+
+        int requestSize = range.getBatchHint() != null ? range.getBatchHint() : BatchingVisitables.DEFAULT_BATCH_SIZE;
+        ClosableIterator<RowResult<byte[]>> postFilterIterator = prefetchingPostFilterIterator(
+                tableRef, range, getRequestHintToKvStore(requestSize), pagesInFlight);
+        Iterator<RowResult<byte[]>> localWritesInRange = Cells.createRowView(
+                getLocalWritesForRange(tableRef, range.getStartInclusive(), range.getEndExclusive()).entrySet());
+        Iterator<RowResult<byte[]>> mergeIterators =
+                mergeInLocalWritesRows(postFilterIterator, localWritesInRange, range.isReverse(), tableRef);
+        return ClosableIterators.wrap(mergeIterators).stream().onClose(postFilterIterator::close);
+    }
+
     private <K extends Exception> boolean getBatchingVisitableFromIterator(
             TableReference tableRef,
             RangeRequest range,
@@ -1115,14 +1184,9 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         Iterator<Iterator<RowResult<T>>> batchedPostFiltered = new AbstractIterator<Iterator<RowResult<T>>>() {
             @Override
             protected Iterator<RowResult<T>> computeNext() {
-                List<RowResult<Value>> batch = results.getBatch();
-                validatePreCommitRequirementsOnReadIfNecessary(tableRef, getStartTimestamp());
-                if (batch.isEmpty()) {
-                    return endOfData();
-                }
-                SortedMap<Cell, T> postFilter = postFilterRows(tableRef, batch, transformer);
-                results.markNumResultsNotDeleted(Cells.getRows(postFilter.keySet()).size());
-                return Cells.createRowView(postFilter.entrySet());
+                return postFilterNextBatch(tableRef, results, transformer)
+                        .map(postFilter -> Cells.createRowView(postFilter.entrySet()))
+                        .orElseGet(this::endOfData);
             }
         };
 
@@ -1140,8 +1204,92 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         };
     }
 
+    /**
+     * Like {@link #postFilterIterator(TableReference, RangeRequest, int, Function)}, but reads and post-filters up to
+     * the given number of pages of the range on the get ranges executor ahead of the consumer.
+     */
+    private ClosableIterator<RowResult<byte[]>> prefetchingPostFilterIterator(
+            TableReference tableRef,
+            RangeRequest range,
+            int preFilterBatchSize,
+            int pagesInFlight) {
+        RowRangeBatchProvider batchProvider =
+                new RowRangeBatchProvider(keyValueService, tableRef, range, getStartTimestamp());
+        BatchSizeIncreasingIterator<RowResult<Value>> results =
+                new BatchSizeIncreasingIterator<>(batchProvider, preFilterBatchSize, null);
+        PrefetchingPageIterator<RowResult<byte[]>> pages = new PrefetchingPageIterator<>(
+                () -> postFilterNextNonEmptyPage(tableRef, results),
+                pagesInFlight,
+                getRangesExecutor,
+                results::close);
+        return ClosableIterators.wrap(Iterators.concat(Iterators.transform(pages, List::iterator)), pages);
+    }
+
+    private List<RowResult<byte[]>> postFilterNextNonEmptyPage(
+            TableReference tableRef,
+            BatchSizeIncreasingIterator<RowResult<Value>> results) {
+        ensureUncommitted();
+        while (true) {
+            Optional<SortedMap<Cell, byte[]>> postFilter = postFilterNextBatch(tableRef, results, Value.GET_VALUE);
+            if (!postFilter.isPresent()) {
+                return ImmutableList.of();
+            }
+            if (!postFilter.get().isEmpty()) {
+                return ImmutableList.copyOf(Cells.createRowView(postFilter.get().entrySet()));
+            }
+        }
+    }
+
+    /**
+     * Returns the post-filtered contents of the next batch of the range, or empty if the range has been exhausted.
+     */
+    private <T> Optional<SortedMap<Cell, T>> postFilterNextBatch(
+            TableReference tableRef,
+            BatchSizeIncreasingIterator<RowResult<Value>> results,
+            Function<Value, T> transformer) {
+        List<RowResult<Value>> batch = results.getBatch();
+        validatePreCommitRequirementsOnReadIfNecessary(tableRef, getStartTimestamp());
+        if (batch.isEmpty()) {
+            return Optional.empty();
+        }
+        SortedMap<Cell, T> postFilter = postFilterRows(tableRef, batch, transformer);
+        results.markNumResultsNotDeleted(Cells.getRows(postFilter.keySet()).size());
+        return Optional.of(postFilter);
+    }
+
     private ConcurrentNavigableMap<Cell, byte[]> getLocalWrites(TableReference tableRef) {
-        return writesByTable.computeIfAbsent(tableRef, unused -> new ConcurrentSkipListMap<>());
+        return writesByTable.computeIfAbsent(tableRef, unused -> createLocalWrites());
+    }
+
+    private ConcurrentNavigableMap<Cell, byte[]> createLocalWrites() {
+        if (transactionConfig.get().offHeapLocalWrites()) {
+            return new ArenaBackedCellMap(getLocalWriteArena());
+        }
+        return new ConcurrentSkipListMap<>();
+    }
+
+    private LocalWriteArena getLocalWriteArena() {
+        LocalWriteArena arena = localWriteArena.get();
+        if (arena != null) {
+            return arena;
+        }
+        TransactionConfig config = transactionConfig.get();
+        localWriteArena.compareAndSet(null, new LocalWriteArena(
+                OffHeapLocalWriteMemory.SHARED,
+                config.offHeapLocalWritesSpillThresholdBytes(),
+                config.offHeapLocalWritesMaxTotalBytes()));
+        return localWriteArena.get();
+    }
+
+    /**
+     * Hands the off-heap memory used for local writes back for use by other transactions, once the writes are no longer
+     * needed.
+     */
+    private void releaseLocalWrites() {
+        LocalWriteArena arena = localWriteArena.get();
+        if (arena != null) {
+            arena.close();
+        }
     }
 
     /**
@@ -1535,8 +1683,12 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         while (true) {
             ensureUncommitted();
             if (state.compareAndSet(State.UNCOMMITTED, State.ABORTED)) {
-                if (hasWrites()) {
-                    throwIfPreCommitRequirementsNotMet(null, getStartTimestamp());
+                try {
+                    if (hasWrites()) {
+                        throwIfPreCommitRequirementsNotMet(null, getStartTimestamp());
+                    }
+                } finally {
+                    releaseLocalWrites();
                 }
                 transactionOutcomeMetrics.markAbort();
                 return;
@@ -1617,6 +1769,10 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                 state.set(State.FAILED);
                 transactionOutcomeMetrics.markFailedCommit();
             }
+            // the cells written by aggressive hard delete transactions are still needed to scrub them
+            if (!success || getTransactionType() != TransactionType.AGGRESSIVE_HARD_DELETE) {
+                releaseLocalWrites();
+            }
         }
     }
 
@@ -1638,6 +1794,26 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         }
     }
 
+    private void writeToSweepQueueAndKeyValueService() {
+        Optional<Map<TableReference, Map<Cell, byte[]>>> sweepQueueCells = Optional.empty();
+        if (transactionConfig.get().combineSweepQueueAndDataWrites() && keyValueService.supportsAtomicMultiPut()) {
+            sweepQueueCells = sweepQueue.getCellsToEnqueue(writesByTable, getStartTimestamp());
+        }
+
+        if (sweepQueueCells.isPresent()) {
+            // A single atomic write cannot leave values behind without their sweep queue entries.
+            Map<TableReference, Map<Cell, byte[]>> combinedWrites = Maps.newLinkedHashMap(sweepQueueCells.get());
+            combinedWrites.putAll(writesByTable);
+            timedAndTraced("commitWrite",
+                    () -> keyValueService.multiPutAtomically(combinedWrites, getStartTimestamp()));
+            return;
+        }
+
+        timedAndTraced("writingToSweepQueue", () -> sweepQueue.enqueue(writesByTable, getStartTimestamp()));
+        timedAndTraced("commitWrite", () -> AtlasFutures.getUnchecked(
+                keyValueService.multiPutAsync(writesByTable, getStartTimestamp())));
+    }
+
     private void commitWrites(TransactionService transactionService) {
         if (!hasWrites()) {
             if (hasReads()) {
@@ -1665,13 +1841,11 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                 timedAndTraced("commitCheckingForConflicts",
                         () -> throwIfConflictOnCommit(commitLocksToken, transactionService));
 
-                // Write to the targeted sweep queue. We must do this before writing to the key value service -
-                // otherwise we may have hanging values that targeted sweep won't know about.
-                timedAndTraced("writingToSweepQueue", () -> sweepQueue.enqueue(writesByTable, getStartTimestamp()));
-
-                // Write to the key value service. We must do this before getting the commit timestamp - otherwise
-                // we risk another transaction starting at a timestamp after our commit timestamp not seeing our writes.
-                timedAndTraced("commitWrite", () -> keyValueService.multiPut(writesByTable, getStartTimestamp()));
+                // Write to the targeted sweep queue and then to the key value service. The sweep queue must be
+                // written first - otherwise we may have hanging values that targeted sweep won't know about - and
+                // the values must be written before getting the commit timestamp - otherwise we risk another
+                // transaction starting at a timestamp after our commit timestamp not seeing our writes.
+                writeToSweepQueueAndKeyValueService();
 
                 // Now that all writes are done, get the commit timestamp
                 // We must do this before we check that our locks are still valid to ensure that other transactions that
@@ -2017,7 +2191,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
             log.debug("For table: {} we are deleting values of an uncommitted transaction: {}",
                     LoggingArgs.tableRef(tableRef),
                     UnsafeArg.of("keysToDelete", keysToDelete));
-            keyValueService.delete(tableRef, Multimaps.forMap(keysToDelete));
+            AtlasFutures.getUnchecked(keyValueService.deleteAsync(tableRef, Multimaps.forMap(keysToDelete)));
         } catch (RuntimeException e) {
             final String msg = "This isn't a bug but it should be infrequent if all nodes of your KV service are"
                     + " running. Delete has stronger consistency semantics than read/write and must talk to all nodes"
@@ -2407,7 +2581,11 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
     }
 
     Multimap<TableReference, Cell> getCellsToScrubImmediately() {
-        return getCellsToScrubByTable(State.COMMITTED);
+        try {
+            return getCellsToScrubByTable(State.COMMITTED);
+        } finally {
+            releaseLocalWrites();
+        }
     }
 
     private Multimap<Cell, TableReference> getCellsToScrubByCell(State expectedState) {
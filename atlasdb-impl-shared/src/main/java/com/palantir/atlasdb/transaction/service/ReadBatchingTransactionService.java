@@ -0,0 +1,132 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.annotation.CheckForNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.palantir.atlasdb.autobatch.Autobatchers;
+import com.palantir.atlasdb.autobatch.DisruptorAutobatcher;
+import com.palantir.atlasdb.cache.TimestampCache;
+import com.palantir.atlasdb.futures.AtlasFutures;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
+import com.palantir.common.streams.KeyedStream;
+
+/**
+ * This class coalesces read (get) requests to an underlying {@link TransactionService} across all callers, such that
+ * concurrent lookups of the same start timestamp are only made once, and lookups of different start timestamps are
+ * made together. Committed results are put into the given {@link TimestampCache} once per batch, before the callers
+ * are notified. Write requests are not batched by this class.
+ */
+public final class ReadBatchingTransactionService implements TransactionService {
+    private static final int MAX_CONCURRENT_BATCHES = 4;
+
+    private final TransactionService delegate;
+    private final DisruptorAutobatcher<Long, Optional<Long>> autobatcher;
+
+    private ReadBatchingTransactionService(
+            TransactionService delegate, DisruptorAutobatcher<Long, Optional<Long>> autobatcher) {
+        this.delegate = delegate;
+        this.autobatcher = autobatcher;
+    }
+
+    public static TransactionService create(TransactionService delegate, TimestampCache timestampCache) {
+        DisruptorAutobatcher<Long, Optional<Long>> autobatcher = Autobatchers
+                .<Long, Optional<Long>>coalescing(startTimestamps ->
+                        processBatch(delegate, timestampCache, startTimestamps))
+                .safeLoggablePurpose("read-batching-transaction-service")
+                .maxConcurrentBatches(MAX_CONCURRENT_BATCHES)
+                .build();
+        return new ReadBatchingTransactionService(delegate, autobatcher);
+    }
+
+    @CheckForNull
+    @Override
+    public Long get(long startTimestamp) {
+        return AtlasFutures.getUnchecked(getAsync(startTimestamp));
+    }
+
+    @Override
+    public Map<Long, Long> get(Iterable<Long> startTimestamps) {
+        return AtlasFutures.getUnchecked(getAsync(startTimestamps));
+    }
+
+    @Override
+    public ListenableFuture<Long> getAsync(long startTimestamp) {
+        return Futures.transform(
+                autobatcher.apply(startTimestamp),
+                commitTimestamp -> commitTimestamp.orElse(null),
+                MoreExecutors.directExecutor());
+    }
+
+    @Override
+    public ListenableFuture<Map<Long, Long>> getAsync(Iterable<Long> startTimestamps) {
+        List<Long> requests = ImmutableList.copyOf(startTimestamps);
+        List<ListenableFuture<Optional<Long>>> results = requests.stream()
+                .map(autobatcher::apply)
+                .collect(ImmutableList.toImmutableList());
+        return Futures.transform(
+                Futures.allAsList(results),
+                commitTimestamps -> collectCommitted(requests, commitTimestamps),
+                MoreExecutors.directExecutor());
+    }
+
+    @Override
+    public void putUnlessExists(long startTimestamp, long commitTimestamp) throws KeyAlreadyExistsException {
+        delegate.putUnlessExists(startTimestamp, commitTimestamp);
+    }
+
+    @Override
+    public void putUnlessExistsMultiple(Map<Long, Long> startTimestampToCommitTimestamp) {
+        delegate.putUnlessExistsMultiple(startTimestampToCommitTimestamp);
+    }
+
+    @Override
+    public void close() {
+        autobatcher.close();
+        delegate.close();
+    }
+
+    private static Map<Long, Optional<Long>> processBatch(
+            TransactionService delegate,
+            TimestampCache timestampCache,
+            Set<Long> startTimestamps) {
+        Map<Long, Long> committed = delegate.get(startTimestamps);
+        committed.forEach(timestampCache::putAlreadyCommittedTransaction);
+        return KeyedStream.of(startTimestamps)
+                .map(startTimestamp -> Optional.ofNullable(committed.get(startTimestamp)))
+                .collectToMap();
+    }
+
+    private static Map<Long, Long> collectCommitted(List<Long> requests, List<Optional<Long>> commitTimestamps) {
+        Map<Long, Long> result = Maps.newHashMapWithExpectedSize(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            Long startTimestamp = requests.get(i);
+            commitTimestamps.get(i).ifPresent(commitTimestamp -> result.put(startTimestamp, commitTimestamp));
+        }
+        return result;
+    }
+}
@@ -20,6 +20,7 @@ import java.util.Map;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.palantir.atlasdb.cache.TimestampCache;
 import com.palantir.atlasdb.coordination.CoordinationService;
 import com.palantir.atlasdb.internalschema.InternalSchemaMetadata;
 import com.palantir.atlasdb.internalschema.ReadOnlyTransactionSchemaManager;
@@ -46,6 +47,20 @@ public final class TransactionServices {
         return createV1TransactionService(keyValueService);
     }
 
+    /**
+     * Creates a {@link TransactionService} as {@link #createTransactionService(KeyValueService,
+     * TransactionSchemaManager)} does, whose reads are additionally coalesced and batched across all transactions
+     * using it, with committed results put into the given {@link TimestampCache}.
+     */
+    public static TransactionService createReadBatchingTransactionService(
+            KeyValueService keyValueService,
+            TransactionSchemaManager transactionSchemaManager,
+            TimestampCache timestampCache) {
+        return ReadBatchingTransactionService.create(
+                createTransactionService(keyValueService, transactionSchemaManager),
+                timestampCache);
+    }
+
     private static TransactionService createSplitKeyTransactionService(
             KeyValueService keyValueService,
             TransactionSchemaManager transactionSchemaManager) {
@@ -43,6 +43,7 @@ import org.mockito.ArgumentCaptor;
 
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Multimap;
 import com.palantir.atlasdb.encoding.PtBytes;
 import com.palantir.atlasdb.keyvalue.api.Cell;
@@ -232,6 +233,19 @@ public class SweepableCellsTest extends AbstractSweepQueueTest {
         assertThat(conservativeBatch.writes()).hasSameElementsAs(writes);
     }
 
+    @Test
+    public void cellsToEnqueueIncludeReferencesToDedicatedRows() {
+        List<WriteInfo> writes = LongStream.range(0, MAX_CELLS_GENERIC * 2 + 1)
+                .mapToObj(i -> WriteInfo.write(TABLE_CONS, getCellWithFixedHash(i), TS))
+                .collect(Collectors.toList());
+        putTimestampIntoTransactionTable(TS, TS);
+        spiedKvs.multiPut(ImmutableMap.of(SWEEP_QUEUE_TABLE, sweepableCells.getCellsToEnqueue(writes)), TS);
+
+        SweepBatch conservativeBatch = readConservative(FIXED_SHARD, TS_FINE_PARTITION, TS - 1, TS + 1);
+        assertThat(conservativeBatch.writes()).hasSameElementsAs(writes);
+        SweepMetricsAssert.assertThat(metricsManager).hasEnqueuedWritesConservativeEqualTo(writes.size() + 1);
+    }
+
     @Test
     public void canReadMultipleEntriesInSingleShardMultipleTransactionsCombined() {
         List<WriteInfo> first = writeToCellsInFixedShard(sweepableCells, TS, MAX_CELLS_GENERIC * 2 + 1, TABLE_CONS);
@@ -19,11 +19,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import static com.palantir.atlasdb.sweep.queue.ShardAndStrategy.conservative;
 import static com.palantir.atlasdb.sweep.queue.ShardAndStrategy.thorough;
+import static com.palantir.atlasdb.sweep.queue.SweepQueueUtils.TS_COARSE_GRANULARITY;
 import static com.palantir.atlasdb.sweep.queue.SweepQueueUtils.TS_FINE_GRANULARITY;
 import static com.palantir.atlasdb.sweep.queue.SweepQueueUtils.maxTsForFinePartition;
 import static com.palantir.atlasdb.sweep.queue.SweepQueueUtils.minTsForFinePartition;
 import static com.palantir.atlasdb.sweep.queue.SweepQueueUtils.tsPartitionFine;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.Before;
@@ -192,6 +194,34 @@ public class SweepableTimestampsTest extends AbstractSweepQueueTest {
         assertThat(readConservative(shardCons)).contains(tsPartitionFine(2L * TS_FINE_GRANULARITY + 1000L));
     }
 
+    @Test
+    public void canReadMultipleNextTimestampsAcrossCoarsePartitionsInOrder() {
+        writeToDefaultCellCommitted(sweepableTimestamps, 1000L, TABLE_CONS);
+        writeToDefaultCellCommitted(sweepableTimestamps, TS + 3 * TS_FINE_GRANULARITY, TABLE_CONS);
+        writeToDefaultCellCommitted(sweepableTimestamps, 2 * TS_COARSE_GRANULARITY + 10L, TABLE_CONS);
+
+        assertThat(readConservative(shardCons, 4)).containsExactly(
+                tsPartitionFine(1000L),
+                TS_FINE_PARTITION,
+                TS_FINE_PARTITION + 3,
+                tsPartitionFine(2 * TS_COARSE_GRANULARITY + 10L));
+        assertThat(readConservative(shardCons, 2)).containsExactly(tsPartitionFine(1000L), TS_FINE_PARTITION);
+
+        progress.updateLastSweptTimestamp(conservative(shardCons), TS);
+        assertThat(readConservative(shardCons, 4)).containsExactly(
+                TS_FINE_PARTITION,
+                TS_FINE_PARTITION + 3,
+                tsPartitionFine(2 * TS_COARSE_GRANULARITY + 10L));
+    }
+
+    private List<Long> readConservative(int shardNumber, int limit) {
+        return sweepableTimestamps.nextSweepableTimestampPartitions(
+                conservative(shardNumber),
+                progress.getLastSweptTimestamp(ShardAndStrategy.conservative(shardNumber)),
+                Sweeper.CONSERVATIVE.getSweepTimestamp(timestampsSupplier),
+                limit);
+    }
+
     private Optional<Long> readConservative(int shardNumber) {
         return sweepableTimestamps.nextSweepableTimestampPartition(
                 conservative(shardNumber),
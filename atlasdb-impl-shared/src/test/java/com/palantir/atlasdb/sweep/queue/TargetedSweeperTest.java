@@ -121,6 +121,7 @@ public class TargetedSweeperTest extends AbstractSweepQueueTest {
     private PuncherStore puncherStore;
     private boolean enabled = true;
     private boolean batchShardIterations = false;
+    private boolean prefetchSweepQueueReads = false;
 
     public TargetedSweeperTest(int readBatchSize) {
         this.readBatchSize = readBatchSize;
@@ -133,6 +134,7 @@ public class TargetedSweeperTest extends AbstractSweepQueueTest {
         Supplier<TargetedSweepRuntimeConfig> runtime = () -> ImmutableTargetedSweepRuntimeConfig.builder()
                 .enabled(enabled)
                 .batchShardIterations(batchShardIterations)
+                .prefetchSweepQueueReads(prefetchSweepQueueReads)
                 .maximumPartitionsToBatchInSingleRead(readBatchSize)
                 .shards(DEFAULT_SHARDS)
                 .build();
@@ -204,6 +206,20 @@ public class TargetedSweeperTest extends AbstractSweepQueueTest {
         assertThat(metricsManager).hasEnqueuedWritesThoroughEqualTo(0);
     }
 
+    @Test
+    public void backlogIsMeasuredPerShardAndClearedBySweeping() {
+        enqueueWriteCommitted(TABLE_CONS, LOW_TS);
+
+        Map<Integer, Long> backlogByShard = sweepQueue.getBacklogByShard(CONSERVATIVE);
+        assertThat(backlogByShard).hasSize(DEFAULT_SHARDS);
+        assertThat(backlogByShard.get(CONS_SHARD)).isEqualTo(getSweepTsCons());
+        assertThat(backlogByShard.values().stream().filter(backlog -> backlog > 0)).hasSize(1);
+        assertThat(sweepQueue.getBacklogByShard(THOROUGH).values()).containsOnly(0L);
+
+        sweepNextBatch(ShardAndStrategy.conservative(CONS_SHARD));
+        assertThat(sweepQueue.getBacklogByShard(CONSERVATIVE).values()).containsOnly(0L);
+    }
+
     @Test
     public void conservativeSweepAddsSentinelAndLeavesSingleValue() {
         enqueueWriteCommitted(TABLE_CONS, LOW_TS);
@@ -981,6 +997,30 @@ public class TargetedSweeperTest extends AbstractSweepQueueTest {
                 .isEqualTo(maxTsForFinePartition(0));
     }
 
+    @Test
+    public void batchedDeletesCanRunInParallel() {
+        TargetedSweeper sweeperConservative = TargetedSweeper.createUninitializedForTest(metricsManager,
+                () -> ImmutableTargetedSweepRuntimeConfig.builder()
+                        .shards(1)
+                        .deleteConcurrency(4)
+                        .build());
+        sweeperConservative.initializeWithoutRunning(
+                timestampsSupplier, mock(TimelockService.class), spiedKvs, txnService, mockFollower);
+
+        int numberOfTimestamps = 5 * BATCH_SIZE_KVS / MAX_CELLS_GENERIC + 1;
+
+        commitTransactionsWithWritesIntoUniqueCells(numberOfTimestamps, MAX_CELLS_GENERIC, sweeperConservative);
+        sweepNextBatch(sweeperConservative, ShardAndStrategy.conservative(0));
+        ArgumentCaptor<Map> map = ArgumentCaptor.forClass(Map.class);
+        verify(spiedKvs, times(6)).deleteAllTimestamps(eq(TABLE_CONS), map.capture());
+        verify(spiedKvs, times(6)).addGarbageCollectionSentinelValues(eq(TABLE_CONS), any());
+        verify(mockFollower, times(6)).run(eq(TABLE_CONS), any());
+        assertThat(map.getAllValues().stream().map(Map::size).mapToInt(x -> x).sum())
+                .isEqualTo(5 * BATCH_SIZE_KVS + MAX_CELLS_GENERIC);
+        assertThat(progress.getLastSweptTimestamp(ShardAndStrategy.conservative(0)))
+                .isEqualTo(maxTsForFinePartition(0));
+    }
+
     @Test
     public void multipleSweepersSweepDifferentShardsAndCallUnlockAfterwards() throws InterruptedException {
         int shards = 128;
@@ -1080,6 +1120,49 @@ public class TargetedSweeperTest extends AbstractSweepQueueTest {
         assertReadAtTimestampReturnsSentinel(TABLE_CONS, maxTsForFinePartition(0) + 1);
     }
 
+    @Test
+    public void prefetchedReadsSweepTheSameBatchesAsSerialReads() {
+        prefetchSweepQueueReads = true;
+        setSweepTimestamp(minTsForFinePartition(2 * readBatchSize + 1));
+        for (int partition = 0; partition <= 2 * readBatchSize; partition++) {
+            enqueueWriteCommitted(TABLE_CONS, minTsForFinePartition(partition) + LOW_TS);
+        }
+        ShardAndStrategy shardStrategy = ShardAndStrategy.conservative(CONS_SHARD);
+
+        assertThat(sweepNextBatch(shardStrategy)).isTrue();
+        long timestampEndOfBatchOne = minTsForFinePartition(readBatchSize - 1) + LOW_TS;
+        assertReadAtTimestampReturnsSentinel(TABLE_CONS, timestampEndOfBatchOne);
+        assertTestValueEnqueuedAtGivenTimestampStillPresent(TABLE_CONS, timestampEndOfBatchOne);
+        assertThat(progress.getLastSweptTimestamp(shardStrategy)).isEqualTo(maxTsForFinePartition(readBatchSize - 1));
+
+        // this batch is served by the read ahead started while the previous batch was being deleted
+        sweepNextBatch(shardStrategy);
+        long timestampEndOfBatchTwo = minTsForFinePartition(2 * readBatchSize - 1) + LOW_TS;
+        assertReadAtTimestampReturnsSentinel(TABLE_CONS, timestampEndOfBatchTwo);
+        assertTestValueEnqueuedAtGivenTimestampStillPresent(TABLE_CONS, timestampEndOfBatchTwo);
+        assertThat(progress.getLastSweptTimestamp(shardStrategy))
+                .isEqualTo(maxTsForFinePartition(2 * readBatchSize - 1));
+        assertThat(metricsManager).hasTombstonesPutConservativeEqualTo(2);
+    }
+
+    @Test
+    public void readAheadIsKeptOnlyWhileTheShardIsBeingProcessed() {
+        prefetchSweepQueueReads = true;
+        setSweepTimestamp(minTsForFinePartition(2 * readBatchSize + 1));
+        for (int partition = 0; partition <= 2 * readBatchSize; partition++) {
+            enqueueWriteCommitted(TABLE_CONS, minTsForFinePartition(partition) + LOW_TS);
+        }
+        ShardAndStrategy shardStrategy = ShardAndStrategy.conservative(CONS_SHARD);
+
+        assertThat(sweepNextBatch(shardStrategy)).isTrue();
+        assertThat(sweepQueue.hasReadAhead(shardStrategy)).isTrue();
+
+        sweepQueue.processShard(shardStrategy);
+        assertThat(sweepQueue.hasReadAhead(shardStrategy)).isFalse();
+        assertThat(progress.getLastSweptTimestamp(shardStrategy))
+                .isEqualTo(maxTsForFinePartition(2 * readBatchSize - 1));
+    }
+
     @Test
     public void sweepNextBatchReturnsFalseWhenEncounteringEntryCommittedAfterSweepTs() {
         ShardAndStrategy shardStrategy = ShardAndStrategy.conservative(CONS_SHARD);
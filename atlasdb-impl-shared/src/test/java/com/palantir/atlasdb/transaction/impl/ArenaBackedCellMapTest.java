@@ -0,0 +1,195 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+
+public class ArenaBackedCellMapTest {
+    private static final Cell CELL_1 = Cell.create(PtBytes.toBytes("row1"), PtBytes.toBytes("col1"));
+    private static final Cell CELL_2 = Cell.create(PtBytes.toBytes("row1"), PtBytes.toBytes("col2"));
+    private static final Cell CELL_3 = Cell.create(PtBytes.toBytes("row2"), PtBytes.toBytes("col1"));
+    private static final byte[] VALUE_1 = PtBytes.toBytes("value1");
+    private static final byte[] VALUE_2 = PtBytes.toBytes("value2");
+
+    private static final int MIN_CHUNK_SIZE = 64 * 1024;
+
+    private final OffHeapLocalWriteMemory memory = new OffHeapLocalWriteMemory();
+    private final ConcurrentNavigableMap<Cell, byte[]> map =
+            new ArenaBackedCellMap(new LocalWriteArena(memory, 1 << 20, Long.MAX_VALUE));
+
+    @Test
+    public void readsBackWrites() {
+        assertThat(map.put(CELL_1, VALUE_1)).isNull();
+
+        assertThat(map.get(CELL_1)).isEqualTo(VALUE_1);
+        assertThat(map.get(CELL_2)).isNull();
+        assertThat(map.containsKey(CELL_1)).isTrue();
+        assertThat(map.keySet()).containsExactly(CELL_1);
+    }
+
+    @Test
+    public void overwritesReturnPreviousValue() {
+        map.put(CELL_1, VALUE_1);
+
+        assertThat(map.put(CELL_1, VALUE_2)).isEqualTo(VALUE_1);
+        assertThat(map.get(CELL_1)).isEqualTo(VALUE_2);
+        assertThat(map).hasSize(1);
+    }
+
+    @Test
+    public void storesEmptyValues() {
+        map.put(CELL_1, PtBytes.EMPTY_BYTE_ARRAY);
+
+        assertThat(map.get(CELL_1)).isEmpty();
+    }
+
+    @Test
+    public void iteratesInCellOrder() {
+        map.put(CELL_3, VALUE_1);
+        map.put(CELL_1, VALUE_1);
+        map.put(CELL_2, VALUE_2);
+
+        assertThat(map.keySet()).containsExactly(CELL_1, CELL_2, CELL_3);
+        assertThat(map.descendingMap().keySet()).containsExactly(CELL_3, CELL_2, CELL_1);
+        assertThat(map.values()).containsExactly(VALUE_1, VALUE_2, VALUE_1);
+    }
+
+    @Test
+    public void rangeViewsMatchSkipList() {
+        Random random = new Random(0);
+        ConcurrentSkipListMap<Cell, byte[]> expected = new ConcurrentSkipListMap<>();
+        for (int i = 0; i < 1000; i++) {
+            Cell cell = randomCell(random);
+            byte[] value = PtBytes.toBytes(random.nextLong());
+            map.put(cell, value);
+            expected.put(cell, value);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            Cell from = randomCell(random);
+            Cell to = randomCell(random);
+            if (from.compareTo(to) > 0) {
+                Cell swap = from;
+                from = to;
+                to = swap;
+            }
+            assertThat(toStrings(map.subMap(from, to))).isEqualTo(toStrings(expected.subMap(from, to)));
+            assertThat(toStrings(map.tailMap(from).headMap(to, true).descendingMap()))
+                    .isEqualTo(toStrings(expected.tailMap(from).headMap(to, true).descendingMap()));
+            assertThat(map.ceilingKey(from)).isEqualTo(expected.ceilingKey(from));
+            assertThat(map.lowerKey(from)).isEqualTo(expected.lowerKey(from));
+        }
+    }
+
+    @Test
+    public void spillsToTemporaryFilesBeyondThreshold() {
+        assertSpillsToTemporaryFiles(new LocalWriteArena(memory, 0, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void spillsToTemporaryFilesOnceSharedMemoryIsUsedUp() {
+        assertSpillsToTemporaryFiles(new LocalWriteArena(memory, 1 << 20, 0));
+        assertThat(memory.allocatedBytes()).isZero();
+    }
+
+    @Test
+    public void closingHandsMemoryBackForReuse() {
+        LocalWriteArena arena = new LocalWriteArena(memory, 1 << 20, MIN_CHUNK_SIZE);
+        new ArenaBackedCellMap(arena).put(CELL_1, VALUE_1);
+        assertThat(memory.allocatedBytes()).isEqualTo(MIN_CHUNK_SIZE);
+        assertThat(memory.tryAcquire(MIN_CHUNK_SIZE, MIN_CHUNK_SIZE)).isNull();
+
+        arena.close();
+
+        assertThat(memory.tryAcquire(MIN_CHUNK_SIZE, MIN_CHUNK_SIZE)).isNotNull();
+        assertThat(memory.allocatedBytes()).isEqualTo(MIN_CHUNK_SIZE);
+    }
+
+    @Test
+    public void writesCannotBeReadOnceClosed() {
+        LocalWriteArena arena = new LocalWriteArena(memory, 1 << 20, Long.MAX_VALUE);
+        ConcurrentNavigableMap<Cell, byte[]> closedMap = new ArenaBackedCellMap(arena);
+        closedMap.put(CELL_1, VALUE_1);
+
+        arena.close();
+
+        assertThatThrownBy(() -> closedMap.get(CELL_1)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> closedMap.put(CELL_2, VALUE_2)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void supportsConcurrentWrites() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            int threadIndex = thread;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    byte[] row = PtBytes.toBytes("row" + threadIndex + "-" + i);
+                    map.put(Cell.create(row, PtBytes.toBytes("col")), row);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(map).hasSize(8000);
+        map.forEach((cell, value) -> assertThat(value).isEqualTo(cell.getRowName()));
+    }
+
+    private static void assertSpillsToTemporaryFiles(LocalWriteArena arena) {
+        ConcurrentNavigableMap<Cell, byte[]> spillingMap = new ArenaBackedCellMap(arena);
+        byte[] largeValue = new byte[100_000];
+        new Random(0).nextBytes(largeValue);
+        spillingMap.put(CELL_1, largeValue);
+        spillingMap.put(CELL_2, VALUE_1);
+
+        assertThat(spillingMap.get(CELL_1)).isEqualTo(largeValue);
+        assertThat(spillingMap.get(CELL_2)).isEqualTo(VALUE_1);
+    }
+
+    private static Cell randomCell(Random random) {
+        byte[] row = new byte[1 + random.nextInt(3)];
+        byte[] column = new byte[1 + random.nextInt(2)];
+        random.nextBytes(row);
+        random.nextBytes(column);
+        return Cell.create(row, column);
+    }
+
+    private static List<String> toStrings(Map<Cell, byte[]> map) {
+        return map.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + PtBytes.toLong(entry.getValue()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+
+public class ConcurrentBatchesTest {
+    private static final List<Integer> BATCHES = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+    private static final Executor REJECTING_EXECUTOR = command -> {
+        throw new RejectedExecutionException();
+    };
+
+    @Test
+    public void returnsResultsInBatchOrder() {
+        ListenableFuture<List<Integer>> results = ConcurrentBatches.process(
+                BATCHES, batch -> Futures.immediateFuture(batch * 2), 4, MoreExecutors.directExecutor());
+
+        assertThat(Futures.getUnchecked(results))
+                .containsExactlyElementsOf(BATCHES.stream().map(batch -> batch * 2).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void processesLongRunsOfImmediatelyCompletedBatchesWithoutOverflowingTheStack() {
+        List<Integer> manyBatches = IntStream.range(0, 100_000).boxed().collect(Collectors.toList());
+
+        ListenableFuture<List<Integer>> results = ConcurrentBatches.process(
+                manyBatches, Futures::immediateFuture, 1, MoreExecutors.directExecutor());
+
+        assertThat(Futures.getUnchecked(results)).containsExactlyElementsOf(manyBatches);
+    }
+
+    @Test
+    public void emptyBatchesHaveEmptyResult() {
+        ListenableFuture<List<Integer>> results = ConcurrentBatches.process(
+                ImmutableList.<Integer>of(), Futures::immediateFuture, 4, MoreExecutors.directExecutor());
+
+        assertThat(Futures.getUnchecked(results)).isEmpty();
+    }
+
+    @Test
+    public void limitsBatchesInFlight() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        List<SettableFuture<Integer>> pending = new CopyOnWriteArrayList<>();
+
+        ListenableFuture<List<Integer>> results = ConcurrentBatches.process(BATCHES, batch -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            SettableFuture<Integer> future = SettableFuture.create();
+            pending.add(future);
+            return future;
+        }, 3, MoreExecutors.directExecutor());
+
+        for (int completed = 0; completed < BATCHES.size(); completed++) {
+            inFlight.decrementAndGet();
+            pending.get(completed).set(completed);
+        }
+
+        assertThat(maxInFlight.get()).isEqualTo(3);
+        assertThat(Futures.getUnchecked(results)).containsExactlyElementsOf(BATCHES);
+    }
+
+    @Test
+    public void processesAllBatchesOnCallingThreadIfExecutorRejects() {
+        ListenableFuture<List<Integer>> results = ConcurrentBatches.process(
+                BATCHES, Futures::immediateFuture, 4, REJECTING_EXECUTOR);
+
+        assertThat(Futures.getUnchecked(results)).containsExactlyElementsOf(BATCHES);
+    }
+
+    @Test
+    public void failsIfAnyBatchFails() {
+        ListenableFuture<Integer> failure = Futures.immediateFailedFuture(new RuntimeException("boom"));
+        ListenableFuture<List<Integer>> results = ConcurrentBatches.process(
+                BATCHES,
+                batch -> batch == 5 ? failure : Futures.immediateFuture(batch),
+                2,
+                MoreExecutors.directExecutor());
+
+        assertThatThrownBy(results::get).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RuntimeException.class)
+                .hasMessageContaining("boom");
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.transaction.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
+
+public class PrefetchingPageIteratorTest {
+    private static final List<List<Integer>> PAGES = ImmutableList.of(
+            ImmutableList.of(1, 2),
+            ImmutableList.of(3),
+            ImmutableList.of(4, 5, 6),
+            ImmutableList.of(7));
+    private static final Executor REJECTING_EXECUTOR = command -> {
+        throw new RejectedExecutionException();
+    };
+
+    private final AtomicInteger pagesLoaded = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    @Test
+    public void returnsPagesInOrder() {
+        PrefetchingPageIterator<Integer> iterator = iterator(2, MoreExecutors.directExecutor());
+
+        assertThat(Lists.newArrayList(iterator)).containsExactlyElementsOf(PAGES);
+    }
+
+    @Test
+    public void returnsPagesInOrderWhenLoadedOnAnotherThread() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            PrefetchingPageIterator<Integer> iterator = iterator(3, executor);
+
+            assertThat(Lists.newArrayList(iterator)).containsExactlyElementsOf(PAGES);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void loadsAtMostPagesInFlightAheadOfConsumer() {
+        PrefetchingPageIterator<Integer> iterator = iterator(2, MoreExecutors.directExecutor());
+        assertThat(pagesLoaded).hasValue(2);
+
+        iterator.next();
+        assertThat(pagesLoaded).hasValue(3);
+    }
+
+    @Test
+    public void stopsLoadingAfterEmptyPage() {
+        PrefetchingPageIterator<Integer> iterator = iterator(10, MoreExecutors.directExecutor());
+
+        assertThat(pagesLoaded).hasValue(PAGES.size() + 1);
+        assertThat(Lists.newArrayList(iterator)).containsExactlyElementsOf(PAGES);
+        assertThat(pagesLoaded).hasValue(PAGES.size() + 1);
+    }
+
+    @Test
+    public void loadsPagesInlineIfExecutorRejectsThem() {
+        PrefetchingPageIterator<Integer> iterator = iterator(1, REJECTING_EXECUTOR);
+
+        assertThat(Lists.newArrayList(iterator)).containsExactlyElementsOf(PAGES);
+    }
+
+    @Test
+    public void propagatesFailureToLoadPage() {
+        RuntimeException failure = new RuntimeException("failed");
+        PrefetchingPageIterator<Integer> iterator = new PrefetchingPageIterator<>(
+                () -> {
+                    throw failure;
+                },
+                2,
+                MoreExecutors.directExecutor(),
+                () -> closed.set(true));
+
+        assertThatThrownBy(iterator::next).isEqualTo(failure);
+    }
+
+    @Test
+    public void closeStopsLoadingAndRunsCallback() {
+        PrefetchingPageIterator<Integer> iterator = iterator(1, MoreExecutors.directExecutor());
+        iterator.next();
+        iterator.close();
+
+        assertThat(closed).isTrue();
+        assertThat(iterator.hasNext()).isFalse();
+        assertThat(pagesLoaded).hasValue(2);
+    }
+
+    private PrefetchingPageIterator<Integer> iterator(int pagesInFlight, Executor executor) {
+        Iterator<List<Integer>> pages = PAGES.iterator();
+        Supplier<List<Integer>> loader = () -> {
+            pagesLoaded.incrementAndGet();
+            return pages.hasNext() ? pages.next() : ImmutableList.of();
+        };
+        return new PrefetchingPageIterator<>(loader, pagesInFlight, executor, () -> closed.set(true));
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.palantir.atlasdb.cache.TimestampCache;
+import com.palantir.atlasdb.futures.AtlasFutures;
+import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService;
+import com.palantir.common.streams.KeyedStream;
+
+public class ReadBatchingTransactionServiceTest {
+    private static final long START_TIMESTAMP = 44L;
+    private static final long COMMIT_TIMESTAMP = 88L;
+    private static final long UNCOMMITTED_START_TIMESTAMP = 999L;
+    private static final int NUM_TIMESTAMPS = 10_000;
+
+    private final TransactionService delegate = mock(TransactionService.class);
+    private final TimestampCache timestampCache = mock(TimestampCache.class);
+    private final TransactionService readBatchingService =
+            ReadBatchingTransactionService.create(delegate, timestampCache);
+
+    @After
+    public void tearDown() {
+        readBatchingService.close();
+    }
+
+    @Test
+    public void returnsCommitTimestampOfCommittedTransaction() {
+        when(delegate.get(anyIterable())).thenReturn(ImmutableMap.of(START_TIMESTAMP, COMMIT_TIMESTAMP));
+
+        assertThat(readBatchingService.get(START_TIMESTAMP)).isEqualTo(COMMIT_TIMESTAMP);
+    }
+
+    @Test
+    public void returnsNullForUncommittedTransaction() {
+        when(delegate.get(anyIterable())).thenReturn(ImmutableMap.of());
+
+        assertThat(readBatchingService.get(UNCOMMITTED_START_TIMESTAMP)).isNull();
+    }
+
+    @Test
+    public void omitsUncommittedTransactionsFromBatchedGets() {
+        when(delegate.get(anyIterable())).thenReturn(ImmutableMap.of(START_TIMESTAMP, COMMIT_TIMESTAMP));
+
+        assertThat(readBatchingService.get(ImmutableList.of(START_TIMESTAMP, UNCOMMITTED_START_TIMESTAMP)))
+                .containsExactly(Maps.immutableEntry(START_TIMESTAMP, COMMIT_TIMESTAMP));
+    }
+
+    @Test
+    public void putsCommittedTransactionsIntoCache() {
+        when(delegate.get(anyIterable())).thenReturn(ImmutableMap.of(START_TIMESTAMP, COMMIT_TIMESTAMP));
+
+        readBatchingService.get(ImmutableList.of(START_TIMESTAMP, UNCOMMITTED_START_TIMESTAMP));
+
+        verify(timestampCache).putAlreadyCommittedTransaction(START_TIMESTAMP, COMMIT_TIMESTAMP);
+    }
+
+    @Test
+    public void answersEveryRequestForTheSameTimestamp() {
+        when(delegate.get(anyIterable())).thenAnswer(invocation -> {
+            Set<Long> startTimestamps = ImmutableSet.copyOf(invocation.<Iterable<Long>>getArgument(0));
+            return KeyedStream.of(startTimestamps).map(startTimestamp -> startTimestamp + 1).collectToMap();
+        });
+
+        ListenableFuture<Long> single = readBatchingService.getAsync(START_TIMESTAMP);
+        ListenableFuture<Map<Long, Long>> batch =
+                readBatchingService.getAsync(ImmutableList.of(START_TIMESTAMP, START_TIMESTAMP, COMMIT_TIMESTAMP));
+
+        assertThat(AtlasFutures.getUnchecked(single)).isEqualTo(START_TIMESTAMP + 1);
+        assertThat(AtlasFutures.getUnchecked(batch)).isEqualTo(ImmutableMap.of(
+                START_TIMESTAMP, START_TIMESTAMP + 1,
+                COMMIT_TIMESTAMP, COMMIT_TIMESTAMP + 1));
+    }
+
+    @Test
+    public void concurrentSingleAndBulkLookupsAgainstRealServiceReturnTheirOwnCommitTimestamps() throws Exception {
+        TransactionService realService = SimpleTransactionService.createV1(new InMemoryKeyValueService(true));
+        for (long startTimestamp = 0; startTimestamp < NUM_TIMESTAMPS; startTimestamp += 2) {
+            realService.putUnlessExists(startTimestamp, commitTimestampFor(startTimestamp));
+        }
+        TransactionService batchingService = ReadBatchingTransactionService.create(realService, timestampCache);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> lookups = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                boolean bulk = thread % 2 == 0;
+                long offset = thread;
+                lookups.add(executor.submit(() -> {
+                    if (bulk) {
+                        for (long start = offset; start < NUM_TIMESTAMPS; start += 64) {
+                            List<Long> startTimestamps = LongStream.range(start, Math.min(start + 64, NUM_TIMESTAMPS))
+                                    .boxed()
+                                    .collect(Collectors.toList());
+                            assertThat(batchingService.get(startTimestamps)).isEqualTo(
+                                    KeyedStream.of(startTimestamps.stream().filter(ts -> ts % 2 == 0))
+                                            .map(ReadBatchingTransactionServiceTest::commitTimestampFor)
+                                            .collectToMap());
+                        }
+                    } else {
+                        List<ListenableFuture<Long>> results = LongStream.range(0, NUM_TIMESTAMPS)
+                                .mapToObj(batchingService::getAsync)
+                                .collect(Collectors.toList());
+                        for (int startTimestamp = 0; startTimestamp < NUM_TIMESTAMPS; startTimestamp++) {
+                            assertThat(AtlasFutures.getUnchecked(results.get(startTimestamp))).isEqualTo(
+                                    startTimestamp % 2 == 0 ? commitTimestampFor(startTimestamp) : null);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> lookup : lookups) {
+                lookup.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+            batchingService.close();
+        }
+    }
+
+    private static long commitTimestampFor(long startTimestamp) {
+        return startTimestamp * 3 + 1;
+    }
+}
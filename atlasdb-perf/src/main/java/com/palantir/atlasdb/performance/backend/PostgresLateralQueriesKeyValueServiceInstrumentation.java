@@ -0,0 +1,49 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.performance.backend;
+
+import java.net.InetSocketAddress;
+
+import com.palantir.atlasdb.keyvalue.dbkvs.DbKeyValueServiceConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.ImmutableDbKeyValueServiceConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.ImmutablePostgresDdlConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.PostgresDdlConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.PostgresDdlConfig.LatestCellsQueryStrategy;
+import com.palantir.atlasdb.spi.KeyValueServiceConfig;
+
+/**
+ * Postgres, looking up the latest versions of cells with {@link LatestCellsQueryStrategy#LATERAL} queries. Running the
+ * get benchmarks against both this and {@link PostgresKeyValueServiceInstrumentation} compares the two strategies.
+ */
+public class PostgresLateralQueriesKeyValueServiceInstrumentation extends PostgresKeyValueServiceInstrumentation {
+    @Override
+    public KeyValueServiceConfig getKeyValueServiceConfig(InetSocketAddress addr) {
+        DbKeyValueServiceConfig config = (DbKeyValueServiceConfig) super.getKeyValueServiceConfig(addr);
+        return ImmutableDbKeyValueServiceConfig.builder()
+                .from(config)
+                .ddl(ImmutablePostgresDdlConfig.builder()
+                        .from((PostgresDdlConfig) config.ddl())
+                        .latestCellsQueryStrategy(LatestCellsQueryStrategy.LATERAL)
+                        .build())
+                .build();
+    }
+
+    @Override
+    public String toString() {
+        return "POSTGRES_LATERAL";
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.performance.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.palantir.atlasdb.autobatch.Autobatchers;
+import com.palantir.atlasdb.autobatch.BatchElement;
+import com.palantir.atlasdb.autobatch.CoalescingRequestFunction;
+import com.palantir.atlasdb.autobatch.DisruptorAutobatcher;
+import com.palantir.common.streams.KeyedStream;
+
+/**
+ * Measures the throughput and latency distribution of autobatchers across producer thread counts, buffer sizes,
+ * handler types, and the latency of the downstream batch function. Each operation submits a single element and waits
+ * for its result, so running with {@code -prof gc} reports the allocations per element.
+ */
+@Measurement(iterations = 5, time = 5)
+@Warmup(iterations = 3, time = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AutobatcherBenchmarks {
+    @Param({"independent", "coalescing"})
+    private String handlerType;
+
+    @Param({"1024", "4096", "16384"})
+    private int bufferSize;
+
+    @Param({"0", "1000"})
+    private long downstreamLatencyMicros;
+
+    @Param({"1", "4"})
+    private int maxConcurrentBatches;
+
+    private DisruptorAutobatcher<Long, Long> autobatcher;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        autobatcher = builder()
+                .safeLoggablePurpose("autobatcher-benchmark")
+                .bufferSize(bufferSize)
+                .maxConcurrentBatches(maxConcurrentBatches)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        autobatcher.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long singleProducer() {
+        return submit();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long sixteenProducers() {
+        return submit();
+    }
+
+    @Benchmark
+    @Threads(128)
+    public long manyProducers() {
+        return submit();
+    }
+
+    private long submit() {
+        return Futures.getUnchecked(autobatcher.apply(ThreadLocalRandom.current().nextLong(1_000)));
+    }
+
+    private Autobatchers.AutobatcherBuilder<Long, Long> builder() {
+        switch (handlerType) {
+            case "independent":
+                return Autobatchers.independent(this::processIndependently);
+            case "coalescing":
+                return Autobatchers.coalescing(new SlowIdentityFunction(this::simulateDownstreamCall));
+            default:
+                throw new IllegalArgumentException("Unknown handler type " + handlerType);
+        }
+    }
+
+    private void processIndependently(List<BatchElement<Long, Long>> batch) {
+        simulateDownstreamCall();
+        batch.forEach(element -> element.result().set(element.argument()));
+    }
+
+    private void simulateDownstreamCall() {
+        if (downstreamLatencyMicros > 0) {
+            Uninterruptibles.sleepUninterruptibly(downstreamLatencyMicros, TimeUnit.MICROSECONDS);
+        }
+    }
+
+    private static final class SlowIdentityFunction implements CoalescingRequestFunction<Long, Long> {
+        private final Runnable downstreamCall;
+
+        private SlowIdentityFunction(Runnable downstreamCall) {
+            this.downstreamCall = downstreamCall;
+        }
+
+        @Override
+        public Map<Long, Long> apply(Set<Long> request) {
+            downstreamCall.run();
+            return KeyedStream.of(request.stream()).collectToMap();
+        }
+    }
+}
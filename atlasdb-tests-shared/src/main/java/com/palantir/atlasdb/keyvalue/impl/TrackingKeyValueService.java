@@ -22,6 +22,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.CheckAndSetRequest;
 import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
@@ -60,6 +61,13 @@ public class TrackingKeyValueService extends ForwardingKeyValueService {
         return super.getRows(tableRef, rows, columnSelection, timestamp);
     }
 
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getRowsAsync(TableReference tableRef, Iterable<byte[]> rows,
+            ColumnSelection columnSelection, long timestamp) {
+        tablesReadFrom.add(tableRef);
+        return super.getRowsAsync(tableRef, rows, columnSelection, timestamp);
+    }
+
     @Override
     public ClosableIterator<RowResult<Value>> getRange(TableReference tableRef,
             RangeRequest rangeRequest,
@@ -80,6 +88,13 @@ public class TrackingKeyValueService extends ForwardingKeyValueService {
         super.multiPut(valuesByTable, timestamp);
     }
 
+    @Override
+    public ListenableFuture<Void> multiPutAsync(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable,
+            long timestamp) {
+        tablesWrittenTo.addAll(valuesByTable.keySet());
+        return super.multiPutAsync(valuesByTable, timestamp);
+    }
+
     @Override
     public void putWithTimestamps(TableReference tableRef, Multimap<Cell, Value> values) {
         tablesWrittenTo.add(tableRef);
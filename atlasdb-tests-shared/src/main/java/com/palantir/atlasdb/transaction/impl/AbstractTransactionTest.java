@@ -27,6 +27,7 @@ import static org.junit.Assert.fail;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -40,6 +41,7 @@ import java.util.concurrent.FutureTask;
 import java.util.function.BiFunction;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.Test;
 
@@ -646,6 +648,38 @@ public abstract class AbstractTransactionTest extends TransactionTestSetup {
         }
     }
 
+    @Test
+    public void testRangeWithPrefetchMatchesRange() {
+        Transaction t = startTransaction();
+        for (int i = 0; i < 101; i++) {
+            put(t, "row" + i, "col1", "v" + i);
+        }
+        t.commit();
+
+        t = startTransaction();
+        put(t, "row10a", "col1", "local");
+        put(t, "row20", "col2", "local");
+        delete(t, "row30", "col1");
+        RangeRequest range = RangeRequest.builder().batchHint(7).build();
+        List<RowResult<byte[]>> expected = BatchingVisitables.copyToList(t.getRange(TEST_TABLE, range));
+        try (Stream<RowResult<byte[]>> rows = t.getRangeWithPrefetch(TEST_TABLE, range, 3)) {
+            List<RowResult<byte[]>> actual = rows.collect(Collectors.toList());
+            assertEquals(101, actual.size());
+            assertEquals(
+                    expected.stream().map(AbstractTransactionTest::toStrings).collect(Collectors.toList()),
+                    actual.stream().map(AbstractTransactionTest::toStrings).collect(Collectors.toList()));
+        }
+    }
+
+    private static Map<String, String> toStrings(RowResult<byte[]> row) {
+        Map<String, String> cells = new HashMap<>();
+        for (Map.Entry<Cell, byte[]> entry : row.getCells()) {
+            cells.put(PtBytes.toString(entry.getKey().getRowName()) + "/"
+                    + PtBytes.toString(entry.getKey().getColumnName()), PtBytes.toString(entry.getValue()));
+        }
+        return cells;
+    }
+
     @Test
     public void testEmptyColumnRangePagingTransaction() {
         byte[] row = PtBytes.toBytes("row1");
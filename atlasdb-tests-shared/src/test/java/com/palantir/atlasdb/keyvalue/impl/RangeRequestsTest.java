@@ -18,12 +18,15 @@ package com.palantir.atlasdb.keyvalue.impl;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
 import com.palantir.atlasdb.keyvalue.api.RangeRequests;
 
 public class RangeRequestsTest {
@@ -100,6 +103,36 @@ public class RangeRequestsTest {
         assertThat(RangeRequests.isExactlyEmptyRange(BYTES_2, BYTES_2)).isTrue();
     }
 
+    @Test
+    public void splitsRangeAtPointsWithinIt() {
+        byte[] cherry = PtBytes.toBytes("cherry");
+        RangeRequest range = RangeRequest.builder().startRowInclusive(BYTES_1).endRowExclusive(cherry).build();
+
+        List<RangeRequest> splits = RangeRequests.splitAt(range,
+                ImmutableList.of(PtBytes.toBytes("aardvark"), BYTES_2, cherry, PtBytes.toBytes("date")));
+
+        assertThat(splits).containsExactly(
+                RangeRequest.builder().startRowInclusive(BYTES_1).endRowExclusive(BYTES_2).build(),
+                RangeRequest.builder().startRowInclusive(BYTES_2).endRowExclusive(cherry).build());
+    }
+
+    @Test
+    public void splitsUnboundedRange() {
+        List<RangeRequest> splits = RangeRequests.splitAt(RangeRequest.all(), ImmutableList.of(BYTES_2, BYTES_1));
+
+        assertThat(splits).containsExactly(
+                RangeRequest.builder().endRowExclusive(BYTES_1).build(),
+                RangeRequest.builder().startRowInclusive(BYTES_1).endRowExclusive(BYTES_2).build(),
+                RangeRequest.builder().startRowInclusive(BYTES_2).build());
+    }
+
+    @Test
+    public void doesNotSplitReverseRanges() {
+        RangeRequest range = RangeRequest.reverseBuilder().build();
+
+        assertThat(RangeRequests.splitAt(range, ImmutableList.of(BYTES_1))).containsExactly(range);
+    }
+
     private byte[] generateRandomWithFreqLogLen() {
         long randomLong = random.nextLong();
         // lg(n) distribution of len
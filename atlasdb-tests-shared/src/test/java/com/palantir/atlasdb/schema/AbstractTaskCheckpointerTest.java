@@ -109,6 +109,21 @@ public abstract class AbstractTaskCheckpointerTest extends AtlasDbTestCase {
         });
     }
 
+    @Test
+    public void testCheckpointExists() {
+        final String t1 = "t1";
+        Assert.assertFalse(checkpointer.checkpointExists(t1, 0L));
+
+        checkpointer.createCheckpoints(t1, createRandomCheckpoints());
+        txManager.runTaskWithRetry((TransactionTask<Void, RuntimeException>) txn -> {
+            checkpointer.checkpoint(t1, 0L, new byte[0], txn);
+            return null;
+        });
+
+        Assert.assertTrue(checkpointer.checkpointExists(t1, 0L));
+        Assert.assertFalse(checkpointer.checkpointExists("t2", 0L));
+    }
+
     private Map<Long, byte[]> createRandomCheckpoints() {
         byte[] bytes = new byte[64];
         Random random = new Random();
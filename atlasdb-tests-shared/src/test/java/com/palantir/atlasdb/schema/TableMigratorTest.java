@@ -15,6 +15,8 @@
  */
 package com.palantir.atlasdb.schema;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -22,6 +24,7 @@ import org.apache.commons.lang3.mutable.MutableLong;
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
@@ -38,6 +41,7 @@ import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService;
 import com.palantir.atlasdb.sweep.queue.MultiTableSweepQueueWriter;
 import com.palantir.atlasdb.table.description.TableDefinition;
 import com.palantir.atlasdb.table.description.ValueType;
+import com.palantir.atlasdb.transaction.api.Transaction;
 import com.palantir.atlasdb.transaction.api.TransactionTask;
 import com.palantir.atlasdb.transaction.impl.ConflictDetectionManager;
 import com.palantir.atlasdb.transaction.impl.ConflictDetectionManagers;
@@ -53,6 +57,10 @@ import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.common.exception.TableMappingNotFoundException;
 
 public class TableMigratorTest extends AtlasDbTestCase {
+    private static final TableReference SPLIT_TABLE = TableReference.createFromFullyQualifiedName("test.split");
+    private static final TableReference CHECKPOINT_TABLE = TableReference.createFromFullyQualifiedName(
+            "test.checkpoint");
+
     @Test
     public void testNeedArguments() {
         TableMigratorBuilder builder = new TableMigratorBuilder();
@@ -64,6 +72,103 @@ public class TableMigratorTest extends AtlasDbTestCase {
         }
     }
 
+    @Test
+    public void freshMigrationIsDividedAtSplitPoints() {
+        AbstractTaskCheckpointer checkpointer = createCheckpointer();
+
+        List<String> rangeEnds = migrateAndGetRangeEnds(checkpointer, splitsAt("m"));
+
+        Assert.assertTrue(rangeEnds.contains(PtBytes.encodeHexString(PtBytes.toBytes("m"))));
+    }
+
+    @Test
+    public void resumedMigrationIgnoresSplitPointsItWasNotStartedWith() {
+        AbstractTaskCheckpointer checkpointer = createCheckpointer();
+
+        List<String> firstRunEnds = migrateAndGetRangeEnds(checkpointer, ImmutableList.of());
+        List<String> resumedRunEnds = migrateAndGetRangeEnds(checkpointer, splitsAt("m"));
+
+        Assert.assertEquals(firstRunEnds, resumedRunEnds);
+    }
+
+    @Test
+    public void resumedMigrationKeepsTheSplitPointsItWasStartedWith() {
+        AbstractTaskCheckpointer checkpointer = createCheckpointer();
+
+        List<String> firstRunEnds = migrateAndGetRangeEnds(checkpointer, splitsAt("m"));
+        List<String> resumedRunEnds = migrateAndGetRangeEnds(checkpointer, splitsAt("q"));
+
+        Assert.assertEquals(firstRunEnds, resumedRunEnds);
+    }
+
+    @Test
+    public void migrationIgnoresSplitPointsIfTheCheckpointerCannotTellWhetherItWasResumed() {
+        AbstractTaskCheckpointer delegate = createCheckpointer();
+        AbstractTaskCheckpointer checkpointer = new AbstractTaskCheckpointer(txManager) {
+            @Override
+            public void checkpoint(String extraId, long rangeId, byte[] nextRowName, Transaction tx) {
+                delegate.checkpoint(extraId, rangeId, nextRowName, tx);
+            }
+
+            @Override
+            public byte[] getCheckpoint(String extraId, long rangeId, Transaction tx) {
+                return delegate.getCheckpoint(extraId, rangeId, tx);
+            }
+
+            @Override
+            public void createCheckpoints(String extraId, Map<Long, byte[]> startById) {
+                delegate.createCheckpoints(extraId, startById);
+            }
+
+            @Override
+            public void deleteCheckpoints() {
+                delegate.deleteCheckpoints();
+            }
+        };
+
+        List<String> rangeEnds = migrateAndGetRangeEnds(checkpointer, splitsAt("m"));
+
+        Assert.assertFalse(rangeEnds.contains(PtBytes.encodeHexString(PtBytes.toBytes("m"))));
+    }
+
+    private AbstractTaskCheckpointer createCheckpointer() {
+        return new GeneralTaskCheckpointer(CHECKPOINT_TABLE, keyValueService, txManager);
+    }
+
+    private static List<RangeRequest> splitsAt(String splitPoint) {
+        byte[] splitRow = PtBytes.toBytes(splitPoint);
+        return ImmutableList.of(
+                RangeRequest.builder().endRowExclusive(splitRow).build(),
+                RangeRequest.builder().startRowInclusive(splitRow).build());
+    }
+
+    private static List<String> migrateAndGetRangeEnds(
+            AbstractTaskCheckpointer checkpointer,
+            List<RangeRequest> rangeSplits) {
+        List<String> rangeEnds = new ArrayList<>();
+        RangeMigrator rangeMigrator = new RangeMigrator() {
+            @Override
+            public void logStatus(int numRangeBoundaries) {
+                // nothing to report
+            }
+
+            @Override
+            public void migrateRange(RangeRequest range, long rangeId) {
+                rangeEnds.add(PtBytes.encodeHexString(range.getEndExclusive()));
+            }
+        };
+        new TableMigratorBuilder()
+                .srcTable(SPLIT_TABLE)
+                .partitions(1)
+                .executor(MoreExecutors.newDirectExecutorService())
+                .checkpointer(checkpointer)
+                .rangeMigrator(rangeMigrator)
+                .rangeSplits(rangeSplits)
+                .build()
+                .migrate();
+        return rangeEnds;
+    }
+
     @SuppressWarnings({"checkstyle:Indentation", "checkstyle:RightCurly"}) // Table/IndexDefinition syntax
     @Test
     public void testMigrationToDifferentKvs() throws TableMappingNotFoundException {
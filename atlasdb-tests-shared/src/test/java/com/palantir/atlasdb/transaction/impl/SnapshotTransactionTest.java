@@ -60,6 +60,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.apache.commons.lang3.mutable.MutableInt;
 import org.apache.commons.lang3.mutable.MutableLong;
@@ -1024,11 +1025,11 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
             return null;
         });
 
-        verify(keyValueService, times(0)).delete(any(), any());
+        verify(keyValueService, times(0)).deleteAsync(any(), any());
 
         executor.runUntilIdle();
 
-        verify(keyValueService, times(1)).delete(any(), any());
+        verify(keyValueService, times(1)).deleteAsync(any(), any());
         TransactionOutcomeMetricsAssert.assertThat(transactionOutcomeMetrics)
                 .hasSuccessfulCommits(1)
                 .hasFailedCommits(1);
@@ -1464,6 +1465,27 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
                 .withMessageContaining("Tried to read a value that has been deleted.");
     }
 
+    @Test
+    public void largeGetsArePostFilteredInConcurrentBatches() {
+        setTransactionConfig(ImmutableTransactionConfig.builder()
+                .postFilterConcurrency(4)
+                .build());
+        ImmutableMap<Cell, byte[]> initialValues = IntStream.range(0, 2500)
+                .boxed()
+                .collect(ImmutableMap.toImmutableMap(
+                        i -> Cell.create(PtBytes.toBytes("row" + i), PtBytes.toBytes("column1")),
+                        i -> PtBytes.toBytes("initial" + i)));
+        writeCells(TABLE, initialValues);
+
+        Transaction reader = txManager.createNewTransaction();
+        reader.getTimestamp();
+        writeCells(TABLE, ImmutableMap.copyOf(Maps.transformValues(initialValues, value -> PtBytes.toBytes("new"))));
+
+        Map<Cell, byte[]> values = reader.get(TABLE, initialValues.keySet());
+        assertThat(Maps.transformValues(values, PtBytes::toString),
+                is(Maps.transformValues(initialValues, PtBytes::toString)));
+    }
+
     @Test
     public void testIgnoresOrphanedSweepSentinel() {
         Cell cell = Cell.create(PtBytes.toBytes("row1"), PtBytes.toBytes("column1"));
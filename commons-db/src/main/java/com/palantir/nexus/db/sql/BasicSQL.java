@@ -399,7 +399,7 @@ public abstract class BasicSQL {
 
     private <T> T runCancellably(final PreparedStatement ps, ResultSetVisitor<T> visitor, final FinalSQLString sql,
             AutoClose autoClose, @Nullable Integer fetchSize) throws PalantirInterruptedException, PalantirSqlException {
-        if (isSqlCancellationDisabled()) {
+        if (isSqlCancellationDisabled() || BasicSQLUtils.isRunningOnCallingThread()) {
             return runUninterruptablyInternal(ps, visitor, sql, autoClose, fetchSize);
         } else {
             return runCancellablyInternal(ps, visitor, sql, autoClose, fetchSize);
@@ -25,6 +25,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
 
@@ -251,6 +252,29 @@ public class BasicSQLUtils {
 
     private static final Logger cancelLogger = LoggerFactory.getLogger("SQLUtils.cancel"); //$NON-NLS-1$
 
+    private static final ThreadLocal<Boolean> runningOnCallingThread = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Runs the given task such that the statements it issues are run on the calling thread, rather than handed off to
+     * the select and execute statement executors. This saves a thread handoff per statement for callers that already
+     * run on a dedicated pool, at the cost of those statements no longer being cancelled by interrupting the caller.
+     */
+    public static <T> T runOnCallingThread(Supplier<T> task) {
+        if (runningOnCallingThread.get()) {
+            return task.get();
+        }
+        runningOnCallingThread.set(true);
+        try {
+            return task.get();
+        } finally {
+            runningOnCallingThread.set(false);
+        }
+    }
+
+    static boolean isRunningOnCallingThread() {
+        return runningOnCallingThread.get();
+    }
+
     /** Helper method for wrapping quick calls that don't appreciate being interrupted.
      * Passes all exceptions and errors back to the client.
      * Runs in another thread - do not acquire connections from within the callable (it will fail).
@@ -279,6 +303,14 @@ public class BasicSQLUtils {
             final Callable<T> callable,
             String threadString,
             final @Nullable Connection connection) throws PalantirSqlException {
+        if (isRunningOnCallingThread()) {
+            long startTime = System.currentTimeMillis();
+            try {
+                return callable.call();
+            } catch (Exception e) {
+                throw BasicSQL.handleInterruptions(startTime, new ExecutionException(e));
+            }
+        }
         Future<T> future = executorService.submit(ThreadNamingCallable.wrapWithThreadName(
                 ThreadConfinedProxy.threadLendingCallable(connection,
                         () -> {
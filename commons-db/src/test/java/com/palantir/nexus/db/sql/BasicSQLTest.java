@@ -19,6 +19,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.sql.Connection;
@@ -65,6 +66,22 @@ public class BasicSQLTest {
         verify(executeExecutorTwo, times(2)).submit(any(Callable.class));
     }
 
+    @Test
+    public void statementsRunOnCallingThreadAreNotHandedToExecutors() throws SQLException {
+        ExecutorService selectExecutor = mock(ExecutorService.class);
+        ExecutorService executeExecutor = mock(ExecutorService.class);
+        BasicSQL basicSql = createBasicSQL(selectExecutor, executeExecutor);
+        Connection conn = createMockConnection();
+
+        BasicSQLUtils.runOnCallingThread(() -> basicSql.execute(
+                conn,
+                SQLString.getUnregisteredQuery("SELECT 1 FROM a.b;"),
+                new Object[0],
+                BasicSQL.AutoClose.FALSE));
+
+        verifyNoInteractions(selectExecutor, executeExecutor);
+    }
+
     private void executeSqlQuery(BasicSQL basicSql) throws SQLException {
         Connection conn = createMockConnection();
         basicSql.execute(
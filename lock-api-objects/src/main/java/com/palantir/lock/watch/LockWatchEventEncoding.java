@@ -0,0 +1,322 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.lock.watch;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import com.palantir.lock.ByteArrayLockDescriptor;
+import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.watch.LockWatchReferences.LockWatchReference;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.exceptions.SafeIllegalArgumentException;
+
+/**
+ * Compact binary encoding of lock watch events, used to ship {@link LockWatchStateUpdate.Success} updates to clients
+ * that ask for it.
+ *
+ * Sequences are encoded as variable length deltas from the previous event. The lock descriptors of each event are
+ * sorted, which groups the descriptors of each table together, and each descriptor is encoded as the length of the
+ * prefix it shares with the previous descriptor followed by the remaining bytes. As atlas lock descriptors start with
+ * the table name, and rows of the same table often share a prefix, this removes most of the redundancy of the JSON
+ * encoding of events.
+ */
+public final class LockWatchEventEncoding {
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte LOCK = 0;
+    private static final byte UNLOCK = 1;
+    private static final byte CREATED = 2;
+
+    private static final byte ENTIRE_TABLE = 0;
+    private static final byte ROW_PREFIX = 1;
+    private static final byte ROW_RANGE = 2;
+    private static final byte EXACT_ROW = 3;
+    private static final byte EXACT_CELL = 4;
+
+    private LockWatchEventEncoding() {
+        // no
+    }
+
+    /**
+     * Returns the update to send to a client that accepts compact updates: successful updates are replaced by their
+     * {@link LockWatchStateUpdate.CompactSuccess} form, while other updates are returned as they are.
+     */
+    public static LockWatchStateUpdate compact(LockWatchStateUpdate update) {
+        return update.accept(new LockWatchStateUpdate.Visitor<LockWatchStateUpdate>() {
+            @Override
+            public LockWatchStateUpdate visit(LockWatchStateUpdate.Failed failed) {
+                return failed;
+            }
+
+            @Override
+            public LockWatchStateUpdate visit(LockWatchStateUpdate.Success success) {
+                return LockWatchStateUpdate.compactSuccess(
+                        success.logId(), success.lastKnownVersion(), encode(success.events()));
+            }
+
+            @Override
+            public LockWatchStateUpdate visit(LockWatchStateUpdate.Snapshot snapshot) {
+                return snapshot;
+            }
+        });
+    }
+
+    public static byte[] encode(List<LockWatchEvent> events) {
+        ByteArrayDataOutput output = ByteStreams.newDataOutput();
+        output.writeByte(FORMAT_VERSION);
+        writeVarLong(output, events.size());
+        EventWriter eventWriter = new EventWriter(output);
+        long previousSequence = 0;
+        for (LockWatchEvent event : events) {
+            writeVarLong(output, zigZag(event.sequence() - previousSequence));
+            previousSequence = event.sequence();
+            event.accept(eventWriter);
+        }
+        return output.toByteArray();
+    }
+
+    public static List<LockWatchEvent> decode(byte[] encoded) {
+        ByteArrayDataInput input = ByteStreams.newDataInput(encoded);
+        byte formatVersion = input.readByte();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new SafeIllegalArgumentException("Unknown lock watch event encoding",
+                    SafeArg.of("formatVersion", formatVersion));
+        }
+        int numEvents = Math.toIntExact(readVarLong(input));
+        List<LockWatchEvent> events = new ArrayList<>(numEvents);
+        long sequence = 0;
+        for (int i = 0; i < numEvents; i++) {
+            sequence += unZigZag(readVarLong(input));
+            events.add(readEvent(input).build(sequence));
+        }
+        return events;
+    }
+
+    private static LockWatchEvent.Builder readEvent(ByteArrayDataInput input) {
+        byte type = input.readByte();
+        switch (type) {
+            case LOCK:
+                LockToken lockToken = LockToken.of(new UUID(input.readLong(), input.readLong()));
+                return LockEvent.builder(readDescriptors(input), lockToken);
+            case UNLOCK:
+                return UnlockEvent.builder(readDescriptors(input));
+            case CREATED:
+                int numReferences = Math.toIntExact(readVarLong(input));
+                Set<LockWatchReference> references = new LinkedHashSet<>(numReferences);
+                for (int i = 0; i < numReferences; i++) {
+                    references.add(readReference(input));
+                }
+                return LockWatchCreatedEvent.builder(references, readDescriptors(input));
+            default:
+                throw new SafeIllegalArgumentException("Unknown lock watch event type", SafeArg.of("type", type));
+        }
+    }
+
+    private static void writeDescriptors(ByteArrayDataOutput output, Set<LockDescriptor> descriptors) {
+        List<LockDescriptor> sorted = new ArrayList<>(descriptors);
+        Collections.sort(sorted);
+        writeVarLong(output, sorted.size());
+        byte[] previous = new byte[0];
+        for (LockDescriptor descriptor : sorted) {
+            byte[] current = descriptor.getBytes();
+            int sharedPrefix = sharedPrefixLength(previous, current);
+            writeVarLong(output, sharedPrefix);
+            writeVarLong(output, current.length - sharedPrefix);
+            output.write(current, sharedPrefix, current.length - sharedPrefix);
+            previous = current;
+        }
+    }
+
+    private static Set<LockDescriptor> readDescriptors(ByteArrayDataInput input) {
+        int numDescriptors = Math.toIntExact(readVarLong(input));
+        Set<LockDescriptor> descriptors = new LinkedHashSet<>(numDescriptors);
+        byte[] previous = new byte[0];
+        for (int i = 0; i < numDescriptors; i++) {
+            int sharedPrefix = Math.toIntExact(readVarLong(input));
+            int suffixLength = Math.toIntExact(readVarLong(input));
+            byte[] current = new byte[sharedPrefix + suffixLength];
+            System.arraycopy(previous, 0, current, 0, sharedPrefix);
+            input.readFully(current, sharedPrefix, suffixLength);
+            descriptors.add(ByteArrayLockDescriptor.of(current));
+            previous = current;
+        }
+        return descriptors;
+    }
+
+    private static LockWatchReference readReference(ByteArrayDataInput input) {
+        byte type = input.readByte();
+        String tableRef = new String(readBytes(input), StandardCharsets.UTF_8);
+        switch (type) {
+            case ENTIRE_TABLE:
+                return LockWatchReferences.entireTable(tableRef);
+            case ROW_PREFIX:
+                return LockWatchReferences.rowPrefix(tableRef, readBytes(input));
+            case ROW_RANGE:
+                return LockWatchReferences.rowRange(tableRef, readBytes(input), readBytes(input));
+            case EXACT_ROW:
+                return LockWatchReferences.exactRow(tableRef, readBytes(input));
+            case EXACT_CELL:
+                return LockWatchReferences.exactCell(tableRef, readBytes(input), readBytes(input));
+            default:
+                throw new SafeIllegalArgumentException("Unknown lock watch reference type", SafeArg.of("type", type));
+        }
+    }
+
+    private static int sharedPrefixLength(byte[] first, byte[] second) {
+        int maxLength = Math.min(first.length, second.length);
+        for (int i = 0; i < maxLength; i++) {
+            if (first[i] != second[i]) {
+                return i;
+            }
+        }
+        return maxLength;
+    }
+
+    private static void writeBytes(ByteArrayDataOutput output, byte[] bytes) {
+        writeVarLong(output, bytes.length);
+        output.write(bytes);
+    }
+
+    private static byte[] readBytes(ByteArrayDataInput input) {
+        byte[] bytes = new byte[Math.toIntExact(readVarLong(input))];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    private static void writeVarLong(ByteArrayDataOutput output, long value) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            output.writeByte((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        output.writeByte((int) remaining);
+    }
+
+    private static long readVarLong(ByteArrayDataInput input) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte next = input.readByte();
+            value |= (long) (next & 0x7F) << shift;
+            if ((next & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SafeIllegalArgumentException("Malformed variable length integer");
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class EventWriter implements LockWatchEvent.Visitor<Void> {
+        private final ByteArrayDataOutput output;
+
+        private EventWriter(ByteArrayDataOutput output) {
+            this.output = output;
+        }
+
+        @Override
+        public Void visit(LockEvent lockEvent) {
+            output.writeByte(LOCK);
+            UUID requestId = lockEvent.lockToken().getRequestId();
+            output.writeLong(requestId.getMostSignificantBits());
+            output.writeLong(requestId.getLeastSignificantBits());
+            writeDescriptors(output, lockEvent.lockDescriptors());
+            return null;
+        }
+
+        @Override
+        public Void visit(UnlockEvent unlockEvent) {
+            output.writeByte(UNLOCK);
+            writeDescriptors(output, unlockEvent.lockDescriptors());
+            return null;
+        }
+
+        @Override
+        public Void visit(LockWatchCreatedEvent lockWatchCreatedEvent) {
+            output.writeByte(CREATED);
+            writeVarLong(output, lockWatchCreatedEvent.references().size());
+            ReferenceWriter referenceWriter = new ReferenceWriter(output);
+            lockWatchCreatedEvent.references().forEach(reference -> reference.accept(referenceWriter));
+            writeDescriptors(output, lockWatchCreatedEvent.lockDescriptors());
+            return null;
+        }
+    }
+
+    private static final class ReferenceWriter implements LockWatchReferences.Visitor<Void> {
+        private final ByteArrayDataOutput output;
+
+        private ReferenceWriter(ByteArrayDataOutput output) {
+            this.output = output;
+        }
+
+        @Override
+        public Void visit(LockWatchReferences.EntireTable reference) {
+            writeHeader(ENTIRE_TABLE, reference.qualifiedTableRef());
+            return null;
+        }
+
+        @Override
+        public Void visit(LockWatchReferences.RowPrefix reference) {
+            writeHeader(ROW_PREFIX, reference.qualifiedTableRef());
+            writeBytes(output, reference.row());
+            return null;
+        }
+
+        @Override
+        public Void visit(LockWatchReferences.RowRange reference) {
+            writeHeader(ROW_RANGE, reference.qualifiedTableRef());
+            writeBytes(output, reference.startInclusive());
+            writeBytes(output, reference.endExclusive());
+            return null;
+        }
+
+        @Override
+        public Void visit(LockWatchReferences.ExactRow reference) {
+            writeHeader(EXACT_ROW, reference.qualifiedTableRef());
+            writeBytes(output, reference.row());
+            return null;
+        }
+
+        @Override
+        public Void visit(LockWatchReferences.ExactCell reference) {
+            writeHeader(EXACT_CELL, reference.qualifiedTableRef());
+            writeBytes(output, reference.row());
+            writeBytes(output, reference.col());
+            return null;
+        }
+
+        private void writeHeader(byte type, String tableRef) {
+            output.writeByte(type);
+            writeBytes(output, tableRef.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
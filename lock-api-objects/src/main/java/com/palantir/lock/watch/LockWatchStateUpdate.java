@@ -22,6 +22,7 @@ import java.util.UUID;
 
 import org.immutables.value.Value;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.JsonTypeName;
@@ -34,6 +35,9 @@ import com.palantir.lock.watch.LockWatchReferences.LockWatchReference;
 @JsonSubTypes({
         @JsonSubTypes.Type(value = LockWatchStateUpdate.Failed.class, name = LockWatchStateUpdate.Failed.TYPE),
         @JsonSubTypes.Type(value = LockWatchStateUpdate.Success.class, name = LockWatchStateUpdate.Success.TYPE),
+        @JsonSubTypes.Type(
+                value = LockWatchStateUpdate.CompactSuccess.class,
+                name = LockWatchStateUpdate.CompactSuccess.TYPE),
         @JsonSubTypes.Type(value = LockWatchStateUpdate.Snapshot.class, name = LockWatchStateUpdate.Snapshot.TYPE)})
 public interface LockWatchStateUpdate {
     UUID logId();
@@ -47,6 +51,14 @@ public interface LockWatchStateUpdate {
         return ImmutableSuccess.builder().logId(logId).lastKnownVersion(version).events(events).build();
     }
 
+    static CompactSuccess compactSuccess(UUID logId, long version, byte[] encodedEvents) {
+        return ImmutableCompactSuccess.builder()
+                .logId(logId)
+                .lastKnownVersion(version)
+                .encodedEvents(encodedEvents)
+                .build();
+    }
+
     static Snapshot snapshot(UUID logId, long version, Set<LockDescriptor> locked,
             Set<LockWatchReference> lockWatches) {
         return ImmutableSnapshot.builder()
@@ -95,6 +107,32 @@ public interface LockWatchStateUpdate {
         }
     }
 
+    /**
+     * The wire form of a successful update for clients that accept compact updates, with the events encoded by
+     * {@link LockWatchEventEncoding}. Visitors are given the decoded successful update.
+     */
+    @Value.Immutable
+    @Value.Style(visibility = Value.Style.ImplementationVisibility.PACKAGE)
+    @JsonSerialize(as = ImmutableCompactSuccess.class)
+    @JsonDeserialize(as = ImmutableCompactSuccess.class)
+    @JsonTypeName(CompactSuccess.TYPE)
+    interface CompactSuccess extends LockWatchStateUpdate {
+        String TYPE = "compactSuccess";
+        long lastKnownVersion();
+        byte[] encodedEvents();
+
+        @JsonIgnore
+        @Value.Lazy
+        default Success decoded() {
+            return success(logId(), lastKnownVersion(), LockWatchEventEncoding.decode(encodedEvents()));
+        }
+
+        @Override
+        default <T> T accept(Visitor<T> visitor) {
+            return visitor.visit(decoded());
+        }
+    }
+
     /**
      * A snapshot update is generally returned when it was impossible to return a successful update. This can happen
      * if we fall behind, or we just started so we don't have a last known version. It generally
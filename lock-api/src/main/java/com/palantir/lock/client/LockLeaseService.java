@@ -46,19 +46,30 @@ class LockLeaseService {
     private final UUID clientId;
     private final CoalescingSupplier<LeaderTime> time;
     private final BlockEnforcingLockService lockService;
+    private final Optional<Boolean> acceptsCompactLockWatchEvents;
 
     @VisibleForTesting
     LockLeaseService(
             NamespacedConjureTimelockService delegate,
-            UUID clientId) {
+            UUID clientId,
+            boolean acceptsCompactLockWatchEvents) {
         this.delegate = delegate;
         this.clientId = clientId;
         this.time = new CoalescingSupplier<>(delegate::leaderTime);
         this.lockService = BlockEnforcingLockService.create(delegate);
+        // left absent rather than false, so that requests stay readable by servers that predate the field
+        this.acceptsCompactLockWatchEvents = acceptsCompactLockWatchEvents ? Optional.of(true) : Optional.empty();
     }
 
-    static LockLeaseService create(NamespacedConjureTimelockService conjureTimelock) {
-        return new LockLeaseService(conjureTimelock, UUID.randomUUID());
+    /**
+     * @param acceptsCompactLockWatchEvents whether to ask for compactly encoded lock watch events. TimeLock servers
+     * that predate the compact encoding reject requests that ask for it, so this must stay off until all TimeLock
+     * nodes have been upgraded.
+     */
+    static LockLeaseService create(
+            NamespacedConjureTimelockService conjureTimelock,
+            boolean acceptsCompactLockWatchEvents) {
+        return new LockLeaseService(conjureTimelock, UUID.randomUUID(), acceptsCompactLockWatchEvents);
     }
 
     LockImmutableTimestampResponse lockImmutableTimestamp() {
@@ -95,6 +106,7 @@ class LockLeaseService {
                 .requestId(UUID.randomUUID())
                 .numTransactions(batchSize)
                 .lastKnownVersion(version)
+                .acceptsCompactLockWatchEvents(acceptsCompactLockWatchEvents)
                 .build();
         ConjureStartTransactionsResponse response = delegate.startTransactions(request);
         Lease lease = response.getLease();
@@ -43,9 +43,10 @@ public final class RemoteTimelockServiceAdapter implements TimelockService, Auto
 
     private RemoteTimelockServiceAdapter(NamespacedTimelockRpcClient rpcClient,
             NamespacedConjureTimelockService conjureTimelockService,
-            LockWatchEventCache lockWatchEventCache) {
+            LockWatchEventCache lockWatchEventCache,
+            boolean acceptsCompactLockWatchEvents) {
         this.rpcClient = rpcClient;
-        this.lockLeaseService = LockLeaseService.create(conjureTimelockService);
+        this.lockLeaseService = LockLeaseService.create(conjureTimelockService, acceptsCompactLockWatchEvents);
         this.transactionStarter = TransactionStarter.create(lockLeaseService, lockWatchEventCache);
         this.conjureTimelockService = conjureTimelockService;
     }
@@ -54,7 +55,16 @@ public final class RemoteTimelockServiceAdapter implements TimelockService, Auto
             NamespacedTimelockRpcClient rpcClient,
             NamespacedConjureTimelockService conjureClient,
             LockWatchEventCache lockWatchEventCache) {
-        return new RemoteTimelockServiceAdapter(rpcClient, conjureClient, lockWatchEventCache);
+        return create(rpcClient, conjureClient, lockWatchEventCache, false);
+    }
+
+    public static RemoteTimelockServiceAdapter create(
+            NamespacedTimelockRpcClient rpcClient,
+            NamespacedConjureTimelockService conjureClient,
+            LockWatchEventCache lockWatchEventCache,
+            boolean acceptsCompactLockWatchEvents) {
+        return new RemoteTimelockServiceAdapter(
+                rpcClient, conjureClient, lockWatchEventCache, acceptsCompactLockWatchEvents);
     }
 
     public static RemoteTimelockServiceAdapter create(
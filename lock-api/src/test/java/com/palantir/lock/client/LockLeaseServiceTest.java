@@ -23,6 +23,8 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
@@ -31,21 +33,26 @@ import java.util.function.Supplier;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableSet;
 import com.palantir.atlasdb.timelock.api.ConjureLockResponse;
 import com.palantir.atlasdb.timelock.api.ConjureLockToken;
 import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksRequest;
 import com.palantir.atlasdb.timelock.api.ConjureRefreshLocksResponse;
+import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsRequest;
 import com.palantir.atlasdb.timelock.api.ConjureStartTransactionsResponse;
 import com.palantir.atlasdb.timelock.api.ConjureUnlockRequest;
 import com.palantir.atlasdb.timelock.api.ConjureUnlockResponse;
 import com.palantir.atlasdb.timelock.api.SuccessfulLockResponse;
 import com.palantir.atlasdb.timelock.api.UnsuccessfulLockResponse;
 import com.palantir.common.time.NanoTime;
+import com.palantir.conjure.java.serialization.ObjectMappers;
 import com.palantir.lock.v2.LeaderTime;
 import com.palantir.lock.v2.LeadershipId;
 import com.palantir.lock.v2.Lease;
@@ -69,6 +76,10 @@ public class LockLeaseServiceTest {
 
     private static final ConjureLockToken LOCK_TOKEN = ConjureLockToken.of(UUID.randomUUID());
 
+    private static final ObjectMapper CLIENT_MAPPER = ObjectMappers.newClientObjectMapper();
+    private static final Set<String> START_TRANSACTIONS_REQUEST_FIELDS_BEFORE_COMPACT_EVENTS =
+            ImmutableSet.of("requestId", "requestorId", "numTransactions", "lastKnownVersion");
+
     private LockLeaseService lockLeaseService;
     private AtomicLong currentTime = new AtomicLong(123);
     private Supplier<NanoTime> time = Suppliers.compose(NanoTime::createForTests, currentTime::incrementAndGet);
@@ -81,7 +92,7 @@ public class LockLeaseServiceTest {
             ConjureUnlockRequest request = inv.getArgument(0);
             return ConjureUnlockResponse.of(request.getTokens());
         });
-        lockLeaseService = new LockLeaseService(timelock, SERVICE_ID);
+        lockLeaseService = new LockLeaseService(timelock, SERVICE_ID, false);
     }
 
     @Test
@@ -121,6 +132,23 @@ public class LockLeaseServiceTest {
         assertThat(leasedLock.getLease()).isEqualTo(lease);
     }
 
+    @Test
+    public void startTransactionsWithWatchesDoesNotAskForCompactEventsByDefault() throws Exception {
+        ConjureStartTransactionsRequest request = startTransactionsWithWatches(lockLeaseService);
+
+        assertThat(request.getAcceptsCompactLockWatchEvents()).isEmpty();
+        assertThat(serializedFields(request)).isSubsetOf(START_TRANSACTIONS_REQUEST_FIELDS_BEFORE_COMPACT_EVENTS);
+    }
+
+    @Test
+    public void startTransactionsWithWatchesAsksForCompactEventsIfEnabled() throws Exception {
+        ConjureStartTransactionsRequest request =
+                startTransactionsWithWatches(new LockLeaseService(timelock, SERVICE_ID, true));
+
+        assertThat(request.getAcceptsCompactLockWatchEvents()).contains(true);
+        assertThat(serializedFields(request)).contains("acceptsCompactLockWatchEvents");
+    }
+
     @Test
     public void returnedTokenShouldHaveCorrectServerToken() {
         when(timelock.lock(any())).thenReturn(
@@ -196,6 +224,23 @@ public class LockLeaseServiceTest {
         assertThat(refreshedLeasedLockToken).isEqualTo(leasedLockToken);
     }
 
+    private ConjureStartTransactionsRequest startTransactionsWithWatches(LockLeaseService service) {
+        when(timelock.startTransactions(any())).thenReturn(startTransactionsResponseWith(LOCK_TOKEN, getLease()));
+        service.startTransactionsWithWatches(Optional.of(5L), 2);
+
+        ArgumentCaptor<ConjureStartTransactionsRequest> captor =
+                ArgumentCaptor.forClass(ConjureStartTransactionsRequest.class);
+        verify(timelock).startTransactions(captor.capture());
+        return captor.getValue();
+    }
+
+    // TimeLock servers reject requests with fields they do not know about
+    private static Set<String> serializedFields(ConjureStartTransactionsRequest request) throws Exception {
+        Map<String, Object> fields = CLIENT_MAPPER.readValue(
+                CLIENT_MAPPER.writeValueAsString(request), new TypeReference<Map<String, Object>>() {});
+        return fields.keySet();
+    }
+
     private ConjureStartTransactionsResponse startTransactionsResponseWith(ConjureLockToken lockToken, Lease lease) {
         return ConjureStartTransactionsResponse.builder()
                 .immutableTimestamp(LockImmutableTimestampResponse.of(1L,
@@ -0,0 +1,136 @@
+/*
+ * (c) Copyright 2020 Palantir Technologies Inc. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.lock.watch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Ints;
+import com.palantir.lock.AtlasCellLockDescriptor;
+import com.palantir.lock.AtlasRowLockDescriptor;
+import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.StringLockDescriptor;
+import com.palantir.lock.v2.LockToken;
+
+public class LockWatchEventEncodingTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String TABLE = "test.table";
+    private static final UUID LOG_ID = UUID.randomUUID();
+    private static final Set<LockDescriptor> DESCRIPTORS = ImmutableSet.of(
+            AtlasCellLockDescriptor.of(TABLE, bytes(1), bytes(2)),
+            AtlasCellLockDescriptor.of(TABLE, bytes(1), bytes(3)),
+            AtlasRowLockDescriptor.of("other.table", bytes(4)),
+            StringLockDescriptor.of("lock"));
+
+    private static final List<LockWatchEvent> EVENTS = ImmutableList.of(
+            LockWatchCreatedEvent.builder(
+                    ImmutableSet.of(
+                            LockWatchReferences.entireTable(TABLE),
+                            LockWatchReferences.rowPrefix(TABLE, bytes(1)),
+                            LockWatchReferences.rowRange(TABLE, bytes(1), bytes(2)),
+                            LockWatchReferences.exactRow(TABLE, bytes(3)),
+                            LockWatchReferences.exactCell(TABLE, bytes(3), bytes(4))),
+                    DESCRIPTORS).build(5),
+            LockEvent.builder(DESCRIPTORS, LockToken.of(UUID.randomUUID())).build(6),
+            UnlockEvent.builder(DESCRIPTORS).build(7),
+            UnlockEvent.builder(ImmutableSet.of()).build(1L << 40));
+
+    @Test
+    public void eventsSurviveRoundTrip() {
+        assertThat(LockWatchEventEncoding.decode(LockWatchEventEncoding.encode(EVENTS)))
+                .containsExactlyElementsOf(EVENTS);
+    }
+
+    @Test
+    public void emptyEventsSurviveRoundTrip() {
+        assertThat(LockWatchEventEncoding.decode(LockWatchEventEncoding.encode(ImmutableList.of()))).isEmpty();
+    }
+
+    @Test
+    public void compactSuccessIsVisitedAsSuccess() {
+        LockWatchStateUpdate.Success success = LockWatchStateUpdate.success(LOG_ID, 7L, EVENTS);
+        LockWatchStateUpdate compacted = LockWatchEventEncoding.compact(success);
+
+        assertThat(compacted).isInstanceOf(LockWatchStateUpdate.CompactSuccess.class);
+        assertThat(compacted.accept(UpdateToSuccess.INSTANCE)).isEqualTo(success);
+    }
+
+    @Test
+    public void otherUpdatesAreNotCompacted() {
+        LockWatchStateUpdate failed = LockWatchStateUpdate.failed(LOG_ID);
+        LockWatchStateUpdate snapshot = LockWatchStateUpdate.snapshot(LOG_ID, 1L, DESCRIPTORS, ImmutableSet.of());
+
+        assertThat(LockWatchEventEncoding.compact(failed)).isEqualTo(failed);
+        assertThat(LockWatchEventEncoding.compact(snapshot)).isEqualTo(snapshot);
+    }
+
+    @Test
+    public void compactSuccessSurvivesSerialization() throws JsonProcessingException {
+        LockWatchStateUpdate.Success success = LockWatchStateUpdate.success(LOG_ID, 7L, EVENTS);
+        String json = OBJECT_MAPPER.writeValueAsString(LockWatchEventEncoding.compact(success));
+
+        LockWatchStateUpdate deserialized = OBJECT_MAPPER.readValue(json, LockWatchStateUpdate.class);
+        assertThat(deserialized.accept(UpdateToSuccess.INSTANCE)).isEqualTo(success);
+    }
+
+    @Test
+    public void compactSuccessIsSmallerForManyDescriptorsOnOneTable() throws JsonProcessingException {
+        Set<LockDescriptor> descriptors = IntStream.range(0, 1000)
+                .mapToObj(i -> AtlasCellLockDescriptor.of(TABLE, Ints.toByteArray(i), bytes(0)))
+                .collect(Collectors.toSet());
+        LockWatchStateUpdate success = LockWatchStateUpdate.success(LOG_ID, 1L,
+                ImmutableList.of(UnlockEvent.builder(descriptors).build(1L)));
+
+        int fullSize = OBJECT_MAPPER.writeValueAsBytes(success).length;
+        int compactSize = OBJECT_MAPPER.writeValueAsBytes(LockWatchEventEncoding.compact(success)).length;
+        assertThat(compactSize).isLessThan(fullSize / 4);
+    }
+
+    private static byte[] bytes(int value) {
+        return new byte[] {(byte) value};
+    }
+
+    private enum UpdateToSuccess implements LockWatchStateUpdate.Visitor<LockWatchStateUpdate> {
+        INSTANCE;
+
+        @Override
+        public LockWatchStateUpdate visit(LockWatchStateUpdate.Failed failed) {
+            return failed;
+        }
+
+        @Override
+        public LockWatchStateUpdate visit(LockWatchStateUpdate.Success success) {
+            return success;
+        }
+
+        @Override
+        public LockWatchStateUpdate visit(LockWatchStateUpdate.Snapshot snapshot) {
+            return snapshot;
+        }
+    }
+}
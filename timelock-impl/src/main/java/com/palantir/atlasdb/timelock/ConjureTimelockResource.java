@@ -17,6 +17,7 @@
 package com.palantir.atlasdb.timelock;
 
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.Set;
 import java.util.function.Function;
@@ -63,6 +64,8 @@ import com.palantir.lock.v2.StartTransactionRequestV5;
 import com.palantir.lock.v2.StartTransactionResponseV5;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.lock.v2.WaitForLocksResponse;
+import com.palantir.lock.watch.LockWatchEventEncoding;
+import com.palantir.lock.watch.LockWatchStateUpdate;
 import com.palantir.timestamp.TimestampRange;
 import com.palantir.tokens.auth.AuthHeader;
 
@@ -108,7 +111,8 @@ public final class ConjureTimelockResource implements UndertowConjureTimelockSer
                             .immutableTimestamp(response.immutableTimestamp())
                             .timestamps(response.timestamps())
                             .lease(response.lease())
-                            .lockWatchUpdate(response.lockWatchUpdate())
+                            .lockWatchUpdate(encodeLockWatchUpdate(
+                                    response.lockWatchUpdate(), request.getAcceptsCompactLockWatchEvents()))
                             .build(),
                     MoreExecutors.directExecutor());
         });
@@ -216,9 +220,21 @@ public final class ConjureTimelockResource implements UndertowConjureTimelockSer
     @Override
     public ListenableFuture<GetCommitTimestampsResponse> getCommitTimestamps(
             AuthHeader authHeader, String namespace, GetCommitTimestampsRequest request) {
-        return handleExceptions(() -> forNamespace(namespace).getCommitTimestamps(
-                request.getNumTimestamps(),
-                request.getLastKnownVersion().map(OptionalLong::of).orElseGet(OptionalLong::empty)));
+        return handleExceptions(() -> Futures.transform(
+                forNamespace(namespace).getCommitTimestamps(
+                        request.getNumTimestamps(),
+                        request.getLastKnownVersion().map(OptionalLong::of).orElseGet(OptionalLong::empty)),
+                response -> GetCommitTimestampsResponse.builder()
+                        .from(response)
+                        .lockWatchUpdate(encodeLockWatchUpdate(
+                                response.getLockWatchUpdate(), request.getAcceptsCompactLockWatchEvents()))
+                        .build(),
+                MoreExecutors.directExecutor()));
+    }
+
+    private static LockWatchStateUpdate encodeLockWatchUpdate(
+            LockWatchStateUpdate update, Optional<Boolean> acceptsCompactEvents) {
+        return acceptsCompactEvents.orElse(false) ? LockWatchEventEncoding.compact(update) : update;
     }
 
     private AsyncTimelockService forNamespace(String namespace) {
@@ -19,6 +19,9 @@ package com.palantir.atlasdb.timelock.lock.watch;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.StampedLock;
 import java.util.function.Supplier;
 
 import javax.annotation.concurrent.ThreadSafe;
@@ -29,47 +32,88 @@ import com.palantir.atlasdb.timelock.lock.watch.LockEventLogImpl.LockWatchCreate
 import com.palantir.lock.watch.LockWatchCreatedEvent;
 import com.palantir.lock.watch.LockWatchEvent;
 
+/**
+ * Fixed size ring buffer of lock watch events. Producers reserve a sequence by incrementing a shared cursor, write the
+ * event into its slot, and then publish it. An event is published once every event with a lower sequence has been
+ * written, so {@link #lastVersion()} only ever advances over a contiguous prefix of the log. Concurrent producers
+ * therefore never block each other, other than briefly waiting for lower sequences that are still being written.
+ *
+ * Operations that need the version to be atomic with respect to other work exclude producers for their duration, but
+ * reading from the window never blocks.
+ */
 @ThreadSafe
 public class ArrayLockEventSlidingWindow {
-    private final LockWatchEvent[] buffer;
+    private final AtomicReferenceArray<LockWatchEvent> buffer;
     private final int maxSize;
-    private volatile long nextSequence = 0;
+    private final AtomicLong nextSequence = new AtomicLong(0);
+    private final AtomicLong lastPublished = new AtomicLong(-1);
+    private final StampedLock producerLock = new StampedLock();
 
     ArrayLockEventSlidingWindow(int maxSize) {
-        this.buffer = new LockWatchEvent[maxSize];
+        this.buffer = new AtomicReferenceArray<>(maxSize);
         this.maxSize = maxSize;
     }
 
     long lastVersion() {
-        return nextSequence - 1;
+        return lastPublished.get();
     }
 
     /**
-     * Adds an event to the sliding window. Assigns a unique sequence to the event.
+     * Adds an event to the sliding window. Assigns a unique sequence to the event, and returns once the event has been
+     * published.
      *
      * Note on concurrency:
-     * 1. Each write to buffer is followed by a write to nextSequence, which is volatile.
+     * 1. Each write to buffer is a volatile write, followed by an attempt to advance lastPublished over all written
+     *    events. A producer that fails to advance past a slot still being written leaves the advancing to the producer
+     *    of that slot, which is guaranteed to see the later write when it attempts to advance.
+     * 2. A slot is not overwritten until the event it holds has been published, so published events never need to be
+     *    skipped over.
      */
-    synchronized void add(LockWatchEvent.Builder eventBuilder) {
-        LockWatchEvent event = eventBuilder.build(nextSequence);
-        buffer[LongMath.mod(nextSequence, maxSize)] = event;
-        nextSequence++;
+    void add(LockWatchEvent.Builder eventBuilder) {
+        long stamp = producerLock.readLock();
+        try {
+            long sequence = nextSequence.getAndIncrement();
+            awaitPublished(sequence - maxSize);
+            buffer.set(LongMath.mod(sequence, maxSize), eventBuilder.build(sequence));
+            awaitPublished(sequence);
+        } finally {
+            producerLock.unlockRead(stamp);
+        }
     }
 
-    synchronized void finalizeAndAddSnapshot(long startVersion, LockWatchCreatedEventReplayer eventReplayer) {
-        Optional<List<LockWatchEvent>> remaining = getFromVersion(startVersion);
-        if (remaining.isPresent()) {
-            remaining.get().forEach(eventReplayer::replay);
-            add(LockWatchCreatedEvent.builder(eventReplayer.getReferences(), eventReplayer.getLockedDescriptors()));
+    /**
+     * Replays the events since startVersion and adds the resulting lock watch created event. Producers are excluded
+     * while this runs, so that no event can be logged between the replayed events and the created event; this only
+     * happens when new lock watches are registered.
+     */
+    void finalizeAndAddSnapshot(long startVersion, LockWatchCreatedEventReplayer eventReplayer) {
+        long stamp = producerLock.writeLock();
+        try {
+            Optional<List<LockWatchEvent>> remaining = getFromVersion(startVersion);
+            if (remaining.isPresent()) {
+                remaining.get().forEach(eventReplayer::replay);
+                long sequence = nextSequence.getAndIncrement();
+                buffer.set(LongMath.mod(sequence, maxSize), LockWatchCreatedEvent
+                        .builder(eventReplayer.getReferences(), eventReplayer.getLockedDescriptors())
+                        .build(sequence));
+                awaitPublished(sequence);
+            }
+        } finally {
+            producerLock.unlockWrite(stamp);
         }
     }
 
     /**
-     * Warning: this will block all lock and unlock requests until the task is done. Improper use of this method can
-     * result in a deadlock.
+     * Warning: this will block all lock and unlock requests until the task is done, as the returned version must not
+     * change while the task runs. Improper use of this method can result in a deadlock.
      */
-    synchronized <T> ValueAndVersion<T> runTaskAndAtomicallyReturnVersion(Supplier<T> task) {
-        return ValueAndVersion.of(lastVersion(), task.get());
+    <T> ValueAndVersion<T> runTaskAndAtomicallyReturnVersion(Supplier<T> task) {
+        long stamp = producerLock.writeLock();
+        try {
+            return ValueAndVersion.of(lastVersion(), task.get());
+        } finally {
+            producerLock.unlockWrite(stamp);
+        }
     }
 
     /**
@@ -79,10 +123,10 @@ public class ArrayLockEventSlidingWindow {
      * the method will return {@link Optional#empty()}.
      *
      * Note on concurrency:
-     * 2. Before reading from buffer, we read nextSequence.
+     * 3. Before reading from buffer, we read lastPublished.
      *
-     * 1. and 2. ensure that calls to this method have an up to date view of buffer, containing all updates made so
-     * far. The buffer may be updated after the volatile read of nextSequence, and these updates may or may not be
+     * 1. and 3. ensure that calls to this method have an up to date view of buffer, containing all published events.
+     * The buffer may be updated after the volatile read of lastPublished, and these updates may or may not be
      * visible. This does not affect correctness:
      *   a) the newer updates are not expected to be reflected in the returned list
      *   b) if (some of) the newer updates are visible and overwrite a value that should have been included in the
@@ -105,12 +149,34 @@ public class ArrayLockEventSlidingWindow {
         List<LockWatchEvent> events = new ArrayList<>(windowSize);
 
         for (int i = startIndex; events.size() < windowSize; i = incrementAndMod(i)) {
-            events.add(buffer[i]);
+            events.add(buffer.get(i));
         }
 
         return validateConsistencyOrReturnEmpty(startVersion, events);
     }
 
+    private void awaitPublished(long sequence) {
+        while (lastPublished.get() < sequence) {
+            advanceLastPublished();
+            if (lastPublished.get() < sequence) {
+                Thread.yield();
+            }
+        }
+    }
+
+    private void advanceLastPublished() {
+        long current = lastPublished.get();
+        while (isWritten(current + 1)) {
+            lastPublished.compareAndSet(current, current + 1);
+            current = lastPublished.get();
+        }
+    }
+
+    private boolean isWritten(long sequence) {
+        LockWatchEvent event = buffer.get(LongMath.mod(sequence, maxSize));
+        return event != null && event.sequence() == sequence;
+    }
+
     private int incrementAndMod(int num) {
         num++;
         return num >= maxSize ? num % maxSize : num;
@@ -136,8 +136,8 @@ public class LockEventLogImpl implements LockEventLog {
 
     /**
      * Similar to {@link this#attemptToCalculateSnapshot()}, we get an estimate of open locks for the new watches,
-     * then replay the recent events on top. Finally, we replay any additional events just before logging in a
-     * synchronised block in
+     * then replay the recent events on top. Finally, we replay any additional events just before logging, while
+     * excluding other producers in
      * {@link ArrayLockEventSlidingWindow#finalizeAndAddSnapshot(long, LockWatchCreatedEventReplayer)}, ensuring nothing
      * is missed at logging time.
      */
@@ -20,13 +20,20 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 
 import org.immutables.value.Value;
 import org.junit.Test;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.palantir.lock.watch.LockWatchEvent;
 
 public class ArrayLockEventSlidingWindowTest {
@@ -82,6 +89,51 @@ public class ArrayLockEventSlidingWindowTest {
         assertContainsEventsInOrderFromTo(10, 11, numEntries - 1);
     }
 
+    @Test
+    public void concurrentlyAddedEventsHaveConsecutiveSequences() {
+        int numThreads = 16;
+        int eventsPerThread = 1000;
+        ArrayLockEventSlidingWindow window = new ArrayLockEventSlidingWindow(numThreads * eventsPerThread);
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<?>> futures = IntStream.range(0, numThreads)
+                    .mapToObj(unused -> executor.submit(() -> {
+                        for (int i = 0; i < eventsPerThread; i++) {
+                            window.add(ArrayLockEventSlidingWindowTest::createEvent);
+                        }
+                    }))
+                    .collect(Collectors.toList());
+            futures.forEach(Futures::getUnchecked);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(window.lastVersion()).isEqualTo(numThreads * eventsPerThread - 1);
+        assertThat(window.getFromVersion(-1).get())
+                .extracting(LockWatchEvent::sequence)
+                .containsExactlyElementsOf(LongStream.range(0, numThreads * eventsPerThread)
+                        .boxed()
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void eventsAreNotAddedWhileTaskRuns() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            ValueAndVersion<Future<?>> result = slidingWindow.runTaskAndAtomicallyReturnVersion(() -> {
+                Future<?> concurrentAdd = executor.submit(this::addEvent);
+                Uninterruptibles.sleepUninterruptibly(100, TimeUnit.MILLISECONDS);
+                assertThat(slidingWindow.lastVersion()).isEqualTo(-1L);
+                return concurrentAdd;
+            });
+            Futures.getUnchecked(result.value());
+            assertThat(result.version()).isEqualTo(-1L);
+            assertThat(slidingWindow.lastVersion()).isEqualTo(0L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private void addEvent() {
         slidingWindow.add(ArrayLockEventSlidingWindowTest::createEvent);
     }